@@ -0,0 +1,39 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.model.analytics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Results of a batch of analytics queries, by query id.
+ *
+ * @author GraviteeSource Team
+ */
+public class BatchAnalytics {
+
+    private final Map<String, Analytics> results = new LinkedHashMap<>();
+
+    private final Map<String, String> errors = new LinkedHashMap<>();
+
+    public Map<String, Analytics> getResults() {
+        return results;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.model.analytics;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact representation of an {@link HistogramAnalytics}: the timestamps and the values of each series are
+ * primitive arrays of the same length, serialized as plain JSON arrays.
+ *
+ * @author GraviteeSource Team
+ */
+@JsonSerialize(using = ColumnarHistogramAnalyticsSerializer.class)
+public class ColumnarHistogramAnalytics implements Analytics {
+
+    private Timestamp timestamp;
+
+    private long[] timestamps;
+
+    private List<Series> series;
+
+    public Timestamp getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Timestamp timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public void setTimestamps(long[] timestamps) {
+        this.timestamps = timestamps;
+    }
+
+    public List<Series> getSeries() {
+        return series;
+    }
+
+    public void setSeries(List<Series> series) {
+        this.series = series;
+    }
+
+    public static class Series {
+
+        /**
+         * The name of the aggregation, ie. the name of the bucket of the series in an {@link HistogramAnalytics}.
+         */
+        private final String bucket;
+
+        private final String field;
+
+        private final String name;
+
+        private final long[] values;
+
+        private Map<String, String> metadata;
+
+        public Series(String bucket, String field, String name, long[] values) {
+            this.bucket = bucket;
+            this.field = field;
+            this.name = name;
+            this.values = values;
+        }
+
+        public String getBucket() {
+            return bucket;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long[] getValues() {
+            return values;
+        }
+
+        public Map<String, String> getMetadata() {
+            return metadata;
+        }
+
+        public void setMetadata(Map<String, String> metadata) {
+            this.metadata = metadata;
+        }
+    }
+}
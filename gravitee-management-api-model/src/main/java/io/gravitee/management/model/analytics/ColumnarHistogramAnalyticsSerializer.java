@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.model.analytics;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes the arrays of a {@link ColumnarHistogramAnalytics} straight from the primitive values, without boxing them
+ * nor introspecting a bean per bucket.
+ *
+ * @author GraviteeSource Team
+ */
+public class ColumnarHistogramAnalyticsSerializer extends JsonSerializer<ColumnarHistogramAnalytics> {
+
+    @Override
+    public void serialize(ColumnarHistogramAnalytics value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        final Timestamp timestamp = value.getTimestamp();
+        if (timestamp != null) {
+            gen.writeObjectFieldStart("timestamp");
+            gen.writeNumberField("from", timestamp.getFrom());
+            gen.writeNumberField("to", timestamp.getTo());
+            gen.writeNumberField("interval", timestamp.getInterval());
+            gen.writeEndObject();
+        }
+        if (value.getTimestamps() != null) {
+            gen.writeFieldName("timestamps");
+            gen.writeArray(value.getTimestamps(), 0, value.getTimestamps().length);
+        }
+        if (value.getSeries() != null) {
+            gen.writeArrayFieldStart("series");
+            for (ColumnarHistogramAnalytics.Series series : value.getSeries()) {
+                gen.writeStartObject();
+                gen.writeStringField("bucket", series.getBucket());
+                if (series.getField() != null) {
+                    gen.writeStringField("field", series.getField());
+                }
+                gen.writeStringField("name", series.getName());
+                gen.writeFieldName("values");
+                gen.writeArray(series.getValues(), 0, series.getValues().length);
+                if (series.getMetadata() != null) {
+                    gen.writeObjectFieldStart("metadata");
+                    for (Map.Entry<String, String> entry : series.getMetadata().entrySet()) {
+                        gen.writeStringField(entry.getKey(), entry.getValue());
+                    }
+                    gen.writeEndObject();
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+}
@@ -15,6 +15,9 @@
  */
 package io.gravitee.management.model.analytics.query;
 
+import java.util.Map;
+import java.util.Set;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
@@ -34,6 +37,12 @@ public abstract class AbstractQuery {
 
     private String rootIdentifier;
 
+    /**
+     * Values allowed for a field, in addition to the query. Used to restrict the analytics to the APIs or the
+     * applications a user has access to.
+     */
+    private Map<String, Set<String>> terms;
+
     public long getFrom() {
         return from;
     }
@@ -85,4 +94,12 @@ public abstract class AbstractQuery {
     public void setRootIdentifier(String rootIdentifier) {
         this.rootIdentifier = rootIdentifier;
     }
+
+    public Map<String, Set<String>> getTerms() {
+        return terms;
+    }
+
+    public void setTerms(Map<String, Set<String>> terms) {
+        this.terms = terms;
+    }
 }
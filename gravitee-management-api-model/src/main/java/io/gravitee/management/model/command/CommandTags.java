@@ -21,5 +21,7 @@ package io.gravitee.management.model.command;
  */
 
 public enum CommandTags {
-    DATA_TO_INDEX
+    DATA_TO_INDEX,
+    PARAMETERS_UPDATED,
+    NOTIFICATIONS_UPDATED
 }
@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+import io.gravitee.common.utils.UUID;
+import io.gravitee.node.api.Node;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.CommandRepository;
+import io.gravitee.repository.management.api.search.CommandCriteria;
+import io.gravitee.repository.management.model.Command;
+import io.gravitee.repository.management.model.MessageRecipient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts the invalidations of the in-memory caches of a management node to the other ones, through the command
+ * repository.
+ *
+ * Each cache registers a handler for its own command tag. A single thread polls the commands of all the registered
+ * tags and hands the content of the commands sent by the other nodes to the handler of their tag. The commands sent
+ * by the current node are only acknowledged, as their invalidation has already been applied locally.
+ *
+ * <pre>
+ * management:
+ *   cache:
+ *     invalidation:
+ *       interval: 5000 # milliseconds between two polls
+ *       ttl: 60        # seconds before an unacknowledged command expires
+ * </pre>
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class CacheInvalidationPoller implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidationPoller.class);
+
+    private static final String PROPERTY_PREFIX = "management.cache.invalidation.";
+    private static final long FAILURE_LOG_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private Node node;
+
+    @Lazy
+    @Autowired
+    private CommandRepository commandRepository;
+
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    private long lastFailureLog;
+
+    /**
+     * Hands the content of the commands tagged with the given tag and sent by the other nodes to the given handler,
+     * and starts polling if it was not yet.
+     */
+    public void register(String tag, Consumer<String> handler) {
+        handlers.put(tag, handler);
+        start();
+    }
+
+    /**
+     * Tells the other management nodes to apply the given invalidation.
+     */
+    public void publish(String tag, String content) {
+        long ttl = environment.getProperty(PROPERTY_PREFIX + "ttl", Long.class, 60L);
+
+        Command command = new Command();
+        command.setId(UUID.toString(java.util.UUID.randomUUID()));
+        command.setFrom(node.id());
+        command.setTo(MessageRecipient.MANAGEMENT_APIS.name());
+        command.setTags(Collections.singletonList(tag));
+        long now = System.currentTimeMillis();
+        command.setCreatedAt(new Date(now));
+        command.setUpdatedAt(command.getCreatedAt());
+        command.setExpiredAt(new Date(now + (ttl * 1000)));
+        command.setContent(content);
+
+        try {
+            commandRepository.create(command);
+        } catch (Exception ex) {
+            LOGGER.error("Unable to broadcast {} invalidation", tag, ex);
+        }
+    }
+
+    private synchronized void start() {
+        if (executor == null) {
+            long interval = environment.getProperty(PROPERTY_PREFIX + "interval", Long.class, 5000L);
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "gio-cache-invalidation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void poll() {
+        for (String tag : handlers.keySet()) {
+            try {
+                CommandCriteria criteria = new CommandCriteria.Builder()
+                        .to(MessageRecipient.MANAGEMENT_APIS.name())
+                        .tags(new String[]{tag})
+                        .notAckBy(node.id())
+                        .notDeleted()
+                        .build();
+
+                for (Command command : commandRepository.search(criteria)) {
+                    if (!node.id().equals(command.getFrom())) {
+                        dispatch(command);
+                    }
+                    ack(command);
+                }
+            } catch (Exception ex) {
+                logFailure(tag, ex);
+            }
+        }
+    }
+
+    /**
+     * Warns at most once a minute, as the caches of this node serve stale values as long as polling fails.
+     */
+    private void logFailure(String tag, Exception ex) {
+        long now = System.currentTimeMillis();
+        if (now - lastFailureLog >= FAILURE_LOG_INTERVAL) {
+            lastFailureLog = now;
+            LOGGER.warn("Unable to poll {} invalidations, caches may serve stale values until it succeeds", tag, ex);
+        } else {
+            LOGGER.debug("Unable to poll {} invalidations", tag, ex);
+        }
+    }
+
+    private void dispatch(Command command) {
+        if (command.getTags() != null) {
+            command.getTags().stream()
+                    .map(handlers::get)
+                    .filter(Objects::nonNull)
+                    .forEach(handler -> handler.accept(command.getContent()));
+        }
+    }
+
+    private void ack(Command command) throws TechnicalException {
+        List<String> acknowledgments = command.getAcknowledgments() == null ?
+                new ArrayList<>() : new ArrayList<>(command.getAcknowledgments());
+        acknowledgments.add(node.id());
+        command.setAcknowledgments(acknowledgments);
+        commandRepository.update(command);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
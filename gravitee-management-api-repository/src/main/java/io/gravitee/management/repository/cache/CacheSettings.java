@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+/**
+ * Settings of a repository cache, as read from the <code>management.cache</code> section of gravitee.yml.
+ *
+ * @author GraviteeSource Team
+ */
+public class CacheSettings {
+
+    private boolean enabled;
+
+    /**
+     * Time to live of an entry, in seconds. A value lower or equal to 0 means no expiration.
+     */
+    private long ttl;
+
+    private long maxEntries;
+
+    /**
+     * Maximum weight of the cache. Single entities weigh 1 and collections weigh their size.
+     * When set, it takes precedence over <code>maxEntries</code>.
+     */
+    private long maxWeight;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheSettings{" +
+                "enabled=" + enabled +
+                ", ttl=" + ttl +
+                ", maxEntries=" + maxEntries +
+                ", maxWeight=" + maxWeight +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+
+/**
+ * Copies the repository models handed out by a {@link RepositoryCache}, so that a caller modifying the model it has
+ * read (before an update, for instance) changes neither the cached value nor the models read by other callers.
+ *
+ * A model is copied through its properties. Its dates, collections and maps are copied too, but not the elements they
+ * contain.
+ *
+ * @author GraviteeSource Team
+ */
+final class ModelCopier {
+
+    private ModelCopier() {
+    }
+
+    static Object copy(Object value) {
+        if (value == null || isImmutable(value)) {
+            return value;
+        } else if (value instanceof Optional) {
+            return ((Optional<?>) value).map(ModelCopier::copy);
+        } else if (value instanceof SortedSet) {
+            @SuppressWarnings("unchecked")
+            final Set<Object> copy = new TreeSet<>((Comparator<Object>) ((SortedSet<?>) value).comparator());
+            ((Set<?>) value).forEach(element -> copy.add(copy(element)));
+            return copy;
+        } else if (value instanceof SortedMap) {
+            @SuppressWarnings("unchecked")
+            final Map<Object, Object> copy = new TreeMap<>((Comparator<Object>) ((SortedMap<?, ?>) value).comparator());
+            ((Map<?, ?>) value).forEach((k, v) -> copy.put(k, copy(v)));
+            return copy;
+        } else if (value instanceof Set) {
+            final Set<Object> copy = new LinkedHashSet<>();
+            ((Set<?>) value).forEach(element -> copy.add(copy(element)));
+            return copy;
+        } else if (value instanceof Collection) {
+            final List<Object> copy = new ArrayList<>(((Collection<?>) value).size());
+            ((Collection<?>) value).forEach(element -> copy.add(copy(element)));
+            return copy;
+        } else if (value instanceof Map) {
+            final Map<Object, Object> copy = new LinkedHashMap<>();
+            ((Map<?, ?>) value).forEach((k, v) -> copy.put(k, copy(v)));
+            return copy;
+        } else if (value instanceof Date) {
+            return new Date(((Date) value).getTime());
+        }
+        return copyModel(value);
+    }
+
+    private static Object copyModel(Object model) {
+        final Object copy = BeanUtils.instantiateClass(model.getClass());
+        for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(model.getClass())) {
+            if (property.getReadMethod() == null || property.getWriteMethod() == null) {
+                continue;
+            }
+            try {
+                final Object value = property.getReadMethod().invoke(model);
+                Object copiedValue = copyProperty(value);
+                if (copiedValue != null && !property.getPropertyType().isInstance(copiedValue)) {
+                    // a specific collection type is expected: share the value
+                    copiedValue = value;
+                }
+                property.getWriteMethod().invoke(copy, copiedValue);
+            } catch (IllegalAccessException | InvocationTargetException ex) {
+                throw new IllegalStateException("Unable to copy property " + property.getName() + " of " + model.getClass(), ex);
+            }
+        }
+        return copy;
+    }
+
+    private static Object copyProperty(Object value) {
+        if (value instanceof SortedSet) {
+            return new TreeSet<>((SortedSet<?>) value);
+        } else if (value instanceof SortedMap) {
+            return new TreeMap<>((SortedMap<?, ?>) value);
+        } else if (value instanceof Set) {
+            return new LinkedHashSet<>((Set<?>) value);
+        } else if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        } else if (value instanceof Map) {
+            return new LinkedHashMap<>((Map<?, ?>) value);
+        } else if (value instanceof Date) {
+            return new Date(((Date) value).getTime());
+        }
+        return value;
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum;
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.gravitee.repository.exceptions.TechnicalException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache used by a repository proxy.
+ *
+ * Each caller gets its own copy of the cached value (see {@link ModelCopier}): it may modify it, before an update
+ * for instance, without changing what the other callers read.
+ *
+ * Guava does not cancel a load when its key is invalidated, so a value read before a write could be cached after its
+ * eviction. Each invalidation bumps a generation, and a value loaded while the generation changed is not kept.
+ *
+ * @author GraviteeSource Team
+ */
+public class RepositoryCache {
+
+    private static final Weigher<String, Object> WEIGHER = (key, value) -> {
+        if (value instanceof Collection) {
+            return Math.max(1, ((Collection) value).size());
+        } else if (value instanceof Map) {
+            return Math.max(1, ((Map) value).size());
+        }
+        return 1;
+    };
+
+    private final String name;
+    private final Cache<String, Object> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+
+    public RepositoryCache(String name, CacheSettings settings) {
+        this.name = name;
+
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+        if (settings.getTtl() > 0) {
+            builder.expireAfterWrite(settings.getTtl(), TimeUnit.SECONDS);
+        }
+
+        if (settings.getMaxWeight() > 0) {
+            this.cache = builder.maximumWeight(settings.getMaxWeight()).weigher(WEIGHER).build();
+        } else {
+            if (settings.getMaxEntries() > 0) {
+                builder.maximumSize(settings.getMaxEntries());
+            }
+            this.cache = builder.build();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(String key, Loader<V> loader) throws TechnicalException {
+        try {
+            final long loadGeneration = generation.get();
+            final Object value = cache.get(key, loader::load);
+            if (generation.get() != loadGeneration) {
+                // the value may have been read before an invalidation and cached after it
+                cache.asMap().remove(key, value);
+            }
+            return (V) ModelCopier.copy(value);
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof TechnicalException) {
+                throw (TechnicalException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new TechnicalException("Unable to load cache entry " + key + " for " + name, cause);
+        }
+    }
+
+    public void invalidate(Collection<String> keys) {
+        generation.incrementAndGet();
+        cache.invalidateAll(keys);
+        invalidations.addAndGet(keys.size());
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.addAndGet(cache.size());
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long invalidations() {
+        return invalidations.get();
+    }
+
+    public Map<String, Long> metrics() {
+        final CacheStats stats = cache.stats();
+        final Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("size", cache.size());
+        metrics.put("hits", stats.hitCount());
+        metrics.put("misses", stats.missCount());
+        metrics.put("evictions", stats.evictionCount());
+        metrics.put("invalidations", invalidations.get());
+        return metrics;
+    }
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws TechnicalException;
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the repository caches declared in gravitee.yml and keeps them consistent across management nodes.
+ *
+ * <pre>
+ * management:
+ *   cache:
+ *     ttl: 60
+ *     maxEntries: 1000
+ *     api:
+ *       enabled: true
+ * </pre>
+ *
+ * Local evictions are broadcast to other nodes through the {@link CacheInvalidationPoller}.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class RepositoryCacheManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RepositoryCacheManager.class);
+
+    static final String CACHE_EVICTION_TAG = "CACHE_EVICTION";
+    static final String ALL_KEYS = "*";
+    private static final String PROPERTY_PREFIX = "management.cache.";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private CacheInvalidationPoller invalidationPoller;
+
+    private final Map<String, Optional<RepositoryCache>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cache of the given repository, or <code>null</code> if caching is disabled for it.
+     */
+    public RepositoryCache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache).orElse(null);
+    }
+
+    public Collection<RepositoryCache> getCaches() {
+        List<RepositoryCache> enabledCaches = new ArrayList<>();
+        caches.values().forEach(cache -> cache.ifPresent(enabledCaches::add));
+        return enabledCaches;
+    }
+
+    /**
+     * Evicts the given keys locally and on the other management nodes.
+     */
+    public void evict(RepositoryCache cache, String... keys) {
+        List<String> keyList = Arrays.asList(keys);
+        cache.invalidate(keyList);
+        publish(cache.getName(), keyList);
+    }
+
+    public void evictAll(RepositoryCache cache) {
+        cache.invalidateAll();
+        publish(cache.getName(), Collections.singletonList(ALL_KEYS));
+    }
+
+    private Optional<RepositoryCache> createCache(String name) {
+        CacheSettings settings = new CacheSettings();
+        settings.setEnabled(property(name, "enabled", Boolean.class, false));
+        settings.setTtl(property(name, "ttl", Long.class, 60L));
+        settings.setMaxEntries(property(name, "maxEntries", Long.class, 1000L));
+        settings.setMaxWeight(property(name, "maxWeight", Long.class, 0L));
+
+        if (!settings.isEnabled()) {
+            return Optional.empty();
+        }
+
+        LOGGER.info("Enable cache for {} repository: {}", name, settings);
+        invalidationPoller.register(CACHE_EVICTION_TAG, this::apply);
+        return Optional.of(new RepositoryCache(name, settings));
+    }
+
+    /**
+     * Looks for a repository specific property first, then for the global one.
+     */
+    private <T> T property(String name, String property, Class<T> type, T defaultValue) {
+        T globalValue = environment.getProperty(PROPERTY_PREFIX + property, type, defaultValue);
+        return environment.getProperty(PROPERTY_PREFIX + name + '.' + property, type, globalValue);
+    }
+
+    private void publish(String name, List<String> keys) {
+        invalidationPoller.publish(CACHE_EVICTION_TAG, name + '\n' + String.join("\n", keys));
+    }
+
+    private void apply(String content) {
+        if (content == null || content.isEmpty()) {
+            return;
+        }
+
+        String[] lines = content.split("\n");
+        Optional<RepositoryCache> cache = caches.getOrDefault(lines[0], Optional.empty());
+        if (cache.isPresent()) {
+            List<String> keys = Arrays.asList(lines).subList(1, lines.length);
+            if (keys.contains(ALL_KEYS)) {
+                cache.get().invalidateAll();
+            } else {
+                cache.get().invalidate(keys);
+            }
+        }
+    }
+}
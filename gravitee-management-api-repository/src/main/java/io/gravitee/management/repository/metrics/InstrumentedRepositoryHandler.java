@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the calls made to a repository implementation.
+ *
+ * @author GraviteeSource Team
+ */
+class InstrumentedRepositoryHandler implements InvocationHandler {
+
+    private final String repository;
+    private final Object target;
+    private final RepositoryMetrics metrics;
+    private final SlowCallLogger slowCallLogger;
+    private final Map<Method, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    InstrumentedRepositoryHandler(String repository, Object target, RepositoryMetrics metrics, SlowCallLogger slowCallLogger) {
+        this.repository = repository;
+        this.target = target;
+        this.metrics = metrics;
+        this.slowCallLogger = slowCallLogger;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(target, args);
+        }
+
+        RepositoryCallCounter.increment();
+
+        final long start = System.nanoTime();
+        Object result = null;
+        boolean error = false;
+        try {
+            result = method.invoke(target, args);
+            return result;
+        } catch (InvocationTargetException ite) {
+            error = true;
+            throw ite.getCause();
+        } finally {
+            final long duration = System.nanoTime() - start;
+            if (metrics.isEnabled()) {
+                methods.computeIfAbsent(method, m -> metrics.getOrCreate(repository, m.getName()))
+                        .record(duration, error);
+            }
+            slowCallLogger.onCall(repository, method.getName(), args, result, duration);
+        }
+    }
+}
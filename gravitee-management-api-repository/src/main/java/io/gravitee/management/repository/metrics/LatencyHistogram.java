@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with fixed, exponentially growing buckets (in milliseconds).
+ *
+ * @author GraviteeSource Team
+ */
+public class LatencyHistogram {
+
+    static final long[] BUCKETS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BUCKETS.length && millis > BUCKETS[bucket]) {
+            bucket++;
+        }
+
+        counts[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMean() {
+        final long c = count.sum();
+        return c == 0 ? 0 : totalNanos.sum() / (c * 1_000_000D);
+    }
+
+    public double getMax() {
+        return maxNanos.get() / 1_000_000D;
+    }
+
+    public long getP50() {
+        return percentile(0.5);
+    }
+
+    public long getP95() {
+        return percentile(0.95);
+    }
+
+    public long getP99() {
+        return percentile(0.99);
+    }
+
+    /**
+     * Upper bound (in milliseconds) of the bucket holding the given percentile, <code>-1</code> for the overflow
+     * bucket.
+     */
+    long percentile(double percentile) {
+        final long threshold = (long) Math.ceil(count.sum() * percentile);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            cumulative += counts[i].sum();
+            if (cumulative >= threshold) {
+                return BUCKETS[i];
+            }
+        }
+        return -1;
+    }
+
+    public Map<String, Long> getBuckets() {
+        final Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKETS.length; i++) {
+            buckets.put("le_" + BUCKETS[i], counts[i].sum());
+        }
+        buckets.put("gt_" + BUCKETS[BUCKETS.length - 1], counts[BUCKETS.length].sum());
+        return buckets;
+    }
+}
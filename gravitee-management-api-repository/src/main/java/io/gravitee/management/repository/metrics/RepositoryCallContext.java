@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+/**
+ * Describes the REST request processed by the current thread (resource and user), so that repository calls can
+ * be correlated with it.
+ *
+ * @author GraviteeSource Team
+ */
+public final class RepositoryCallContext {
+
+    private static final ThreadLocal<String[]> CONTEXT = new ThreadLocal<>();
+
+    private RepositoryCallContext() {
+    }
+
+    public static void set(String resource, String user) {
+        CONTEXT.set(new String[]{resource, user});
+    }
+
+    /**
+     * Replaces the resource of the current request (ie. its path) by the resource method it has been matched to.
+     */
+    public static void setResource(String resource) {
+        final String[] context = CONTEXT.get();
+        CONTEXT.set(new String[]{resource, context == null ? null : context[1]});
+    }
+
+    public static void clear() {
+        CONTEXT.remove();
+    }
+
+    public static String resource() {
+        final String[] context = CONTEXT.get();
+        return context == null ? null : context[0];
+    }
+
+    public static String user() {
+        final String[] context = CONTEXT.get();
+        return context == null ? null : context[1];
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+/**
+ * Counts the repository calls made by the current thread, ie. by the REST request being processed.
+ *
+ * @author GraviteeSource Team
+ */
+public final class RepositoryCallCounter {
+
+    private static final ThreadLocal<int[]> CALLS = ThreadLocal.withInitial(() -> new int[1]);
+
+    private RepositoryCallCounter() {
+    }
+
+    public static void reset() {
+        CALLS.get()[0] = 0;
+    }
+
+    public static void increment() {
+        CALLS.get()[0]++;
+    }
+
+    public static int get() {
+        return CALLS.get()[0];
+    }
+}
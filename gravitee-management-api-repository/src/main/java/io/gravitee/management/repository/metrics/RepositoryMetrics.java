@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Call counts and latency histograms of the repositories, tagged by repository and method.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class RepositoryMetrics {
+
+    @Value("${management.metrics.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private SlowCallLogger slowCallLogger;
+
+    private final Map<String, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Wraps the repository implementation so that each call is recorded and checked by the {@link SlowCallLogger}.
+     */
+    public Object instrument(String repository, Object target, Class<?>[] interfaces) {
+        if ((!enabled && !slowCallLogger.isEnabled()) || target == null || interfaces.length == 0) {
+            return target;
+        }
+
+        return Proxy.newProxyInstance(
+                interfaces[0].getClassLoader(),
+                interfaces,
+                new InstrumentedRepositoryHandler(repository, target, this, slowCallLogger));
+    }
+
+    MethodMetrics getOrCreate(String repository, String method) {
+        return metrics.computeIfAbsent(repository + '.' + method, key -> new MethodMetrics(repository, method));
+    }
+
+    public Collection<MethodMetrics> getMetrics() {
+        return new ArrayList<>(metrics.values());
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.repository.management.api.search.Pageable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs the repository calls exceeding a configurable threshold.
+ *
+ * Calls are logged asynchronously by a dedicated thread, at most <code>rateLimit</code> times per second: the
+ * calls exceeding this limit, or the capacity of the queue, are dropped and only counted.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class SlowCallLogger implements InitializingBean, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowCallLogger.class);
+    private static final Logger SLOW_CALLS_LOGGER = LoggerFactory.getLogger("io.gravitee.management.repository.SlowCalls");
+
+    private static final int MAX_ARGUMENT_LENGTH = 128;
+    private static final int MAX_LISTED_ELEMENTS = 5;
+
+    @Value("${management.metrics.slowCalls.threshold:0}")
+    private long threshold;
+
+    @Value("${management.metrics.slowCalls.rateLimit:10}")
+    private int rateLimit;
+
+    @Value("${management.metrics.slowCalls.queueSize:1000}")
+    private int queueSize;
+
+    private BlockingQueue<SlowCall> queue;
+    private Thread writer;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private long windowStart;
+    private int windowCount;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (isEnabled()) {
+            LOGGER.info("Repository calls slower than {}ms are logged", threshold);
+            queue = new ArrayBlockingQueue<>(queueSize);
+            writer = new Thread(this::write, "gio-repository-slow-calls");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return threshold > 0;
+    }
+
+    /**
+     * Called from the repository call thread, must not block.
+     */
+    void onCall(String repository, String method, Object[] args, Object result, long nanos) {
+        if (!isEnabled() || TimeUnit.NANOSECONDS.toMillis(nanos) < threshold) {
+            return;
+        }
+
+        // Arguments and result are summarized right now as they may be modified once the call returns
+        SlowCall call = new SlowCall(repository, method, summarize(args), size(result),
+                TimeUnit.NANOSECONDS.toMillis(nanos), RepositoryCallContext.resource(), RepositoryCallContext.user());
+
+        if (!acquire() || !queue.offer(call)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private synchronized boolean acquire() {
+        final long now = System.currentTimeMillis();
+        if (now - windowStart >= 1000) {
+            windowStart = now;
+            windowCount = 0;
+        }
+        return ++windowCount <= rateLimit;
+    }
+
+    private void write() {
+        long reportedDrops = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                final SlowCall call = queue.poll(1, TimeUnit.SECONDS);
+                if (call != null) {
+                    SLOW_CALLS_LOGGER.warn("Slow repository call {}.{}({}) took {}ms, returned {} element(s) [resource: {}, user: {}]",
+                            call.repository, call.method, call.arguments, call.duration, call.resultSize,
+                            call.resource, call.user);
+                }
+
+                final long drops = dropped.get();
+                if (drops != reportedDrops) {
+                    SLOW_CALLS_LOGGER.warn("{} slow repository call(s) have not been logged due to rate limiting", drops - reportedDrops);
+                    reportedDrops = drops;
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static String summarize(Object[] args) {
+        if (args == null || args.length == 0) {
+            return "";
+        }
+
+        final StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                summary.append(", ");
+            }
+            summary.append(summarize(args[i]));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Only ids, criteria and paging are logged: the models given to create or update, which may hold secrets or
+     * personal data, are reduced to their type and id.
+     */
+    private static String summarize(Object arg) {
+        if (arg == null || arg instanceof String || arg instanceof Number || arg instanceof Boolean || arg instanceof Enum) {
+            return truncate(String.valueOf(arg));
+        } else if (arg instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) arg;
+            final StringBuilder summary = new StringBuilder("[");
+            final Iterator<?> iterator = collection.iterator();
+            for (int i = 0; i < MAX_LISTED_ELEMENTS && iterator.hasNext(); i++) {
+                summary.append(i > 0 ? ", " : "").append(summarize(iterator.next()));
+            }
+            if (iterator.hasNext()) {
+                summary.append(", ...");
+            }
+            return summary.append("] (size: ").append(collection.size()).append(')').toString();
+        } else if (arg.getClass().isArray()) {
+            return arg.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(arg) + "]";
+        } else if (arg instanceof Map) {
+            return "Map (size: " + ((Map) arg).size() + ')';
+        } else if (arg instanceof Pageable) {
+            final Pageable pageable = (Pageable) arg;
+            return "page " + pageable.pageNumber() + " (size: " + pageable.pageSize() + ')';
+        } else if (arg.getClass().getSimpleName().endsWith("Criteria")) {
+            return truncate(String.valueOf(arg));
+        }
+        final String id = id(arg);
+        return arg.getClass().getSimpleName() + (id == null ? "" : "(id: " + truncate(id) + ')');
+    }
+
+    private static String id(Object model) {
+        try {
+            final Method getId = model.getClass().getMethod("getId");
+            final Object id = getId.invoke(model);
+            return id == null ? null : id.toString();
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_ARGUMENT_LENGTH ? value.substring(0, MAX_ARGUMENT_LENGTH) + "..." : value;
+    }
+
+    static int size(Object result) {
+        if (result == null) {
+            return 0;
+        } else if (result instanceof Optional) {
+            return ((Optional) result).isPresent() ? 1 : 0;
+        } else if (result instanceof Collection) {
+            return ((Collection) result).size();
+        } else if (result instanceof Map) {
+            return ((Map) result).size();
+        } else if (result instanceof Page) {
+            final Collection<?> content = ((Page<?>) result).getContent();
+            return content == null ? 0 : content.size();
+        }
+        return 1;
+    }
+
+    @Override
+    public void destroy() {
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    private static class SlowCall {
+        private final String repository;
+        private final String method;
+        private final String arguments;
+        private final int resultSize;
+        private final long duration;
+        private final String resource;
+        private final String user;
+
+        SlowCall(String repository, String method, String arguments, int resultSize, long duration,
+                 String resource, String user) {
+            this.repository = repository;
+            this.method = method;
+            this.arguments = arguments;
+            this.resultSize = resultSize;
+            this.duration = duration;
+            this.resource = resource;
+            this.user = user;
+        }
+    }
+}
@@ -15,15 +15,84 @@
  */
 package io.gravitee.management.repository.proxy;
 
+import io.gravitee.management.repository.cache.RepositoryCache;
+import io.gravitee.management.repository.cache.RepositoryCacheManager;
+import io.gravitee.management.repository.metrics.RepositoryMetrics;
+import io.gravitee.repository.exceptions.TechnicalException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
 public abstract class AbstractProxy<T> {
 
+    private static final String PROXY_SUFFIX = "RepositoryProxy";
+
     protected T target;
 
+    private final String name = name(getClass());
+
+    @Autowired(required = false)
+    private RepositoryCacheManager cacheManager;
+
+    @Autowired(required = false)
+    private RepositoryMetrics repositoryMetrics;
+
+    @SuppressWarnings("unchecked")
     public void setTarget(T target) {
-        this.target = target;
+        if (repositoryMetrics != null) {
+            this.target = (T) repositoryMetrics.instrument(name, target, ClassUtils.getUserClass(getClass()).getInterfaces());
+        } else {
+            this.target = target;
+        }
+    }
+
+    /**
+     * Reads through the repository cache, if it has been enabled, otherwise calls the loader directly.
+     */
+    protected <V> V cached(String key, RepositoryCache.Loader<V> loader) throws TechnicalException {
+        final RepositoryCache cache = cache();
+        return cache == null ? loader.load() : cache.get(key, loader);
+    }
+
+    protected void evict(String... keys) {
+        final RepositoryCache cache = cache();
+        if (cache != null) {
+            cacheManager.evict(cache, keys);
+        }
+    }
+
+    protected void evictAll() {
+        final RepositoryCache cache = cache();
+        if (cache != null) {
+            cacheManager.evictAll(cache);
+        }
+    }
+
+    /**
+     * Whether the cache of this repository has been enabled, so that writes only read what they have to evict when
+     * there is something to evict.
+     */
+    protected boolean isCached() {
+        return cache() != null;
+    }
+
+    private RepositoryCache cache() {
+        return cacheManager == null ? null : cacheManager.getCache(name);
+    }
+
+    /**
+     * Name of the proxied repository, used to look for its cache settings (ie. <code>api</code> for the
+     * {@link ApiRepositoryProxy}).
+     */
+    private static String name(Class<?> proxyClass) {
+        String name = ClassUtils.getUserClass(proxyClass).getSimpleName();
+        if (name.endsWith(PROXY_SUFFIX)) {
+            name = name.substring(0, name.length() - PROXY_SUFFIX.length());
+        }
+        return StringUtils.uncapitalize(name);
     }
 }
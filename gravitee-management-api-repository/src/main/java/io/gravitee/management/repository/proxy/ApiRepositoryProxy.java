@@ -37,22 +37,27 @@ public class ApiRepositoryProxy extends AbstractProxy<ApiRepository> implements
 
     @Override
     public Api create(Api api) throws TechnicalException {
-        return target.create(api);
+        Api createdApi = target.create(api);
+        evict(api.getId());
+        return createdApi;
     }
 
     @Override
     public void delete(String s) throws TechnicalException {
         target.delete(s);
+        evict(s);
     }
 
     @Override
     public Optional<Api> findById(String s) throws TechnicalException {
-        return target.findById(s);
+        return cached(s, () -> target.findById(s));
     }
 
     @Override
     public Api update(Api api) throws TechnicalException {
-        return target.update(api);
+        Api updatedApi = target.update(api);
+        evict(api.getId());
+        return updatedApi;
     }
 
     @Override
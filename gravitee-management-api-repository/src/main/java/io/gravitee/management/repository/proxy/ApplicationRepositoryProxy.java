@@ -40,22 +40,27 @@ public class ApplicationRepositoryProxy extends AbstractProxy<ApplicationReposit
 
     @Override
     public Application create(Application application) throws TechnicalException {
-        return target.create(application);
+        Application createdApplication = target.create(application);
+        evict(application.getId());
+        return createdApplication;
     }
 
     @Override
     public void delete(String s) throws TechnicalException {
         target.delete(s);
+        evict(s);
     }
 
     @Override
     public Optional<Application> findById(String s) throws TechnicalException {
-        return target.findById(s);
+        return cached(s, () -> target.findById(s));
     }
 
     @Override
     public Application update(Application application) throws TechnicalException {
-        return target.update(application);
+        Application updatedApplication = target.update(application);
+        evict(application.getId());
+        return updatedApplication;
     }
 
     @Override
@@ -33,29 +33,36 @@ import java.util.Set;
  */
 @Component
 public class GroupRepositoryProxy extends AbstractProxy<GroupRepository> implements GroupRepository {
+
+    private static final String ALL_KEY = "all";
     @Override
     public Optional<Group> findById(String id) throws TechnicalException {
-        return target.findById(id);
+        return cached(id, () -> target.findById(id));
     }
 
     @Override
     public Group create(Group item) throws TechnicalException {
-        return target.create(item);
+        Group createdGroup = target.create(item);
+        evict(item.getId(), ALL_KEY);
+        return createdGroup;
     }
 
     @Override
     public Group update(Group item) throws TechnicalException {
-        return target.update(item);
+        Group updatedGroup = target.update(item);
+        evict(item.getId(), ALL_KEY);
+        return updatedGroup;
     }
 
     @Override
     public void delete(String s) throws TechnicalException {
         target.delete(s);
+        evict(s, ALL_KEY);
     }
 
     @Override
     public Set<Group> findAll() throws TechnicalException {
-        return target.findAll();
+        return cached(ALL_KEY, () -> target.findAll());
     }
 
     @Override
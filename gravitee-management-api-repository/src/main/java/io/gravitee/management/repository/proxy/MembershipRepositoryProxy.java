@@ -34,17 +34,22 @@ import java.util.Set;
 public class MembershipRepositoryProxy extends AbstractProxy<MembershipRepository> implements MembershipRepository {
     @Override
     public Membership create(Membership membership) throws TechnicalException {
-        return target.create(membership);
+        Membership createdMembership = target.create(membership);
+        evict(membership);
+        return createdMembership;
     }
 
     @Override
     public Membership update(Membership membership) throws TechnicalException {
-        return target.update(membership);
+        Membership updatedMembership = target.update(membership);
+        evict(membership);
+        return updatedMembership;
     }
 
     @Override
     public void delete(Membership membership) throws TechnicalException {
         target.delete(membership);
+        evict(membership);
     }
 
     @Override
@@ -54,7 +59,8 @@ public class MembershipRepositoryProxy extends AbstractProxy<MembershipRepositor
 
     @Override
     public Optional<Membership> findById(String userId, MembershipReferenceType referenceType, String referenceId) throws TechnicalException {
-        return target.findById(userId, referenceType, referenceId);
+        return cached(idKey(userId, referenceType, referenceId),
+                () -> target.findById(userId, referenceType, referenceId));
     }
 
     @Override
@@ -64,7 +70,7 @@ public class MembershipRepositoryProxy extends AbstractProxy<MembershipRepositor
 
     @Override
     public Set<Membership> findByUserAndReferenceType(String userId, MembershipReferenceType referenceType) throws TechnicalException {
-        return target.findByUserAndReferenceType(userId, referenceType);
+        return cached(userKey(userId, referenceType), () -> target.findByUserAndReferenceType(userId, referenceType));
     }
 
     @Override
@@ -86,4 +92,18 @@ public class MembershipRepositoryProxy extends AbstractProxy<MembershipRepositor
     public Set<Membership> findByRole(RoleScope roleScope, String roleName) throws TechnicalException {
         return target.findByRole(roleScope, roleName);
     }
+
+    private void evict(Membership membership) {
+        evict(
+                idKey(membership.getUserId(), membership.getReferenceType(), membership.getReferenceId()),
+                userKey(membership.getUserId(), membership.getReferenceType()));
+    }
+
+    private static String idKey(String userId, MembershipReferenceType referenceType, String referenceId) {
+        return userId + ':' + referenceType + ':' + referenceId;
+    }
+
+    private static String userKey(String userId, MembershipReferenceType referenceType) {
+        return "user:" + userId + ':' + referenceType;
+    }
 }
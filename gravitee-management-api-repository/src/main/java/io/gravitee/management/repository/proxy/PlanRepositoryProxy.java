@@ -20,9 +20,15 @@ import io.gravitee.repository.management.api.PlanRepository;
 import io.gravitee.repository.management.model.Plan;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static java.util.Collections.singletonList;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -31,22 +37,56 @@ import java.util.Set;
 public class PlanRepositoryProxy extends AbstractProxy<PlanRepository> implements PlanRepository {
 
     public Set<Plan> findByApi(String apiId) throws TechnicalException {
-        return target.findByApi(apiId);
+        return cached(apiKey(apiId), () -> target.findByApi(apiId));
     }
 
     public Optional<Plan> findById(String s) throws TechnicalException {
-        return target.findById(s);
+        return cached(s, () -> target.findById(s));
     }
 
     public Plan create(Plan item) throws TechnicalException {
-        return target.create(item);
+        Plan createdPlan = target.create(item);
+        evict(singletonList(item));
+        return createdPlan;
     }
 
     public Plan update(Plan item) throws TechnicalException {
-        return target.update(item);
+        // the plan may have been moved to other APIs: the lists of its previous APIs are evicted too
+        Optional<Plan> previousPlan = isCached() ? target.findById(item.getId()) : Optional.empty();
+        Plan updatedPlan = target.update(item);
+        List<Plan> plans = new ArrayList<>(2);
+        previousPlan.ifPresent(plans::add);
+        plans.add(item);
+        evict(plans);
+        return updatedPlan;
     }
 
     public void delete(String s) throws TechnicalException {
+        if (!isCached()) {
+            target.delete(s);
+            return;
+        }
+        Optional<Plan> plan = findById(s);
         target.delete(s);
+        if (plan.isPresent()) {
+            evict(singletonList(plan.get()));
+        } else {
+            evict(s);
+        }
+    }
+
+    private void evict(Collection<Plan> plans) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Plan plan : plans) {
+            keys.add(plan.getId());
+            if (plan.getApis() != null) {
+                plan.getApis().forEach(api -> keys.add(apiKey(api)));
+            }
+        }
+        evict(keys.toArray(new String[0]));
+    }
+
+    private static String apiKey(String apiId) {
+        return "api:" + apiId;
     }
 }
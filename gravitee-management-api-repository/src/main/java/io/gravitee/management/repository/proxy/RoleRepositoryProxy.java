@@ -31,33 +31,52 @@ import java.util.Set;
 @Component
 public class RoleRepositoryProxy extends AbstractProxy<RoleRepository> implements RoleRepository {
 
+    private static final String ALL_KEY = "all";
+
     @Override
     public Optional<Role> findById(RoleScope scope, String name) throws TechnicalException {
-        return target.findById(scope, name);
+        return cached(idKey(scope, name), () -> target.findById(scope, name));
     }
 
     @Override
     public Role create(Role item) throws TechnicalException {
-        return target.create(item);
+        Role createdRole = target.create(item);
+        evict(item.getScope(), item.getName());
+        return createdRole;
     }
 
     @Override
     public Role update(Role item) throws TechnicalException {
-        return target.update(item);
+        Role updatedRole = target.update(item);
+        evict(item.getScope(), item.getName());
+        return updatedRole;
     }
 
     @Override
     public Set<Role> findAll() throws TechnicalException {
-        return target.findAll();
+        return cached(ALL_KEY, () -> target.findAll());
     }
 
     @Override
     public void delete(RoleScope scope, String name) throws TechnicalException {
         target.delete(scope, name);
+        evict(scope, name);
     }
 
     @Override
     public Set<Role> findByScope(RoleScope scope) throws TechnicalException {
-        return target.findByScope(scope);
+        return cached(scopeKey(scope), () -> target.findByScope(scope));
+    }
+
+    private void evict(RoleScope scope, String name) {
+        evict(idKey(scope, name), scopeKey(scope), ALL_KEY);
+    }
+
+    private static String idKey(RoleScope scope, String name) {
+        return scope + ":" + name;
+    }
+
+    private static String scopeKey(RoleScope scope) {
+        return "scope:" + scope;
     }
 }
@@ -23,10 +23,15 @@ import io.gravitee.repository.management.api.search.UserCriteria;
 import io.gravitee.repository.management.model.User;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static java.util.Collections.singletonList;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
@@ -37,17 +42,26 @@ public class UserRepositoryProxy extends AbstractProxy<UserRepository> implement
 
     @Override
     public Optional<User> findById(String id) throws TechnicalException {
-        return target.findById(id);
+        return cached(id, () -> target.findById(id));
     }
 
     @Override
     public User create(User user) throws TechnicalException {
-        return target.create(user);
+        User createdUser = target.create(user);
+        evict(singletonList(user));
+        return createdUser;
     }
 
     @Override
     public User update(User user) throws TechnicalException {
-        return target.update(user);
+        // the source of the user may have changed: its previous source key is evicted too
+        Optional<User> previousUser = isCached() ? target.findById(user.getId()) : Optional.empty();
+        User updatedUser = target.update(user);
+        List<User> users = new ArrayList<>(2);
+        previousUser.ifPresent(users::add);
+        users.add(user);
+        evict(users);
+        return updatedUser;
     }
 
     @Override
@@ -57,7 +71,7 @@ public class UserRepositoryProxy extends AbstractProxy<UserRepository> implement
 
     @Override
     public Optional<User> findBySource(String sourceId, String userId) throws TechnicalException {
-        return target.findBySource(sourceId, userId);
+        return cached(sourceKey(sourceId, userId), () -> target.findBySource(sourceId, userId));
     }
 
     @Override
@@ -67,6 +81,29 @@ public class UserRepositoryProxy extends AbstractProxy<UserRepository> implement
 
     @Override
     public void delete(String id) throws TechnicalException {
+        if (!isCached()) {
+            target.delete(id);
+            return;
+        }
+        Optional<User> user = findById(id);
         target.delete(id);
+        if (user.isPresent()) {
+            evict(singletonList(user.get()));
+        } else {
+            evict(id);
+        }
+    }
+
+    private void evict(Collection<User> users) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (User user : users) {
+            keys.add(user.getId());
+            keys.add(sourceKey(user.getSource(), user.getSourceId()));
+        }
+        evict(keys.toArray(new String[0]));
+    }
+
+    private static String sourceKey(String source, String sourceId) {
+        return "source:" + source + ':' + sourceId;
     }
 }
@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+import io.gravitee.node.api.Node;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.CommandRepository;
+import io.gravitee.repository.management.model.Command;
+import io.gravitee.repository.management.model.MessageRecipient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CacheInvalidationPollerTest {
+
+    private final CacheInvalidationPoller poller = new CacheInvalidationPoller();
+
+    @Mock
+    private Node node;
+    @Mock
+    private CommandRepository commandRepository;
+
+    private final List<String> parameters = new ArrayList<>();
+    private final List<String> notifications = new ArrayList<>();
+
+    @Before
+    public void init() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setProperty("management.cache.invalidation.interval", "60000");
+        environment.setProperty("management.cache.invalidation.ttl", "30");
+        setField(poller, "environment", environment);
+        setField(poller, "node", node);
+        setField(poller, "commandRepository", commandRepository);
+        when(node.id()).thenReturn("node-1");
+    }
+
+    @After
+    public void destroy() {
+        poller.destroy();
+    }
+
+    @Test
+    public void shouldDispatchCommandsOfOtherNodesByTag() throws TechnicalException {
+        poller.register("PARAMETERS_UPDATED", parameters::add);
+        poller.register("NOTIFICATIONS_UPDATED", notifications::add);
+        when(commandRepository.search(any())).thenReturn(
+                asList(command("node-2", "PARAMETERS_UPDATED", "parameters"), command("node-2", "NOTIFICATIONS_UPDATED", "API:api-1:")),
+                emptyList());
+
+        poller.poll();
+
+        assertEquals(singletonList("parameters"), parameters);
+        assertEquals(singletonList("API:api-1:"), notifications);
+        verify(commandRepository, times(2)).search(any());
+    }
+
+    @Test
+    public void shouldOnlyAckCommandsOfCurrentNode() throws TechnicalException {
+        poller.register("PARAMETERS_UPDATED", parameters::add);
+        when(commandRepository.search(any())).thenReturn(singletonList(command("node-1", "PARAMETERS_UPDATED", "parameters")));
+
+        poller.poll();
+
+        assertTrue(parameters.isEmpty());
+        final ArgumentCaptor<Command> acknowledged = ArgumentCaptor.forClass(Command.class);
+        verify(commandRepository).update(acknowledged.capture());
+        assertEquals(asList("node-0", "node-1"), acknowledged.getValue().getAcknowledgments());
+    }
+
+    @Test
+    public void shouldKeepPollingWhenRepositoryFails() throws TechnicalException {
+        poller.register("PARAMETERS_UPDATED", parameters::add);
+        when(commandRepository.search(any()))
+                .thenThrow(new TechnicalException("unavailable"))
+                .thenReturn(singletonList(command("node-2", "PARAMETERS_UPDATED", "parameters")));
+
+        poller.poll();
+        poller.poll();
+
+        assertEquals(singletonList("parameters"), parameters);
+    }
+
+    @Test
+    public void shouldPublishCommandToManagementNodes() throws TechnicalException {
+        poller.publish("NOTIFICATIONS_UPDATED", "API:api-1:");
+
+        final ArgumentCaptor<Command> published = ArgumentCaptor.forClass(Command.class);
+        verify(commandRepository).create(published.capture());
+        final Command command = published.getValue();
+        assertEquals("node-1", command.getFrom());
+        assertEquals(MessageRecipient.MANAGEMENT_APIS.name(), command.getTo());
+        assertEquals(singletonList("NOTIFICATIONS_UPDATED"), command.getTags());
+        assertEquals("API:api-1:", command.getContent());
+        assertEquals(30000, command.getExpiredAt().getTime() - command.getCreatedAt().getTime());
+    }
+
+    private static Command command(String from, String tag, String content) {
+        Command command = new Command();
+        command.setId(tag + '-' + from);
+        command.setFrom(from);
+        command.setTags(singletonList(tag));
+        command.setContent(content);
+        command.setAcknowledgments(singletonList("node-0"));
+        return command;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.cache;
+
+import io.gravitee.repository.exceptions.TechnicalException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class RepositoryCacheTest {
+
+    private RepositoryCache cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void init() {
+        CacheSettings settings = new CacheSettings();
+        settings.setEnabled(true);
+        settings.setTtl(60);
+        settings.setMaxEntries(10);
+        cache = new RepositoryCache("api", settings);
+    }
+
+    @Test
+    public void shouldLoadOnlyOnce() throws TechnicalException {
+        assertEquals(Optional.of("api"), cache.get("id", this::load));
+        assertEquals(Optional.of("api"), cache.get("id", this::load));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    public void shouldReloadAfterInvalidation() throws TechnicalException {
+        cache.get("id", this::load);
+        cache.invalidate(Collections.singletonList("id"));
+        cache.get("id", this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.invalidations());
+    }
+
+    @Test
+    public void shouldNotKeepValueLoadedBeforeInvalidation() throws TechnicalException {
+        cache.get("id", () -> {
+            // the entry is evicted by a write while it is being read
+            cache.invalidate(Collections.singletonList("id"));
+            return load();
+        });
+        cache.get("id", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test(expected = TechnicalException.class)
+    public void shouldPropagateTechnicalException() throws TechnicalException {
+        cache.get("id", () -> {
+            throw new TechnicalException("unavailable");
+        });
+    }
+
+    @Test
+    public void shouldEvictByWeight() throws TechnicalException {
+        CacheSettings settings = new CacheSettings();
+        settings.setMaxWeight(3);
+        RepositoryCache weightedCache = new RepositoryCache("plan", settings);
+
+        List<String> plans = Arrays.asList("plan1", "plan2", "plan3");
+        weightedCache.get("api:1", () -> plans);
+        weightedCache.get("api:2", () -> plans);
+
+        assertEquals(1, weightedCache.size());
+    }
+
+    @Test
+    public void shouldReturnCopies() throws TechnicalException {
+        final Model model = new Model();
+        model.setName("api");
+        model.setTags(new ArrayList<>(Collections.singletonList("tag")));
+
+        final Optional<Model> read = cache.get("id", () -> Optional.of(model));
+        read.get().setName("modified");
+        read.get().getTags().add("other");
+
+        final Optional<Model> readAgain = cache.get("id", () -> Optional.of(model));
+        assertNotSame(read.get(), readAgain.get());
+        assertEquals("api", readAgain.get().getName());
+        assertEquals(Collections.singletonList("tag"), readAgain.get().getTags());
+    }
+
+    private Optional<String> load() {
+        loads.incrementAndGet();
+        return Optional.of("api");
+    }
+
+    public static class Model {
+
+        private String name;
+        private List<String> tags;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.metrics;
+
+import io.gravitee.repository.management.api.search.builder.PageableBuilder;
+import io.gravitee.repository.management.model.User;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class SlowCallLoggerTest {
+
+    @Test
+    public void shouldSummarizeArguments() {
+        String summary = SlowCallLogger.summarize(new Object[]{
+                "api-id",
+                Arrays.asList("1", "2", "3", "4", "5", "6"),
+                new String[]{"a", "b"},
+                null});
+
+        assertEquals("api-id, [1, 2, 3, 4, 5, ...] (size: 6), String[2], null", summary);
+    }
+
+    @Test
+    public void shouldOnlySummarizeTypeAndIdOfModels() {
+        final User user = new User();
+        user.setId("user-id");
+        user.setEmail("john.doe@mail.com");
+        user.setPassword("secret");
+
+        String summary = SlowCallLogger.summarize(new Object[]{
+                user,
+                Collections.singletonList(new User()),
+                new PageableBuilder().pageNumber(2).pageSize(20).build()});
+
+        assertEquals("User(id: user-id), [User] (size: 1), page 2 (size: 20)", summary);
+    }
+
+    @Test
+    public void shouldComputeResultSize() {
+        assertEquals(0, SlowCallLogger.size(null));
+        assertEquals(0, SlowCallLogger.size(Optional.empty()));
+        assertEquals(1, SlowCallLogger.size(Optional.of("api")));
+        assertEquals(2, SlowCallLogger.size(Arrays.asList("api1", "api2")));
+        assertEquals(0, SlowCallLogger.size(Collections.emptyMap()));
+    }
+}
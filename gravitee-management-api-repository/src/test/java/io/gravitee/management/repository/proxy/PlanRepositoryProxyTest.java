@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.repository.proxy;
+
+import io.gravitee.management.repository.cache.CacheSettings;
+import io.gravitee.management.repository.cache.RepositoryCache;
+import io.gravitee.management.repository.cache.RepositoryCacheManager;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.PlanRepository;
+import io.gravitee.repository.management.model.Plan;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PlanRepositoryProxyTest {
+
+    private final PlanRepositoryProxy proxy = new PlanRepositoryProxy();
+
+    @Mock
+    private PlanRepository planRepository;
+    @Mock
+    private RepositoryCacheManager cacheManager;
+
+    private RepositoryCache cache;
+
+    @Before
+    public void init() {
+        CacheSettings settings = new CacheSettings();
+        settings.setEnabled(true);
+        cache = new RepositoryCache("plan", settings);
+        setField(proxy, "cacheManager", cacheManager);
+        proxy.setTarget(planRepository);
+    }
+
+    @Test
+    public void shouldEvictPreviousAndNewApisOnUpdate() throws TechnicalException {
+        when(cacheManager.getCache("plan")).thenReturn(cache);
+        when(planRepository.findById("plan-1")).thenReturn(Optional.of(plan("api-1")));
+        final Plan moved = plan("api-2");
+
+        proxy.update(moved);
+
+        verify(cacheManager).evict(cache, "plan-1", "api:api-1", "api:api-2");
+    }
+
+    @Test
+    public void shouldNotShareCachedPlans() throws TechnicalException {
+        when(cacheManager.getCache("plan")).thenReturn(cache);
+        when(planRepository.findById("plan-1")).thenReturn(Optional.of(plan("api-1")));
+
+        proxy.findById("plan-1").get().setApis(Collections.singleton("api-2"));
+
+        assertEquals(Collections.singleton("api-1"), proxy.findById("plan-1").get().getApis());
+        verify(planRepository, times(1)).findById("plan-1");
+    }
+
+    @Test
+    public void shouldNotReadPreviousPlanWhenCacheIsDisabled() throws TechnicalException {
+        final Plan plan = plan("api-1");
+
+        proxy.update(plan);
+        proxy.delete("plan-1");
+
+        verify(planRepository).update(plan);
+        verify(planRepository).delete("plan-1");
+        verify(planRepository, never()).findById(any());
+        verify(cacheManager, never()).evict(any(), any());
+    }
+
+    private static Plan plan(String api) {
+        final Plan plan = new Plan();
+        plan.setId("plan-1");
+        plan.setApis(new HashSet<>(Arrays.asList(api)));
+        return plan;
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.cache;
+
+import javax.ws.rs.core.EntityTag;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Strong entity tags computed from the SHA-256 digest of the content, so that two different contents never share a
+ * tag (a 32-bit hash could collide and answer <code>304 Not Modified</code> for a changed content) and that the tag
+ * is the same whatever the management node serving it.
+ *
+ * @author GraviteeSource Team
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static EntityTag sha256(byte[] content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content == null ? new byte[0] : content);
+            return new EntityTag(String.format("%064x", new BigInteger(1, digest)));
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public static EntityTag sha256(String content) {
+        return sha256(content == null ? null : content.getBytes(StandardCharsets.UTF_8));
+    }
+}
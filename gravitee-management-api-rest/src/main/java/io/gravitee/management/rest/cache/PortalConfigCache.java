@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.management.model.PortalConfigEntity;
+import io.gravitee.management.rest.mapper.ObjectMapperResolver;
+import io.gravitee.management.service.ConfigService;
+import io.gravitee.management.service.ParameterService;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.ws.rs.core.EntityTag;
+
+/**
+ * Keeps the JSON form of the portal configuration, which is requested by the portal on each page load, until the
+ * parameters it is built from change.
+ *
+ * The entity tag is the SHA-256 digest of the content (see {@link EntityTags}).
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class PortalConfigCache {
+
+    private final ObjectMapper mapper = new ObjectMapperResolver().getContext(PortalConfigEntity.class);
+
+    @Autowired
+    private ConfigService configService;
+    @Autowired
+    private ParameterService parameterService;
+
+    private volatile SerializedPortalConfig cached;
+
+    public SerializedPortalConfig get() {
+        final long revision = parameterService.getRevision();
+        SerializedPortalConfig portalConfig = cached;
+        if (portalConfig == null || portalConfig.revision != revision) {
+            try {
+                final byte[] content = mapper.writeValueAsBytes(configService.getPortalConfig());
+                portalConfig = new SerializedPortalConfig(revision, content);
+                cached = portalConfig;
+            } catch (JsonProcessingException ex) {
+                throw new TechnicalManagementException("An error occurs while trying to serialize the portal configuration", ex);
+            }
+        }
+        return portalConfig;
+    }
+
+    public static class SerializedPortalConfig {
+
+        private final long revision;
+        private final byte[] content;
+        private final EntityTag entityTag;
+
+        SerializedPortalConfig(long revision, byte[] content) {
+            this.revision = revision;
+            this.content = content;
+            this.entityTag = EntityTags.sha256(content);
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public EntityTag getEntityTag() {
+            return entityTag;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.filter;
+
+import io.gravitee.management.repository.metrics.RepositoryCallContext;
+
+import javax.annotation.Priority;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+/**
+ * Once the request has been matched, describes it by its resource method rather than by its path in the context of
+ * the repository calls (see {@link RepositoryCallsFilter}).
+ *
+ * It runs before the {@link PermissionsFilter}, so that the calls made to check permissions are correlated with the
+ * resource too.
+ *
+ * @author GraviteeSource Team
+ */
+@Provider
+@Priority(50)
+public class RepositoryCallResourceFilter implements ContainerRequestFilter {
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        final Method resourceMethod = resourceInfo.getResourceMethod();
+        if (resourceMethod != null) {
+            RepositoryCallContext.setResource(resourceInfo.getResourceClass().getSimpleName() + '.' + resourceMethod.getName());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.filter;
+
+import io.gravitee.management.repository.metrics.RepositoryCallContext;
+import io.gravitee.management.repository.metrics.RepositoryCallCounter;
+
+import javax.ws.rs.container.*;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.security.Principal;
+
+/**
+ * Counts the repository calls triggered by a request and keeps the count in a request attribute, so that it is
+ * available in the access log without being disclosed to the client.
+ *
+ * The path (then the matched resource, see {@link RepositoryCallResourceFilter}) and the authenticated user are also
+ * kept along the request to correlate slow repository calls with it.
+ *
+ * The counter is reset before the request is matched, so that the calls made to check permissions are counted, and
+ * after the response, so that a request aborted by a filter never reports the calls of a previous request.
+ *
+ * @author GraviteeSource Team
+ */
+@Provider
+@PreMatching
+public class RepositoryCallsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    public static final String REPOSITORY_CALLS_ATTRIBUTE = "io.gravitee.management.repository.calls";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        RepositoryCallCounter.reset();
+
+        final Principal principal = requestContext.getSecurityContext() == null ?
+                null : requestContext.getSecurityContext().getUserPrincipal();
+        RepositoryCallContext.set(requestContext.getUriInfo().getPath(), principal == null ? null : principal.getName());
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        final int calls = RepositoryCallCounter.get();
+        if (calls > 0) {
+            requestContext.setProperty(REPOSITORY_CALLS_ATTRIBUTE, calls);
+        }
+        RepositoryCallCounter.reset();
+        RepositoryCallContext.clear();
+    }
+}
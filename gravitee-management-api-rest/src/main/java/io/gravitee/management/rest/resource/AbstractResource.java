@@ -16,10 +16,12 @@
 package io.gravitee.management.rest.resource;
 
 import io.gravitee.management.idp.api.authentication.UserDetails;
+import io.gravitee.management.model.PageEntity;
 import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.model.permissions.RoleScope;
 import io.gravitee.management.model.permissions.SystemRole;
+import io.gravitee.management.rest.cache.EntityTags;
 import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.MembershipService;
 import io.gravitee.management.service.PermissionService;
@@ -31,7 +33,11 @@ import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
 import javax.inject.Inject;
+import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -99,6 +105,31 @@ public abstract class AbstractResource {
         return isAuthenticated() && (isAdmin() || permissionService.hasPermission(permission, referenceId, acls));
     }
 
+    /**
+     * Answers the content of a page, or <code>304 Not Modified</code> when the client already has it. The rendered
+     * content is kept by the page service, so its tag is computed without parsing the page again; it changes as soon as
+     * the page, the API or their metadata do.
+     */
+    protected Response pageContent(final Request request, final PageEntity page) {
+        final CacheControl cc = new CacheControl();
+        cc.setNoCache(true);
+
+        final EntityTag etag = EntityTags.sha256(page.getContent());
+        final Response.ResponseBuilder builder = request.evaluatePreconditions(etag);
+        if (builder != null) {
+            // Preconditions are not met, returning HTTP 304 'not-modified'
+            return builder
+                    .cacheControl(cc)
+                    .build();
+        }
+
+        return Response
+                .ok(page.getContent(), page.getContentType())
+                .cacheControl(cc)
+                .tag(etag)
+                .build();
+    }
+
     String checkAndScaleImage(final String encodedPicture) {
         if (encodedPicture != null) {
             // first check that the image is in a valid format to prevent from XSS attack
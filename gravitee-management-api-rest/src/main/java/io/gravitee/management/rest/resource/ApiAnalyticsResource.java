@@ -19,26 +19,20 @@ import io.gravitee.common.http.MediaType;
 import io.gravitee.management.model.analytics.query.*;
 import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
-import io.gravitee.management.model.analytics.Analytics;
-import io.gravitee.management.rest.resource.param.Aggregation;
+import io.gravitee.management.model.analytics.BatchAnalytics;
 import io.gravitee.management.rest.resource.param.AnalyticsParam;
-import io.gravitee.management.rest.resource.param.Range;
+import io.gravitee.management.rest.resource.param.AnalyticsQueryParam;
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
+import io.gravitee.management.rest.utils.AnalyticsQueries;
 import io.gravitee.management.service.AnalyticsService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 
 import javax.inject.Inject;
-import javax.ws.rs.BeanParam;
-import javax.ws.rs.GET;
-import javax.ws.rs.PathParam;
-import javax.ws.rs.Produces;
+import javax.ws.rs.*;
 import javax.ws.rs.core.Response;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -62,88 +56,22 @@ public class ApiAnalyticsResource extends AbstractResource {
             @BeanParam AnalyticsParam analyticsParam) {
         analyticsParam.validate();
 
-        Analytics analytics = null;
-
-        switch(analyticsParam.getType()) {
-            case DATE_HISTO:
-                analytics = executeDateHisto(api, analyticsParam);
-                break;
-            case GROUP_BY:
-                analytics = executeGroupBy(api, analyticsParam);
-                break;
-            case COUNT:
-                analytics = executeCount(api, analyticsParam);
-                break;
-        }
-
-        return Response.ok(analytics).build();
-    }
-
-    private Analytics executeCount(String api, AnalyticsParam analyticsParam) {
-        CountQuery query = new CountQuery();
-        query.setFrom(analyticsParam.getFrom());
-        query.setTo(analyticsParam.getTo());
-        query.setInterval(analyticsParam.getInterval());
-        query.setQuery(analyticsParam.getQuery());
-        query.setRootField("api");
-        query.setRootIdentifier(api);
-        return analyticsService.execute(query);
-    }
-
-    private Analytics executeDateHisto(String api, AnalyticsParam analyticsParam) {
-        DateHistogramQuery query = new DateHistogramQuery();
-        query.setFrom(analyticsParam.getFrom());
-        query.setTo(analyticsParam.getTo());
-        query.setInterval(analyticsParam.getInterval());
-        query.setQuery(analyticsParam.getQuery());
-        query.setRootField("api");
-        query.setRootIdentifier(api);
-        List<Aggregation> aggregations = analyticsParam.getAggregations();
-        if (aggregations != null) {
-            List<io.gravitee.management.model.analytics.query.Aggregation> aggregationList = aggregations
-                    .stream()
-                    .map((Function<Aggregation, io.gravitee.management.model.analytics.query.Aggregation>) aggregation -> new io.gravitee.management.model.analytics.query.Aggregation() {
-                        @Override
-                        public AggregationType type() {
-                            return AggregationType.valueOf(aggregation.getType().name().toUpperCase());
-                        }
-
-                        @Override
-                        public String field() {
-                            return aggregation.getField();
-                        }
-                    }).collect(Collectors.toList());
-
-            query.setAggregations(aggregationList);
-        }
-        return analyticsService.execute(query);
+        final AbstractQuery query = AnalyticsQueries.of(analyticsParam, "api", api);
+        return Response.ok(AnalyticsQueries.execute(analyticsService, query, analyticsParam)).build();
     }
 
-    private Analytics executeGroupBy(String api, AnalyticsParam analyticsParam) {
-        GroupByQuery query = new GroupByQuery();
-        query.setFrom(analyticsParam.getFrom());
-        query.setTo(analyticsParam.getTo());
-        query.setInterval(analyticsParam.getInterval());
-        query.setQuery(analyticsParam.getQuery());
-        query.setField(analyticsParam.getField());
-        query.setRootField("api");
-        query.setRootIdentifier(api);
-
-        if (analyticsParam.getOrder() != null) {
-            final GroupByQuery.Order order = new GroupByQuery.Order();
-            order.setField(analyticsParam.getOrder().getField());
-            order.setType(analyticsParam.getOrder().getType());
-            order.setOrder(analyticsParam.getOrder().isOrder());
-            query.setOrder(order);
-        }
-
-        List<Range> ranges = analyticsParam.getRanges();
-        if (ranges != null) {
-            Map<Double, Double> rangeMap = ranges.stream().collect(
-                    Collectors.toMap(Range::getFrom, Range::getTo));
-
-            query.setGroups(rangeMap);
-        }
-        return analyticsService.execute(query);
+    @POST
+    @Path("_batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get several API analytics at once",
+            notes = "Queries are executed concurrently, a failed query is reported in the errors of the batch")
+    @Permissions({
+            @Permission(value = RolePermission.API_ANALYTICS, acls = RolePermissionAction.READ)
+    })
+    public BatchAnalytics batch(
+            @PathParam("api") String api,
+            List<AnalyticsQueryParam> queryParams) {
+        return analyticsService.execute(AnalyticsQueries.of(queryParams, "api", api));
     }
 }
@@ -27,6 +27,7 @@ import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.rest.resource.param.Aggregation;
 import io.gravitee.management.rest.resource.param.AnalyticsAverageParam;
 import io.gravitee.management.rest.resource.param.AnalyticsParam;
+import io.gravitee.management.rest.resource.param.HistogramFormatParam;
 import io.gravitee.management.rest.resource.param.healthcheck.HealthcheckFieldParam;
 import io.gravitee.management.rest.resource.param.healthcheck.HealthcheckTypeParam;
 import io.gravitee.management.rest.resource.param.healthcheck.LogsParam;
@@ -121,7 +122,8 @@ public class ApiHealthResource extends AbstractResource {
                 }
             }
         }));
-        return healthCheckService.query(query);
+        return analyticsAverageParam.getFormat() == HistogramFormatParam.HistogramFormat.COLUMNAR ?
+                healthCheckService.queryColumnar(query) : healthCheckService.query(query);
     }
 
     @GET
@@ -24,6 +24,7 @@ import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.rest.resource.param.LogsParam;
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
+import io.gravitee.management.rest.utils.CsvExports;
 import io.gravitee.management.service.LogsService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -105,4 +106,31 @@ public class ApiLogsResource extends AbstractResource {
                 .header(HttpHeaders.CONTENT_DISPOSITION, format("attachment;filename=logs-%s-%s.csv", api, System.currentTimeMillis()))
                 .build();
     }
+
+    @GET
+    @Path("export/stream")
+    @Produces(MediaType.TEXT_PLAIN)
+    @ApiOperation(value = "Export all the API logs of the time range as CSV",
+            notes = "Rows are streamed page after page, up to the given limit or the configured maximum number of rows")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "API logs as CSV"),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    @Permissions({@Permission(value = RolePermission.API_LOG, acls = RolePermissionAction.READ)})
+    public Response streamAPILogsAsCSV(
+            @PathParam("api") String api,
+            @BeanParam LogsParam param,
+            @QueryParam("limit") long limit,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+
+        param.validate();
+
+        LogQuery logQuery = new LogQuery();
+        logQuery.setQuery(param.getQuery());
+        logQuery.setFrom(param.getFrom());
+        logQuery.setTo(param.getTo());
+        logQuery.setOrder(param.isOrder());
+
+        return CsvExports.stream("logs-" + api, acceptEncoding,
+                writer -> logsService.exportByApi(api, logQuery, limit, writer));
+    }
 }
@@ -19,11 +19,13 @@ import io.gravitee.common.http.MediaType;
 import io.gravitee.management.model.notification.GenericNotificationConfigEntity;
 import io.gravitee.management.model.notification.NotificationConfigType;
 import io.gravitee.management.model.notification.PortalNotificationConfigEntity;
+import io.gravitee.management.model.notification.WebhookDeliveryEntity;
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
 import io.gravitee.management.service.GenericNotificationConfigService;
 import io.gravitee.management.service.PortalNotificationConfigService;
 import io.gravitee.management.service.exceptions.ForbiddenAccessException;
+import io.gravitee.management.service.notifiers.WebhookDeliveryService;
 import io.gravitee.repository.management.model.NotificationReferenceType;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -51,6 +53,9 @@ public class ApiNotificationSettingsResource extends AbstractResource {
     @Autowired
     private GenericNotificationConfigService genericNotificationConfigService;
 
+    @Autowired
+    private WebhookDeliveryService webhookDeliveryService;
+
     @GET
     @ApiOperation(value = "Get notification settings")
     @Produces(MediaType.APPLICATION_JSON)
@@ -140,6 +145,46 @@ public class ApiNotificationSettingsResource extends AbstractResource {
         return Response.noContent().build();
     }
 
+    @GET
+    @Path("deadletters")
+    @ApiOperation(value = "List the webhook calls given up after their last attempt",
+            notes = "Dead letters are kept by each management node, only the ones of the node answering are listed")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Permissions({
+            @Permission(value = API_NOTIFICATION, acls = UPDATE)
+    })
+    public List<WebhookDeliveryEntity> getDeadLetters(@PathParam("api") String api) {
+        return webhookDeliveryService.findDeadLetters(NotificationReferenceType.API, api);
+    }
+
+    @POST
+    @Path("deadletters/{delivery}/_retry")
+    @ApiOperation(value = "Queue again a webhook call given up after its last attempt",
+            notes = "Only a dead letter of the node answering can be queued again, other nodes answer 404")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Permissions({
+            @Permission(value = API_NOTIFICATION, acls = UPDATE)
+    })
+    public WebhookDeliveryEntity retryDeadLetter(
+            @PathParam("api") String api,
+            @PathParam("delivery") String delivery) {
+        return webhookDeliveryService.retry(NotificationReferenceType.API, api, delivery);
+    }
+
+    @DELETE
+    @Path("deadletters/{delivery}")
+    @ApiOperation(value = "Delete a webhook call given up after its last attempt",
+            notes = "Only a dead letter of the node answering can be deleted, other nodes answer 404")
+    @Permissions({
+            @Permission(value = API_NOTIFICATION, acls = DELETE)
+    })
+    public Response deleteDeadLetter(
+            @PathParam("api") String api,
+            @PathParam("delivery") String delivery) {
+        webhookDeliveryService.delete(NotificationReferenceType.API, api, delivery);
+        return Response.noContent().build();
+    }
+
     private PortalNotificationConfigEntity convert(GenericNotificationConfigEntity generic) {
         PortalNotificationConfigEntity portalNotificationConfigEntity = new PortalNotificationConfigEntity();
         portalNotificationConfigEntity.setConfigType(generic.getConfigType());
@@ -35,6 +35,8 @@ import javax.inject.Inject;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import java.util.List;
 
@@ -95,9 +97,11 @@ public class ApiPageResource extends AbstractResource {
             @ApiResponse(code = 500, message = "Internal server error")})
     public Response getPageContent(
             @PathParam("api") String api,
-            @PathParam("page") String page) {
+            @PathParam("page") String page,
+            @Context Request request) {
         final PageEntity pageEntity = getPage(api, page, true);
-        return Response.ok(pageEntity.getContent(), pageEntity.getContentType()).build();
+
+        return pageContent(request, pageEntity);
     }
 
     @PUT
@@ -25,9 +25,13 @@ import io.gravitee.management.model.permissions.RolePermission;
 import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.rest.resource.param.ApisParam;
 import io.gravitee.management.rest.resource.param.VerifyApiParam;
+import io.gravitee.management.rest.resource.param.healthcheck.HealthcheckFieldParam;
+import io.gravitee.management.rest.resource.param.healthcheck.HealthcheckTypeParam;
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
+import io.gravitee.management.service.AnalyticsScopeService;
 import io.gravitee.management.service.ApiService;
+import io.gravitee.management.service.HealthCheckService;
 import io.gravitee.management.service.RatingService;
 import io.gravitee.management.service.SwaggerService;
 import io.gravitee.management.service.TopApiService;
@@ -53,6 +57,7 @@ import java.util.stream.Collectors;
 import static io.gravitee.management.model.Visibility.PUBLIC;
 import static io.gravitee.management.model.api.ApiLifecycleState.PUBLISHED;
 import static io.gravitee.repository.management.model.View.ALL_ID;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 
@@ -65,6 +70,8 @@ import static java.util.stream.Collectors.toList;
 @Api(tags = {"API"})
 public class ApisResource extends AbstractResource {
 
+    private static final int MAX_HEALTH_APIS = 100;
+
     @Context
     private UriInfo uriInfo;
     @Context
@@ -78,6 +85,10 @@ public class ApisResource extends AbstractResource {
     private TopApiService topApiService;
     @Inject
     private RatingService ratingService;
+    @Inject
+    private HealthCheckService healthCheckService;
+    @Inject
+    private AnalyticsScopeService analyticsScopeService;
 
     @GET
     @Produces(MediaType.APPLICATION_JSON)
@@ -266,6 +277,44 @@ public class ApisResource extends AbstractResource {
         }
     }
 
+    @POST
+    @Path("_health")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get the global health-check metrics of several APIs",
+            notes = "APIs without health-check data, unknown or whose health the current user can not read, are left out")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Global health-check metrics, by API id"),
+            @ApiResponse(code = 400, message = "Too many APIs"),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    public Map<String, Map<String, Double>> health(
+            @QueryParam("type") @DefaultValue("availability") HealthcheckTypeParam healthcheckTypeParam,
+            @QueryParam("field") @DefaultValue("endpoint") HealthcheckFieldParam healthcheckFieldParam,
+            List<String> apis) {
+        if (apis == null || apis.isEmpty() || !isAuthenticated()) {
+            return emptyMap();
+        }
+        if (apis.size() > MAX_HEALTH_APIS) {
+            throw new BadRequestException("The health of at most " + MAX_HEALTH_APIS + " APIs can be read at once");
+        }
+
+        // The readable APIs are resolved at once, not API by API
+        final List<String> readableApis;
+        if (isAdmin()) {
+            readableApis = apis;
+        } else {
+            final Set<String> readable = analyticsScopeService.findApis(getAuthenticatedUser(), RolePermission.API_HEALTH);
+            readableApis = apis.stream().filter(readable::contains).collect(toList());
+        }
+
+        switch (healthcheckTypeParam.getValue()) {
+            case RESPONSE_TIME:
+                return healthCheckService.getResponseTime(readableApis, healthcheckFieldParam.getValue().name());
+            default:
+                return healthCheckService.getAvailability(readableApis, healthcheckFieldParam.getValue().name());
+        }
+    }
+
     @Path("{api}")
     public ApiResource getApiResource() {
         return resourceContext.getResource(ApiResource.class);
@@ -24,6 +24,7 @@ import io.gravitee.management.model.permissions.RolePermissionAction;
 import io.gravitee.management.rest.resource.param.LogsParam;
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
+import io.gravitee.management.rest.utils.CsvExports;
 import io.gravitee.management.service.LogsService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -109,4 +110,31 @@ public class ApplicationLogsResource extends AbstractResource {
                 .header(HttpHeaders.CONTENT_DISPOSITION, format("attachment;filename=logs-%s-%s.csv", application, System.currentTimeMillis()))
                 .build();
     }
+
+    @GET
+    @Path("export/stream")
+    @Produces(MediaType.TEXT_PLAIN)
+    @ApiOperation(value = "Export all the Application logs of the time range as CSV",
+            notes = "Rows are streamed page after page, up to the given limit or the configured maximum number of rows")
+    @ApiResponses({
+            @ApiResponse(code = 200, message = "Application logs as CSV"),
+            @ApiResponse(code = 500, message = "Internal server error")})
+    @Permissions({@Permission(value = RolePermission.APPLICATION_LOG, acls = RolePermissionAction.READ)})
+    public Response streamApplicationLogsAsCSV(
+            @PathParam("application") String application,
+            @BeanParam LogsParam param,
+            @QueryParam("limit") long limit,
+            @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+
+        param.validate();
+
+        LogQuery logQuery = new LogQuery();
+        logQuery.setQuery(param.getQuery());
+        logQuery.setFrom(param.getFrom());
+        logQuery.setTo(param.getTo());
+        logQuery.setOrder(param.isOrder());
+
+        return CsvExports.stream("logs-" + application, acceptEncoding,
+                writer -> logsService.exportByApplication(application, logQuery, limit, writer));
+    }
 }
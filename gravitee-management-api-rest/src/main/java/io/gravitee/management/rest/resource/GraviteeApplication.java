@@ -17,7 +17,10 @@ package io.gravitee.management.rest.resource;
 
 import com.fasterxml.jackson.databind.JavaType;
 import io.gravitee.common.util.Version;
+import io.gravitee.management.rest.filter.DataLoaderScopeFilter;
 import io.gravitee.management.rest.filter.PermissionsFilter;
+import io.gravitee.management.rest.filter.RepositoryCallResourceFilter;
+import io.gravitee.management.rest.filter.RepositoryCallsFilter;
 import io.gravitee.management.rest.filter.SecurityContextFilter;
 import io.gravitee.management.rest.mapper.ObjectMapperResolver;
 import io.gravitee.management.rest.provider.*;
@@ -123,6 +126,9 @@ public class GraviteeApplication extends ResourceConfig {
         register(SecurityContextFilter.class);
         register(PermissionsFilter.class);
         register(UriBuilderRequestFilter.class);
+        register(RepositoryCallsFilter.class);
+        register(RepositoryCallResourceFilter.class);
+        register(DataLoaderScopeFilter.class);
         register(ByteArrayOutputStreamWriter.class);
         register(JacksonFeature.class);
 
@@ -16,34 +16,26 @@
 package io.gravitee.management.rest.resource;
 
 import io.gravitee.common.http.MediaType;
-import io.gravitee.management.model.api.ApiEntity;
-import io.gravitee.management.model.ApplicationEntity;
-import io.gravitee.management.model.analytics.Analytics;
+import io.gravitee.management.model.analytics.BatchAnalytics;
 import io.gravitee.management.model.analytics.query.*;
-import io.gravitee.management.model.application.ApplicationListItem;
-import io.gravitee.management.rest.resource.param.Aggregation;
 import io.gravitee.management.rest.resource.param.AnalyticsParam;
-import io.gravitee.management.rest.resource.param.Range;
+import io.gravitee.management.rest.resource.param.AnalyticsQueryParam;
 import io.gravitee.management.rest.security.Permission;
 import io.gravitee.management.rest.security.Permissions;
+import io.gravitee.management.rest.utils.AnalyticsQueries;
+import io.gravitee.management.service.AnalyticsScopeService;
 import io.gravitee.management.service.AnalyticsService;
-import io.gravitee.management.service.ApiService;
-import io.gravitee.management.service.ApplicationService;
-import io.gravitee.management.service.PermissionService;
 import io.swagger.annotations.Api;
 
 import javax.inject.Inject;
-import javax.ws.rs.BeanParam;
-import javax.ws.rs.GET;
-import javax.ws.rs.Produces;
+import javax.ws.rs.*;
 import javax.ws.rs.core.Response;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Set;
 
-import static io.gravitee.management.model.permissions.RolePermission.API_ANALYTICS;
-import static io.gravitee.management.model.permissions.RolePermission.APPLICATION_ANALYTICS;
 import static io.gravitee.management.model.permissions.RolePermission.MANAGEMENT_PLATFORM;
 import static io.gravitee.management.model.permissions.RolePermissionAction.READ;
 
@@ -55,17 +47,14 @@ import static io.gravitee.management.model.permissions.RolePermissionAction.READ
 @Api(tags = {"Gateway"})
 public class PlatformAnalyticsResource extends AbstractResource  {
 
-    @Inject
-    private AnalyticsService analyticsService;
+    private static final String NO_CONTENT = "No API or application to compute analytics of";
 
     @Inject
-    ApiService apiService;
+    private AnalyticsService analyticsService;
 
     @Inject
-    PermissionService permissionService;
+    AnalyticsScopeService analyticsScopeService;
 
-    @Inject
-    ApplicationService applicationService;
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @Permissions({
@@ -75,130 +64,58 @@ public class PlatformAnalyticsResource extends AbstractResource  {
 
         analyticsParam.validate();
 
-        Analytics analytics = null;
-
-        // add filter by Apis or Applications
-        String extraFilter = null;
-        if (!isAdmin()) {
-            String fieldName = null;
-            List<String> ids = null;
-            if ("api".equals(analyticsParam.getField()) || "tenant".equals(analyticsParam.getField())) {
-                fieldName = "api";
-                ids = apiService.findByUser(getAuthenticatedUser(), null)
-                        .stream()
-                        .filter(api -> permissionService.hasPermission(API_ANALYTICS, api.getId(), READ))
-                        .map(ApiEntity::getId)
-                        .collect(Collectors.toList());
-            } else if ("application".equals(analyticsParam.getField())) {
-                fieldName = analyticsParam.getField();
-                ids = applicationService.findByUser(getAuthenticatedUser())
-                        .stream()
-                        .filter(app -> permissionService.hasPermission(APPLICATION_ANALYTICS, app.getId(), READ))
-                        .map(ApplicationListItem::getId)
-                        .collect(Collectors.toList());
-            }
-
-            if (fieldName != null) {
-                if (ids.isEmpty()) {
-                    return Response.noContent().build();
-                }
-                extraFilter = getExtraFilter(fieldName, ids);
-            }
-        }
-
-        switch (analyticsParam.getTypeParam().getValue()) {
-            case DATE_HISTO:
-                analytics = executeDateHisto(analyticsParam, extraFilter);
-                break;
-            case GROUP_BY:
-                analytics = executeGroupBy(analyticsParam, extraFilter);
-                break;
-            case COUNT:
-                analytics = executeCount(analyticsParam, extraFilter);
-                break;
+        // restrict to the Apis or Applications of the user
+        final Map<String, Set<String>> terms = getTerms(analyticsParam.getField());
+        if (isEmpty(terms)) {
+            return Response.noContent().build();
         }
 
-        return Response.ok(analytics).build();
+        final AbstractQuery query = AnalyticsQueries.of(analyticsParam);
+        query.setTerms(terms);
+        return Response.ok(AnalyticsQueries.execute(analyticsService, query, analyticsParam)).build();
     }
 
-    private Analytics executeCount(AnalyticsParam analyticsParam, String extraFilter) {
-        CountQuery query = new CountQuery();
-        query.setFrom(analyticsParam.getFrom());
-        query.setTo(analyticsParam.getTo());
-        query.setInterval(analyticsParam.getInterval());
-        query.setQuery(analyticsParam.getQuery());
-        addExtraFilter(query, extraFilter);
-        return analyticsService.execute(query);
-    }
-
-    private Analytics executeDateHisto(AnalyticsParam analyticsParam, String extraFilter) {
-        DateHistogramQuery query = new DateHistogramQuery();
-        query.setFrom(analyticsParam.getFrom());
-        query.setTo(analyticsParam.getTo());
-        query.setInterval(analyticsParam.getInterval());
-        query.setQuery(analyticsParam.getQuery());
-        List<Aggregation> aggregations = analyticsParam.getAggregations();
-        if (aggregations != null) {
-            List<io.gravitee.management.model.analytics.query.Aggregation> aggregationList = aggregations
-                    .stream()
-                    .map((Function<Aggregation, io.gravitee.management.model.analytics.query.Aggregation>) aggregation -> new io.gravitee.management.model.analytics.query.Aggregation() {
-                        @Override
-                        public AggregationType type() {
-                            return AggregationType.valueOf(aggregation.getType().name().toUpperCase());
-                        }
-
-                        @Override
-                        public String field() {
-                            return aggregation.getField();
-                        }
-                    }).collect(Collectors.toList());
-
-            query.setAggregations(aggregationList);
-        }
-        addExtraFilter(query, extraFilter);
-        return analyticsService.execute(query);
-    }
-
-    private Analytics executeGroupBy(AnalyticsParam analyticsParam, String extraFilter) {
-        GroupByQuery query = new GroupByQuery();
-        query.setFrom(analyticsParam.getFrom());
-        query.setTo(analyticsParam.getTo());
-        query.setInterval(analyticsParam.getInterval());
-        query.setQuery(analyticsParam.getQuery());
-        query.setField(analyticsParam.getField());
-
-        if (analyticsParam.getOrder() != null) {
-            final GroupByQuery.Order order = new GroupByQuery.Order();
-            order.setField(analyticsParam.getOrder().getField());
-            order.setType(analyticsParam.getOrder().getType());
-            order.setOrder(analyticsParam.getOrder().isOrder());
-            query.setOrder(order);
+    @POST
+    @Path("_batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Permissions({
+            @Permission(value = MANAGEMENT_PLATFORM, acls = READ)
+    })
+    public BatchAnalytics batch(List<AnalyticsQueryParam> queryParams) {
+        final Map<String, AbstractQuery> queries = AnalyticsQueries.of(queryParams);
+        final Map<String, String> errors = new LinkedHashMap<>();
+        for (AnalyticsQueryParam queryParam : queryParams) {
+            final Map<String, Set<String>> terms = getTerms(queryParam.getField());
+            if (isEmpty(terms)) {
+                // nothing to show, as a single analytics request has no content
+                queries.remove(queryParam.getId());
+                errors.put(queryParam.getId(), NO_CONTENT);
+            } else {
+                queries.get(queryParam.getId()).setTerms(terms);
+            }
         }
 
-        List<Range> ranges = analyticsParam.getRanges();
-        if (ranges != null) {
-            Map<Double, Double> rangeMap = ranges.stream().collect(
-                    Collectors.toMap(Range::getFrom, Range::getTo));
-
-            query.setGroups(rangeMap);
-        }
-        addExtraFilter(query, extraFilter);
-        return analyticsService.execute(query);
+        final BatchAnalytics batch = queries.isEmpty() ? new BatchAnalytics() : analyticsService.execute(queries);
+        batch.getErrors().putAll(errors);
+        return batch;
     }
 
-    private void addExtraFilter(AbstractQuery query, String extraFilter) {
-        if (query.getQuery() == null || query.getQuery().isEmpty()) {
-            query.setQuery(extraFilter);
-        } else if (extraFilter != null && ! extraFilter.isEmpty()) {
-            query.setQuery(query.getQuery() + " AND " + extraFilter);
-        } else {
-            query.setQuery(query.getQuery());
-        }
+    private static boolean isEmpty(Map<String, Set<String>> terms) {
+        return terms != null && terms.values().iterator().next().isEmpty();
     }
 
-    private String getExtraFilter(String fieldName, List<String> ids) {
-        if (ids != null && !ids.isEmpty()) {
-            return fieldName + ":(" + ids.stream().collect(Collectors.joining(" OR ")) + ")";
+    /**
+     * @return the Apis or Applications the analytics of the user are restricted to, <code>null</code> if none
+     */
+    private Map<String, Set<String>> getTerms(String field) {
+        if (isAdmin()) {
+            return null;
+        }
+        if ("api".equals(field) || "tenant".equals(field)) {
+            return Collections.singletonMap("api", analyticsScopeService.findApis(getAuthenticatedUser()));
+        } else if ("application".equals(field)) {
+            return Collections.singletonMap("application", analyticsScopeService.findApplications(getAuthenticatedUser()));
         }
         return null;
     }
@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.resource;
+
+import io.gravitee.common.http.MediaType;
+import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.repository.cache.RepositoryCache;
+import io.gravitee.management.repository.cache.RepositoryCacheManager;
+import io.gravitee.management.repository.metrics.MethodMetrics;
+import io.gravitee.management.repository.metrics.RepositoryMetrics;
+import io.gravitee.management.rest.security.Permission;
+import io.gravitee.management.rest.security.Permissions;
+import io.gravitee.management.service.EmailService;
+import io.gravitee.management.service.SwaggerService;
+import io.gravitee.management.service.audit.AuditWriter;
+import io.gravitee.management.service.executor.AsyncExecutors;
+import io.gravitee.management.service.notifiers.WebNotifierService;
+import io.gravitee.management.service.notifiers.WebhookDeliveryService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Api(tags = {"Gateway"})
+public class PlatformMetricsResource extends AbstractResource {
+
+    @Inject
+    private RepositoryMetrics repositoryMetrics;
+
+    @Inject
+    private RepositoryCacheManager repositoryCacheManager;
+
+    @Inject
+    private AuditWriter auditWriter;
+
+    @Inject
+    private AsyncExecutors asyncExecutors;
+
+    @Inject
+    private WebNotifierService webNotifierService;
+
+    @Inject
+    private WebhookDeliveryService webhookDeliveryService;
+
+    @Inject
+    private EmailService emailService;
+
+    @Inject
+    private SwaggerService swaggerService;
+
+    @GET
+    @Path("repositories")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get call counts and latencies of the repositories of this management node")
+    @Permissions({
+            @Permission(value = RolePermission.MANAGEMENT_PLATFORM, acls = RolePermissionAction.READ)
+    })
+    public Map<String, Map<String, MethodMetrics>> repositories() {
+        final Map<String, Map<String, MethodMetrics>> metrics = new TreeMap<>();
+        repositoryMetrics.getMetrics().forEach(methodMetrics -> metrics
+                .computeIfAbsent(methodMetrics.getRepository(), repository -> new TreeMap<>())
+                .put(methodMetrics.getMethod(), methodMetrics));
+        return metrics;
+    }
+
+    @GET
+    @Path("caches")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get hits, misses and evictions of the repository caches of this management node")
+    @Permissions({
+            @Permission(value = RolePermission.MANAGEMENT_PLATFORM, acls = RolePermissionAction.READ)
+    })
+    public Map<String, Map<String, Long>> caches() {
+        final Map<String, Map<String, Long>> metrics = new TreeMap<>();
+        for (RepositoryCache cache : repositoryCacheManager.getCaches()) {
+            metrics.put(cache.getName(), cache.metrics());
+        }
+        return metrics;
+    }
+
+    @GET
+    @Path("audit")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get queued, written, overflowed and dropped audits of this management node")
+    @Permissions({
+            @Permission(value = RolePermission.MANAGEMENT_PLATFORM, acls = RolePermissionAction.READ)
+    })
+    public Map<String, Long> audit() {
+        return auditWriter.metrics();
+    }
+
+    @GET
+    @Path("executors")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get active, queued and rejected tasks and task latencies of the executors of this management node")
+    @Permissions({
+            @Permission(value = RolePermission.MANAGEMENT_PLATFORM, acls = RolePermissionAction.READ)
+    })
+    public Map<String, Map<String, Long>> executors() {
+        return asyncExecutors.metrics();
+    }
+
+    @GET
+    @Path("webhooks")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get delivered, failed and retried webhook calls and their latencies of this management node")
+    @Permissions({
+            @Permission(value = RolePermission.MANAGEMENT_PLATFORM, acls = RolePermissionAction.READ)
+    })
+    public Map<String, Long> webhooks() {
+        return webNotifierService.metrics();
+    }
+
+    @GET
+    @Path("webhooks/deliveries")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get pending, delivered, retried and dead webhook calls of the delivery queue of this management node")
+    @Permissions({
+            @Permission(value = RolePermission.MANAGEMENT_PLATFORM, acls = RolePermissionAction.READ)
+    })
+    public Map<String, Long> webhookDeliveries() {
+        return webhookDeliveryService.metrics();
+    }
+
+    @GET
+    @Path("emails")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get pending, sent and failed emails of this management node")
+    @Permissions({
+            @Permission(value = RolePermission.MANAGEMENT_PLATFORM, acls = RolePermissionAction.READ)
+    })
+    public Map<String, Long> emails() {
+        return emailService.metrics();
+    }
+
+    @GET
+    @Path("swagger")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Get the saved and done parses of swagger descriptors of this management node")
+    @Permissions({
+            @Permission(value = RolePermission.MANAGEMENT_PLATFORM, acls = RolePermissionAction.READ)
+    })
+    public Map<String, Long> swagger() {
+        return swaggerService.metrics();
+    }
+}
@@ -43,6 +43,11 @@ public class PlatformResource {
         return resourceContext.getResource(PlatformEventsResource.class);
     }
 
+    @Path("metrics")
+    public PlatformMetricsResource getPlatformMetricsResource() {
+        return resourceContext.getResource(PlatformMetricsResource.class);
+    }
+
     @Path("tickets")
     public PlatformTicketsResource getPlatformTicketsResource() {
         return resourceContext.getResource(PlatformTicketsResource.class);
@@ -31,6 +31,8 @@ import javax.inject.Inject;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import java.net.URI;
 import java.util.List;
@@ -83,14 +85,15 @@ public class PortalPagesResource extends AbstractResource {
             @ApiResponse(code = 200, message = "Page's content"),
             @ApiResponse(code = 500, message = "Internal server error")})
     public Response getPageContent(
-            @PathParam("page") String page) {
+            @PathParam("page") String page,
+            @Context Request request) {
         PageEntity pageEntity = pageService.findById(page);
         pageService.transformSwagger(pageEntity);
-        if (isDisplayable(pageEntity.isPublished(), pageEntity.getExcludedGroups())) {
-            return Response.ok(pageEntity.getContent(), pageEntity.getContentType()).build();
-        } else {
+        if (!isDisplayable(pageEntity.isPublished(), pageEntity.getExcludedGroups())) {
             throw new UnauthorizedAccessException();
         }
+
+        return pageContent(request, pageEntity);
     }
 
     @GET
@@ -18,6 +18,7 @@ package io.gravitee.management.rest.resource;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.management.model.PortalConfigEntity;
 import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.rest.cache.PortalConfigCache;
 import io.gravitee.management.rest.resource.portal.PortalApisResource;
 import io.gravitee.management.rest.resource.portal.SocialIdentityProvidersResource;
 import io.gravitee.management.rest.security.Permission;
@@ -31,7 +32,9 @@ import javax.inject.Inject;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
 import javax.ws.rs.container.ResourceContext;
+import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 import static io.gravitee.management.model.permissions.RolePermissionAction.*;
@@ -52,10 +55,32 @@ public class PortalResource {
     @Context
     private ResourceContext resourceContext;
 
+    @Inject
+    private PortalConfigCache portalConfigCache;
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public PortalConfigEntity getConfig() {
-        return configService.getPortalConfig();
+    @ApiOperation(value = "Get the portal configuration", response = PortalConfigEntity.class)
+    public Response getConfig(@Context Request request) {
+        final PortalConfigCache.SerializedPortalConfig portalConfig = portalConfigCache.get();
+
+        CacheControl cc = new CacheControl();
+        cc.setNoCache(true);
+
+        Response.ResponseBuilder builder = request.evaluatePreconditions(portalConfig.getEntityTag());
+        if (builder != null) {
+            // Preconditions are not met, returning HTTP 304 'not-modified'
+            return builder
+                    .cacheControl(cc)
+                    .build();
+        }
+
+        return Response
+                .ok(portalConfig.getContent())
+                .type(MediaType.APPLICATION_JSON)
+                .cacheControl(cc)
+                .tag(portalConfig.getEntityTag())
+                .build();
     }
 
     @POST
@@ -45,6 +45,9 @@ public class AnalyticsAverageParam {
     @QueryParam("type")
     private AnalyticsAverageType type;
 
+    @QueryParam("format")
+    private HistogramFormatParam format;
+
     public long getFrom() {
         return from;
     }
@@ -76,4 +79,12 @@ public class AnalyticsAverageParam {
     public void setType(AnalyticsAverageType type) {
         this.type = type;
     }
+
+    public HistogramFormatParam.HistogramFormat getFormat() {
+        return (format == null || format.getValue() == null) ? HistogramFormatParam.HistogramFormat.BUCKETS : format.getValue();
+    }
+
+    public void setFormat(HistogramFormatParam format) {
+        this.format = format;
+    }
 }
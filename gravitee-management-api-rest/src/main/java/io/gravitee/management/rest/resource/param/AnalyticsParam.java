@@ -59,6 +59,9 @@ public class AnalyticsParam {
     @QueryParam("order")
     private OrderParam order;
 
+    @QueryParam("format")
+    private HistogramFormatParam format;
+
     public long getFrom() {
         return from;
     }
@@ -131,14 +134,34 @@ public class AnalyticsParam {
         return (ranges == null) ? null : ranges.getValue();
     }
 
+    public void setRanges(RangesParam ranges) {
+        this.ranges = ranges;
+    }
+
     public List<Aggregation> getAggregations() {
         return (aggs == null) ? null : aggs.getValue();
     }
 
+    public void setAggregations(AggregationsParam aggs) {
+        this.aggs = aggs;
+    }
+
     public OrderParam.Order getOrder() {
         return (order == null) ? null : order.getValue();
     }
 
+    public void setOrder(OrderParam order) {
+        this.order = order;
+    }
+
+    public HistogramFormatParam.HistogramFormat getFormat() {
+        return (format == null || format.getValue() == null) ? HistogramFormatParam.HistogramFormat.BUCKETS : format.getValue();
+    }
+
+    public void setFormat(HistogramFormatParam format) {
+        this.format = format;
+    }
+
     public void validate() throws WebApplicationException {
         if (type.getValue() == null) {
             throw new WebApplicationException(Response
@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.resource.param;
+
+/**
+ * A query of a batch of analytics, with the same parameters as a single analytics request.
+ *
+ * @author GraviteeSource Team
+ */
+public class AnalyticsQueryParam {
+
+    private String id;
+    private String type;
+    private long from;
+    private long to;
+    private long interval;
+    private String query;
+    private String field;
+    private String ranges;
+    private String aggs;
+    private String order;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public void setFrom(long from) {
+        this.from = from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public void setTo(long to) {
+        this.to = to;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public void setInterval(long interval) {
+        this.interval = interval;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    public String getRanges() {
+        return ranges;
+    }
+
+    public void setRanges(String ranges) {
+        this.ranges = ranges;
+    }
+
+    public String getAggs() {
+        return aggs;
+    }
+
+    public void setAggs(String aggs) {
+        this.aggs = aggs;
+    }
+
+    public String getOrder() {
+        return order;
+    }
+
+    public void setOrder(String order) {
+        this.order = order;
+    }
+
+    public AnalyticsParam toAnalyticsParam() {
+        final AnalyticsParam analyticsParam = new AnalyticsParam();
+        analyticsParam.setTypeParam(new AnalyticsTypeParam(type));
+        analyticsParam.setFrom(from);
+        analyticsParam.setTo(to);
+        analyticsParam.setInterval(interval);
+        analyticsParam.setQuery(query);
+        analyticsParam.setField(field);
+        if (ranges != null) {
+            analyticsParam.setRanges(new RangesParam(ranges));
+        }
+        if (aggs != null) {
+            analyticsParam.setAggregations(new AggregationsParam(aggs));
+        }
+        if (order != null) {
+            analyticsParam.setOrder(new OrderParam(order));
+        }
+        return analyticsParam;
+    }
+}
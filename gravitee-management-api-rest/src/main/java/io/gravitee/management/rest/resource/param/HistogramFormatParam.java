@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.resource.param;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class HistogramFormatParam extends AbstractParam<HistogramFormatParam.HistogramFormat> {
+
+    public enum HistogramFormat {
+        /**
+         * Nested buckets, the default format.
+         */
+        BUCKETS,
+        /**
+         * One array of timestamps and one array of values per series.
+         */
+        COLUMNAR
+    }
+
+    public HistogramFormatParam(String param) {
+        super(param);
+    }
+
+    @Override
+    protected HistogramFormat parse(String param) {
+        if (param != null) {
+            return HistogramFormat.valueOf(param.toUpperCase());
+        }
+        return null;
+    }
+}
@@ -22,6 +22,7 @@ import freemarker.core.HTMLOutputFormat;
 import freemarker.core.TemplateClassResolver;
 import freemarker.core.TemplateConfiguration;
 import io.gravitee.common.util.EnvironmentUtils;
+import io.gravitee.management.service.email.InlineImageTemplateLoader;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,6 +71,9 @@ public class EmailConfiguration {
     @Value("${templates.path:${gravitee.home}/templates}")
     private String templatesPath;
 
+    @Value("${templates.refresh:5000}")
+    private long templatesRefresh;
+
     @Autowired
     private ConfigurableEnvironment environment;
 
@@ -106,12 +110,15 @@ public class EmailConfiguration {
         TemplateConfiguration tcHTML = new TemplateConfiguration();
         tcHTML.setOutputFormat(HTMLOutputFormat.INSTANCE);
 
+        // templates are compiled once and loaded again when their file changes
+        configuration.setTemplateUpdateDelayMilliseconds(templatesRefresh);
+
         configuration.setTemplateConfigurations(
                 new ConditionalTemplateConfigurationFactory(new FileExtensionMatcher(HTML_TEMPLATE_EXTENSION), tcHTML));
 
         try {
             configuration.setNewBuiltinClassResolver(TemplateClassResolver.SAFER_RESOLVER);
-            configuration.setTemplateLoader(new FileTemplateLoader(new File(templatesPath)));
+            configuration.setTemplateLoader(new InlineImageTemplateLoader(new FileTemplateLoader(new File(templatesPath))));
         } catch (final IOException e) {
             LOGGER.warn("Error occurred while trying to read email templates directory", e);
         }
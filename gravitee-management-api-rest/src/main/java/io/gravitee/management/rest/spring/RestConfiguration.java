@@ -34,7 +34,7 @@ import java.util.Properties;
  * @author GraviteeSource Team
  */
 @Configuration
-@ComponentScan({"io.gravitee.management.rest.enhancer"})
+@ComponentScan({"io.gravitee.management.rest.enhancer", "io.gravitee.management.rest.cache"})
 @Import({
         PropertiesConfiguration.class, PluginConfiguration.class, ServiceConfiguration.class,
         SecurityConfiguration.class, EmailConfiguration.class, IdentityProviderPluginConfiguration.class
@@ -0,0 +1,151 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.utils;
+
+import io.gravitee.management.model.analytics.Analytics;
+import io.gravitee.management.model.analytics.query.*;
+import io.gravitee.management.rest.resource.param.AnalyticsParam;
+import io.gravitee.management.rest.resource.param.AnalyticsQueryParam;
+import io.gravitee.management.rest.resource.param.HistogramFormatParam;
+import io.gravitee.management.rest.resource.param.Range;
+import io.gravitee.management.service.AnalyticsService;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the analytics queries of a single request or of a batch from their parameters.
+ *
+ * @author GraviteeSource Team
+ */
+public final class AnalyticsQueries {
+
+    private static final int MAX_BATCH_SIZE = 50;
+
+    private AnalyticsQueries() {
+    }
+
+    /**
+     * @return the validated queries by id, in the order of the batch
+     */
+    public static Map<String, AbstractQuery> of(List<AnalyticsQueryParam> params) {
+        if (params == null || params.isEmpty() || params.size() > MAX_BATCH_SIZE) {
+            throw badRequest("A batch must hold between 1 and " + MAX_BATCH_SIZE + " analytics queries");
+        }
+
+        final Map<String, AbstractQuery> queries = new LinkedHashMap<>();
+        for (AnalyticsQueryParam param : params) {
+            if (param.getId() == null || queries.containsKey(param.getId())) {
+                throw badRequest("Each analytics query of a batch must have a unique 'id'");
+            }
+            final AnalyticsParam analyticsParam = param.toAnalyticsParam();
+            analyticsParam.validate();
+            queries.put(param.getId(), of(analyticsParam));
+        }
+        return queries;
+    }
+
+    /**
+     * @return the validated queries by id, in the order of the batch, restricted to the given root
+     */
+    public static Map<String, AbstractQuery> of(List<AnalyticsQueryParam> params, String rootField, String rootIdentifier) {
+        final Map<String, AbstractQuery> queries = of(params);
+        queries.values().forEach(query -> {
+            query.setRootField(rootField);
+            query.setRootIdentifier(rootIdentifier);
+        });
+        return queries;
+    }
+
+    public static AbstractQuery of(AnalyticsParam analyticsParam, String rootField, String rootIdentifier) {
+        final AbstractQuery query = of(analyticsParam);
+        query.setRootField(rootField);
+        query.setRootIdentifier(rootIdentifier);
+        return query;
+    }
+
+    public static AbstractQuery of(AnalyticsParam analyticsParam) {
+        final AbstractQuery query;
+        switch (analyticsParam.getType()) {
+            case DATE_HISTO:
+                final DateHistogramQuery dateHistogramQuery = new DateHistogramQuery();
+                if (analyticsParam.getAggregations() != null) {
+                    dateHistogramQuery.setAggregations(analyticsParam.getAggregations().stream()
+                            .map(aggregation -> new Aggregation() {
+                                @Override
+                                public AggregationType type() {
+                                    return AggregationType.valueOf(aggregation.getType().name().toUpperCase());
+                                }
+
+                                @Override
+                                public String field() {
+                                    return aggregation.getField();
+                                }
+                            }).collect(Collectors.toList()));
+                }
+                query = dateHistogramQuery;
+                break;
+            case GROUP_BY:
+                final GroupByQuery groupByQuery = new GroupByQuery();
+                groupByQuery.setField(analyticsParam.getField());
+                if (analyticsParam.getOrder() != null) {
+                    final GroupByQuery.Order order = new GroupByQuery.Order();
+                    order.setField(analyticsParam.getOrder().getField());
+                    order.setType(analyticsParam.getOrder().getType());
+                    order.setOrder(analyticsParam.getOrder().isOrder());
+                    groupByQuery.setOrder(order);
+                }
+                if (analyticsParam.getRanges() != null) {
+                    groupByQuery.setGroups(analyticsParam.getRanges().stream().collect(
+                            Collectors.toMap(Range::getFrom, Range::getTo)));
+                }
+                query = groupByQuery;
+                break;
+            default:
+                query = new CountQuery();
+        }
+        query.setFrom(analyticsParam.getFrom());
+        query.setTo(analyticsParam.getTo());
+        query.setInterval(analyticsParam.getInterval());
+        query.setQuery(analyticsParam.getQuery());
+        return query;
+    }
+
+    /**
+     * Executes a single query, a histogram being returned in the format requested by the parameters.
+     */
+    public static Analytics execute(AnalyticsService analyticsService, AbstractQuery query, AnalyticsParam analyticsParam) {
+        if (query instanceof DateHistogramQuery) {
+            return analyticsParam.getFormat() == HistogramFormatParam.HistogramFormat.COLUMNAR ?
+                    analyticsService.executeColumnar((DateHistogramQuery) query) :
+                    analyticsService.execute((DateHistogramQuery) query);
+        } else if (query instanceof GroupByQuery) {
+            return analyticsService.execute((GroupByQuery) query);
+        }
+        return analyticsService.execute((CountQuery) query);
+    }
+
+    private static WebApplicationException badRequest(String message) {
+        return new WebApplicationException(Response
+                .status(Response.Status.BAD_REQUEST)
+                .entity(message)
+                .build());
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.utils;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import static java.lang.String.format;
+
+/**
+ * Streams a CSV export straight to the response output stream, gzipped when the client accepts it. Writing to a
+ * closed connection fails, which stops the export as soon as the client goes away.
+ *
+ * @author GraviteeSource Team
+ */
+public final class CsvExports {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private CsvExports() {
+    }
+
+    @FunctionalInterface
+    public interface Export {
+        void writeTo(Writer writer) throws IOException;
+    }
+
+    public static Response stream(String name, String acceptEncoding, Export export) {
+        final boolean gzip = acceptsGzip(acceptEncoding);
+        final StreamingOutput output = outputStream -> {
+            final OutputStream out = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                export.writeTo(writer);
+            }
+        };
+
+        final Response.ResponseBuilder response = Response
+                .ok(output)
+                .header(HttpHeaders.CONTENT_DISPOSITION, format("attachment;filename=%s-%s.csv", name, System.currentTimeMillis()));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.build();
+    }
+
+    /**
+     * Whether gzip, or any coding, is accepted with a non-zero quality value (ie. not for <code>gzip;q=0</code>).
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Float gzip = null;
+        Float any = null;
+        for (String token : acceptEncoding.split(",")) {
+            final String[] parts = token.split(";");
+            final String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            float quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                final String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Float.parseFloat(parameter.substring(2).trim());
+                    } catch (NumberFormatException nfe) {
+                        quality = 0;
+                    }
+                }
+            }
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzip = quality;
+            } else if ("*".equals(coding)) {
+                any = quality;
+            }
+        }
+        return gzip != null ? gzip > 0 : any != null && any > 0;
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class EntityTagsTest {
+
+    @Test
+    public void shouldTagWithSha256() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", EntityTags.sha256("").getValue());
+        assertFalse(EntityTags.sha256("").isWeak());
+    }
+
+    @Test
+    public void shouldTagContentsWithSameHashCodeDifferently() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(EntityTags.sha256("Aa"), EntityTags.sha256("BB"));
+    }
+}
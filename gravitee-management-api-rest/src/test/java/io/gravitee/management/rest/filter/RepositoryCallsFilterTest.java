@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.filter;
+
+import io.gravitee.management.repository.metrics.RepositoryCallContext;
+import io.gravitee.management.repository.metrics.RepositoryCallCounter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.core.UriInfo;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RepositoryCallsFilterTest {
+
+    private final RepositoryCallsFilter filter = new RepositoryCallsFilter();
+
+    @Mock
+    private ContainerRequestContext requestContext;
+    @Mock
+    private ContainerResponseContext responseContext;
+    @Mock
+    private UriInfo uriInfo;
+
+    @Before
+    public void init() {
+        when(requestContext.getUriInfo()).thenReturn(uriInfo);
+        when(uriInfo.getPath()).thenReturn("apis");
+    }
+
+    @After
+    public void clear() {
+        RepositoryCallCounter.reset();
+        RepositoryCallContext.clear();
+    }
+
+    @Test
+    public void shouldReportCallsAndResetAfterResponse() throws IOException {
+        filter.filter(requestContext);
+        assertEquals("apis", RepositoryCallContext.resource());
+        RepositoryCallCounter.increment();
+        RepositoryCallCounter.increment();
+
+        filter.filter(requestContext, responseContext);
+
+        verify(requestContext).setProperty(RepositoryCallsFilter.REPOSITORY_CALLS_ATTRIBUTE, 2);
+        verifyZeroInteractions(responseContext);
+        assertEquals(0, RepositoryCallCounter.get());
+        assertNull(RepositoryCallContext.resource());
+    }
+
+    @Test
+    public void shouldNotReportCallsOfPreviousRequest() throws IOException {
+        filter.filter(requestContext);
+        RepositoryCallCounter.increment();
+        filter.filter(requestContext, responseContext);
+
+        // next request on the same thread, aborted before any repository call
+        filter.filter(requestContext);
+        filter.filter(requestContext, responseContext);
+
+        verify(requestContext, times(1)).setProperty(eq(RepositoryCallsFilter.REPOSITORY_CALLS_ATTRIBUTE), any());
+    }
+}
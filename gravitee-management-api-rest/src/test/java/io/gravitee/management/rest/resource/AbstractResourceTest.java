@@ -121,6 +121,15 @@ public abstract class AbstractResourceTest extends JerseySpringTest {
     @Autowired
     protected ParameterService parameterService;
 
+    @Autowired
+    protected HealthCheckService healthCheckService;
+
+    @Autowired
+    protected AnalyticsService analyticsService;
+
+    @Autowired
+    protected AnalyticsScopeService analyticsScopeService;
+
     @Configuration
     @PropertySource("classpath:/io/gravitee/management/rest/resource/jwt.properties")
     static class ContextConfiguration {
@@ -239,5 +248,20 @@ public abstract class AbstractResourceTest extends JerseySpringTest {
         public ParameterService parameterService() {
             return mock(ParameterService.class);
         }
+
+        @Bean
+        public HealthCheckService healthCheckService() {
+            return mock(HealthCheckService.class);
+        }
+
+        @Bean
+        public AnalyticsService analyticsService() {
+            return mock(AnalyticsService.class);
+        }
+
+        @Bean
+        public AnalyticsScopeService analyticsScopeService() {
+            return mock(AnalyticsScopeService.class);
+        }
     }
 }
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.resource;
+
+import io.gravitee.management.model.analytics.BatchAnalytics;
+import io.gravitee.management.model.analytics.HitsAnalytics;
+import io.gravitee.management.model.analytics.query.AbstractQuery;
+import io.gravitee.management.model.analytics.query.CountQuery;
+import io.gravitee.management.model.analytics.query.GroupByQuery;
+import io.gravitee.management.rest.resource.param.AnalyticsQueryParam;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.ws.rs.core.Response;
+import java.util.Arrays;
+import java.util.Map;
+
+import static io.gravitee.common.http.HttpStatusCode.BAD_REQUEST_400;
+import static io.gravitee.common.http.HttpStatusCode.OK_200;
+import static javax.ws.rs.client.Entity.json;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ApiAnalyticsResourceTest extends AbstractResourceTest {
+
+    private static final String API = "my-api";
+
+    @Override
+    protected String contextPath() {
+        return "apis/" + API + "/analytics";
+    }
+
+    @Before
+    public void init() {
+        reset(analyticsService);
+    }
+
+    @Test
+    public void shouldGetCountOfApi() {
+        final HitsAnalytics hits = new HitsAnalytics();
+        hits.setHits(42);
+        when(analyticsService.execute(any(CountQuery.class))).thenReturn(hits);
+
+        final Response response = target()
+                .queryParam("type", "count")
+                .queryParam("from", 1000)
+                .queryParam("to", 2000)
+                .queryParam("interval", 1000)
+                .request().get();
+
+        assertEquals(OK_200, response.getStatus());
+        final ArgumentCaptor<CountQuery> query = ArgumentCaptor.forClass(CountQuery.class);
+        verify(analyticsService).execute(query.capture());
+        assertEquals("api", query.getValue().getRootField());
+        assertEquals(API, query.getValue().getRootIdentifier());
+        assertEquals(1000, query.getValue().getFrom());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldExecuteBatchOfApi() {
+        final BatchAnalytics batch = new BatchAnalytics();
+        batch.getResults().put("hits", new HitsAnalytics());
+        batch.getErrors().put("top", "Analytics calculation timed out");
+        when(analyticsService.execute(anyMap())).thenReturn(batch);
+
+        final Response response = target("_batch").request().post(json(Arrays.asList(
+                query("hits", "count", null),
+                query("top", "group_by", "application"))));
+
+        assertEquals(OK_200, response.getStatus());
+        final Map result = response.readEntity(Map.class);
+        assertEquals("Analytics calculation timed out", ((Map) result.get("errors")).get("top"));
+
+        final ArgumentCaptor<Map<String, AbstractQuery>> queries = ArgumentCaptor.forClass(Map.class);
+        verify(analyticsService).execute(queries.capture());
+        assertEquals(Arrays.asList("hits", "top"), Arrays.asList(queries.getValue().keySet().toArray()));
+        assertTrue(queries.getValue().get("hits") instanceof CountQuery);
+        assertTrue(queries.getValue().get("top") instanceof GroupByQuery);
+        queries.getValue().values().forEach(query -> {
+            assertEquals("api", query.getRootField());
+            assertEquals(API, query.getRootIdentifier());
+        });
+    }
+
+    @Test
+    public void shouldRejectBatchWithDuplicatedIds() {
+        final Response response = target("_batch").request().post(json(Arrays.asList(
+                query("hits", "count", null),
+                query("hits", "count", null))));
+
+        assertEquals(BAD_REQUEST_400, response.getStatus());
+        verify(analyticsService, never()).execute(anyMap());
+    }
+
+    @Test
+    public void shouldRejectBatchWithInvalidQuery() {
+        final AnalyticsQueryParam query = query("hits", "count", null);
+        query.setInterval(10);
+
+        final Response response = target("_batch").request().post(json(Arrays.asList(query)));
+
+        assertEquals(BAD_REQUEST_400, response.getStatus());
+        verify(analyticsService, never()).execute(anyMap());
+    }
+
+    static AnalyticsQueryParam query(String id, String type, String field) {
+        final AnalyticsQueryParam query = new AnalyticsQueryParam();
+        query.setId(id);
+        query.setType(type);
+        query.setField(field);
+        query.setFrom(1000);
+        query.setTo(2000);
+        query.setInterval(1000);
+        return query;
+    }
+}
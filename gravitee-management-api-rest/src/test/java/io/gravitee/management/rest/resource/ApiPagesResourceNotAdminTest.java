@@ -27,6 +27,9 @@ import org.junit.Test;
 import javax.annotation.Priority;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import java.io.IOException;
@@ -129,4 +132,44 @@ public class ApiPagesResourceNotAdminTest extends AbstractResourceTest {
         verify(pageService, times(1)).findById(PAGE_NAME);
         verify(pageService, times(1)).isDisplayable(apiMock, pageMock.isPublished(), USER_NAME);
     }
+
+    @Test
+    public void shouldNotGetUnmodifiedPageContent() {
+        reset(apiService, pageService, membershipService);
+        final ApiEntity apiMock = mock(ApiEntity.class);
+        when(apiMock.getVisibility()).thenReturn(Visibility.PUBLIC);
+        doReturn(apiMock).when(apiService).findById(API_NAME);
+        final PageEntity pageMock = new PageEntity();
+        pageMock.setPublished(true);
+        pageMock.setName(PAGE_NAME);
+        pageMock.setContent("# My API");
+        pageMock.setContentType(MediaType.TEXT_PLAIN);
+        when(groupService.isUserAuthorizedToAccessApiData(any(), any(), any())).thenReturn(Boolean.TRUE);
+        when(permissionService.hasPermission(any(), any(), any())).thenReturn(true);
+        doReturn(pageMock).when(pageService).findById(PAGE_NAME);
+        doReturn(true).when(pageService).isDisplayable(apiMock, pageMock.isPublished(), USER_NAME);
+
+        final Response response = target().path("content").request().get();
+
+        assertEquals(OK_200, response.getStatus());
+        assertEquals("# My API", response.readEntity(String.class));
+        final EntityTag etag = response.getEntityTag();
+        // the SHA-256 of the content
+        assertEquals(64, etag.getValue().length());
+
+        final Response notModified = target().path("content").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString())
+                .get();
+
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), notModified.getStatus());
+
+        // the rendered content changes with the API
+        pageMock.setContent("# My API v2");
+        final Response modified = target().path("content").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag.toString())
+                .get();
+
+        assertEquals(OK_200, modified.getStatus());
+        assertEquals("# My API v2", modified.readEntity(String.class));
+    }
 }
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.resource;
+
+import io.gravitee.common.http.HttpStatusCode;
+import io.gravitee.management.model.permissions.RolePermission;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ApisResourceNotAdminTest extends AbstractResourceTest {
+
+    @Override
+    protected String contextPath() {
+        return "apis";
+    }
+
+    @Override
+    protected void decorate(ResourceConfig resourceConfig) {
+        resourceConfig.register(PlatformAnalyticsResourceNotAdminTest.AuthenticationFilter.class);
+    }
+
+    @Before
+    public void init() {
+        reset(healthCheckService, analyticsScopeService, apiService);
+    }
+
+    @Test
+    public void shouldLeaveOutUnknownAndUnreadableApis() {
+        when(analyticsScopeService.findApis(USER_NAME, RolePermission.API_HEALTH))
+                .thenReturn(Collections.singleton("api-1"));
+        doReturn(singletonMap("api-1", singletonMap("1d", 99.5d)))
+                .when(healthCheckService).getAvailability(Collections.singletonList("api-1"), "ENDPOINT");
+
+        final Response response = target("_health").request()
+                .post(Entity.json(Arrays.asList("api-1", "unknown", "api-not-readable")));
+
+        assertEquals(HttpStatusCode.OK_200, response.getStatus());
+        // the readable APIs are resolved at once, not API by API
+        verify(analyticsScopeService, times(1)).findApis(anyString(), any());
+        verify(apiService, never()).findById(anyString());
+    }
+}
@@ -22,8 +22,14 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
+import static java.util.Collections.singletonMap;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.doReturn;
 
@@ -75,4 +81,28 @@ public class ApisResourceTest extends AbstractResourceTest {
         final Response response = target().request().post(Entity.json(apiEntity));
         assertEquals(HttpStatusCode.CREATED_201, response.getStatus());
     }
+
+    @Test
+    public void shouldGetHealthOfSeveralApis() {
+        doReturn(singletonMap("api-1", singletonMap("1d", 99.5d)))
+                .when(healthCheckService).getAvailability(Arrays.asList("api-1", "api-2"), "ENDPOINT");
+
+        final Response response = target("_health").request().post(Entity.json(Arrays.asList("api-1", "api-2")));
+
+        assertEquals(HttpStatusCode.OK_200, response.getStatus());
+        final Map<String, Map<String, Double>> health = response.readEntity(new GenericType<Map<String, Map<String, Double>>>() {});
+        assertEquals(singletonMap("api-1", singletonMap("1d", 99.5d)), health);
+    }
+
+    @Test
+    public void shouldNotGetHealthOfTooManyApis() {
+        final List<String> apis = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            apis.add("api-" + i);
+        }
+
+        final Response response = target("_health").request().post(Entity.json(apis));
+
+        assertEquals(HttpStatusCode.BAD_REQUEST_400, response.getStatus());
+    }
 }
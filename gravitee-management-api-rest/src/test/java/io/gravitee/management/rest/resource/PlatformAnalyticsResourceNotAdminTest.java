@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.resource;
+
+import io.gravitee.management.model.RoleEntity;
+import io.gravitee.management.model.analytics.BatchAnalytics;
+import io.gravitee.management.model.analytics.TopHitsAnalytics;
+import io.gravitee.management.model.analytics.query.AbstractQuery;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.annotation.Priority;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static io.gravitee.common.http.HttpStatusCode.OK_200;
+import static io.gravitee.management.rest.resource.ApiAnalyticsResourceTest.query;
+import static javax.ws.rs.client.Entity.json;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class PlatformAnalyticsResourceNotAdminTest extends AbstractResourceTest {
+
+    @Override
+    protected String contextPath() {
+        return "platform/analytics";
+    }
+
+    @Override
+    protected void decorate(ResourceConfig resourceConfig) {
+        resourceConfig.register(AuthenticationFilter.class);
+    }
+
+    @Priority(50)
+    public static class AuthenticationFilter implements ContainerRequestFilter {
+        @Override
+        public void filter(final ContainerRequestContext requestContext) {
+            requestContext.setSecurityContext(new SecurityContext() {
+                @Override
+                public Principal getUserPrincipal() {
+                    return () -> USER_NAME;
+                }
+                @Override
+                public boolean isUserInRole(String string) {
+                    return false;
+                }
+                @Override
+                public boolean isSecure() { return true; }
+                @Override
+                public String getAuthenticationScheme() { return "BASIC"; }
+            });
+        }
+    }
+
+    @Before
+    public void init() {
+        reset(analyticsService, analyticsScopeService, membershipService, roleService);
+        when(membershipService.getRole(any(), any(), any(), any())).thenReturn(new RoleEntity());
+        when(roleService.hasPermission(any(), any(), any())).thenReturn(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldReportQueriesWithoutScopeInErrors() {
+        when(analyticsScopeService.findApis(USER_NAME)).thenReturn(Collections.emptySet());
+        when(analyticsScopeService.findApplications(USER_NAME)).thenReturn(Collections.singleton("app-1"));
+        final BatchAnalytics batch = new BatchAnalytics();
+        batch.getResults().put("applications", new TopHitsAnalytics());
+        when(analyticsService.execute(anyMap())).thenReturn(batch);
+
+        final Response response = target("_batch").request().post(json(Arrays.asList(
+                query("apis", "group_by", "api"),
+                query("applications", "group_by", "application"))));
+
+        assertEquals(OK_200, response.getStatus());
+        final Map result = response.readEntity(Map.class);
+        assertNotNull(((Map) result.get("errors")).get("apis"));
+        assertNotNull(((Map) result.get("results")).get("applications"));
+
+        final ArgumentCaptor<Map<String, AbstractQuery>> queries = ArgumentCaptor.forClass(Map.class);
+        verify(analyticsService).execute(queries.capture());
+        assertEquals(Collections.singleton("applications"), queries.getValue().keySet());
+        assertEquals(Collections.singletonMap("application", Collections.singleton("app-1")),
+                queries.getValue().get("applications").getTerms());
+    }
+
+    @Test
+    public void shouldNotExecuteBatchWithoutScope() {
+        when(analyticsScopeService.findApis(USER_NAME)).thenReturn(Collections.emptySet());
+
+        final Response response = target("_batch").request().post(json(Arrays.asList(
+                query("apis", "group_by", "api"),
+                query("tenants", "group_by", "tenant"))));
+
+        assertEquals(OK_200, response.getStatus());
+        final Map result = response.readEntity(Map.class);
+        assertEquals(2, ((Map) result.get("errors")).size());
+        verify(analyticsService, never()).execute(anyMap());
+    }
+}
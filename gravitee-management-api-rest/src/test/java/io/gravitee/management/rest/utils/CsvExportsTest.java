@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.rest.utils;
+
+import org.junit.Test;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class CsvExportsTest {
+
+    private static final String CSV = "a;b;c\n\u00e9;f;g\n";
+
+    @Test
+    public void shouldStreamPlainCsv() throws IOException {
+        final Response response = CsvExports.stream("logs", null, writer -> writer.write(CSV));
+
+        assertNull(response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(response.getHeaderString(HttpHeaders.CONTENT_DISPOSITION).startsWith("attachment;filename=logs-"));
+        assertEquals(CSV, new String(write(response), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldStreamGzippedCsv() throws IOException {
+        final Response response = CsvExports.stream("logs", "gzip, deflate", writer -> writer.write(CSV));
+
+        assertEquals("gzip", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(write(response)))) {
+            assertEquals(CSV, new String(read(in), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void shouldNotGzipWhenRefused() throws IOException {
+        final Response response = CsvExports.stream("logs", "gzip;q=0, deflate", writer -> writer.write(CSV));
+
+        assertNull(response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(CSV, new String(write(response), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldParseAcceptedEncodings() {
+        assertTrue(CsvExports.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(CsvExports.acceptsGzip("*"));
+        assertFalse(CsvExports.acceptsGzip("*, gzip; q=0"));
+        assertFalse(CsvExports.acceptsGzip("gzip;q=0.0"));
+        assertFalse(CsvExports.acceptsGzip("br, deflate"));
+        assertFalse(CsvExports.acceptsGzip(null));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldFailWhenTheClientIsGone() throws IOException {
+        final Response response = CsvExports.stream("logs", null, writer -> {
+            for (int i = 0; i < 10_000; i++) {
+                writer.write(CSV);
+            }
+        });
+
+        ((StreamingOutput) response.getEntity()).write(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+    }
+
+    private static byte[] write(Response response) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(out);
+        return out.toByteArray();
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.permissions.RolePermission;
+
+import java.util.Set;
+
+/**
+ * Resolves the APIs and applications of which a user can read the analytics, to restrict the platform analytics, or
+ * the APIs on which a user has another read permission, to filter the APIs of a batch.
+ *
+ * @author GraviteeSource Team
+ */
+public interface AnalyticsScopeService {
+
+    Set<String> findApis(String username);
+
+    /**
+     * @return the APIs on which the user has the read permission
+     */
+    Set<String> findApis(String username, RolePermission permission);
+
+    Set<String> findApplications(String username);
+}
@@ -15,13 +15,18 @@
  */
 package io.gravitee.management.service;
 
+import io.gravitee.management.model.analytics.BatchAnalytics;
+import io.gravitee.management.model.analytics.ColumnarHistogramAnalytics;
 import io.gravitee.management.model.analytics.HistogramAnalytics;
 import io.gravitee.management.model.analytics.HitsAnalytics;
 import io.gravitee.management.model.analytics.TopHitsAnalytics;
+import io.gravitee.management.model.analytics.query.AbstractQuery;
 import io.gravitee.management.model.analytics.query.CountQuery;
 import io.gravitee.management.model.analytics.query.DateHistogramQuery;
 import io.gravitee.management.model.analytics.query.GroupByQuery;
 
+import java.util.Map;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -33,5 +38,20 @@ public interface AnalyticsService {
 
     HistogramAnalytics execute(DateHistogramQuery query);
 
+    /**
+     * Same as {@link #execute(DateHistogramQuery)}, in the columnar representation of large histograms.
+     */
+    ColumnarHistogramAnalytics executeColumnar(DateHistogramQuery query);
+
+    /**
+     * Top hits of a query restricted to a large number of terms are merged from the top hits of several queries, and
+     * are then approximate (see <code>management.analytics.terms.chunkSize</code>).
+     */
     TopHitsAnalytics execute(GroupByQuery query);
+
+    /**
+     * Executes the queries concurrently, each one within the batch timeout. A failed query is reported in the errors
+     * of the batch, by its id, instead of failing the whole batch.
+     */
+    BatchAnalytics execute(Map<String, AbstractQuery> queries);
 }
@@ -31,6 +31,8 @@ public interface ApiService {
 
     ApiEntity findById(String apiId);
 
+    Set<ApiEntity> findByIds(Collection<String> apiIds);
+
     Set<ApiEntity> findAll();
 
     Set<ApiEntity> findAllLight();
@@ -20,6 +20,7 @@ import io.gravitee.management.model.NewApplicationEntity;
 import io.gravitee.management.model.UpdateApplicationEntity;
 import io.gravitee.management.model.application.ApplicationListItem;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -32,6 +33,8 @@ public interface ApplicationService {
 
     ApplicationEntity findById(String applicationId);
 
+    Set<ApplicationEntity> findByIds(Collection<String> applicationIds);
+
     Set<ApplicationListItem> findByUser(String username);
 
     Set<ApplicationListItem> findByName(String name);
@@ -15,6 +15,9 @@
  */
 package io.gravitee.management.service;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * @author Azize Elamrani (azize dot elamrani at gmail dot com)
  */
@@ -23,4 +26,13 @@ public interface EmailService {
     void sendEmailNotification(EmailNotification emailNotification);
 
     void sendAsyncEmailNotification(EmailNotification emailNotification);
+
+    void sendEmailNotifications(Collection<EmailNotification> emailNotifications);
+
+    void sendAsyncEmailNotifications(Collection<EmailNotification> emailNotifications);
+
+    /**
+     * @return the pending, sent and failed emails, the SMTP batches and the template renderings
+     */
+    Map<String, Long> metrics();
 }
@@ -16,12 +16,16 @@
 package io.gravitee.management.service;
 
 import io.gravitee.management.model.analytics.Analytics;
+import io.gravitee.management.model.analytics.ColumnarHistogramAnalytics;
 import io.gravitee.management.model.analytics.query.DateHistogramQuery;
 import io.gravitee.management.model.analytics.query.LogQuery;
 import io.gravitee.management.model.healthcheck.ApiMetrics;
 import io.gravitee.management.model.healthcheck.Log;
 import io.gravitee.management.model.healthcheck.SearchLogResponse;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -32,9 +36,21 @@ public interface HealthCheckService {
 
     ApiMetrics getResponseTime(String api, String field);
 
+    /**
+     * @return the global availability of each API, by API id. The APIs without health-check data are left out.
+     */
+    Map<String, Map<String, Double>> getAvailability(Collection<String> apis, String field);
+
+    /**
+     * @return the global response time of each API, by API id. The APIs without health-check data are left out.
+     */
+    Map<String, Map<String, Double>> getResponseTime(Collection<String> apis, String field);
+
     SearchLogResponse findByApi(String api, LogQuery logQuery, Boolean transition);
 
     Log findLog(String id);
 
     Analytics query(DateHistogramQuery query);
+
+    ColumnarHistogramAnalytics queryColumnar(DateHistogramQuery query);
 }
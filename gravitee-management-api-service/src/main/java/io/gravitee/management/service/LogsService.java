@@ -20,6 +20,9 @@ import io.gravitee.management.model.log.ApiRequest;
 import io.gravitee.management.model.log.ApplicationRequest;
 import io.gravitee.management.model.log.SearchLogResponse;
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
@@ -31,4 +34,18 @@ public interface LogsService {
     ApiRequest findApiLog(String id, Long timestamp);
     ApplicationRequest findApplicationLog(String id, Long timestamp);
     String exportAsCsv(SearchLogResponse searchLogResponse);
+
+    /**
+     * Writes the logs of the API matching the query as CSV, one page after the other, until the end of the time range
+     * or <code>limit</code> rows, bounded by <code>management.logs.export.maxRows</code> (all of them when 0).
+     *
+     * @return the number of rows written
+     * @throws IOException when the writer fails, ie. the client went away, which stops the export
+     */
+    long exportByApi(String api, LogQuery query, long limit, Writer writer) throws IOException;
+
+    /**
+     * @see #exportByApi(String, LogQuery, long, Writer)
+     */
+    long exportByApplication(String application, LogQuery query, long limit, Writer writer) throws IOException;
 }
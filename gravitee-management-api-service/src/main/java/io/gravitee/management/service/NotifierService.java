@@ -33,4 +33,10 @@ public interface NotifierService {
      void trigger(final ApplicationHook hook, final String applicationId, Map<String, Object> params);
      void trigger(final PortalHook hook, Map<String, Object> params);
      List<NotifierEntity> list(NotificationReferenceType referenceType, String referenceId);
+
+     /**
+      * Forgets the notification settings of an API, an application or the portal after a change, on this node and on
+      * the other management nodes.
+      */
+     void invalidate(NotificationReferenceType referenceType, String referenceId);
 }
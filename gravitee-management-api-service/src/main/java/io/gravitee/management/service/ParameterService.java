@@ -44,4 +44,10 @@ public interface ParameterService {
     Parameter save(Key key, String value);
     Parameter save(Key key, List<String> value);
     Parameter save(Key key, Map<String, String> values);
+
+    /**
+     * Returns a number changing each time the parameters of this node are reloaded, to invalidate what is derived
+     * from them.
+     */
+    long getRevision();
 }
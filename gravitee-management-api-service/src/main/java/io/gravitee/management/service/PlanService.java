@@ -21,6 +21,7 @@ import io.gravitee.management.model.PlansConfigurationEntity;
 import io.gravitee.management.model.UpdatePlanEntity;
 import io.gravitee.management.model.plan.PlanQuery;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -33,8 +34,19 @@ public interface PlanService {
 
     PlanEntity findById(String plan);
 
+    /**
+     * Returns the given plans, with one repository lookup per distinct plan as the repository has no bulk lookup:
+     * prefer {@link #findByApis(Collection)} when the APIs of the plans are known.
+     */
+    Set<PlanEntity> findByIds(Collection<String> plans);
+
     Set<PlanEntity> findByApi(String api);
 
+    /**
+     * Returns the plans of all the given APIs, with one repository lookup per distinct API.
+     */
+    Set<PlanEntity> findByApis(Collection<String> apis);
+
     List<PlanEntity> search(PlanQuery query);
 
     PlanEntity create(NewPlanEntity plan);
@@ -0,0 +1,36 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Resolves the display metadata (name, version, deleted flag) of the APIs, applications, plans and gateways
+ * referenced by analytics and logs.
+ *
+ * @author GraviteeSource Team
+ */
+public interface ReferenceMetadataService {
+
+    Map<String, Map<String, String>> findApiMetadata(Collection<String> apis);
+
+    Map<String, Map<String, String>> findApplicationMetadata(Collection<String> applications);
+
+    Map<String, Map<String, String>> findPlanMetadata(Collection<String> plans);
+
+    Map<String, Map<String, String>> findGatewayMetadata(Collection<String> gateways);
+}
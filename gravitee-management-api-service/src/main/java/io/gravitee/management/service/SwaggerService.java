@@ -16,6 +16,7 @@
 package io.gravitee.management.service;
 
 import java.util.List;
+import java.util.Map;
 
 import io.gravitee.management.model.ImportSwaggerDescriptorEntity;
 import io.gravitee.management.model.PageEntity;
@@ -39,4 +40,9 @@ public interface SwaggerService {
     void transform(PageEntity page);
 
     String replaceServerList(String payload, List<String> graviteeUrls);
+
+    /**
+     * @return the parses saved (hits) and done (misses) by the cache of parsed descriptors
+     */
+    Map<String, Long> metrics();
 }
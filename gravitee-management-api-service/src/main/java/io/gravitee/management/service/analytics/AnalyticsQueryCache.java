@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.analytics;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Results of the analytics queries over closed time buckets. Such results never change, so they are kept for a long
+ * time (<code>management.cache.analytics.ttl</code>, 1 hour by default) and a polling dashboard only queries the
+ * analytics repository for its open trailing buckets.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class AnalyticsQueryCache implements InitializingBean {
+
+    @Value("${management.cache.analytics.enabled:true}")
+    private boolean enabled;
+    @Value("${management.cache.analytics.ttl:3600}")
+    private long ttl;
+    @Value("${management.cache.analytics.maxEntries:1000}")
+    private long maxEntries;
+    /**
+     * Delay, in seconds, after which the hits of a bucket are considered reported by all the gateways.
+     */
+    @Value("${management.cache.analytics.settleDelay:60}")
+    private long settleDelay;
+
+    private Cache<String, Object> cache;
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * @return the buckets of the time range, or <code>null</code> when its results can not be cached
+     */
+    public TimeBuckets buckets(long from, long to, long interval) {
+        if (!enabled || interval <= 0 || from > to) {
+            return null;
+        }
+        return TimeBuckets.of(from, to, interval, System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(settleDelay));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Supplier<T> loader, Object... key) {
+        final String cacheKey = key(key);
+        T value = (T) cache.getIfPresent(cacheKey);
+        if (value == null) {
+            value = loader.get();
+            if (value != null) {
+                cache.put(cacheKey, value);
+            }
+        }
+        return value;
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private static String key(Object... parts) {
+        return Arrays.stream(parts).map(Objects::toString).collect(joining("|"));
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.analytics;
+
+import io.gravitee.management.model.analytics.ColumnarHistogramAnalytics;
+import io.gravitee.management.model.analytics.Timestamp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Same as {@link Histograms}, for the columnar representation: the series of the closed and open buckets of a time
+ * range, or of the parts of a query, are merged in primitive arrays. The results are always new instances, a cached
+ * histogram is never modified.
+ *
+ * @author GraviteeSource Team
+ */
+public final class ColumnarHistograms {
+
+    private ColumnarHistograms() {
+    }
+
+    public static ColumnarHistogramAnalytics copy(ColumnarHistogramAnalytics histogram) {
+        return merge(histogram, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param closed the histogram of the closed buckets
+     * @param open the histogram of the open buckets, of which the values before <code>openFrom</code> are ignored
+     */
+    public static ColumnarHistogramAnalytics merge(ColumnarHistogramAnalytics closed, ColumnarHistogramAnalytics open,
+                                                   long openFrom) {
+        final Timestamp closedTimestamp = closed.getTimestamp();
+        final long to = open == null ? closedTimestamp.getTo() : Math.max(closedTimestamp.getTo(), open.getTimestamp().getTo());
+
+        final Columns columns = new Columns(closedTimestamp.getFrom(), to, closedTimestamp.getInterval());
+        columns.copy(closed.getSeries(), 0, 0);
+        if (open != null) {
+            columns.copy(open.getSeries(), columns.index(open.getTimestamp().getFrom()), columns.index(openFrom));
+        }
+        return columns.histogram();
+    }
+
+    /**
+     * Sums the hits of histograms of the same interval, ie. the ones of a query split on the values of a field.
+     */
+    public static ColumnarHistogramAnalytics sum(List<ColumnarHistogramAnalytics> histograms) {
+        Timestamp timestamp = null;
+        for (ColumnarHistogramAnalytics histogram : histograms) {
+            final Timestamp histogramTimestamp = histogram.getTimestamp();
+            if (histogramTimestamp != null) {
+                timestamp = timestamp == null ? histogramTimestamp : new Timestamp(
+                        Math.min(timestamp.getFrom(), histogramTimestamp.getFrom()),
+                        Math.max(timestamp.getTo(), histogramTimestamp.getTo()),
+                        histogramTimestamp.getInterval());
+            }
+        }
+        if (timestamp == null) {
+            return histograms.get(0);
+        }
+
+        final Columns columns = new Columns(timestamp.getFrom(), timestamp.getTo(), timestamp.getInterval());
+        for (ColumnarHistogramAnalytics histogram : histograms) {
+            if (histogram.getTimestamp() != null) {
+                columns.add(histogram.getSeries(), columns.index(histogram.getTimestamp().getFrom()));
+            }
+        }
+        return columns.histogram();
+    }
+
+    /**
+     * The series of a time range, by aggregation and name.
+     */
+    private static class Columns {
+
+        private final long from;
+        private final long to;
+        private final long interval;
+        private final int size;
+        private final Map<String, ColumnarHistogramAnalytics.Series> series = new LinkedHashMap<>();
+
+        private Columns(long from, long to, long interval) {
+            this.from = from;
+            this.to = to;
+            this.interval = interval;
+            this.size = (int) ((to - from) / interval) + 1;
+        }
+
+        private int index(long timestamp) {
+            return (int) ((timestamp - from) / interval);
+        }
+
+        private void copy(List<ColumnarHistogramAnalytics.Series> values, int offset, int start) {
+            if (values == null) {
+                return;
+            }
+            for (ColumnarHistogramAnalytics.Series value : values) {
+                final long[] data = values(value);
+                final long[] source = value.getValues();
+                for (int i = 0; i < source.length; i++) {
+                    final int index = offset + i;
+                    if (index >= start && index < size) {
+                        data[index] = source[i];
+                    }
+                }
+            }
+        }
+
+        private void add(List<ColumnarHistogramAnalytics.Series> values, int offset) {
+            if (values == null) {
+                return;
+            }
+            for (ColumnarHistogramAnalytics.Series value : values) {
+                final long[] data = values(value);
+                final long[] source = value.getValues();
+                for (int i = 0; i < source.length; i++) {
+                    final int index = offset + i;
+                    if (index >= 0 && index < size) {
+                        data[index] += source[i];
+                    }
+                }
+            }
+        }
+
+        private long[] values(ColumnarHistogramAnalytics.Series value) {
+            return series.computeIfAbsent(value.getBucket() + ':' + value.getName(),
+                    key -> new ColumnarHistogramAnalytics.Series(
+                            value.getBucket(), value.getField(), value.getName(), new long[size])).getValues();
+        }
+
+        private ColumnarHistogramAnalytics histogram() {
+            final long[] timestamps = new long[size];
+            for (int i = 0; i < size; i++) {
+                timestamps[i] = from + i * interval;
+            }
+
+            final ColumnarHistogramAnalytics histogram = new ColumnarHistogramAnalytics();
+            histogram.setTimestamp(new Timestamp(from, to, interval));
+            histogram.setTimestamps(timestamps);
+            histogram.setSeries(new ArrayList<>(series.values()));
+            return histogram;
+        }
+    }
+}
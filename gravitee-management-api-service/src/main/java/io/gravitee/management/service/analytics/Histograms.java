@@ -0,0 +1,296 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.analytics;
+
+import io.gravitee.management.model.analytics.Bucket;
+import io.gravitee.management.model.analytics.ColumnarHistogramAnalytics;
+import io.gravitee.management.model.analytics.HistogramAnalytics;
+import io.gravitee.management.model.analytics.Timestamp;
+import io.gravitee.repository.analytics.query.response.histogram.Data;
+
+import java.util.*;
+
+/**
+ * Merges the histogram of the closed buckets of a time range with the one of its open buckets, or sums the
+ * histograms of the parts of a query. The results are always new instances, a cached histogram is never modified.
+ * Histograms can also be converted to their columnar representation.
+ *
+ * @author GraviteeSource Team
+ */
+public final class Histograms {
+
+    private Histograms() {
+    }
+
+    public static HistogramAnalytics copy(HistogramAnalytics histogram) {
+        return merge(histogram, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param closed the histogram of the closed buckets
+     * @param open the histogram of the open buckets, of which the values before <code>openFrom</code> are ignored
+     */
+    public static HistogramAnalytics merge(HistogramAnalytics closed, HistogramAnalytics open, long openFrom) {
+        final Timestamp closedTimestamp = closed.getTimestamp();
+        final long interval = closedTimestamp.getInterval();
+        final long to = open == null ? closedTimestamp.getTo() : Math.max(closedTimestamp.getTo(), open.getTimestamp().getTo());
+
+        final HistogramAnalytics merged = new HistogramAnalytics();
+        merged.setTimestamp(new Timestamp(closedTimestamp.getFrom(), to, interval));
+        final Merge merge = new Merge(closedTimestamp.getFrom(), interval, (int) ((to - closedTimestamp.getFrom()) / interval) + 1);
+        merged.setValues(merge.buckets(
+                closed.getValues(), 0,
+                open == null ? null : open.getValues(),
+                open == null ? 0 : merge.index(open.getTimestamp().getFrom()),
+                open == null ? Integer.MAX_VALUE : merge.index(openFrom)));
+        return merged;
+    }
+
+    /**
+     * Sums the hits of histograms of the same interval, ie. the ones of a query split on the values of a field.
+     */
+    public static HistogramAnalytics sum(List<HistogramAnalytics> histograms) {
+        HistogramAnalytics sum = null;
+        for (HistogramAnalytics histogram : histograms) {
+            if (histogram.getTimestamp() == null) {
+                continue;
+            }
+            if (sum == null) {
+                sum = copy(histogram);
+                continue;
+            }
+            final Timestamp timestamp = histogram.getTimestamp();
+            final long from = Math.min(sum.getTimestamp().getFrom(), timestamp.getFrom());
+            final long to = Math.max(sum.getTimestamp().getTo(), timestamp.getTo());
+            final long interval = timestamp.getInterval();
+
+            final Merge merge = new Merge(from, interval, (int) ((to - from) / interval) + 1);
+            final HistogramAnalytics merged = new HistogramAnalytics();
+            merged.setTimestamp(new Timestamp(from, to, interval));
+            merged.setValues(merge.sum(
+                    sum.getValues(), merge.index(sum.getTimestamp().getFrom()),
+                    histogram.getValues(), merge.index(timestamp.getFrom())));
+            sum = merged;
+        }
+        return sum == null ? histograms.get(0) : sum;
+    }
+
+    /**
+     * Converts an histogram, including the metadata of its buckets, to its columnar representation.
+     */
+    public static ColumnarHistogramAnalytics columnar(HistogramAnalytics histogram) {
+        final ColumnarHistogramAnalytics columnar = new ColumnarHistogramAnalytics();
+        final Timestamp timestamp = histogram.getTimestamp();
+        if (timestamp != null) {
+            final int size = (int) ((timestamp.getTo() - timestamp.getFrom()) / timestamp.getInterval()) + 1;
+            columnar.setTimestamp(timestamp);
+            columnar.setTimestamps(timestamps(timestamp.getFrom(), timestamp.getInterval(), size));
+
+            final List<ColumnarHistogramAnalytics.Series> series = new ArrayList<>();
+            if (histogram.getValues() != null) {
+                histogram.getValues().forEach(bucket -> addSeries(bucket, size, series));
+            }
+            columnar.setSeries(series);
+        }
+        return columnar;
+    }
+
+    /**
+     * Converts the timestamps and buckets of a repository response straight to the columnar representation, the values
+     * of each series are written at the index of their timestamp without any intermediate bucket.
+     */
+    public static ColumnarHistogramAnalytics columnar(List<Long> timestamps,
+                                                      List<io.gravitee.repository.analytics.query.response.histogram.Bucket> values) {
+        final ColumnarHistogramAnalytics columnar = new ColumnarHistogramAnalytics();
+        if (timestamps != null && timestamps.size() > 1) {
+            final long from = timestamps.get(0);
+            final long interval = timestamps.get(1) - from;
+            final int size = timestamps.size();
+            columnar.setTimestamp(new Timestamp(from, timestamps.get(size - 1), interval));
+            columnar.setTimestamps(timestamps(from, interval, size));
+
+            final List<ColumnarHistogramAnalytics.Series> series = new ArrayList<>();
+            if (values != null) {
+                values.forEach(bucket -> addSeries(bucket, from, interval, size, series));
+            }
+            columnar.setSeries(series);
+        }
+        return columnar;
+    }
+
+    private static long[] timestamps(long from, long interval, int size) {
+        final long[] timestamps = new long[size];
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = from + i * interval;
+        }
+        return timestamps;
+    }
+
+    private static void addSeries(Bucket bucket, int size, List<ColumnarHistogramAnalytics.Series> series) {
+        if (bucket.getBuckets() == null) {
+            return;
+        }
+        for (Bucket child : bucket.getBuckets()) {
+            if (child.getData() == null) {
+                addSeries(child, size, series);
+                continue;
+            }
+            final long[] values = new long[size];
+            final Number[] data = child.getData();
+            for (int i = 0; i < data.length && i < size; i++) {
+                if (data[i] != null) {
+                    values[i] = data[i].longValue();
+                }
+            }
+            final ColumnarHistogramAnalytics.Series childSeries =
+                    new ColumnarHistogramAnalytics.Series(bucket.getName(), bucket.getField(), child.getName(), values);
+            if (bucket.getMetadata() != null) {
+                childSeries.setMetadata(bucket.getMetadata().get(child.getName()));
+            }
+            series.add(childSeries);
+        }
+    }
+
+    private static void addSeries(io.gravitee.repository.analytics.query.response.histogram.Bucket bucket,
+                                  long from, long interval, int size, List<ColumnarHistogramAnalytics.Series> series) {
+        for (io.gravitee.repository.analytics.query.response.histogram.Bucket child : bucket.buckets()) {
+            addSeries(child, from, interval, size, series);
+        }
+        for (Map.Entry<String, List<Data>> entry : bucket.data().entrySet()) {
+            final long[] values = new long[size];
+            for (Data data : entry.getValue()) {
+                final int index = (int) ((data.timestamp() - from) / interval);
+                if (index >= 0 && index < size) {
+                    values[index] = data.value();
+                }
+            }
+            series.add(new ColumnarHistogramAnalytics.Series(bucket.name(), bucket.field(), entry.getKey(), values));
+        }
+    }
+
+    private static class Merge {
+
+        private final long from;
+        private final long interval;
+        private final int size;
+
+        private Merge(long from, long interval, int size) {
+            this.from = from;
+            this.interval = interval;
+            this.size = size;
+        }
+
+        private int index(long timestamp) {
+            return (int) ((timestamp - from) / interval);
+        }
+
+        private List<Bucket> buckets(List<Bucket> closed, int closedOffset, List<Bucket> open, int openOffset, int openStart) {
+            if (closed == null && open == null) {
+                return null;
+            }
+            final Map<String, Bucket[]> byName = new LinkedHashMap<>();
+            if (closed != null) {
+                closed.forEach(bucket -> byName.computeIfAbsent(bucket.getName(), name -> new Bucket[2])[0] = bucket);
+            }
+            if (open != null) {
+                open.forEach(bucket -> byName.computeIfAbsent(bucket.getName(), name -> new Bucket[2])[1] = bucket);
+            }
+
+            final List<Bucket> buckets = new ArrayList<>(byName.size());
+            for (Bucket[] pair : byName.values()) {
+                final Bucket closedBucket = pair[0];
+                final Bucket openBucket = pair[1];
+                final Bucket any = closedBucket != null ? closedBucket : openBucket;
+
+                final Bucket bucket = new Bucket();
+                bucket.setName(any.getName());
+                bucket.setField(any.getField());
+                if ((closedBucket != null && closedBucket.getData() != null) || (openBucket != null && openBucket.getData() != null)) {
+                    final Number[] data = new Number[size];
+                    Arrays.fill(data, 0);
+                    if (closedBucket != null && closedBucket.getData() != null) {
+                        copy(closedBucket.getData(), closedOffset, data, 0);
+                    }
+                    if (openBucket != null && openBucket.getData() != null) {
+                        copy(openBucket.getData(), openOffset, data, openStart);
+                    }
+                    bucket.setData(data);
+                }
+                bucket.setBuckets(buckets(
+                        closedBucket == null ? null : closedBucket.getBuckets(), closedOffset,
+                        openBucket == null ? null : openBucket.getBuckets(), openOffset, openStart));
+                buckets.add(bucket);
+            }
+            return buckets;
+        }
+
+        private List<Bucket> sum(List<Bucket> first, int firstOffset, List<Bucket> second, int secondOffset) {
+            if (first == null && second == null) {
+                return null;
+            }
+            final Map<String, Bucket[]> byName = new LinkedHashMap<>();
+            if (first != null) {
+                first.forEach(bucket -> byName.computeIfAbsent(bucket.getName(), name -> new Bucket[2])[0] = bucket);
+            }
+            if (second != null) {
+                second.forEach(bucket -> byName.computeIfAbsent(bucket.getName(), name -> new Bucket[2])[1] = bucket);
+            }
+
+            final List<Bucket> buckets = new ArrayList<>(byName.size());
+            for (Bucket[] pair : byName.values()) {
+                final Bucket any = pair[0] != null ? pair[0] : pair[1];
+
+                final Bucket bucket = new Bucket();
+                bucket.setName(any.getName());
+                bucket.setField(any.getField());
+                if ((pair[0] != null && pair[0].getData() != null) || (pair[1] != null && pair[1].getData() != null)) {
+                    final Number[] data = new Number[size];
+                    Arrays.fill(data, 0L);
+                    if (pair[0] != null && pair[0].getData() != null) {
+                        add(pair[0].getData(), firstOffset, data);
+                    }
+                    if (pair[1] != null && pair[1].getData() != null) {
+                        add(pair[1].getData(), secondOffset, data);
+                    }
+                    bucket.setData(data);
+                }
+                bucket.setBuckets(sum(
+                        pair[0] == null ? null : pair[0].getBuckets(), firstOffset,
+                        pair[1] == null ? null : pair[1].getBuckets(), secondOffset));
+                buckets.add(bucket);
+            }
+            return buckets;
+        }
+
+        private void add(Number[] values, int offset, Number[] data) {
+            for (int i = 0; i < values.length; i++) {
+                final int index = offset + i;
+                if (index >= 0 && index < size && values[i] != null) {
+                    data[index] = data[index].longValue() + values[i].longValue();
+                }
+            }
+        }
+
+        private void copy(Number[] values, int offset, Number[] data, int start) {
+            for (int i = 0; i < values.length; i++) {
+                final int index = offset + i;
+                if (index >= start && index < size) {
+                    data[index] = values[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.analytics;
+
+/**
+ * The time range of an analytics query split on its interval: the buckets which ended before the settle delay will
+ * not receive any new hit and their results can be kept, while the trailing ones are still open. Only the buckets
+ * fully within the time range are closed: the partial leading bucket, before the first bucket boundary, and the
+ * partial trailing one are always queried on their exact bounds.
+ *
+ * @author GraviteeSource Team
+ */
+public final class TimeBuckets {
+
+    private final long from;
+    private final long to;
+    private final long interval;
+    private final long closedFrom;
+    private final long closedTo;
+
+    private TimeBuckets(long from, long to, long interval, long closedFrom, long closedTo) {
+        this.from = from;
+        this.to = to;
+        this.interval = interval;
+        this.closedFrom = closedFrom;
+        this.closedTo = closedTo;
+    }
+
+    /**
+     * @param to the end (inclusive) of the range
+     * @param settled the time before which all the hits have been reported
+     */
+    public static TimeBuckets of(long from, long to, long interval, long settled) {
+        final long closedFrom = from + Math.floorMod(-from, interval);
+        final long end = to + 1;
+        final long closedTo = Math.max(closedFrom,
+                Math.min(end - Math.floorMod(end, interval), settled - Math.floorMod(settled, interval)));
+        return new TimeBuckets(from, to, interval, closedFrom, closedTo);
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * The start of the first closed bucket, ie. the first bucket boundary of the range.
+     */
+    public long getClosedFrom() {
+        return closedFrom;
+    }
+
+    /**
+     * The end (exclusive) of the closed buckets, which is also the start of the open ones.
+     */
+    public long getClosedTo() {
+        return closedTo;
+    }
+
+    public int closedBuckets() {
+        return (int) ((closedTo - closedFrom) / interval);
+    }
+
+    /**
+     * Whether the range starts within a bucket, whose hits before <code>from</code> are not part of the results.
+     */
+    public boolean hasLeadingBucket() {
+        return from < closedFrom;
+    }
+
+    public boolean hasOpenBuckets() {
+        return closedTo <= to;
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.fge.jsonpatch.diff.JsonDiff;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Computes the JSON patch of an audit. Small documents are diffed with {@link JsonDiff}, which finds the smallest patch
+ * but compares arrays element by element against each other. Large documents, such as API definitions, are diffed
+ * structurally: objects are compared field by field, arrays index by index, and an array whose size changed is replaced
+ * as a whole.
+ *
+ * @author GraviteeSource Team
+ */
+public final class AuditDiff {
+
+    private AuditDiff() {
+    }
+
+    /**
+     * @param threshold the number of nodes of both documents above which the structural diff is used
+     */
+    public static JsonNode diff(JsonNode source, JsonNode target, int threshold) {
+        if (count(source, threshold) + count(target, threshold) <= threshold) {
+            return JsonDiff.asJson(source, target);
+        }
+        final ArrayNode patch = JsonNodeFactory.instance.arrayNode();
+        diff("", source, target, patch);
+        return patch;
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode patch) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            final Iterator<String> names = source.fieldNames();
+            while (names.hasNext()) {
+                final String name = names.next();
+                if (!target.has(name)) {
+                    patch.addObject().put("op", "remove").put("path", path + '/' + escape(name));
+                }
+            }
+            final Iterator<Map.Entry<String, JsonNode>> fields = target.fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                final String fieldPath = path + '/' + escape(field.getKey());
+                final JsonNode sourceField = source.get(field.getKey());
+                if (sourceField == null) {
+                    operation(patch, "add", fieldPath, field.getValue());
+                } else {
+                    diff(fieldPath, sourceField, field.getValue(), patch);
+                }
+            }
+        } else if (source.isArray() && target.isArray() && source.size() == target.size()) {
+            for (int i = 0; i < source.size(); i++) {
+                diff(path + '/' + i, source.get(i), target.get(i), patch);
+            }
+        } else {
+            operation(patch, "replace", path, target);
+        }
+    }
+
+    private static void operation(ArrayNode patch, String op, String path, JsonNode value) {
+        final ObjectNode operation = patch.addObject();
+        operation.put("op", op);
+        operation.put("path", path);
+        operation.set("value", value.deepCopy());
+    }
+
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+
+    /**
+     * Counts the nodes of a document, up to the limit.
+     */
+    private static int count(JsonNode node, int limit) {
+        int count = 1;
+        if (node.isContainerNode()) {
+            for (JsonNode child : node) {
+                count += count(child, limit - count);
+                if (count > limit) {
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+}
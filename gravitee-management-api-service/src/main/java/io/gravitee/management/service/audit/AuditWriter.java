@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.AuditRepository;
+import io.gravitee.repository.management.model.Audit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes the audits in the background: they are queued by the caller, then their patch is computed and they are
+ * written by batches, when a batch is full or after the flush interval. When the queue is full, the caller waits for
+ * the offer timeout, then writes the audit itself or drops it, depending on the overflow policy. Queued audits are
+ * flushed on shutdown.
+ *
+ * The old and new values of an audit are converted to JSON trees by the caller, so that they can be modified once
+ * audited, only their diff and the insert are deferred.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class AuditWriter implements InitializingBean, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuditWriter.class);
+
+    private static final List<String> IGNORED_FIELDS = Arrays.asList("updatedAt", "createdAt");
+
+    @Autowired
+    private AuditRepository auditRepository;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Value("${management.audit.queueSize:10000}")
+    private int queueSize;
+
+    @Value("${management.audit.batchSize:100}")
+    private int batchSize;
+
+    @Value("${management.audit.flushInterval:1000}")
+    private long flushInterval;
+
+    @Value("${management.audit.offerTimeout:100}")
+    private long offerTimeout;
+
+    @Value("${management.audit.overflow:sync}")
+    private String overflow;
+
+    @Value("${management.audit.shutdownTimeout:10000}")
+    private long shutdownTimeout;
+
+    @Value("${management.audit.diff.threshold:2000}")
+    private int diffThreshold;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private BlockingQueue<PendingAudit> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    @Override
+    public void afterPropertiesSet() {
+        queue = new ArrayBlockingQueue<>(queueSize);
+        running = true;
+        writer = new Thread(this::run, "gio-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writer.join(shutdownTimeout);
+        if (writer.isAlive()) {
+            LOGGER.warn("Audit writer not stopped in time, {} audits are not written", queue.size());
+        }
+    }
+
+    public void write(Audit audit, Object oldValue, Object newValue) {
+        submitted.increment();
+        final PendingAudit pending;
+        try {
+            pending = new PendingAudit(audit, toNode(oldValue), toNode(newValue));
+        } catch (IllegalArgumentException iae) {
+            failed.increment();
+            LOGGER.error("Error occurs during the serialization of an Audit Log {}.", audit.getId(), iae);
+            return;
+        }
+        try {
+            if (running && queue.offer(pending, offerTimeout, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+
+        if ("drop".equalsIgnoreCase(overflow)) {
+            dropped.increment();
+            LOGGER.warn("Audit queue is full, audit {} of {} {} is dropped",
+                    audit.getEvent(), audit.getReferenceType(), audit.getReferenceId());
+        } else {
+            overflowed.increment();
+            write(Collections.singletonList(pending));
+        }
+    }
+
+    /**
+     * @return the counters of the audits handled by this management node
+     */
+    public Map<String, Long> metrics() {
+        final Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("queued", (long) queue.size());
+        metrics.put("submitted", submitted.sum());
+        metrics.put("written", written.sum());
+        metrics.put("overflowed", overflowed.sum());
+        metrics.put("dropped", dropped.sum());
+        metrics.put("failed", failed.sum());
+        return metrics;
+    }
+
+    private void run() {
+        final List<PendingAudit> batch = new ArrayList<>(batchSize);
+        // Once stopped, the remaining audits are flushed
+        while (running || !queue.isEmpty()) {
+            try {
+                final PendingAudit first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                final long deadline = System.currentTimeMillis() + flushInterval;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    final long remaining = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    final PendingAudit next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                write(batch);
+            } catch (InterruptedException ie) {
+                LOGGER.warn("Audit writer interrupted, {} audits are not written", queue.size() + batch.size());
+                return;
+            } catch (Exception ex) {
+                LOGGER.error("Unexpected error while writing audits", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingAudit> batch) {
+        // The audit repository has no bulk insert, a batch is written by a single thread off the request path
+        for (PendingAudit pending : batch) {
+            final Audit audit = pending.audit;
+            try {
+                audit.setPatch(AuditDiff.diff(pending.oldValue, pending.newValue, diffThreshold).toString());
+                auditRepository.create(audit);
+                written.increment();
+            } catch (TechnicalException | RuntimeException ex) {
+                failed.increment();
+                LOGGER.error("Error occurs during the creation of an Audit Log {}.", audit.getId(), ex);
+            }
+        }
+    }
+
+    private ObjectNode toNode(Object value) {
+        return value == null
+                ? mapper.createObjectNode()
+                : mapper.convertValue(value, ObjectNode.class).remove(IGNORED_FIELDS);
+    }
+
+    private static class PendingAudit {
+        private final Audit audit;
+        private final ObjectNode oldValue;
+        private final ObjectNode newValue;
+
+        private PendingAudit(Audit audit, ObjectNode oldValue, ObjectNode newValue) {
+            this.audit = audit;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+    }
+}
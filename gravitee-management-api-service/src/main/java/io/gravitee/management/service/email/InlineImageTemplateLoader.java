@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.email;
+
+import freemarker.cache.TemplateLoader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites the relative <code>img</code> sources of the HTML templates to <code>cid:</code> references when a template
+ * is loaded, so that a mail only has to attach the inline resources referenced by its content. Freemarker caches the
+ * rewritten templates and loads them again when their file changes.
+ *
+ * Sources built from an expression (<code>${...}</code>) are left as is.
+ *
+ * @author GraviteeSource Team
+ */
+public class InlineImageTemplateLoader implements TemplateLoader {
+
+    private static final String HTML_TEMPLATE_EXTENSION = ".html";
+
+    private static final Pattern IMG_SRC = Pattern.compile(
+            "(<img\\b[^>]*?\\bsrc\\s*=\\s*)([\"'])(?!https?:|cid:|data:)([^\"'$]+)\\2", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern CID = Pattern.compile("[\"']cid:([^\"']+)[\"']");
+
+    private final TemplateLoader delegate;
+
+    public InlineImageTemplateLoader(TemplateLoader delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Object findTemplateSource(String name) throws IOException {
+        final Object source = delegate.findTemplateSource(name);
+        return source == null ? null : new Source(name, source);
+    }
+
+    @Override
+    public long getLastModified(Object templateSource) {
+        return delegate.getLastModified(((Source) templateSource).source);
+    }
+
+    @Override
+    public Reader getReader(Object templateSource, String encoding) throws IOException {
+        final Source source = (Source) templateSource;
+        final Reader reader = delegate.getReader(source.source, encoding);
+        if (!source.name.endsWith(HTML_TEMPLATE_EXTENSION)) {
+            return reader;
+        }
+
+        final StringWriter content = new StringWriter();
+        try (Reader in = reader) {
+            final char[] buffer = new char[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+        }
+        return new StringReader(rewrite(content.toString()));
+    }
+
+    @Override
+    public void closeTemplateSource(Object templateSource) throws IOException {
+        delegate.closeTemplateSource(((Source) templateSource).source);
+    }
+
+    static String rewrite(String html) {
+        final Matcher matcher = IMG_SRC.matcher(html);
+        final StringBuffer rewritten = new StringBuffer(html.length() + 32);
+        while (matcher.find()) {
+            matcher.appendReplacement(rewritten, Matcher.quoteReplacement(
+                    matcher.group(1) + matcher.group(2) + "cid:" + matcher.group(3) + matcher.group(2)));
+        }
+        matcher.appendTail(rewritten);
+        return rewritten.toString();
+    }
+
+    /**
+     * @return the inline resources referenced by a rendered mail
+     */
+    public static Set<String> inlineResources(String html) {
+        final Set<String> resources = new LinkedHashSet<>();
+        final Matcher matcher = CID.matcher(html);
+        while (matcher.find()) {
+            resources.add(matcher.group(1));
+        }
+        return resources;
+    }
+
+    /**
+     * Keeps the name of the template with its source, freemarker comparing sources to detect changes.
+     */
+    private static final class Source {
+
+        private final String name;
+        private final Object source;
+
+        private Source(String name, Object source) {
+            this.name = name;
+            this.source = source;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Source)) return false;
+            return source.equals(((Source) o).source);
+        }
+
+        @Override
+        public int hashCode() {
+            return source.hashCode();
+        }
+    }
+}
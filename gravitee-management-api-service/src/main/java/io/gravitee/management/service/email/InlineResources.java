@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.email;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.stereotype.Component;
+
+import javax.activation.MimetypesFileTypeMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The inline resources of the mails (images of the templates), held in memory and read again when their file changes.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class InlineResources {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InlineResources.class);
+
+    @Value("${templates.path:${gravitee.home}/templates}")
+    private String templatesPath;
+
+    @Value("${templates.refresh:5000}")
+    private long refreshDelay;
+
+    private final Map<String, InlineResource> resources = new ConcurrentHashMap<>();
+
+    /**
+     * @return the resource of the templates directory, or <code>null</code> if it does not exist
+     */
+    public InlineResource get(String name) {
+        final long now = System.currentTimeMillis();
+        final InlineResource resource = resources.get(name);
+        if (resource != null && now - resource.checkedAt < refreshDelay) {
+            return resource;
+        }
+        return resources.compute(name, (key, current) -> load(key, current, now));
+    }
+
+    private InlineResource load(String name, InlineResource current, long now) {
+        final Path root = Paths.get(templatesPath).toAbsolutePath().normalize();
+        final Path file = root.resolve(name).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            LOGGER.warn("Inline resource {} can not be found in {}", name, root);
+            return null;
+        }
+        try {
+            final long lastModified = Files.getLastModifiedTime(file).toMillis();
+            if (current != null && current.lastModified == lastModified) {
+                current.checkedAt = now;
+                return current;
+            }
+            return new InlineResource(new ByteArrayResource(Files.readAllBytes(file)), contentType(name), lastModified, now);
+        } catch (IOException ioe) {
+            LOGGER.error("Unable to read inline resource {}", file, ioe);
+            return current;
+        }
+    }
+
+    private static String contentType(final String fileName) {
+        if (fileName.endsWith(".png")) {
+            return "image/png";
+        }
+        return MimetypesFileTypeMap.getDefaultFileTypeMap().getContentType(fileName);
+    }
+
+    public static final class InlineResource {
+
+        private final ByteArrayResource content;
+        private final String contentType;
+        private final long lastModified;
+        private volatile long checkedAt;
+
+        private InlineResource(ByteArrayResource content, String contentType, long lastModified, long checkedAt) {
+            this.content = content;
+            this.contentType = contentType;
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+
+        public ByteArrayResource getContent() {
+            return content;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.executor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The executors of the @Async workloads, to be selected with <code>@Async(AsyncExecutors.INDEXING)</code>.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class AsyncExecutors {
+
+    public static final String INDEXING = "indexingExecutor";
+    public static final String NOTIFICATION = "notificationExecutor";
+    public static final String EMAIL = "emailExecutor";
+
+    @Autowired
+    private List<MonitoredTaskExecutor> executors;
+
+    /**
+     * @return the metrics of each executor, by name
+     */
+    public Map<String, Map<String, Long>> metrics() {
+        final Map<String, Map<String, Long>> metrics = new TreeMap<>();
+        executors.forEach(executor -> metrics.put(executor.getName(), executor.metrics()));
+        return metrics;
+    }
+}
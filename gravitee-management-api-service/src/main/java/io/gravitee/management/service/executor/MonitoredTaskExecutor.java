@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.executor;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded executor of an @Async workload, recording its rejected tasks and the latency of its tasks, from their
+ * submission to their completion.
+ *
+ * @author GraviteeSource Team
+ */
+public class MonitoredTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private final String name;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder latency = new LongAdder();
+    private final LongAccumulator maxLatency = new LongAccumulator(Long::max, 0);
+
+    public MonitoredTaskExecutor(String name, int coreSize, int maxSize, int queueSize, String rejection) {
+        this.name = name;
+        setThreadNamePrefix("gio-" + name + "-");
+        setCorePoolSize(coreSize);
+        setMaxPoolSize(Math.max(coreSize, maxSize));
+        setQueueCapacity(queueSize);
+        setAllowCoreThreadTimeOut(true);
+        setWaitForTasksToCompleteOnShutdown(true);
+        setAwaitTerminationSeconds(10);
+
+        final RejectedExecutionHandler policy = policy(rejection);
+        setRejectedExecutionHandler((runnable, executor) -> {
+            rejected.increment();
+            policy.rejectedExecution(runnable, executor);
+        });
+        setTaskDecorator(runnable -> {
+            final long submittedAt = System.nanoTime();
+            return () -> {
+                try {
+                    runnable.run();
+                } finally {
+                    final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt);
+                    completed.increment();
+                    latency.add(elapsed);
+                    maxLatency.accumulate(elapsed);
+                }
+            };
+        });
+    }
+
+    private static RejectedExecutionHandler policy(String rejection) {
+        switch (rejection == null ? "" : rejection.toLowerCase()) {
+            case "abort":
+                return new ThreadPoolExecutor.AbortPolicy();
+            case "discard":
+                return new ThreadPoolExecutor.DiscardPolicy();
+            default:
+                // the caller runs the task, slowing it down rather than losing the task
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the active, queued, rejected and completed tasks, and their average and maximum latencies in milliseconds
+     */
+    public Map<String, Long> metrics() {
+        final Map<String, Long> metrics = new LinkedHashMap<>();
+        final long count = completed.sum();
+        metrics.put("poolSize", (long) getPoolSize());
+        metrics.put("active", (long) getActiveCount());
+        metrics.put("queued", (long) getThreadPoolExecutor().getQueue().size());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("completed", count);
+        metrics.put("latencyAvg", count == 0 ? 0 : latency.sum() / count);
+        metrics.put("latencyMax", maxLatency.get());
+        return metrics;
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.gravitee.management.model.RoleEntity;
+import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.model.permissions.RolePermissionAction;
+import io.gravitee.management.service.AnalyticsScopeService;
+import io.gravitee.management.service.RoleService;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static io.gravitee.management.model.permissions.RolePermission.API_ANALYTICS;
+import static io.gravitee.management.model.permissions.RolePermission.APPLICATION_ANALYTICS;
+
+/**
+ * Computes the visible ids from the memberships of the user and the groups of the APIs and applications, without
+ * converting any entity nor checking the permission of each reference one by one. As with the permission service, a
+ * role given by a direct membership takes precedence over the roles given by the groups. The ids are kept for a
+ * short time (<code>management.cache.analytics.scopeTtl</code>, 60 seconds by default) as the dashboards refresh the
+ * platform analytics again and again.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class AnalyticsScopeServiceImpl extends AbstractService implements AnalyticsScopeService, InitializingBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(AnalyticsScopeServiceImpl.class);
+
+    private static final RolePermissionAction[] READ = {RolePermissionAction.READ};
+
+    @Autowired
+    private MembershipRepository membershipRepository;
+    @Autowired
+    private ApiRepository apiRepository;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private RoleService roleService;
+
+    @Value("${management.cache.analytics.scopeTtl:60}")
+    private long ttl;
+    @Value("${management.cache.analytics.maxEntries:1000}")
+    private long maxEntries;
+
+    private Cache<String, Set<String>> cache;
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    @Override
+    public Set<String> findApis(String username) {
+        return findApis(username, API_ANALYTICS);
+    }
+
+    @Override
+    public Set<String> findApis(String username, RolePermission permission) {
+        return find("api:" + permission.name() + ':' + username, () -> {
+            final Map<String, String> roleByGroup = rolesByGroup(username, RoleScope.API);
+            final Set<String> groups = roleByGroup.keySet();
+            return visible(RoleScope.API, permission,
+                    membershipRepository.findByUserAndReferenceType(username, MembershipReferenceType.API),
+                    Collections.emptySet(), roleByGroup,
+                    groups.isEmpty() ? Collections.emptyMap() : apiRepository.search(
+                            new ApiCriteria.Builder().groups(groups.toArray(new String[0])).build(),
+                            new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())
+                            .stream()
+                            .collect(Collectors.toMap(Api::getId, api -> groupsOf(api.getGroups()), (groups1, groups2) -> groups1)));
+        });
+    }
+
+    @Override
+    public Set<String> findApplications(String username) {
+        return find("application:" + username, () -> {
+            final Set<Membership> memberships =
+                    membershipRepository.findByUserAndReferenceType(username, MembershipReferenceType.APPLICATION);
+            final List<String> members = memberships.stream().map(Membership::getReferenceId).collect(Collectors.toList());
+            // Only the active applications are visible
+            final Set<String> archived = members.isEmpty() ? Collections.emptySet() :
+                    applicationRepository.findByIds(members).stream()
+                            .filter(application -> !ApplicationStatus.ACTIVE.equals(application.getStatus()))
+                            .map(Application::getId)
+                            .collect(Collectors.toSet());
+            final Map<String, String> roleByGroup = rolesByGroup(username, RoleScope.APPLICATION);
+            final Set<String> groups = roleByGroup.keySet();
+            return visible(RoleScope.APPLICATION, APPLICATION_ANALYTICS, memberships, archived, roleByGroup,
+                    groups.isEmpty() ? Collections.emptyMap() :
+                            applicationRepository.findByGroups(new ArrayList<>(groups), ApplicationStatus.ACTIVE).stream()
+                                    .collect(Collectors.toMap(Application::getId, application -> groupsOf(application.getGroups()), (groups1, groups2) -> groups1)));
+        });
+    }
+
+    private Set<String> find(String key, Loader loader) {
+        Set<String> ids = cache.getIfPresent(key);
+        if (ids == null) {
+            try {
+                ids = Collections.unmodifiableSet(loader.load());
+            } catch (TechnicalException ex) {
+                LOGGER.error("An error occurs while trying to find the analytics scope of {}", key, ex);
+                throw new TechnicalManagementException("An error occurs while trying to find the analytics scope of " + key, ex);
+            }
+            cache.put(key, ids);
+        }
+        return ids;
+    }
+
+    private Map<String, String> rolesByGroup(String username, RoleScope roleScope) throws TechnicalException {
+        final Map<String, String> roleByGroup = new HashMap<>();
+        for (Membership membership : membershipRepository.findByUserAndReferenceType(username, MembershipReferenceType.GROUP)) {
+            final String role = membership.getRoles().get(roleScope.getId());
+            if (role != null) {
+                roleByGroup.put(membership.getReferenceId(), role);
+            }
+        }
+        return roleByGroup;
+    }
+
+    /**
+     * @param memberships the direct memberships of the user
+     * @param excluded the references which are not visible whatever the role of the user
+     * @param roleByGroup the role of the user in each of their groups
+     * @param groupsByReference the groups of the references shared with the user
+     */
+    private Set<String> visible(RoleScope roleScope, RolePermission permission, Collection<Membership> memberships,
+                                Set<String> excluded, Map<String, String> roleByGroup,
+                                Map<String, Set<String>> groupsByReference) {
+        final Map<String, Boolean> permissionByRole = new HashMap<>();
+        final Function<String, Boolean> hasPermission = role -> permissionByRole.computeIfAbsent(role, name -> {
+            final RoleEntity roleEntity = roleService.findById(roleScope, name);
+            return roleService.hasPermission(roleEntity.getPermissions(), permission.getPermission(), READ);
+        });
+
+        final Set<String> visible = new HashSet<>();
+        final Set<String> directlyMember = new HashSet<>();
+        for (Membership membership : memberships) {
+            final String role = membership.getRoles().get(roleScope.getId());
+            if (role != null && !excluded.contains(membership.getReferenceId())) {
+                directlyMember.add(membership.getReferenceId());
+                if (hasPermission.apply(role)) {
+                    visible.add(membership.getReferenceId());
+                }
+            }
+        }
+
+        groupsByReference.forEach((reference, groups) -> {
+            if (!directlyMember.contains(reference) && groups.stream()
+                    .map(roleByGroup::get)
+                    .anyMatch(role -> role != null && hasPermission.apply(role))) {
+                visible.add(reference);
+            }
+        });
+        return visible;
+    }
+
+    private static Set<String> groupsOf(Set<String> groups) {
+        return groups == null ? Collections.emptySet() : groups;
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        Set<String> load() throws TechnicalException;
+    }
+}
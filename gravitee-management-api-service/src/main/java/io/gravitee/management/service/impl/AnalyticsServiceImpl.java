@@ -15,31 +15,40 @@
  */
 package io.gravitee.management.service.impl;
 
-import io.gravitee.management.model.api.ApiEntity;
-import io.gravitee.management.model.ApplicationEntity;
-import io.gravitee.management.model.PlanEntity;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import io.gravitee.management.model.TenantEntity;
 import io.gravitee.management.model.analytics.*;
+import io.gravitee.management.model.analytics.query.AbstractQuery;
 import io.gravitee.management.model.analytics.query.CountQuery;
 import io.gravitee.management.model.analytics.query.DateHistogramQuery;
 import io.gravitee.management.model.analytics.query.GroupByQuery;
 import io.gravitee.management.service.*;
+import io.gravitee.management.service.analytics.AnalyticsQueryCache;
+import io.gravitee.management.service.analytics.ColumnarHistograms;
+import io.gravitee.management.service.analytics.Histograms;
+import io.gravitee.management.service.analytics.TimeBuckets;
 import io.gravitee.management.service.exceptions.*;
 import io.gravitee.repository.analytics.AnalyticsException;
 import io.gravitee.repository.analytics.api.AnalyticsRepository;
 import io.gravitee.repository.analytics.query.*;
-import io.gravitee.repository.analytics.query.count.CountResponse;
 import io.gravitee.repository.analytics.query.groupby.GroupByQueryBuilder;
 import io.gravitee.repository.analytics.query.groupby.GroupByResponse;
 import io.gravitee.repository.analytics.query.response.histogram.Data;
 import io.gravitee.repository.analytics.query.response.histogram.DateHistogramResponse;
-import io.gravitee.repository.management.model.ApplicationStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -48,57 +57,257 @@ import java.util.stream.Collectors;
  * @author GraviteeSource Team
  */
 @Component
-public class AnalyticsServiceImpl implements AnalyticsService {
+public class AnalyticsServiceImpl implements AnalyticsService, InitializingBean, DisposableBean {
 
     /**
      * Logger.
      */
     private final Logger logger = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
 
-    private static final String APPLICATION_KEYLESS = "1";
+    /**
+     * Fields of the histogram buckets which are given metadata.
+     */
+    private static final long UNSPLIT_WARNING_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    private static final Set<String> HISTOGRAM_METADATA_FIELDS = new HashSet<>(Arrays.asList("api", "application", "tenant"));
 
     @Autowired
     private AnalyticsRepository analyticsRepository;
 
     @Autowired
-    private ApiService apiService;
+    private ReferenceMetadataService referenceMetadataService;
 
     @Autowired
-    private ApplicationService applicationService;
+    private TenantService tenantService;
 
     @Autowired
-    private PlanService planService;
+    private AnalyticsQueryCache analyticsQueryCache;
 
-    @Autowired
-    private TenantService tenantService;
+    /**
+     * Above this number of values, a terms restriction is split into several queries run in parallel.
+     */
+    @Value("${management.analytics.terms.chunkSize:500}")
+    private int termsChunkSize;
+    @Value("${management.analytics.terms.parallelism:4}")
+    private int termsParallelism;
+
+    private ExecutorService executor;
+
+    private final AtomicLong unsplitQueries = new AtomicLong();
+    private volatile long lastUnsplitWarning;
+
+    @Value("${management.analytics.batch.threads:8}")
+    private int batchThreads;
+    @Value("${management.analytics.batch.queueSize:100}")
+    private int batchQueueSize;
+    /**
+     * Time, in milliseconds, each query of a batch has to complete.
+     */
+    @Value("${management.analytics.batch.timeout:10000}")
+    private long batchTimeout;
+
+    private ThreadPoolExecutor batchExecutor;
+
+    @Override
+    public void afterPropertiesSet() {
+        final AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(termsParallelism, runnable -> {
+            final Thread thread = new Thread(runnable, "gio-analytics-terms-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        final AtomicInteger batchCounter = new AtomicInteger();
+        batchExecutor = new ThreadPoolExecutor(batchThreads, batchThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(batchQueueSize), runnable -> {
+            final Thread thread = new Thread(runnable, "gio-analytics-batch-" + batchCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        batchExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        batchExecutor.shutdownNow();
+    }
 
     @Override
     public HitsAnalytics execute(CountQuery query) {
-        try {
-            CountResponse response = analyticsRepository.query(
-                    QueryBuilders.count()
-                            .query(query.getQuery())
-                            .timeRange(
-                                    DateRangeBuilder.between(query.getFrom(), query.getTo()),
-                                    IntervalBuilder.interval(query.getInterval())
-                            )
-                            .root(query.getRootField(), query.getRootIdentifier())
-                            .build());
-
-            return convert(response);
-        } catch (AnalyticsException ae) {
-            logger.error("Unable to calculate analytics: ", ae);
-            throw new TechnicalManagementException("Unable to calculate analytics", ae);
-        }
+        return hits(query);
     }
 
     @Override
     public HistogramAnalytics execute(DateHistogramQuery query) {
+        final HistogramAnalytics histogram = histogram(query, HISTOGRAM);
+        resolveMetadata(Collections.singletonList(histogram), Collections.emptyMap());
+        return histogram;
+    }
+
+    @Override
+    public ColumnarHistogramAnalytics executeColumnar(DateHistogramQuery query) {
+        final ColumnarHistogramAnalytics histogram = histogram(query, COLUMNAR_HISTOGRAM);
+        resolveMetadata(histogram);
+        return histogram;
+    }
+
+    @Override
+    public TopHitsAnalytics execute(GroupByQuery query) {
+        final TopHitsAnalytics topHits = topHits(query);
+        resolveMetadata(Collections.emptyList(), Collections.singletonMap(topHits, query.getField()));
+        return topHits;
+    }
+
+    @Override
+    public BatchAnalytics execute(Map<String, AbstractQuery> queries) {
+        final BatchAnalytics batch = new BatchAnalytics();
+        final Map<String, Future<Analytics>> futures = new LinkedHashMap<>();
+        queries.forEach((id, query) -> {
+            try {
+                futures.put(id, batchExecutor.submit(() -> compute(query)));
+            } catch (RejectedExecutionException ree) {
+                batch.getErrors().put(id, "Too many analytics queries, try again later");
+            }
+        });
+
+        // Each query has the same time to complete from the submission of the batch
+        final long deadline = System.currentTimeMillis() + batchTimeout;
+        final List<HistogramAnalytics> histograms = new ArrayList<>();
+        final Map<TopHitsAnalytics, String> topHits = new IdentityHashMap<>();
         try {
+            for (Map.Entry<String, Future<Analytics>> future : futures.entrySet()) {
+                final String id = future.getKey();
+                try {
+                    final Analytics analytics = future.getValue().get(
+                            Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                    if (analytics instanceof HistogramAnalytics) {
+                        histograms.add((HistogramAnalytics) analytics);
+                    } else if (analytics instanceof TopHitsAnalytics) {
+                        topHits.put((TopHitsAnalytics) analytics, ((GroupByQuery) queries.get(id)).getField());
+                    }
+                    batch.getResults().put(id, analytics);
+                } catch (TimeoutException te) {
+                    future.getValue().cancel(true);
+                    batch.getErrors().put(id, "Analytics calculation timed out");
+                } catch (ExecutionException ee) {
+                    logger.error("Unable to calculate analytics {}", id, ee.getCause());
+                    batch.getErrors().put(id, "Unable to calculate analytics");
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            futures.values().forEach(future -> future.cancel(true));
+            throw new TechnicalManagementException("Analytics calculation interrupted", ie);
+        }
+
+        // Metadata of all the results are resolved at once
+        resolveMetadata(histograms, topHits);
+        return batch;
+    }
+
+    private Analytics compute(AbstractQuery query) {
+        if (query instanceof CountQuery) {
+            return hits((CountQuery) query);
+        } else if (query instanceof DateHistogramQuery) {
+            return histogram((DateHistogramQuery) query, HISTOGRAM);
+        } else if (query instanceof GroupByQuery) {
+            return topHits((GroupByQuery) query);
+        }
+        throw new IllegalArgumentException("Unsupported analytics query " + query.getClass().getSimpleName());
+    }
+
+    private HitsAnalytics hits(CountQuery query) {
+        final HitsAnalytics hitsAnalytics = new HitsAnalytics();
+        final TimeBuckets buckets = analyticsQueryCache.buckets(query.getFrom(), query.getTo(), query.getInterval());
+        if (buckets == null || buckets.closedBuckets() == 0) {
+            hitsAnalytics.setHits(count(query, query.getFrom(), query.getTo()));
+            return hitsAnalytics;
+        }
+
+        // Hits of the closed buckets are kept, the ones of the partial leading bucket and of the open buckets are added
+        long hits = analyticsQueryCache.get(
+                () -> count(query, buckets.getClosedFrom(), buckets.getClosedTo() - 1),
+                key("count", query, buckets.getClosedFrom(), buckets.getClosedTo()));
+        if (buckets.hasLeadingBucket()) {
+            hits += count(query, buckets.getFrom(), buckets.getClosedFrom() - 1);
+        }
+        if (buckets.hasOpenBuckets()) {
+            hits += count(query, buckets.getClosedTo(), buckets.getTo());
+        }
+
+        hitsAnalytics.setHits(hits);
+        return hitsAnalytics;
+    }
+
+    private <H> H histogram(DateHistogramQuery query, HistogramFormat<H> format) {
+        final TimeBuckets buckets = analyticsQueryCache.buckets(query.getFrom(), query.getTo(), query.getInterval());
+        // A histogram of a single bucket can not be merged as its interval is unknown
+        if (buckets == null || buckets.closedBuckets() < 2) {
+            return histogram(query, query.getFrom(), query.getTo(), format);
+        }
+
+        final H closed = analyticsQueryCache.get(
+                () -> histogram(query, buckets.getClosedFrom(), buckets.getClosedTo() - 1, format),
+                key(format.name(), query, aggregationsKey(query), buckets.getClosedFrom(), buckets.getClosedTo()));
+        if (format.isEmpty(closed)) {
+            return histogram(query, query.getFrom(), query.getTo(), format);
+        }
+
+        H histogram = closed;
+        if (buckets.hasOpenBuckets()) {
+            // The last closed bucket is queried again so that the open histogram has an interval
+            final H open = histogram(query, buckets.getClosedTo() - buckets.getInterval(), buckets.getTo(), format);
+            if (format.isEmpty(open)) {
+                return histogram(query, query.getFrom(), query.getTo(), format);
+            }
+            histogram = format.merge(histogram, open, buckets.getClosedTo());
+        }
+        if (buckets.hasLeadingBucket()) {
+            // The first closed bucket is queried with the partial leading one, of which only the latter is kept
+            final H leading = histogram(query, buckets.getFrom(),
+                    buckets.getClosedFrom() + buckets.getInterval() - 1, format);
+            if (format.isEmpty(leading)) {
+                return histogram(query, query.getFrom(), query.getTo(), format);
+            }
+            histogram = format.merge(leading, histogram, buckets.getClosedFrom());
+        }
+        return histogram == closed ? format.copy(closed) : histogram;
+    }
+
+    private TopHitsAnalytics topHits(GroupByQuery query) {
+        final TimeBuckets buckets = analyticsQueryCache.buckets(query.getFrom(), query.getTo(), query.getInterval());
+        // Top hits can not be merged, only a time range made of closed buckets only is cached
+        if (buckets == null || buckets.closedBuckets() == 0 || buckets.hasLeadingBucket() || buckets.hasOpenBuckets()) {
+            return convert(groupBy(query, query.getFrom(), query.getTo()));
+        }
+
+        return convert(analyticsQueryCache.get(
+                () -> groupBy(query, buckets.getClosedFrom(), buckets.getClosedTo() - 1),
+                key("groupBy", query, groupByKey(query), buckets.getClosedFrom(), buckets.getClosedTo())));
+    }
+
+    private long count(CountQuery query, long from, long to) {
+        return executeAll(queries(query, true), queryString -> analyticsRepository.query(
+                QueryBuilders.count()
+                        .query(queryString)
+                        .timeRange(
+                                DateRangeBuilder.between(from, to),
+                                IntervalBuilder.interval(query.getInterval())
+                        )
+                        .root(query.getRootField(), query.getRootIdentifier())
+                        .build()).getCount())
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    private <H> H histogram(DateHistogramQuery query, long from, long to, HistogramFormat<H> format) {
+        // Only hits can be summed, not averages
+        final boolean mergeable = query.getAggregations() == null || query.getAggregations().stream()
+                .allMatch(aggregation -> AggregationType.FIELD.name().equals(aggregation.type().name()));
+        final List<H> histograms = executeAll(queries(query, mergeable), queryString -> {
             DateHistogramQueryBuilder queryBuilder = QueryBuilders.dateHistogram()
-                    .query(query.getQuery())
+                    .query(queryString)
                     .timeRange(
-                            DateRangeBuilder.between(query.getFrom(), query.getTo()),
+                            DateRangeBuilder.between(from, to),
                             IntervalBuilder.interval(query.getInterval())
                     )
                     .root(query.getRootField(), query.getRootIdentifier());
@@ -110,21 +319,106 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                                         AggregationType.valueOf(aggregation.type().name()), aggregation.field()));
             }
 
-            DateHistogramResponse response = analyticsRepository.query(queryBuilder.build());
-            return convert(response);
-        } catch (AnalyticsException ae) {
-            logger.error("Unable to calculate analytics: ", ae);
-            throw new TechnicalManagementException("Unable to calculate analytics", ae);
-        }
+            return format.convert(analyticsRepository.query(queryBuilder.build()));
+        });
+        return histograms.size() == 1 ? histograms.get(0) : format.sum(histograms);
     }
 
-    @Override
-    public TopHitsAnalytics execute(GroupByQuery query) {
-        try {
+    /**
+     * The operations on a representation of histograms, so that the boxed and the columnar ones are both built
+     * straight from the responses of the repository and merged the same way.
+     */
+    private interface HistogramFormat<H> {
+
+        String name();
+
+        H convert(DateHistogramResponse response);
+
+        boolean isEmpty(H histogram);
+
+        H sum(List<H> histograms);
+
+        H merge(H closed, H open, long openFrom);
+
+        H copy(H histogram);
+    }
+
+    private static final HistogramFormat<HistogramAnalytics> HISTOGRAM = new HistogramFormat<HistogramAnalytics>() {
+        @Override
+        public String name() {
+            return "histogram";
+        }
+
+        @Override
+        public HistogramAnalytics convert(DateHistogramResponse response) {
+            return AnalyticsServiceImpl.convert(response);
+        }
+
+        @Override
+        public boolean isEmpty(HistogramAnalytics histogram) {
+            return histogram.getTimestamp() == null;
+        }
+
+        @Override
+        public HistogramAnalytics sum(List<HistogramAnalytics> histograms) {
+            return Histograms.sum(histograms);
+        }
+
+        @Override
+        public HistogramAnalytics merge(HistogramAnalytics closed, HistogramAnalytics open, long openFrom) {
+            return Histograms.merge(closed, open, openFrom);
+        }
+
+        @Override
+        public HistogramAnalytics copy(HistogramAnalytics histogram) {
+            return Histograms.copy(histogram);
+        }
+    };
+
+    private static final HistogramFormat<ColumnarHistogramAnalytics> COLUMNAR_HISTOGRAM =
+            new HistogramFormat<ColumnarHistogramAnalytics>() {
+        @Override
+        public String name() {
+            return "columnarHistogram";
+        }
+
+        @Override
+        public ColumnarHistogramAnalytics convert(DateHistogramResponse response) {
+            return Histograms.columnar(response.timestamps(), response.values());
+        }
+
+        @Override
+        public boolean isEmpty(ColumnarHistogramAnalytics histogram) {
+            return histogram.getTimestamp() == null;
+        }
+
+        @Override
+        public ColumnarHistogramAnalytics sum(List<ColumnarHistogramAnalytics> histograms) {
+            return ColumnarHistograms.sum(histograms);
+        }
+
+        @Override
+        public ColumnarHistogramAnalytics merge(ColumnarHistogramAnalytics closed, ColumnarHistogramAnalytics open,
+                                                long openFrom) {
+            return ColumnarHistograms.merge(closed, open, openFrom);
+        }
+
+        @Override
+        public ColumnarHistogramAnalytics copy(ColumnarHistogramAnalytics histogram) {
+            return ColumnarHistograms.copy(histogram);
+        }
+    };
+
+    private Map<String, Long> groupBy(GroupByQuery query, long from, long to) {
+        // Ordered top hits of each part can not be merged. Neither can unordered ones when the values are not split
+        // across the parts: a value out of the top of a part would miss hits in its total.
+        final boolean mergeable = query.getOrder() == null &&
+                (query.getGroups() != null || Objects.equals(query.getField(), splitField(query)));
+        final List<Map<String, Long>> values = executeAll(queries(query, mergeable), queryString -> {
             GroupByQueryBuilder queryBuilder = QueryBuilders.groupBy()
-                    .query(query.getQuery())
+                    .query(queryString)
                     .timeRange(
-                            DateRangeBuilder.between(query.getFrom(), query.getTo()),
+                            DateRangeBuilder.between(from, to),
                             IntervalBuilder.interval(query.getInterval())
                     )
                     .root(query.getRootField(), query.getRootIdentifier())
@@ -142,15 +436,184 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                         (order.getType() == null) ? SortType.AVG : SortType.valueOf(order.getType().toUpperCase())));
             }
 
-            GroupByResponse response = analyticsRepository.query(queryBuilder.build());
-            return convert(response);
+            return analyticsRepository.query(queryBuilder.build()).values()
+                    .stream()
+                    .collect(Collectors.toMap(
+                            GroupByResponse.Bucket::name, GroupByResponse.Bucket::value,
+                            (v1,v2) ->{ throw new RuntimeException(String.format("Duplicate key for values %s and %s", v1, v2));},
+                            LinkedHashMap::new));
+        });
+        if (values.size() == 1) {
+            return values.get(0);
+        }
+
+        final Map<String, Long> merged = new LinkedHashMap<>();
+        values.forEach(part -> part.forEach((key, value) -> merged.merge(key, value, Long::sum)));
+        if (query.getGroups() != null) {
+            return merged;
+        }
+        // Most hits first and as many values as a part, as an unsplit query. Each value is counted by a single part, so
+        // the values of the merged top are in the top of their part.
+        return merged.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(values.stream().mapToInt(Map::size).max().orElse(0))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (v1, v2) -> v1, LinkedHashMap::new));
+    }
+
+    /**
+     * The query strings of a query, with its terms restriction. A large restriction is split into several query
+     * strings when the results of each one can be merged, so that no query string holds thousands of ids.
+     */
+    private List<String> queries(AbstractQuery query, boolean mergeable) {
+        final Map<String, Set<String>> terms = query.getTerms();
+        if (terms == null || terms.isEmpty()) {
+            return Collections.singletonList(query.getQuery());
+        }
+
+        final Map.Entry<String, Set<String>> largest = largestTerms(terms);
+        if (!mergeable && largest.getValue().size() > termsChunkSize) {
+            reportUnsplit(query, largest);
+        }
+        final StringBuilder filter = new StringBuilder();
+        if (query.getQuery() != null && !query.getQuery().isEmpty()) {
+            filter.append('(').append(query.getQuery()).append(')');
+        }
+        terms.forEach((field, values) -> {
+            if (!mergeable || !field.equals(largest.getKey())) {
+                appendTerms(filter, field, values);
+            }
+        });
+        if (!mergeable || largest.getValue().size() <= termsChunkSize) {
+            if (mergeable) {
+                appendTerms(filter, largest.getKey(), largest.getValue());
+            }
+            return Collections.singletonList(filter.toString());
+        }
+
+        final List<String> values = new ArrayList<>(largest.getValue());
+        Collections.sort(values);
+        final List<String> queries = new ArrayList<>();
+        for (int i = 0; i < values.size(); i += termsChunkSize) {
+            final StringBuilder chunk = new StringBuilder(filter);
+            appendTerms(chunk, largest.getKey(), values.subList(i, Math.min(i + termsChunkSize, values.size())));
+            queries.add(chunk.toString());
+        }
+        return queries;
+    }
+
+    /**
+     * The field of the terms restriction a query would be split on, if any.
+     */
+    private static String splitField(AbstractQuery query) {
+        return query.getTerms() == null || query.getTerms().isEmpty() ? null : largestTerms(query.getTerms()).getKey();
+    }
+
+    private static Map.Entry<String, Set<String>> largestTerms(Map<String, Set<String>> terms) {
+        return Collections.max(terms.entrySet(), Comparator.comparingInt(entry -> entry.getValue().size()));
+    }
+
+    /**
+     * Warns, at most once a minute, that a large terms restriction has been sent as a single query string since the
+     * results of its parts could not be merged.
+     */
+    private void reportUnsplit(AbstractQuery query, Map.Entry<String, Set<String>> terms) {
+        final long count = unsplitQueries.incrementAndGet();
+        final long now = System.currentTimeMillis();
+        if (now - lastUnsplitWarning >= UNSPLIT_WARNING_INTERVAL) {
+            lastUnsplitWarning = now;
+            logger.warn("{} analytics queries have not been split since their results can not be merged, the last one "
+                    + "({}) restricts {} to {} values", count, query.getClass().getSimpleName(), terms.getKey(),
+                    terms.getValue().size());
+        }
+    }
+
+    private static void appendTerms(StringBuilder filter, String field, Collection<String> values) {
+        if (filter.length() > 0) {
+            filter.append(" AND ");
+        }
+        filter.append(field).append(":(").append(String.join(" OR ", values)).append(')');
+    }
+
+    /**
+     * Runs the query strings of a query, in parallel when there are several of them.
+     */
+    private <T> List<T> executeAll(List<String> queries, AnalyticsQuery<T> analyticsQuery) {
+        if (queries.size() == 1) {
+            return Collections.singletonList(run(analyticsQuery, queries.get(0)));
+        }
+
+        final List<Future<T>> futures = queries.stream()
+                .map(queryString -> executor.submit(() -> run(analyticsQuery, queryString)))
+                .collect(Collectors.toList());
+        final List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TechnicalManagementException("Analytics calculation interrupted", ie);
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ee.getCause();
+            }
+            throw new TechnicalManagementException("Unable to calculate analytics", ee.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private <T> T run(AnalyticsQuery<T> analyticsQuery, String queryString) {
+        try {
+            return analyticsQuery.query(queryString);
         } catch (AnalyticsException ae) {
             logger.error("Unable to calculate analytics: ", ae);
             throw new TechnicalManagementException("Unable to calculate analytics", ae);
         }
     }
 
-    private HistogramAnalytics convert(DateHistogramResponse histogramResponse) {
+    @FunctionalInterface
+    private interface AnalyticsQuery<T> {
+        T query(String queryString) throws AnalyticsException;
+    }
+
+    private static Object[] key(String type, AbstractQuery query, Object... parts) {
+        final List<Object> key = new ArrayList<>(Arrays.asList(
+                type, query.getRootField(), query.getRootIdentifier(), query.getQuery(), termsKey(query), query.getInterval()));
+        key.addAll(Arrays.asList(parts));
+        return key.toArray();
+    }
+
+    /**
+     * The terms restriction can hold thousands of ids, only their digest is part of the key.
+     */
+    private static String termsKey(AbstractQuery query) {
+        if (query.getTerms() == null || query.getTerms().isEmpty()) {
+            return "";
+        }
+        final Hasher hasher = Hashing.sha256().newHasher();
+        new TreeMap<>(query.getTerms()).forEach((field, values) -> {
+            hasher.putString(field, StandardCharsets.UTF_8).putChar(':');
+            new TreeSet<>(values).forEach(value -> hasher.putString(value, StandardCharsets.UTF_8).putChar(','));
+            hasher.putChar(';');
+        });
+        return hasher.hash().toString();
+    }
+
+    private static String aggregationsKey(DateHistogramQuery query) {
+        return query.getAggregations() == null ? "" : query.getAggregations().stream()
+                .map(aggregation -> aggregation.type() + ":" + aggregation.field())
+                .collect(Collectors.joining(","));
+    }
+
+    private static String groupByKey(GroupByQuery query) {
+        final GroupByQuery.Order order = query.getOrder();
+        return query.getField() + ';' + query.getGroups() + ';' +
+                (order == null ? "" : order.getField() + ':' + order.isOrder() + ':' + order.getType());
+    }
+
+    private static HistogramAnalytics convert(DateHistogramResponse histogramResponse) {
         final HistogramAnalytics analytics = new HistogramAnalytics();
         final List<Long> timestamps = histogramResponse.timestamps();
         if (timestamps != null && timestamps.size() > 1) {
@@ -171,7 +634,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return analytics;
     }
 
-    private Bucket convertBucket(List<Long> timestamps, long from, long interval, io.gravitee.repository.analytics.query.response.histogram.Bucket bucket) {
+    private static Bucket convertBucket(List<Long> timestamps, long from, long interval, io.gravitee.repository.analytics.query.response.histogram.Bucket bucket) {
         Bucket analyticsBucket = new Bucket();
         analyticsBucket.setName(bucket.name());
         analyticsBucket.setField(bucket.field());
@@ -182,32 +645,6 @@ public class AnalyticsServiceImpl implements AnalyticsService {
             childBuckets.add(convertBucket(timestamps, from, interval, childBucket));
         }
 
-        if (analyticsBucket.getField().equals("application")) {
-            // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(app -> {
-                metadata.put(app, getApplicationMetadata(app));
-            });
-
-            analyticsBucket.setMetadata(metadata);
-        } else if (analyticsBucket.getField().equals("api")) {
-            // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(api -> {
-                metadata.put(api, getAPIMetadata(api));
-            });
-
-            analyticsBucket.setMetadata(metadata);
-        } else if (analyticsBucket.getField().equals("tenant")) {
-            // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            bucket.data().keySet().stream().forEach(tenant -> {
-                metadata.put(tenant, getTenantMetadata(tenant));
-            });
-
-            analyticsBucket.setMetadata(metadata);
-        }
-
         for (Map.Entry<String, List<Data>> dataBucket : bucket.data().entrySet()) {
             Bucket analyticsDataBucket = new Bucket();
             analyticsDataBucket.setName(dataBucket.getKey());
@@ -228,38 +665,68 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         return analyticsBucket;
     }
 
-    private HitsAnalytics convert(CountResponse countResponse) {
-        HitsAnalytics hitsAnalytics = new HitsAnalytics();
-//        hitsAnalytics.setName(countResponse.getName());
-        hitsAnalytics.setHits(countResponse.getCount());
-
-        return  hitsAnalytics;
+    /**
+     * Results may be cached, so their metadata are resolved once computed, all the results of a batch at once.
+     *
+     * @param topHits the top hits with their field
+     */
+    private void resolveMetadata(Collection<HistogramAnalytics> histograms, Map<TopHitsAnalytics, String> topHits) {
+        final Map<String, Set<String>> keysByField = new HashMap<>();
+        histograms.stream()
+                .filter(histogram -> histogram.getValues() != null)
+                .forEach(histogram -> histogram.getValues().forEach(bucket -> collectKeys(bucket, keysByField)));
+        topHits.forEach((analytics, field) -> {
+            if (field != null && !field.isEmpty()) {
+                keysByField.computeIfAbsent(field, key -> new HashSet<>()).addAll(analytics.getValues().keySet());
+            }
+        });
+
+        final Map<String, Map<String, Map<String, String>>> metadataByField = new HashMap<>();
+        keysByField.forEach((field, keys) -> metadataByField.put(field, getMetadata(field, keys)));
+
+        histograms.stream()
+                .filter(histogram -> histogram.getValues() != null)
+                .forEach(histogram -> histogram.getValues().forEach(bucket -> setMetadata(bucket, metadataByField)));
+        topHits.forEach((analytics, field) -> {
+            if (field != null && !field.isEmpty()) {
+                final Map<String, Map<String, String>> fieldMetadata = metadataByField.get(field);
+                Map<String, Map<String, String>> metadata = new HashMap<>();
+                analytics.getValues().keySet().forEach(key -> metadata.put(key, fieldMetadata.get(key)));
+                analytics.setMetadata(metadata);
+            }
+        });
     }
 
-    private TopHitsAnalytics convert(GroupByResponse groupByResponse) {
-        TopHitsAnalytics topHitsAnalytics = new TopHitsAnalytics();
-
-        // Set results
-        topHitsAnalytics.setValues(
-            groupByResponse.values()
-                    .stream()
-                    .collect(Collectors.toMap(
-                            GroupByResponse.Bucket::name, GroupByResponse.Bucket::value,
-                            (v1,v2) ->{ throw new RuntimeException(String.format("Duplicate key for values %s and %s", v1, v2));},
-                            LinkedHashMap::new)));
+    /**
+     * Same as {@link #resolveMetadata(Collection, Map)} for the series of a columnar histogram.
+     */
+    private void resolveMetadata(ColumnarHistogramAnalytics histogram) {
+        if (histogram.getSeries() == null) {
+            return;
+        }
+        final Map<String, Set<String>> keysByField = new HashMap<>();
+        histogram.getSeries().stream()
+                .filter(series -> HISTOGRAM_METADATA_FIELDS.contains(series.getField()))
+                .forEach(series -> keysByField.computeIfAbsent(series.getField(), field -> new HashSet<>()).add(series.getName()));
 
-        String fieldName = groupByResponse.getField();
+        final Map<String, Map<String, Map<String, String>>> metadataByField = new HashMap<>();
+        keysByField.forEach((field, keys) -> metadataByField.put(field, getMetadata(field, keys)));
 
-        if (fieldName != null && !fieldName.isEmpty()) {
+        histogram.getSeries().stream()
+                .filter(series -> HISTOGRAM_METADATA_FIELDS.contains(series.getField()))
+                .forEach(series -> series.setMetadata(metadataByField.get(series.getField()).get(series.getName())));
+    }
 
-            // Prepare metadata
-            Map<String, Map<String, String>> metadata = new HashMap<>();
-            if (topHitsAnalytics.getValues() != null) {
-                for (String key : topHitsAnalytics.getValues().keySet()) {
+    private Map<String, Map<String, String>> getMetadata(String fieldName, Set<String> keys) {
+        Map<String, Map<String, String>> metadata = new HashMap<>();
+        switch(fieldName) {
+            // Referenced entities are resolved all at once
+            case "api": metadata.putAll(referenceMetadataService.findApiMetadata(keys)); break;
+            case "application": metadata.putAll(referenceMetadataService.findApplicationMetadata(keys)); break;
+            case "plan": metadata.putAll(referenceMetadataService.findPlanMetadata(keys)); break;
+            default:
+                for (String key : keys) {
                     switch(fieldName) {
-                        case "api": metadata.put(key, getAPIMetadata(key)); break;
-                        case "application": metadata.put(key, getApplicationMetadata(key)); break;
-                        case "plan": metadata.put(key, getPlanMetadata(key)); break;
                         case "tenant": metadata.put(key, getTenantMetadata(key)); break;
                         case "geoip.country_iso_code": metadata.put(key, getCountryName(key)); break;
                         default:
@@ -267,61 +734,55 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
                     }
                 }
-            }
-
-            topHitsAnalytics.setMetadata(metadata);
         }
-
-        return  topHitsAnalytics;
+        return metadata;
     }
 
-    private Map<String, String> getAPIMetadata(String api) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            ApiEntity apiEntity = apiService.findById(api);
-            metadata.put("name", apiEntity.getName());
-            metadata.put("version", apiEntity.getVersion());
-        } catch (ApiNotFoundException anfe) {
-            metadata.put("name", "Deleted API");
-            metadata.put("deleted", "true");
+    private void collectKeys(Bucket bucket, Map<String, Set<String>> keysByField) {
+        if (bucket.getBuckets() == null) {
+            return;
+        }
+        for (Bucket childBucket : bucket.getBuckets()) {
+            if (childBucket.getData() != null) {
+                if (HISTOGRAM_METADATA_FIELDS.contains(bucket.getField())) {
+                    keysByField.computeIfAbsent(bucket.getField(), field -> new HashSet<>()).add(childBucket.getName());
+                }
+            } else {
+                collectKeys(childBucket, keysByField);
+            }
         }
-
-        return metadata;
     }
 
-    private Map<String, String> getApplicationMetadata(String application) {
-        Map<String, String> metadata = new HashMap<>();
-
-        try {
-            ApplicationEntity applicationEntity = applicationService.findById(application);
-            metadata.put("name", applicationEntity.getName());
-            if (ApplicationStatus.ARCHIVED.toString().equals(applicationEntity.getStatus())) {
-                metadata.put("deleted", "true");
-            }
-        } catch (ApplicationNotFoundException anfe) {
-            metadata.put("deleted", "true");
-            if (application.equals(APPLICATION_KEYLESS)) {
-                metadata.put("name", "Unknown application (keyless)");
+    private void setMetadata(Bucket bucket, Map<String, Map<String, Map<String, String>>> metadataByField) {
+        if (bucket.getBuckets() == null) {
+            return;
+        }
+        final Set<String> keys = new HashSet<>();
+        for (Bucket childBucket : bucket.getBuckets()) {
+            if (childBucket.getData() != null) {
+                keys.add(childBucket.getName());
             } else {
-                metadata.put("name", "Deleted application");
+                setMetadata(childBucket, metadataByField);
             }
         }
 
-        return metadata;
+        if (HISTOGRAM_METADATA_FIELDS.contains(bucket.getField())) {
+            // Prepare metadata
+            final Map<String, Map<String, String>> fieldMetadata =
+                    metadataByField.getOrDefault(bucket.getField(), Collections.emptyMap());
+            Map<String, Map<String, String>> metadata = new HashMap<>();
+            keys.forEach(key -> metadata.put(key, fieldMetadata.get(key)));
+            bucket.setMetadata(metadata);
+        }
     }
 
-    private Map<String, String> getPlanMetadata(String plan) {
-        Map<String, String> metadata = new HashMap<>();
+    private TopHitsAnalytics convert(Map<String, Long> values) {
+        TopHitsAnalytics topHitsAnalytics = new TopHitsAnalytics();
 
-        try {
-            PlanEntity planEntity = planService.findById(plan);
-            metadata.put("name", planEntity.getName());
-        } catch (PlanNotFoundException anfe) {
-            metadata.put("deleted", "true");
-        }
+        // Set results, a copy as they may be cached
+        topHitsAnalytics.setValues(new LinkedHashMap<>(values));
 
-        return metadata;
+        return  topHitsAnalytics;
     }
 
     private Map<String, String> getTenantMetadata(String tenant) {
@@ -25,6 +25,7 @@ import io.gravitee.management.service.MetadataService;
 import io.gravitee.management.service.exceptions.ApiMetadataNotFoundException;
 import io.gravitee.management.service.exceptions.DuplicateMetadataNameException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.page.PageTemplateCache;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.MetadataRepository;
 import io.gravitee.repository.management.model.Metadata;
@@ -63,6 +64,9 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private PageTemplateCache pageTemplateCache;
+
     @Override
     public List<ApiMetadataEntity> findAllByApi(final String apiId) {
         try {
@@ -135,6 +139,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
                     new Date(),
                     apiMetadata,
                     null);
+            pageTemplateCache.invalidate(apiId);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurs while trying to delete metadata {}", metadataId, ex);
             throw new TechnicalManagementException("An error occurs while trying to delete metadata " + metadataId, ex);
@@ -175,6 +180,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
                     metadata.getCreatedAt(),
                     null,
                     metadata);
+            pageTemplateCache.invalidate(apiEntity.getId());
             return convert(metadata, metadataEntity.getApiId());
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurred while trying to create metadata {} on API {}", metadataEntity.getName(), metadataEntity.getApiId(), ex);
@@ -230,6 +236,7 @@ public class ApiMetadataServiceImpl implements ApiMetadataService {
                         null,
                         metadata);
             }
+            pageTemplateCache.invalidate(apiEntity.getId());
             final ApiMetadataEntity apiMetadataEntity = convert(savedMetadata, null);
             optDefaultMetadata.ifPresent(defaultMetadata -> apiMetadataEntity.setDefaultValue(defaultMetadata.getValue()));
 
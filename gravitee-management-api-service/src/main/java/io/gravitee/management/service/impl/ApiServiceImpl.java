@@ -44,6 +44,7 @@ import io.gravitee.management.service.jackson.ser.api.ApiSerializer;
 import io.gravitee.management.service.notification.ApiHook;
 import io.gravitee.management.service.notification.HookScope;
 import io.gravitee.management.service.notification.NotificationParamsBuilder;
+import io.gravitee.management.service.page.PageTemplateCache;
 import io.gravitee.management.service.processor.ApiSynchronizationProcessor;
 import io.gravitee.management.service.search.SearchEngineService;
 import io.gravitee.management.service.search.query.Query;
@@ -148,6 +149,8 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
     private EntrypointService entrypointService;
     @Autowired
     private WorkflowService workflowService;
+    @Autowired
+    private PageTemplateCache pageTemplateCache;
 
     private static final Pattern LOGGING_MAX_DURATION_PATTERN = Pattern.compile("(?<before>.*)\\#request.timestamp\\s*\\<\\=?\\s*(?<timestamp>\\d*)l(?<after>.*)");
     private static final String LOGGING_MAX_DURATION_CONDITION = "#request.timestamp <= %dl";
@@ -536,6 +539,20 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
         }
     }
 
+    @Override
+    public Set<ApiEntity> findByIds(Collection<String> apiIds) {
+        if (apiIds == null || apiIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        try {
+            LOGGER.debug("Find APIs by IDs: {}", apiIds);
+            return convert(apiRepository.search(new ApiCriteria.Builder().ids(apiIds.toArray(new String[0])).build()));
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find APIs using their IDs: {}", apiIds, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find APIs using their IDs: " + apiIds, ex);
+        }
+    }
+
     @Override
     public Set<ApiEntity> findByVisibility(io.gravitee.management.model.Visibility visibility) {
         try {
@@ -686,6 +703,7 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
                 }
 
                 Api updatedApi = apiRepository.update(api);
+                pageTemplateCache.invalidate(apiId);
 
                 // Audit
                 auditService.createApiAuditLog(
@@ -798,6 +816,7 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
 
                 // Delete API
                 apiRepository.delete(apiId);
+                pageTemplateCache.invalidate(apiId);
                 // Delete top API
                 topApiService.delete(apiId);
                 // Audit
@@ -953,6 +972,7 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
             apiValue.setUpdatedAt(new Date());
             apiValue.setDeployedAt(apiValue.getUpdatedAt());
             apiValue = apiRepository.update(apiValue);
+            pageTemplateCache.invalidate(apiId);
 
             Map<String, String> properties = new HashMap<>();
             properties.put(Event.EventProperties.API_ID.getValue(), apiValue.getId());
@@ -1256,6 +1276,7 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
                 api.getViews().remove(viewId);
                 api.setUpdatedAt(new Date());
                 apiRepository.update(api);
+                pageTemplateCache.invalidate(apiId);
                 // Audit
                 auditService.createApiAuditLog(
                         apiId,
@@ -1465,6 +1486,7 @@ public class ApiServiceImpl extends AbstractService implements ApiService {
             api.setUpdatedAt(new Date());
             api.setLifecycleState(lifecycleState);
             ApiEntity apiEntity = convert(apiRepository.update(api));
+            pageTemplateCache.invalidate(apiId);
             // Audit
             auditService.createApiAuditLog(
                     apiId,
@@ -122,6 +122,20 @@ public class ApplicationServiceImpl extends AbstractService implements Applicati
         }
     }
 
+    @Override
+    public Set<ApplicationEntity> findByIds(Collection<String> applicationIds) {
+        if (applicationIds == null || applicationIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        try {
+            LOGGER.debug("Find applications by IDs: {}", applicationIds);
+            return convert(applicationRepository.findByIds(new ArrayList<>(applicationIds)));
+        } catch (TechnicalException ex) {
+            LOGGER.error("An error occurs while trying to find applications using their IDs {}", applicationIds, ex);
+            throw new TechnicalManagementException("An error occurs while trying to find applications using their IDs " + applicationIds, ex);
+        }
+    }
+
     @Override
     public Set<ApplicationListItem> findByUser(String username) {
         try {
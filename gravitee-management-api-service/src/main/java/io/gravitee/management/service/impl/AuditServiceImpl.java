@@ -15,32 +15,35 @@
  */
 package io.gravitee.management.service.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.github.fge.jsonpatch.diff.JsonDiff;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.common.data.domain.MetadataPage;
 import io.gravitee.common.data.domain.Page;
 import io.gravitee.common.utils.UUID;
-import io.gravitee.management.model.UserEntity;
 import io.gravitee.management.model.audit.AuditEntity;
 import io.gravitee.management.model.audit.AuditQuery;
 import io.gravitee.management.service.AuditService;
 import io.gravitee.management.service.UserService;
+import io.gravitee.management.service.audit.AuditWriter;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.management.service.exceptions.UserNotFoundException;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.*;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
 import io.gravitee.repository.management.api.search.AuditCriteria.Builder;
 import io.gravitee.repository.management.api.search.builder.PageableBuilder;
 import io.gravitee.repository.management.model.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static io.gravitee.management.service.impl.MetadataServiceImpl.getDefautReferenceId;
@@ -50,7 +53,7 @@ import static io.gravitee.management.service.impl.MetadataServiceImpl.getDefautR
  * @author GraviteeSource Team
  */
 @Component
-public class AuditServiceImpl extends AbstractService implements AuditService {
+public class AuditServiceImpl extends AbstractService implements AuditService, InitializingBean {
 
     private final Logger LOGGER = LoggerFactory.getLogger(AuditServiceImpl.class);
 
@@ -80,7 +83,26 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
     private UserService userService;
 
     @Autowired
-    private ObjectMapper mapper;
+    private AuditWriter auditWriter;
+
+    @Value("${management.cache.audit.ttl:30}")
+    private long namesTtl;
+
+    @Value("${management.cache.audit.maxEntries:10000}")
+    private long namesMaxEntries;
+
+    /**
+     * Names of the objects referenced by the audits, by type and id.
+     */
+    private Cache<String, Optional<String>> names;
+
+    @Override
+    public void afterPropertiesSet() {
+        names = CacheBuilder.newBuilder()
+                .expireAfterWrite(namesTtl, TimeUnit.SECONDS)
+                .maximumSize(namesMaxEntries)
+                .build();
+    }
 
     @Override
     public MetadataPage<AuditEntity> search(AuditQuery query) {
@@ -121,49 +143,45 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
     }
 
     private Map<String, String> getMetadata(List<AuditEntity> content) {
+        // Referenced ids are collected by type across the page, then resolved at once
+        final Map<String, Set<String>> references = new HashMap<>();
+        for (AuditEntity auditEntity : content) {
+            addReference(references, Audit.AuditProperties.USER.name(), auditEntity.getUser());
+            if (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType())
+                    || Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) {
+                addReference(references, auditEntity.getReferenceType(), auditEntity.getReferenceId());
+            }
+            if (auditEntity.getProperties() != null) {
+                for (Map.Entry<String, String> property : auditEntity.getProperties().entrySet()) {
+                    addReference(references, property.getKey(), reference(auditEntity, property));
+                }
+            }
+        }
+
+        final Map<String, Map<String, Optional<String>>> resolved = new HashMap<>();
+        references.forEach((type, ids) -> resolved.put(type, findNames(type, ids)));
+
         Map<String, String> metadata = new HashMap<>();
         for (AuditEntity auditEntity : content) {
             //add user's display name
             String metadataKey = "USER:"+auditEntity.getUser()+":name";
-            try {
-                UserEntity user = userService.findById(auditEntity.getUser());
-                metadata.put(metadataKey, user.getDisplayName());
-            } catch (TechnicalManagementException e) {
-                LOGGER.error("Error finding metadata {}", auditEntity.getUser());
-            } catch (UserNotFoundException unfe) {
-                metadata.put(metadataKey, auditEntity.getUser());
+            Optional<String> name = name(resolved, Audit.AuditProperties.USER.name(), auditEntity.getUser());
+            if (name != null) {
+                metadata.put(metadataKey, name.orElse(auditEntity.getUser()));
             }
 
-            if (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType())) {
-                metadataKey = "API:" + auditEntity.getReferenceId() + ":name";
-                if (!metadata.containsKey(metadataKey)) {
-                    try {
-                        Optional<Api> optApi = apiRepository.findById(auditEntity.getReferenceId());
-                        if (optApi.isPresent()) {
-                            metadata.put(metadataKey, optApi.get().getName());
-                        }
-                    } catch (TechnicalException e) {
-                        LOGGER.error("Error finding metadata {}", metadataKey);
-                        metadata.put(metadataKey, auditEntity.getReferenceId());
-                    }
-                }
-            } else if (Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) {
-                metadataKey = "APPLICATION:" + auditEntity.getReferenceId() + ":name";
-                if (!metadata.containsKey(metadataKey)) {
-                    try {
-                        Optional<Application> optApp = applicationRepository.findById(auditEntity.getReferenceId());
-                        if (optApp.isPresent()) {
-                            metadata.put(metadataKey, optApp.get().getName());
-                        }
-                    } catch (TechnicalException e) {
-                        LOGGER.error("Error finding metadata {}", metadataKey);
-                        metadata.put(metadataKey, auditEntity.getReferenceId());
-                    }
+            if (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType())
+                    || Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) {
+                metadataKey = auditEntity.getReferenceType() + ":" + auditEntity.getReferenceId() + ":name";
+                name = name(resolved, auditEntity.getReferenceType(), auditEntity.getReferenceId());
+                if (name == null) {
+                    metadata.put(metadataKey, auditEntity.getReferenceId());
+                } else if (name.isPresent()) {
+                    metadata.put(metadataKey, name.get());
                 }
             }
 
             //add property metadata
-            String name;
             if (auditEntity.getProperties() != null) {
                 for (Map.Entry<String, String> property : auditEntity.getProperties().entrySet()) {
                     metadataKey = new StringJoiner(":").
@@ -172,67 +190,8 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
                             add("name").
                             toString();
                     if (!metadata.containsKey(metadataKey)) {
-                        name = property.getValue();
-                        try {
-                            switch (Audit.AuditProperties.valueOf(property.getKey())) {
-                                case API:
-                                    Optional<Api> optApi = apiRepository.findById(property.getValue());
-                                    if (optApi.isPresent()) {
-                                        name = optApi.get().getName();
-                                    }
-                                    break;
-                                case APPLICATION:
-                                    Optional<Application> optApp = applicationRepository.findById(property.getValue());
-                                    if (optApp.isPresent()) {
-                                        name = optApp.get().getName();
-                                    }
-                                    break;
-                                case PAGE:
-                                    Optional<io.gravitee.repository.management.model.Page> optPage = pageRepository.findById(property.getValue());
-                                    if (optPage.isPresent()) {
-                                        name = optPage.get().getName();
-                                    }
-                                    break;
-                                case PLAN:
-                                    Optional<Plan> optPlan = planRepository.findById(property.getValue());
-                                    if (optPlan.isPresent()) {
-                                        name = optPlan.get().getName();
-                                    }
-                                    break;
-                                case METADATA:
-                                    MetadataReferenceType refType = (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType()))
-                                            ? MetadataReferenceType.API :
-                                            (Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) ?
-                                                    MetadataReferenceType.APPLICATION :
-                                                    MetadataReferenceType.DEFAULT;
-                                    String refId = refType.equals(MetadataReferenceType.DEFAULT) ? getDefautReferenceId() : auditEntity.getReferenceId();
-
-                                    Optional<Metadata> optMetadata = metadataRepository.findById(property.getValue(), refId, refType);
-                                    if (optMetadata.isPresent()) {
-                                        name = optMetadata.get().getName();
-                                    }
-                                    break;
-                                case GROUP:
-                                    Optional<Group> optGroup = groupRepository.findById(property.getValue());
-                                    if (optGroup.isPresent()) {
-                                        name = optGroup.get().getName();
-                                    }
-                                    break;
-                                case USER:
-                                    try {
-                                        UserEntity user = userService.findById(property.getValue());
-                                        name = user.getDisplayName();
-                                    } catch (UserNotFoundException unfe) {
-                                        name = property.getValue();
-                                    }
-                                default:
-                                    break;
-                            }
-                        } catch (TechnicalException e) {
-                            LOGGER.error("Error finding metadata {}", metadataKey);
-                            name = property.getValue();
-                        }
-                        metadata.put(metadataKey, name);
+                        name = name(resolved, property.getKey(), reference(auditEntity, property));
+                        metadata.put(metadataKey, name == null ? property.getValue() : name.orElse(property.getValue()));
                     }
                 }
             }
@@ -240,6 +199,122 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
         return metadata;
     }
 
+    private Optional<String> name(Map<String, Map<String, Optional<String>>> resolved, String type, String id) {
+        return resolved.getOrDefault(type, Collections.emptyMap()).get(id);
+    }
+
+    private void addReference(Map<String, Set<String>> references, String type, String id) {
+        if (id != null) {
+            references.computeIfAbsent(type, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * @return the id of the object referenced by a property, metadata are identified by their reference and their key
+     */
+    private String reference(AuditEntity auditEntity, Map.Entry<String, String> property) {
+        if (Audit.AuditProperties.METADATA != Audit.AuditProperties.valueOf(property.getKey())) {
+            return property.getValue();
+        }
+        MetadataReferenceType refType = (Audit.AuditReferenceType.API.name().equals(auditEntity.getReferenceType()))
+                ? MetadataReferenceType.API :
+                (Audit.AuditReferenceType.APPLICATION.name().equals(auditEntity.getReferenceType())) ?
+                        MetadataReferenceType.APPLICATION :
+                        MetadataReferenceType.DEFAULT;
+        String refId = refType.equals(MetadataReferenceType.DEFAULT) ? getDefautReferenceId() : auditEntity.getReferenceId();
+        return refType.name() + ':' + property.getValue() + ':' + refId;
+    }
+
+    /**
+     * @return the names of the objects, an empty name when the object does not exist. The ids of which the names could
+     * not be read are left out.
+     */
+    private Map<String, Optional<String>> findNames(String type, Set<String> ids) {
+        final Map<String, Optional<String>> found = new HashMap<>();
+        final Set<String> missing = new HashSet<>();
+        for (String id : ids) {
+            final Optional<String> cached = names.getIfPresent(type + ':' + id);
+            if (cached == null) {
+                missing.add(id);
+            } else {
+                found.put(id, cached);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            try {
+                final Map<String, String> loaded = loadNames(type, missing);
+                for (String id : missing) {
+                    final Optional<String> name = Optional.ofNullable(loaded.get(id));
+                    names.put(type + ':' + id, name);
+                    found.put(id, name);
+                }
+            } catch (TechnicalException | TechnicalManagementException e) {
+                LOGGER.error("Error finding metadata {}:{}", type, missing, e);
+            }
+        }
+        return found;
+    }
+
+    private Map<String, String> loadNames(String type, Set<String> ids) throws TechnicalException {
+        final Map<String, String> loaded = new HashMap<>();
+        switch (Audit.AuditProperties.valueOf(type)) {
+            case API:
+                apiRepository.search(
+                        new ApiCriteria.Builder().ids(ids.toArray(new String[0])).build(),
+                        new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())
+                        .forEach(api -> loaded.put(api.getId(), api.getName()));
+                break;
+            case APPLICATION:
+                applicationRepository.findByIds(new ArrayList<>(ids))
+                        .forEach(application -> loaded.put(application.getId(), application.getName()));
+                break;
+            case GROUP:
+                groupRepository.findByIds(ids).forEach(group -> loaded.put(group.getId(), group.getName()));
+                break;
+            case USER:
+                try {
+                    userService.findByIds(new ArrayList<>(ids)).forEach(user -> loaded.put(user.getId(), user.getDisplayName()));
+                } catch (UserNotFoundException unfe) {
+                    // none of the users exists anymore
+                }
+                break;
+            case PAGE:
+                // There is no bulk lookup of pages, their names are cached
+                for (String id : ids) {
+                    pageRepository.findById(id).ifPresent(page -> loaded.put(id, page.getName()));
+                }
+                break;
+            case PLAN:
+                // There is no bulk lookup of plans, they are cached by the repository when enabled
+                for (String id : ids) {
+                    planRepository.findById(id).ifPresent(plan -> loaded.put(id, plan.getName()));
+                }
+                break;
+            case METADATA:
+                // All the metadata of a reference are read at once
+                final Map<String, Set<String>> idsByReference = new HashMap<>();
+                ids.forEach(id -> {
+                    final String[] parts = id.split(":", 3);
+                    idsByReference.computeIfAbsent(parts[0] + ':' + parts[2], key -> new HashSet<>()).add(id);
+                });
+                for (Set<String> referenceIds : idsByReference.values()) {
+                    final String[] parts = referenceIds.iterator().next().split(":", 3);
+                    final MetadataReferenceType refType = MetadataReferenceType.valueOf(parts[0]);
+                    metadataRepository.findByReferenceTypeAndReferenceId(refType, parts[2]).forEach(metadata -> {
+                        final String id = refType.name() + ':' + metadata.getKey() + ':' + parts[2];
+                        if (referenceIds.contains(id)) {
+                            loaded.put(id, metadata.getName());
+                        }
+                    });
+                }
+                break;
+            default:
+                break;
+        }
+        return loaded;
+    }
+
     @Override
     public void createApiAuditLog(String apiId, Map<Audit.AuditProperties,String> properties, Audit.AuditEvent event, Date createdAt,
                                   Object oldValue, Object newValue) {
@@ -301,7 +376,6 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
                 newValue);
     }
 
-    @Async
     protected void create(Audit.AuditReferenceType referenceType, String referenceId, Map<Audit.AuditProperties,String> properties,
                           Audit.AuditEvent event, String userId, Date createdAt,
                           Object oldValue, Object newValue) {
@@ -319,20 +393,8 @@ public class AuditServiceImpl extends AbstractService implements AuditService {
         audit.setReferenceId(referenceId);
         audit.setEvent(event.name());
 
-        ObjectNode oldNode = oldValue == null
-                ? mapper.createObjectNode()
-                : mapper.convertValue(oldValue, ObjectNode.class).remove(Arrays.asList("updatedAt", "createdAt"));
-        ObjectNode newNode = newValue == null
-                ? mapper.createObjectNode()
-                : mapper.convertValue(newValue, ObjectNode.class).remove(Arrays.asList("updatedAt", "createdAt"));
-
-        audit.setPatch(JsonDiff.asJson(oldNode, newNode).toString());
-
-        try {
-            auditRepository.create(audit);
-        } catch (TechnicalException e) {
-            LOGGER.error("Error occurs during the creation of an Audit Log {}.", e);
-        }
+        // The patch is computed and the audit written in the background
+        auditWriter.write(audit, oldValue, newValue);
     }
 
     private AuditEntity convert(Audit audit) {
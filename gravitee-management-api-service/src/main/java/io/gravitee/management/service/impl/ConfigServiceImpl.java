@@ -29,21 +29,66 @@ import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import static io.gravitee.management.service.impl.ParameterServiceImpl.KV_SEPARATOR;
 import static java.util.Collections.*;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 /**
+ * The <code>@ParameterKey</code> fields of the portal configuration are looked up once, when the class is loaded,
+ * instead of walking the configuration classes on each call.
+ *
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
 public class ConfigServiceImpl extends AbstractService implements ConfigService {
 
-    private final Logger LOGGER = LoggerFactory.getLogger(ConfigServiceImpl.class);
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigServiceImpl.class);
+
+    /**
+     * The configuration objects holding parameters, relative to the portal configuration.
+     */
+    private static final List<Function<PortalConfigEntity, Object>> CONFIG_OBJECTS = Collections.unmodifiableList(asList(
+            portalConfig -> portalConfig,
+            PortalConfigEntity::getAuthentication,
+            portalConfig -> portalConfig.getAuthentication().getGithub(),
+            portalConfig -> portalConfig.getAuthentication().getGoogle(),
+            portalConfig -> portalConfig.getAuthentication().getOauth2(),
+            PortalConfigEntity::getCompany,
+            PortalConfigEntity::getDocumentation,
+            PortalConfigEntity::getManagement,
+            PortalConfigEntity::getPortal,
+            portalConfig -> portalConfig.getPortal().getApis(),
+            portalConfig -> portalConfig.getPortal().getAnalytics(),
+            portalConfig -> portalConfig.getPortal().getRating(),
+            portalConfig -> portalConfig.getPortal().getRating().getComment(),
+            portalConfig -> portalConfig.getPortal().getUploadMedia(),
+            PortalConfigEntity::getScheduler,
+            PortalConfigEntity::getTheme,
+            PortalConfigEntity::getPlan,
+            portalConfig -> portalConfig.getPlan().getSecurity(),
+            PortalConfigEntity::getApiQualityMetrics,
+            PortalConfigEntity::getApiReview,
+            PortalConfigEntity::getLogging,
+            portalConfig -> portalConfig.getLogging().getAudit(),
+            portalConfig -> portalConfig.getLogging().getUser(),
+            PortalConfigEntity::getAnalytics,
+            PortalConfigEntity::getApplication,
+            portalConfig -> portalConfig.getApplication().getRegistration(),
+            portalConfig -> portalConfig.getApplication().getTypes(),
+            portalConfig -> portalConfig.getLogging().getAudit().getTrail()
+    ));
+
+    private static final List<ParameterField> PARAMETER_FIELDS = parameterFields();
+    private static final List<Key> PARAMETER_KEYS = Collections.unmodifiableList(
+            PARAMETER_FIELDS.stream().map(field -> field.key).collect(toList()));
 
     @Autowired
     private ParameterService parameterService;
@@ -53,71 +98,16 @@ public class ConfigServiceImpl extends AbstractService implements ConfigService
     @Override
     public PortalConfigEntity getPortalConfig() {
         PortalConfigEntity portalConfigEntity = new PortalConfigEntity();
-        Object[] objects = getObjectArray(portalConfigEntity);
 
         // get values from DB
-        final List<Key> parameterKeys = new ArrayList<>();
-        for (Object o : objects) {
-            for (Field f : o.getClass().getDeclaredFields()) {
-                ParameterKey parameterKey = f.getAnnotation(ParameterKey.class);
-                if (parameterKey != null) {
-                    parameterKeys.add(parameterKey.value());
-                }
-            }
-        }
-        Map<String, List<String>> parameterMap = parameterService.findAll(parameterKeys);
+        Map<String, List<String>> parameterMap = parameterService.findAll(PARAMETER_KEYS);
 
         // set values
-        for (Object o : objects) {
-            for (Field f : o.getClass().getDeclaredFields()) {
-                ParameterKey parameterKey = f.getAnnotation(ParameterKey.class);
-                if (parameterKey != null) {
-                    boolean accessible = f.isAccessible();
-                    f.setAccessible(true);
-                    try {
-                        final List<String> values = parameterMap.get(parameterKey.value().key());
-                        final String defaultValue = parameterKey.value().defaultValue();
-                        if (Enabled.class.isAssignableFrom(f.getType())) {
-                            f.set(o, Boolean.valueOf(getFirstValueOrDefault(values, defaultValue))
-                                    ? new Enabled(true)
-                                    : new Enabled(false)
-                            );
-                        } else if (Boolean.class.isAssignableFrom(f.getType())) {
-                            f.set(o, Boolean.valueOf(getFirstValueOrDefault(values, defaultValue)));
-                        } else if (Integer.class.isAssignableFrom(f.getType())) {
-                            f.set(o, Integer.valueOf(getFirstValueOrDefault(values, defaultValue)));
-                        } else if (Long.class.isAssignableFrom(f.getType())) {
-                            f.set(o, Long.valueOf(getFirstValueOrDefault(values, defaultValue)));
-                        } else if (List.class.isAssignableFrom(f.getType())) {
-                            if (values == null || values.isEmpty()) {
-                                f.set(o, emptyList());
-                            } else {
-                                f.set(o, values);
-                            }
-                        } else if (Map.class.isAssignableFrom(f.getType())) {
-                            if (values == null || values.isEmpty()) {
-                                if (defaultValue == null) {
-                                    f.set(o, emptyMap());
-                                } else {
-                                    f.set(o, singletonMap(defaultValue.split(KV_SEPARATOR)[0], defaultValue.split(KV_SEPARATOR)[1]));
-                                }
-                            } else {
-                                f.set(o, values.stream().collect(toMap(v -> v.split(KV_SEPARATOR)[0], v -> {
-                                    final String[] split = v.split(KV_SEPARATOR);
-                                    if (split.length < 2) {
-                                        return "";
-                                    }
-                                    return split[1];
-                                })));
-                            }
-                        } else {
-                            f.set(o, getFirstValueOrDefault(values, defaultValue));
-                        }
-                    } catch (IllegalAccessException e) {
-                        LOGGER.error("Unable to set parameter {}. Use the default value", parameterKey.value().key(), e);
-                    }
-                    f.setAccessible(accessible);
-                }
+        for (ParameterField parameterField : PARAMETER_FIELDS) {
+            try {
+                parameterField.set(portalConfigEntity, parameterMap.get(parameterField.key.key()));
+            } catch (IllegalAccessException e) {
+                LOGGER.error("Unable to set parameter {}. Use the default value", parameterField.key.key(), e);
             }
         }
 
@@ -125,7 +115,7 @@ public class ConfigServiceImpl extends AbstractService implements ConfigService
         return portalConfigEntity;
     }
 
-    private String getFirstValueOrDefault(final List<String> values, final String defaultValue) {
+    private static String getFirstValueOrDefault(final List<String> values, final String defaultValue) {
         if (values == null) {
             return defaultValue;
         } else if (values.isEmpty()) {
@@ -158,71 +148,141 @@ public class ConfigServiceImpl extends AbstractService implements ConfigService
 
     @Override
     public void save(PortalConfigEntity portalConfigEntity) {
-        Object[] objects = getObjectArray(portalConfigEntity);
+        for (ParameterField parameterField : PARAMETER_FIELDS) {
+            try {
+                parameterField.save(portalConfigEntity, parameterService);
+            } catch (IllegalAccessException e) {
+                LOGGER.error("Unable to set parameter {}. Use the default value", parameterField.key.key(), e);
+            }
+        }
+    }
 
-        for (Object o : objects) {
-            for (Field f : o.getClass().getDeclaredFields()) {
+    private static List<ParameterField> parameterFields() {
+        final PortalConfigEntity portalConfigEntity = new PortalConfigEntity();
+        final List<ParameterField> parameterFields = new ArrayList<>();
+        for (Function<PortalConfigEntity, Object> configObject : CONFIG_OBJECTS) {
+            for (Field f : configObject.apply(portalConfigEntity).getClass().getDeclaredFields()) {
                 ParameterKey parameterKey = f.getAnnotation(ParameterKey.class);
                 if (parameterKey != null) {
-                    boolean accessible = f.isAccessible();
                     f.setAccessible(true);
-                    try {
-                        if (f.get(o) != null) {
-                            if (Enabled.class.isAssignableFrom(f.getType())) {
-                                parameterService.save(parameterKey.value(), Boolean.toString(((Enabled) f.get(o)).isEnabled()));
-                            } else if (Boolean.class.isAssignableFrom(f.getType())) {
-                                parameterService.save(parameterKey.value(), Boolean.toString((Boolean) f.get(o)));
-                            } else if (Integer.class.isAssignableFrom(f.getType())) {
-                                parameterService.save(parameterKey.value(), Integer.toString((Integer) f.get(o)));
-                            } else if (Long.class.isAssignableFrom(f.getType())) {
-                                parameterService.save(parameterKey.value(), Long.toString((Long) f.get(o)));
-                            } else if (List.class.isAssignableFrom(f.getType())) {
-                                parameterService.save(parameterKey.value(), (List) f.get(o));
-                            } else if (Map.class.isAssignableFrom(f.getType())) {
-                                parameterService.save(parameterKey.value(), (Map) f.get(o));
-                            } else {
-                                parameterService.save(parameterKey.value(), (String) f.get(o));
-                            }
-                        }
-                    } catch (IllegalAccessException e) {
-                        LOGGER.error("Unable to set parameter {}. Use the default value", parameterKey.value().key(), e);
-                    }
-                    f.setAccessible(accessible);
+                    parameterFields.add(new ParameterField(configObject, f, parameterKey.value()));
                 }
             }
         }
+        return Collections.unmodifiableList(parameterFields);
+    }
+
+    private enum FieldType {
+        ENABLED, BOOLEAN, INTEGER, LONG, LIST, MAP, STRING;
+
+        static FieldType of(Class<?> type) {
+            if (Enabled.class.isAssignableFrom(type)) {
+                return ENABLED;
+            } else if (Boolean.class.isAssignableFrom(type)) {
+                return BOOLEAN;
+            } else if (Integer.class.isAssignableFrom(type)) {
+                return INTEGER;
+            } else if (Long.class.isAssignableFrom(type)) {
+                return LONG;
+            } else if (List.class.isAssignableFrom(type)) {
+                return LIST;
+            } else if (Map.class.isAssignableFrom(type)) {
+                return MAP;
+            }
+            return STRING;
+        }
     }
 
-    private Object[] getObjectArray(PortalConfigEntity portalConfigEntity) {
-        return new Object[]{
-                portalConfigEntity,
-                portalConfigEntity.getAuthentication(),
-                portalConfigEntity.getAuthentication().getGithub(),
-                portalConfigEntity.getAuthentication().getGoogle(),
-                portalConfigEntity.getAuthentication().getOauth2(),
-                portalConfigEntity.getCompany(),
-                portalConfigEntity.getDocumentation(),
-                portalConfigEntity.getManagement(),
-                portalConfigEntity.getPortal(),
-                portalConfigEntity.getPortal().getApis(),
-                portalConfigEntity.getPortal().getAnalytics(),
-                portalConfigEntity.getPortal().getRating(),
-                portalConfigEntity.getPortal().getRating().getComment(),
-                portalConfigEntity.getPortal().getUploadMedia(),
-                portalConfigEntity.getScheduler(),
-                portalConfigEntity.getTheme(),
-                portalConfigEntity.getPlan(),
-                portalConfigEntity.getPlan().getSecurity(),
-                portalConfigEntity.getApiQualityMetrics(),
-                portalConfigEntity.getApiReview(),
-                portalConfigEntity.getLogging(),
-                portalConfigEntity.getLogging().getAudit(),
-                portalConfigEntity.getLogging().getUser(),
-                portalConfigEntity.getAnalytics(),
-                portalConfigEntity.getApplication(),
-                portalConfigEntity.getApplication().getRegistration(),
-                portalConfigEntity.getApplication().getTypes(),
-                portalConfigEntity.getLogging().getAudit().getTrail()
-        };
+    /**
+     * A <code>@ParameterKey</code> field of the portal configuration, made accessible once for all.
+     */
+    private static class ParameterField {
+
+        private final Function<PortalConfigEntity, Object> configObject;
+        private final Field field;
+        private final FieldType type;
+        private final Key key;
+
+        ParameterField(Function<PortalConfigEntity, Object> configObject, Field field, Key key) {
+            this.configObject = configObject;
+            this.field = field;
+            this.type = FieldType.of(field.getType());
+            this.key = key;
+        }
+
+        void set(PortalConfigEntity portalConfigEntity, List<String> values) throws IllegalAccessException {
+            final Object o = configObject.apply(portalConfigEntity);
+            final String defaultValue = key.defaultValue();
+            switch (type) {
+                case ENABLED:
+                    field.set(o, new Enabled(Boolean.valueOf(getFirstValueOrDefault(values, defaultValue))));
+                    break;
+                case BOOLEAN:
+                    field.set(o, Boolean.valueOf(getFirstValueOrDefault(values, defaultValue)));
+                    break;
+                case INTEGER:
+                    field.set(o, Integer.valueOf(getFirstValueOrDefault(values, defaultValue)));
+                    break;
+                case LONG:
+                    field.set(o, Long.valueOf(getFirstValueOrDefault(values, defaultValue)));
+                    break;
+                case LIST:
+                    if (values == null || values.isEmpty()) {
+                        field.set(o, emptyList());
+                    } else {
+                        field.set(o, values);
+                    }
+                    break;
+                case MAP:
+                    if (values == null || values.isEmpty()) {
+                        if (defaultValue == null) {
+                            field.set(o, emptyMap());
+                        } else {
+                            field.set(o, singletonMap(defaultValue.split(KV_SEPARATOR)[0], defaultValue.split(KV_SEPARATOR)[1]));
+                        }
+                    } else {
+                        field.set(o, values.stream().collect(toMap(v -> v.split(KV_SEPARATOR)[0], v -> {
+                            final String[] split = v.split(KV_SEPARATOR);
+                            if (split.length < 2) {
+                                return "";
+                            }
+                            return split[1];
+                        })));
+                    }
+                    break;
+                default:
+                    field.set(o, getFirstValueOrDefault(values, defaultValue));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void save(PortalConfigEntity portalConfigEntity, ParameterService parameterService) throws IllegalAccessException {
+            final Object value = field.get(configObject.apply(portalConfigEntity));
+            if (value == null) {
+                return;
+            }
+            switch (type) {
+                case ENABLED:
+                    parameterService.save(key, Boolean.toString(((Enabled) value).isEnabled()));
+                    break;
+                case BOOLEAN:
+                    parameterService.save(key, Boolean.toString((Boolean) value));
+                    break;
+                case INTEGER:
+                    parameterService.save(key, Integer.toString((Integer) value));
+                    break;
+                case LONG:
+                    parameterService.save(key, Long.toString((Long) value));
+                    break;
+                case LIST:
+                    parameterService.save(key, (List<String>) value);
+                    break;
+                case MAP:
+                    parameterService.save(key, (Map<String, String>) value);
+                    break;
+                default:
+                    parameterService.save(key, (String) value);
+            }
+        }
     }
 }
@@ -15,31 +15,32 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.util.concurrent.RateLimiter;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import io.gravitee.management.service.EmailNotification;
 import io.gravitee.management.service.EmailService;
+import io.gravitee.management.service.email.InlineImageTemplateLoader;
+import io.gravitee.management.service.email.InlineResources;
+import io.gravitee.management.service.executor.AsyncExecutors;
 import io.gravitee.management.service.exceptions.EmailDisabledException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.select.Elements;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
-import javax.activation.MimetypesFileTypeMap;
-import java.io.File;
+import javax.mail.internet.MimeMessage;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.lang.String.format;
 import static java.util.Objects.isNull;
@@ -52,7 +53,7 @@ import static org.springframework.ui.freemarker.FreeMarkerTemplateUtils.processT
  * @author GraviteeSource Team
  */
 @Component
-public class EmailServiceImpl extends TransactionalService implements EmailService {
+public class EmailServiceImpl extends TransactionalService implements EmailService, InitializingBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EmailServiceImpl.class);
 
@@ -60,8 +61,8 @@ public class EmailServiceImpl extends TransactionalService implements EmailServi
     private JavaMailSender mailSender;
     @Autowired
     private Configuration freemarkerConfiguration;
-    @Value("${templates.path:${gravitee.home}/templates}")
-    private String templatesPath;
+    @Autowired
+    private InlineResources inlineResources;
     @Value("${email.subject:[Gravitee.io] %s}")
     private String subject;
     @Value("${email.enabled:false}")
@@ -69,86 +70,201 @@ public class EmailServiceImpl extends TransactionalService implements EmailServi
     @Value("${email.from}")
     private String defaultFrom;
 
-    public void sendEmailNotification(final EmailNotification emailNotification) {
-        if (enabled) {
-            try {
-                final MimeMessageHelper mailMessage = new MimeMessageHelper(mailSender.createMimeMessage(), true, StandardCharsets.UTF_8.name());
+    @Value("${email.batch.size:100}")
+    private int batchSize;
+    @Value("${email.batch.bccSize:50}")
+    private int bccSize;
+    @Value("${email.batch.rate:0}")
+    private double rate;
 
-                final Template template = freemarkerConfiguration.getTemplate(emailNotification.getTemplate());
-                final String content = processTemplateIntoString(template, emailNotification.getParams());
+    private RateLimiter rateLimiter;
 
-                final String from = isNull(emailNotification.getFrom()) || emailNotification.getFrom().isEmpty()
-                        ? defaultFrom
-                        : emailNotification.getFrom();
+    private final LongAdder renders = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicLong pending = new AtomicLong();
 
-                if (isEmpty(emailNotification.getFromName())) {
-                    mailMessage.setFrom(from);
-                } else {
-                    mailMessage.setFrom(from, emailNotification.getFromName());
-                }
+    @Override
+    public void afterPropertiesSet() {
+        rateLimiter = rate > 0 ? RateLimiter.create(rate) : null;
+    }
 
-                mailMessage.setTo(emailNotification.getTo());
-                if (emailNotification.isCopyToSender() && emailNotification.getFrom() != null) {
-                    mailMessage.setBcc(emailNotification.getFrom());
-                }
-                if (emailNotification.getBcc() != null && emailNotification.getBcc().length > 0) {
-                    mailMessage.setBcc(emailNotification.getBcc());
-                }
-                mailMessage.setSubject(format(subject, emailNotification.getSubject()));
+    public void sendEmailNotification(final EmailNotification emailNotification) {
+        sendEmailNotifications(Collections.singletonList(emailNotification));
+    }
 
-                final String html = addResourcesInMessage(mailMessage, content);
+    @Async(AsyncExecutors.EMAIL)
+    public void sendAsyncEmailNotification(final EmailNotification emailNotification) {
+        sendEmailNotification(emailNotification);
+    }
 
-                LOGGER.debug("Sending an email to: {}\nSubject: {}\nMessage: {}",
-                        emailNotification.getTo(), emailNotification.getSubject(), html);
+    /**
+     * Renders each distinct template and parameters once, splits the blind copies in chunks of
+     * <code>email.batch.bccSize</code> recipients, and sends the messages by batches of <code>email.batch.size</code>,
+     * each batch over a single SMTP connection.
+     */
+    @Override
+    public void sendEmailNotifications(final Collection<EmailNotification> emailNotifications) {
+        if (!enabled) {
+            throw new EmailDisabledException();
+        }
 
-                mailSender.send(mailMessage.getMimeMessage());
-            } catch (final Exception ex) {
-                LOGGER.error("Error while sending email notification", ex);
-                throw new TechnicalManagementException("Error while sending email notification", ex);
+        final List<MimeMessage> messages;
+        try {
+            final Map<List<Object>, Content> contents = new HashMap<>();
+            messages = new ArrayList<>();
+            for (final EmailNotification emailNotification : emailNotifications) {
+                final Content content = contents.computeIfAbsent(
+                        Arrays.asList(emailNotification.getTemplate(), emailNotification.getParams()),
+                        key -> render(emailNotification));
+                messages.addAll(createMessages(emailNotification, content));
             }
-        } else {
-            throw new EmailDisabledException();
+        } catch (final Exception ex) {
+            LOGGER.error("Error while sending email notification", ex);
+            throw new TechnicalManagementException("Error while sending email notification", ex);
         }
+
+        send(messages);
     }
 
-    @Async
-    public void sendAsyncEmailNotification(final EmailNotification emailNotification) {
-        sendEmailNotification(emailNotification);
+    @Async(AsyncExecutors.EMAIL)
+    @Override
+    public void sendAsyncEmailNotifications(final Collection<EmailNotification> emailNotifications) {
+        sendEmailNotifications(emailNotifications);
     }
 
-    private String addResourcesInMessage(final MimeMessageHelper mailMessage, final String htmlText) throws Exception {
-        final Document document = Jsoup.parse(htmlText);
+    @Override
+    public Map<String, Long> metrics() {
+        final Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("pending", pending.get());
+        metrics.put("renders", renders.sum());
+        metrics.put("batches", batches.sum());
+        metrics.put("sent", sent.sum());
+        metrics.put("failed", failed.sum());
+        return metrics;
+    }
 
-        final List<String> resources = new ArrayList<>();
+    private Content render(final EmailNotification emailNotification) {
+        try {
+            renders.increment();
+            final Template template = freemarkerConfiguration.getTemplate(emailNotification.getTemplate());
+            final String html = processTemplateIntoString(template, emailNotification.getParams());
+            return new Content(html, InlineImageTemplateLoader.inlineResources(html));
+        } catch (final Exception ex) {
+            throw new TechnicalManagementException("Error while rendering email template " + emailNotification.getTemplate(), ex);
+        }
+    }
 
-        final Elements imageElements = document.getElementsByTag("img");
-        resources.addAll(imageElements.stream()
-                .filter(imageElement -> imageElement.hasAttr("src"))
-                .filter(imageElement -> !imageElement.attr("src").startsWith("http"))
-                .map(imageElement -> {
-                    final String src = imageElement.attr("src");
-                    imageElement.attr("src", "cid:" + src);
-                    return src;
-                })
-                .collect(Collectors.toList()));
+    private List<MimeMessage> createMessages(final EmailNotification emailNotification, final Content content) throws Exception {
+        final String[] bcc = emailNotification.getBcc();
+        if (bcc == null || bcc.length <= bccSize) {
+            return Collections.singletonList(createMessage(emailNotification, content, emailNotification.getTo(), bcc));
+        }
+
+        final List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < bcc.length; i += bccSize) {
+            // only the first chunk is sent to the main recipients, so that they receive the message once
+            messages.add(createMessage(emailNotification, content, i == 0 ? emailNotification.getTo() : null,
+                    Arrays.copyOfRange(bcc, i, Math.min(bcc.length, i + bccSize))));
+        }
+        return messages;
+    }
+
+    private MimeMessage createMessage(final EmailNotification emailNotification, final Content content,
+                                      final String[] to, final String[] bcc) throws Exception {
+        final MimeMessageHelper mailMessage = new MimeMessageHelper(mailSender.createMimeMessage(), true, StandardCharsets.UTF_8.name());
 
-        final String html = document.html();
-        mailMessage.setText(html, true);
+        final String from = isNull(emailNotification.getFrom()) || emailNotification.getFrom().isEmpty()
+                ? defaultFrom
+                : emailNotification.getFrom();
 
-        for (final String res : resources) {
-            final FileSystemResource templateResource = new FileSystemResource(new File(templatesPath, res));
-            mailMessage.addInline(res, templateResource, getContentTypeByFileName(res));
+        if (isEmpty(emailNotification.getFromName())) {
+            mailMessage.setFrom(from);
+        } else {
+            mailMessage.setFrom(from, emailNotification.getFromName());
         }
 
-        return html;
+        if (to != null) {
+            mailMessage.setTo(to);
+        }
+        if (emailNotification.isCopyToSender() && emailNotification.getFrom() != null) {
+            mailMessage.setBcc(emailNotification.getFrom());
+        }
+        if (bcc != null && bcc.length > 0) {
+            mailMessage.setBcc(bcc);
+        }
+        mailMessage.setSubject(format(subject, emailNotification.getSubject()));
+
+        final String html = addResourcesInMessage(mailMessage, content);
+
+        LOGGER.debug("Sending an email to: {}\nSubject: {}\nMessage: {}",
+                emailNotification.getTo(), emailNotification.getSubject(), html);
+
+        return mailMessage.getMimeMessage();
     }
 
-    private String getContentTypeByFileName(final String fileName) {
-        if (fileName == null) {
-            return "";
-        } else if (fileName.endsWith(".png")) {
-            return "image/png";
+    private void send(final List<MimeMessage> messages) {
+        pending.addAndGet(messages.size());
+        int failures = 0;
+        Exception lastFailure = null;
+        for (int i = 0; i < messages.size(); i += batchSize) {
+            final MimeMessage[] batch = messages.subList(i, Math.min(messages.size(), i + batchSize)).toArray(new MimeMessage[0]);
+            if (rateLimiter != null) {
+                rateLimiter.acquire(batch.length);
+            }
+            int batchFailures = 0;
+            try {
+                mailSender.send(batch);
+            } catch (final MailSendException mse) {
+                batchFailures = mse.getFailedMessages().isEmpty() ? batch.length : mse.getFailedMessages().size();
+                lastFailure = mse;
+            } catch (final Exception ex) {
+                batchFailures = batch.length;
+                lastFailure = ex;
+            }
+            batches.increment();
+            sent.add(batch.length - batchFailures);
+            failed.add(batchFailures);
+            pending.addAndGet(-batch.length);
+            failures += batchFailures;
+
+            if (messages.size() > batchSize) {
+                LOGGER.info("Sent {}/{} emails ({} failed)", Math.min(messages.size(), i + batchSize), messages.size(), failures);
+            }
+        }
+
+        if (lastFailure != null) {
+            LOGGER.error("Error while sending email notification, {} of {} emails failed", failures, messages.size(), lastFailure);
+            throw new TechnicalManagementException("Error while sending email notification", lastFailure);
+        }
+    }
+
+    private String addResourcesInMessage(final MimeMessageHelper mailMessage, final Content content) throws Exception {
+        // img sources of the templates are rewritten to cid: references when they are loaded
+        mailMessage.setText(content.html, true);
+
+        for (final String res : content.resources) {
+            final InlineResources.InlineResource resource = inlineResources.get(res);
+            if (resource != null) {
+                mailMessage.addInline(res, resource.getContent(), resource.getContentType());
+            }
+        }
+
+        return content.html;
+    }
+
+    /**
+     * A rendered mail and the inline resources it references.
+     */
+    private static final class Content {
+
+        private final String html;
+        private final Set<String> resources;
+
+        private Content(String html, Set<String> resources) {
+            this.html = html;
+            this.resources = resources;
         }
-        return MimetypesFileTypeMap.getDefaultFileTypeMap().getContentType(fileName);
     }
 }
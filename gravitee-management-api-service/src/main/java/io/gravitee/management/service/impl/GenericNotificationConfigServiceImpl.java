@@ -19,6 +19,7 @@ import io.gravitee.common.utils.UUID;
 import io.gravitee.management.model.notification.GenericNotificationConfigEntity;
 import io.gravitee.management.model.notification.NotificationConfigType;
 import io.gravitee.management.service.GenericNotificationConfigService;
+import io.gravitee.management.service.NotifierService;
 import io.gravitee.management.service.exceptions.BadNotificationConfigException;
 import io.gravitee.management.service.exceptions.NotificationConfigNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
@@ -29,6 +30,7 @@ import io.gravitee.repository.management.model.NotificationReferenceType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
@@ -46,6 +48,10 @@ public class GenericNotificationConfigServiceImpl extends AbstractService implem
     @Autowired
     GenericNotificationConfigRepository genericNotificationConfigRepository;
 
+    @Autowired
+    @Lazy
+    NotifierService notifierService;
+
     @Override
     public GenericNotificationConfigEntity create(GenericNotificationConfigEntity entity) {
         if (entity.getNotifier() == null || entity.getNotifier().isEmpty()
@@ -57,7 +63,9 @@ public class GenericNotificationConfigServiceImpl extends AbstractService implem
             notificationConfig.setId(UUID.toString(UUID.random()));
             notificationConfig.setCreatedAt(new Date());
             notificationConfig.setUpdatedAt(notificationConfig.getCreatedAt());
-            return convert(genericNotificationConfigRepository.create(notificationConfig));
+            final GenericNotificationConfig createdConfig = genericNotificationConfigRepository.create(notificationConfig);
+            notifierService.invalidate(notificationConfig.getReferenceType(), notificationConfig.getReferenceId());
+            return convert(createdConfig);
         } catch (TechnicalException te) {
             LOGGER.error("An error occurs while trying to save the generic notification settings {}", entity, te);
             throw new TechnicalManagementException("An error occurs while trying to save the generic notification settings " + entity, te);
@@ -83,7 +91,9 @@ public class GenericNotificationConfigServiceImpl extends AbstractService implem
             GenericNotificationConfig notificationConfig = convert(entity);
             notificationConfig.setCreatedAt(optionalConfig.get().getCreatedAt());
             notificationConfig.setUpdatedAt(new Date());
-            return convert(genericNotificationConfigRepository.update(notificationConfig));
+            final GenericNotificationConfig updatedConfig = genericNotificationConfigRepository.update(notificationConfig);
+            notifierService.invalidate(notificationConfig.getReferenceType(), notificationConfig.getReferenceId());
+            return convert(updatedConfig);
         } catch (TechnicalException te) {
             LOGGER.error("An error occurs while trying to save the generic notification settings {}", entity, te);
             throw new TechnicalManagementException("An error occurs while trying to save the generic notification settings " + entity, te);
@@ -93,7 +103,9 @@ public class GenericNotificationConfigServiceImpl extends AbstractService implem
     @Override
     public void delete(String id) {
         try {
+            Optional<GenericNotificationConfig> optionalConfig = genericNotificationConfigRepository.findById(id);
             genericNotificationConfigRepository.delete(id);
+            optionalConfig.ifPresent(config -> notifierService.invalidate(config.getReferenceType(), config.getReferenceId()));
         } catch (TechnicalException te) {
             LOGGER.error("An error occurs while trying to delete the generic notification {}", id, te);
             throw new TechnicalManagementException("An error occurs while trying to delete the generic notification " + id, te);
@@ -29,6 +29,7 @@ import io.gravitee.management.service.exceptions.GroupNameAlreadyExistsException
 import io.gravitee.management.service.exceptions.GroupNotFoundException;
 import io.gravitee.management.service.exceptions.GroupsNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.page.PageTemplateCache;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.ApplicationRepository;
@@ -71,6 +72,8 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
     private AuditService auditService;
     @Autowired
     private PermissionService permissionService;
+    @Autowired
+    private PageTemplateCache pageTemplateCache;
 
     @Override
     public List<GroupEntity> findAll() {
@@ -294,6 +297,7 @@ public class GroupServiceImpl extends AbstractService implements GroupService {
                 api.setUpdatedAt(updatedDate);
                 try {
                     apiRepository.update(api);
+                    pageTemplateCache.invalidate(api.getId());
                 } catch (TechnicalException ex) {
                     logger.error("An error occurs while trying to delete a group", ex);
                     throw new TechnicalManagementException("An error occurs while trying to delete a group", ex);
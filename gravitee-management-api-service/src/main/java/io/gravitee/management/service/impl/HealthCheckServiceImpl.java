@@ -15,10 +15,13 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.definition.model.Endpoint;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.InstanceListItem;
 import io.gravitee.management.model.analytics.Analytics;
+import io.gravitee.management.model.analytics.ColumnarHistogramAnalytics;
 import io.gravitee.management.model.analytics.HistogramAnalytics;
 import io.gravitee.management.model.analytics.Timestamp;
 import io.gravitee.management.model.analytics.query.DateHistogramQuery;
@@ -27,6 +30,7 @@ import io.gravitee.management.model.healthcheck.*;
 import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.HealthCheckService;
 import io.gravitee.management.service.InstanceService;
+import io.gravitee.management.service.analytics.Histograms;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.repository.analytics.AnalyticsException;
 import io.gravitee.repository.analytics.query.AggregationType;
@@ -47,10 +51,15 @@ import io.gravitee.repository.healthcheck.query.responsetime.AverageResponseTime
 import io.gravitee.repository.healthcheck.query.responsetime.AverageResponseTimeResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -60,7 +69,7 @@ import java.util.stream.Collectors;
  * @author GraviteeSource Team
  */
 @Component
-public class HealthCheckServiceImpl implements HealthCheckService {
+public class HealthCheckServiceImpl implements HealthCheckService, InitializingBean, DisposableBean {
 
     /**
      * Logger.
@@ -76,8 +85,60 @@ public class HealthCheckServiceImpl implements HealthCheckService {
     @Autowired
     private InstanceService instanceService;
 
+    @Value("${management.healthcheck.batch.parallelism:4}")
+    private int batchParallelism;
+
+    @Value("${management.healthcheck.batch.queueSize:200}")
+    private int batchQueueSize;
+
+    @Value("${management.healthcheck.batch.timeout:10000}")
+    private long batchTimeout;
+
+    @Value("${management.cache.healthcheck.ttl:30}")
+    private long cacheTtl;
+
+    @Value("${management.cache.healthcheck.maxEntries:10000}")
+    private long cacheMaxEntries;
+
+    private ThreadPoolExecutor batchExecutor;
+
+    private Cache<String, Map<String, Double>> globalCache;
+
+    @Override
+    public void afterPropertiesSet() {
+        final AtomicInteger counter = new AtomicInteger();
+        batchExecutor = new ThreadPoolExecutor(batchParallelism, batchParallelism, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(batchQueueSize), runnable -> {
+            final Thread thread = new Thread(runnable, "gio-healthcheck-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        batchExecutor.allowCoreThreadTimeOut(true);
+
+        // Global metrics of an API do not change much within a health-check interval
+        globalCache = CacheBuilder.newBuilder()
+                .expireAfterWrite(cacheTtl, TimeUnit.SECONDS)
+                .maximumSize(cacheMaxEntries)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        batchExecutor.shutdownNow();
+    }
+
     @Override
     public Analytics query(final DateHistogramQuery query) {
+        return convert(histogram(query));
+    }
+
+    @Override
+    public ColumnarHistogramAnalytics queryColumnar(final DateHistogramQuery query) {
+        final DateHistogramResponse response = histogram(query);
+        return Histograms.columnar(response.timestamps(), response.values());
+    }
+
+    private DateHistogramResponse histogram(final DateHistogramQuery query) {
         try {
             final DateHistogramQueryBuilder queryBuilder = QueryBuilders.dateHistogram()
                     .query(query.getQuery())
@@ -94,7 +155,7 @@ public class HealthCheckServiceImpl implements HealthCheckService {
                                         AggregationType.valueOf(aggregation.type().name()), aggregation.field()));
             }
 
-            return convert(healthCheckRepository.query(queryBuilder.build()));
+            return healthCheckRepository.query(queryBuilder.build());
         } catch (AnalyticsException ae) {
             logger.error("Unable to calculate analytics: ", ae);
             throw new TechnicalManagementException("Unable to calculate analytics", ae);
@@ -193,6 +254,100 @@ public class HealthCheckServiceImpl implements HealthCheckService {
         }
     }
 
+    @Override
+    public Map<String, Map<String, Double>> getAvailability(Collection<String> apis, String field) {
+        return getGlobal(apis, "availability:" + field, api -> healthCheckRepository.query(
+                QueryBuilders.availability()
+                        .api(api)
+                        .field(AvailabilityQuery.Field.valueOf(field))
+                        .build()).getEndpointAvailabilities());
+    }
+
+    @Override
+    public Map<String, Map<String, Double>> getResponseTime(Collection<String> apis, String field) {
+        return getGlobal(apis, "response-time:" + field, api -> healthCheckRepository.query(
+                QueryBuilders.responseTime()
+                        .api(api)
+                        .field(AverageResponseTimeQuery.Field.valueOf(field))
+                        .build()).getEndpointResponseTimes());
+    }
+
+    /**
+     * The repository answers for one API at a time: the queries of the APIs which are not cached are run on the
+     * bounded batch executor, all of them within the batch timeout. The APIs whose query is rejected by a full queue
+     * are left out.
+     */
+    private <T extends Number> Map<String, Map<String, Double>> getGlobal(Collection<String> apis, String metric,
+                                                                         HealthQuery<T> query) {
+        final Map<String, Map<String, Double>> globals = new LinkedHashMap<>();
+        final Map<String, Future<Map<String, Double>>> futures = new LinkedHashMap<>();
+        for (String api : new LinkedHashSet<>(apis)) {
+            final String key = metric + ':' + api;
+            final Map<String, Double> global = globalCache.getIfPresent(key);
+            if (global != null) {
+                globals.put(api, global);
+            } else {
+                try {
+                    futures.put(api, batchExecutor.submit(() -> {
+                        final Map<String, Double> apiGlobal = global(buckets(query.query(api)));
+                        globalCache.put(key, apiGlobal);
+                        return apiGlobal;
+                    }));
+                } catch (RejectedExecutionException ree) {
+                    logger.warn("Too many health-check queries, health data of API '{}' left out", api);
+                }
+            }
+        }
+
+        final long deadline = System.currentTimeMillis() + batchTimeout;
+        try {
+            for (Map.Entry<String, Future<Map<String, Double>>> future : futures.entrySet()) {
+                try {
+                    globals.put(future.getKey(), future.getValue().get(
+                            Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+                } catch (TimeoutException te) {
+                    future.getValue().cancel(true);
+                    logger.warn("Health data of API '{}' not available in time", future.getKey());
+                } catch (ExecutionException ee) {
+                    logger.error("An unexpected error occurs while searching for health data.", ee.getCause());
+                }
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            futures.values().forEach(future -> future.cancel(true));
+        }
+
+        globals.values().removeIf(Map::isEmpty);
+        return globals;
+    }
+
+    @FunctionalInterface
+    private interface HealthQuery<T extends Number> {
+        List<FieldBucket<T>> query(String api) throws Exception;
+    }
+
+    private <T extends Number> Map<String, Map<String, T>> buckets(List<FieldBucket<T>> response) {
+        final Map<String, Map<String, T>> buckets = new HashMap<>();
+        response.forEach(bucket -> buckets.put(bucket.getName(), bucket.getValues()
+                .stream()
+                .collect(Collectors.toMap(Bucket::getKey, Bucket::getValue))));
+        return buckets;
+    }
+
+    /**
+     * @return the average of each metric over the buckets
+     */
+    private <T extends Number> Map<String, Double> global(Map<String, Map<String, T>> buckets) {
+        if (buckets.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Double> values = new HashMap<>();
+        buckets.values().forEach(bucket -> bucket.forEach(
+                (key, value) -> values.merge(key, value.doubleValue(), Double::sum)));
+        values.replaceAll((key, total) -> total / buckets.size());
+        return values;
+    }
+
     @Override
     public SearchLogResponse findByApi(String api, LogQuery query, Boolean transition) {
         logger.debug("Run health logs query for API '{}'", api);
@@ -254,47 +409,10 @@ public class HealthCheckServiceImpl implements HealthCheckService {
         ApiMetrics<T> apiMetrics = new ApiMetrics<>();
 
         // Set endpoint availability (unknown endpoints are removed)
-        Map<String, Map<String, T>> buckets = new HashMap<>();
-
-        response
-                .forEach(new Consumer<FieldBucket<T>>() {
-                            @Override
-                            public void accept(FieldBucket<T> bucket) {
-                                Map<String, T> bucketMetrics = bucket.getValues()
-                                        .stream()
-                                        .collect(Collectors.toMap(Bucket::getKey, Bucket::getValue));
-
-                                buckets.put(bucket.getName(), bucketMetrics);
-                            }
-                        });
-        apiMetrics.setBuckets(buckets);
+        apiMetrics.setBuckets(buckets(response));
 
         if (!apiMetrics.getBuckets().isEmpty()) {
-            Map<String, Double> values = new HashMap<>();
-
-            apiMetrics.getBuckets().values().forEach(new Consumer<Map<String, T>>() {
-                @Override
-                public void accept(Map<String, T> stringTMap) {
-                    stringTMap.entrySet().forEach(new Consumer<Map.Entry<String, T>>() {
-                        @Override
-                        public void accept(Map.Entry<String, T> stringTEntry) {
-                            Number value = stringTEntry.getValue();
-                            Double total = values.getOrDefault(stringTEntry.getKey(), 0d);
-                            total += value.doubleValue();
-                            values.put(stringTEntry.getKey(), total);
-                        }
-                    });
-                }
-            });
-
-            values.entrySet().forEach(new Consumer<Map.Entry<String, Double>>() {
-                @Override
-                public void accept(Map.Entry<String, Double> stringDoubleEntry) {
-                    values.put(stringDoubleEntry.getKey(), stringDoubleEntry.getValue() / apiMetrics.getBuckets().size());
-                }
-            });
-
-            apiMetrics.setGlobal(values);
+            apiMetrics.setGlobal(global(apiMetrics.getBuckets()));
         }
 
         // Prepare metadata
@@ -22,15 +22,20 @@ import io.gravitee.management.service.InstanceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
+ * Gateway instances are kept in a registry, by event id, refreshed from the heartbeat events updated since the
+ * previous refresh. The payload of an event is only parsed again when it changes.
+ *
  * @author David BRASSELY (david.brassely at graviteesource.com)
  * @author GraviteeSource Team
  */
@@ -45,71 +50,87 @@ public class InstanceServiceImpl implements InstanceService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Value("${management.instances.refresh:5000}")
+    private long refreshInterval;
+
+    @Value("${management.instances.fullRefresh:600000}")
+    private long fullRefreshInterval;
+
+    @Value("${management.instances.overlap:10000}")
+    private long overlap;
+
     private static final List<EventType> instancesAllState = new ArrayList<>();
 
-    {
+    static {
         instancesAllState.add(EventType.GATEWAY_STARTED);
         instancesAllState.add(EventType.GATEWAY_STOPPED);
     }
 
-    private static final List<EventType> instancesRunningOnly = new ArrayList<>();
+    private final Map<String, Instance> instances = new ConcurrentHashMap<>();
 
-    {
-        instancesRunningOnly.add(EventType.GATEWAY_STARTED);
-    }
+    private final Map<String, Set<String>> eventsByGateway = new ConcurrentHashMap<>();
+
+    private long lastRefresh;
+
+    private long lastFullRefresh;
+
+    /**
+     * Events updated from this time on are read on the next refresh.
+     */
+    private long watermark;
 
     @Override
     public Collection<InstanceListItem> findInstances(boolean includeStopped, final String gatewayId) {
-        final EventQuery query = new EventQuery();
-        if (includeStopped) {
-            query.setTypes(instancesAllState);
-        } else {
-            query.setTypes(instancesRunningOnly);
-        }
+        refresh();
+
+        final Collection<Instance> candidates;
         if (gatewayId != null) {
-            query.setId(gatewayId);
+            candidates = eventsByGateway.getOrDefault(gatewayId, Collections.emptySet()).stream()
+                    .map(instances::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        } else {
+            candidates = instances.values();
         }
-        final Collection<EventEntity> events = eventService.search(query);
 
         Instant nowMinusXMinutes = Instant.now().minus(5, ChronoUnit.MINUTES);
-        return events.stream().map(
-                event -> {
+        return candidates.stream()
+                .filter(instance -> includeStopped || instance.event.getType() == EventType.GATEWAY_STARTED)
+                .map(instance -> {
+                    final EventEntity event = instance.event;
                     Map<String, String> props = event.getProperties();
-                    InstanceListItem instance = new InstanceListItem(props.get("id"));
-                    instance.setEvent(event.getId());
-                    instance.setLastHeartbeatAt(new Date(Long.parseLong(props.get("last_heartbeat_at"))));
-                    instance.setStartedAt(new Date(Long.parseLong(props.get("started_at"))));
-
-                    if (event.getPayload() != null) {
-                        try {
-                            InstanceInfo info = objectMapper.readValue(event.getPayload(), InstanceInfo.class);
-                            instance.setHostname(info.getHostname());
-                            instance.setIp(info.getIp());
-                            instance.setPort(info.getPort());
-                            instance.setVersion(info.getVersion());
-                            instance.setTags(info.getTags());
-                            instance.setTenant(info.getTenant());
-                            instance.setOperatingSystemName(info.getSystemProperties().get("os.name"));
-                        } catch (IOException ioe) {
-                            LOGGER.error("Unexpected error while getting instance informations from event payload", ioe);
-                        }
+                    InstanceListItem item = new InstanceListItem(props.get("id"));
+                    item.setEvent(event.getId());
+                    item.setLastHeartbeatAt(new Date(Long.parseLong(props.get("last_heartbeat_at"))));
+                    item.setStartedAt(new Date(Long.parseLong(props.get("started_at"))));
+
+                    final InstanceInfo info = instance.info;
+                    if (info != null) {
+                        item.setHostname(info.getHostname());
+                        item.setIp(info.getIp());
+                        item.setPort(info.getPort());
+                        item.setVersion(info.getVersion());
+                        item.setTags(info.getTags());
+                        item.setTenant(info.getTenant());
+                        item.setOperatingSystemName(info.getSystemProperties().get("os.name"));
                     }
 
                     if (event.getType() == EventType.GATEWAY_STARTED) {
-                        instance.setState(InstanceState.STARTED);
+                        item.setState(InstanceState.STARTED);
                         // If last heartbeat timestamp is < now - 5m, set as unknown state
-                        Instant lastHeartbeat = Instant.ofEpochMilli(instance.getLastHeartbeatAt().getTime());
+                        Instant lastHeartbeat = Instant.ofEpochMilli(item.getLastHeartbeatAt().getTime());
                         if (lastHeartbeat.isBefore(nowMinusXMinutes)) {
-                            instance.setState(InstanceState.UNKNOWN);
+                            item.setState(InstanceState.UNKNOWN);
                         }
                     } else {
-                        instance.setState(InstanceState.STOPPED);
-                        instance.setStoppedAt(new Date(Long.parseLong(props.get("stopped_at"))));
+                        item.setState(InstanceState.STOPPED);
+                        item.setStoppedAt(new Date(Long.parseLong(props.get("stopped_at"))));
                     }
 
-                    return instance;
-                }
-        ).collect(Collectors.toList());
+                    return item;
+                })
+                .sorted(Comparator.comparing(InstanceListItem::getLastHeartbeatAt).reversed())
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -119,7 +140,16 @@ public class InstanceServiceImpl implements InstanceService {
 
     @Override
     public InstanceEntity findById(String eventId) {
-        EventEntity event = eventService.findById(eventId);
+        refresh();
+
+        Instance registered = instances.get(eventId);
+        if (registered == null) {
+            // Not a gateway event, or not read yet
+            EventEntity event = eventService.findById(eventId);
+            registered = new Instance(event, parse(event.getPayload()));
+        }
+
+        final EventEntity event = registered.event;
         Instant nowMinusXMinutes = Instant.now().minus(5, ChronoUnit.MINUTES);
 
         Map<String, String> props = event.getProperties();
@@ -127,20 +157,16 @@ public class InstanceServiceImpl implements InstanceService {
         instance.setLastHeartbeatAt(new Date(Long.parseLong(props.get("last_heartbeat_at"))));
         instance.setStartedAt(new Date(Long.parseLong(props.get("started_at"))));
 
-        if (event.getPayload() != null) {
-            try {
-                InstanceInfo info = objectMapper.readValue(event.getPayload(), InstanceInfo.class);
-                instance.setHostname(info.getHostname());
-                instance.setIp(info.getIp());
-                instance.setPort(info.getPort());
-                instance.setTenant(info.getTenant());
-                instance.setVersion(info.getVersion());
-                instance.setTags(info.getTags());
-                instance.setSystemProperties(info.getSystemProperties());
-                instance.setPlugins(info.getPlugins());
-            } catch (IOException ioe) {
-                LOGGER.error("Unexpected error while getting instance informations from event payload", ioe);
-            }
+        final InstanceInfo info = registered.info;
+        if (info != null) {
+            instance.setHostname(info.getHostname());
+            instance.setIp(info.getIp());
+            instance.setPort(info.getPort());
+            instance.setTenant(info.getTenant());
+            instance.setVersion(info.getVersion());
+            instance.setTags(info.getTags());
+            instance.setSystemProperties(info.getSystemProperties());
+            instance.setPlugins(info.getPlugins());
         }
 
         if (event.getType() == EventType.GATEWAY_STARTED) {
@@ -158,6 +184,69 @@ public class InstanceServiceImpl implements InstanceService {
         return instance;
     }
 
+    /**
+     * Reads the gateway events updated since the watermark, or all of them from time to time so that deleted events
+     * are removed from the registry. Concurrent callers wait for the running refresh instead of querying the events too.
+     */
+    private synchronized void refresh() {
+        final long now = System.currentTimeMillis();
+        if (lastRefresh != 0 && now - lastRefresh < refreshInterval) {
+            return;
+        }
+
+        final boolean full = lastFullRefresh == 0 || now - lastFullRefresh >= fullRefreshInterval;
+        final EventQuery query = new EventQuery();
+        query.setTypes(instancesAllState);
+        if (!full) {
+            query.setFrom(watermark);
+            query.setTo(now + overlap);
+        }
+        final Collection<EventEntity> events = eventService.search(query);
+
+        for (EventEntity event : events) {
+            final Instance previous = instances.get(event.getId());
+            final InstanceInfo info = previous != null && Objects.equals(previous.event.getPayload(), event.getPayload()) ?
+                    previous.info : parse(event.getPayload());
+            instances.put(event.getId(), new Instance(event, info));
+            final String gatewayId = event.getProperties().get("id");
+            if (gatewayId != null) {
+                eventsByGateway.computeIfAbsent(gatewayId, id -> ConcurrentHashMap.newKeySet()).add(event.getId());
+            }
+        }
+
+        if (full) {
+            final Set<String> ids = events.stream().map(EventEntity::getId).collect(Collectors.toSet());
+            instances.keySet().retainAll(ids);
+            eventsByGateway.values().forEach(eventIds -> eventIds.retainAll(ids));
+            eventsByGateway.values().removeIf(Set::isEmpty);
+            lastFullRefresh = now;
+        }
+
+        // Events updated while querying, or by a gateway with a slightly late clock, are read again next time
+        watermark = now - overlap;
+        lastRefresh = now;
+    }
+
+    private InstanceInfo parse(String payload) {
+        if (payload != null) {
+            try {
+                return objectMapper.readValue(payload, InstanceInfo.class);
+            } catch (IOException ioe) {
+                LOGGER.error("Unexpected error while getting instance informations from event payload", ioe);
+            }
+        }
+        return null;
+    }
+
+    private static class Instance {
+        private final EventEntity event;
+        private final InstanceInfo info;
+
+        private Instance(EventEntity event, InstanceInfo info) {
+            this.event = event;
+            this.info = info;
+        }
+    }
 
     private static class InstanceInfo {
         private String id;
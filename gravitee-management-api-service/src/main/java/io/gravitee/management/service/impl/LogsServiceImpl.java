@@ -15,9 +15,10 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.gravitee.management.model.*;
 import io.gravitee.management.model.analytics.query.LogQuery;
-import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.log.*;
 import io.gravitee.management.model.log.extended.Request;
 import io.gravitee.management.model.log.extended.Response;
@@ -29,21 +30,27 @@ import io.gravitee.repository.analytics.query.*;
 import io.gravitee.repository.analytics.query.tabular.TabularResponse;
 import io.gravitee.repository.log.api.LogRepository;
 import io.gravitee.repository.log.model.ExtendedLog;
-import io.gravitee.repository.management.model.ApplicationStatus;
 import io.netty.handler.codec.http.QueryStringDecoder;
 import org.apache.commons.lang3.time.FastDateFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static io.gravitee.repository.log.model.Log.AuditEvent.LOG_READ;
 import static io.gravitee.repository.management.model.Audit.AuditProperties.REQUEST_ID;
 import static java.lang.System.lineSeparator;
+import static java.util.Collections.singleton;
 
 /**
  * @author David BRASSELY (david.brassely at graviteesource.com)
@@ -51,26 +58,20 @@ import static java.lang.System.lineSeparator;
  * @author GraviteeSource Team
  */
 @Component
-public class LogsServiceImpl implements LogsService {
+public class LogsServiceImpl implements LogsService, InitializingBean {
 
     private final Logger logger = LoggerFactory.getLogger(LogsServiceImpl.class);
 
-    private static final String APPLICATION_KEYLESS = "1";
     private static final String RFC_3339_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
     private static final FastDateFormat dateFormatter = FastDateFormat.getInstance(RFC_3339_DATE_FORMAT);
     private static final char separator = ';';
+    private static final String TIMESTAMP_FIELD = "@timestamp";
 
     @Autowired
     private LogRepository logRepository;
     @Autowired
-    private ApiService apiService;
-    @Autowired
-    private ApplicationService applicationService;
-    @Autowired
     private PlanService planService;
     @Autowired
-    private InstanceService instanceService;
-    @Autowired
     private ApiKeyService apiKeyService;
     @Autowired
     private SubscriptionService subscriptionService;
@@ -78,6 +79,33 @@ public class LogsServiceImpl implements LogsService {
     private AuditService auditService;
     @Autowired
     private ParameterService parameterService;
+    @Autowired
+    private ReferenceMetadataService referenceMetadataService;
+
+    @Value("${management.cache.subscriptions.ttl:600}")
+    private long subscriptionsTtl;
+    @Value("${management.cache.subscriptions.maxEntries:10000}")
+    private long subscriptionsMaxEntries;
+    @Value("${management.logs.export.pageSize:500}")
+    private int exportPageSize;
+    @Value("${management.logs.export.maxRows:100000}")
+    private long exportMaxRows;
+
+    /**
+     * The subscription of a log by api key. An api key is never moved to another subscription, so the resolved ids
+     * are kept for a while (<code>management.cache.subscriptions.ttl</code>, 10 minutes by default) instead of looking
+     * them up again for every log read. Unknown keys are not kept, and neither are the subscriptions resolved by
+     * application and plan as they change when the application subscribes again.
+     */
+    private Cache<String, String> subscriptions;
+
+    @Override
+    public void afterPropertiesSet() {
+        subscriptions = CacheBuilder.newBuilder()
+                .expireAfterWrite(subscriptionsTtl, TimeUnit.SECONDS)
+                .maximumSize(subscriptionsMaxEntries)
+                .build();
+    }
 
     @Override
     public SearchLogResponse findByApi(String api, LogQuery query) {
@@ -106,17 +134,10 @@ public class LogsServiceImpl implements LogsService {
             if (response.getSize() > 0) {
                 Map<String, Map<String, String>> metadata = new HashMap<>();
 
-                logResponse.getLogs().forEach(logItem -> {
-                    String application = logItem.getApplication();
-                    String plan = logItem.getPlan();
-
-                    if (application != null) {
-                        metadata.computeIfAbsent(application, getApplicationMetadata(application));
-                    }
-                    if (plan != null) {
-                        metadata.computeIfAbsent(plan, getPlanMetadata(plan));
-                    }
-                });
+                metadata.putAll(referenceMetadataService.findApplicationMetadata(logResponse.getLogs().stream()
+                        .map(ApiRequestItem::getApplication).filter(Objects::nonNull).collect(Collectors.toSet())));
+                metadata.putAll(referenceMetadataService.findPlanMetadata(logResponse.getLogs().stream()
+                        .map(ApiRequestItem::getPlan).filter(Objects::nonNull).collect(Collectors.toSet())));
 
                 logResponse.setMetadata(metadata);
             }
@@ -175,17 +196,10 @@ public class LogsServiceImpl implements LogsService {
             if (response.getSize() > 0) {
                 Map<String, Map<String, String>> metadata = new HashMap<>();
 
-                logResponse.getLogs().forEach(logItem -> {
-                    String api = logItem.getApi();
-                    String plan = logItem.getPlan();
-
-                    if (api != null) {
-                        metadata.computeIfAbsent(api, getAPIMetadata(api));
-                    }
-                    if (plan != null) {
-                        metadata.computeIfAbsent(plan, getPlanMetadata(plan));
-                    }
-                });
+                metadata.putAll(referenceMetadataService.findApiMetadata(logResponse.getLogs().stream()
+                        .map(ApplicationRequestItem::getApi).filter(Objects::nonNull).collect(Collectors.toSet())));
+                metadata.putAll(referenceMetadataService.findPlanMetadata(logResponse.getLogs().stream()
+                        .map(ApplicationRequestItem::getPlan).filter(Objects::nonNull).collect(Collectors.toSet())));
 
                 logResponse.setMetadata(metadata);
             }
@@ -208,97 +222,57 @@ public class LogsServiceImpl implements LogsService {
     }
 
     private Function<String, Map<String, String>> getAPIMetadata(String api) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                ApiEntity apiEntity = apiService.findById(api);
-                metadata.put("name", apiEntity.getName());
-                metadata.put("version", apiEntity.getVersion());
-            } catch (ApiNotFoundException anfe) {
-                metadata.put("name", "Deleted API");
-                metadata.put("deleted", "true");
-            }
-
-            return metadata;
-        };
+        return s -> referenceMetadataService.findApiMetadata(singleton(api)).get(api);
     }
 
     private Function<String, Map<String, String>> getApplicationMetadata(String application) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                ApplicationEntity applicationEntity = applicationService.findById(application);
-                metadata.put("name", applicationEntity.getName());
-                if (ApplicationStatus.ARCHIVED.toString().equals(applicationEntity.getStatus())) {
-                    metadata.put("deleted", "true");
-                }
-            } catch (ApplicationNotFoundException anfe) {
-                metadata.put("deleted", "true");
-                if (application.equals(APPLICATION_KEYLESS)) {
-                    metadata.put("name", "Unknown application (keyless)");
-                } else {
-                    metadata.put("name", "Deleted application");
-                }
-            }
-
-            return metadata;
-        };
+        return s -> referenceMetadataService.findApplicationMetadata(singleton(application)).get(application);
     }
 
     private Function<String, Map<String, String>> getPlanMetadata(String plan) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            try {
-                PlanEntity planEntity = planService.findById(plan);
-                metadata.put("name", planEntity.getName());
-            } catch (PlanNotFoundException anfe) {
-                metadata.put("deleted", "true");
-            }
-
-            return metadata;
-        };
+        return s -> referenceMetadataService.findPlanMetadata(singleton(plan)).get(plan);
     }
 
     private Function<String, Map<String, String>> getGatewayMetadata(String gateway) {
-        return s -> {
-            Map<String, String> metadata = new HashMap<>();
-
-            Optional<InstanceListItem> instanceOptional = instanceService.findInstances(true, gateway).stream().findFirst();
-
-            if (instanceOptional.isPresent()) {
-                metadata.put("hostname", instanceOptional.get().getHostname());
-                metadata.put("ip", instanceOptional.get().getIp());
-                if (instanceOptional.get().getTenant() != null) {
-                    metadata.put("tenant", instanceOptional.get().getTenant());
-                }
-            } else {
-                metadata.put("deleted", "true");
-            }
-
-            return metadata;
-        };
+        return s -> referenceMetadataService.findGatewayMetadata(singleton(gateway)).get(gateway);
     }
 
     private String getSubscription(io.gravitee.repository.log.model.ExtendedLog log) {
         if ("API_KEY".equals(log.getSecurityType())) {
-            try {
-                ApiKeyEntity key = apiKeyService.findByKey(log.getSecurityToken());
-                if (key != null) {
-                    return key.getSubscription();
+            if (log.getSecurityToken() != null) {
+                String subscription = subscriptions.getIfPresent(log.getSecurityToken());
+                if (subscription == null) {
+                    subscription = findSubscriptionByApiKey(log.getSecurityToken());
+                    if (subscription != null) {
+                        subscriptions.put(log.getSecurityToken(), subscription);
+                    }
                 }
-            } catch (ApiKeyNotFoundException e) {
-                // wrong apikey
+                return subscription;
             }
         } else if (log.getPlan() != null && log.getApplication() != null) {
-            PlanEntity plan = planService.findById(log.getPlan());
-            if (!PlanSecurityType.API_KEY.equals(plan.getSecurity()) && !PlanSecurityType.KEY_LESS.equals(plan.getSecurity())) {
-                Collection<SubscriptionEntity> subscriptions = subscriptionService.findByApplicationAndPlan(log.getApplication(), log.getPlan());
-                if (!subscriptions.isEmpty() && subscriptions.size() == 1) {
-                    return subscriptions.iterator().next().getId();
-                }
+            return findSubscriptionByApplicationAndPlan(log.getApplication(), log.getPlan());
+        }
+        return null;
+    }
+
+    private String findSubscriptionByApiKey(String apiKey) {
+        try {
+            ApiKeyEntity key = apiKeyService.findByKey(apiKey);
+            if (key != null) {
+                return key.getSubscription();
+            }
+        } catch (ApiKeyNotFoundException e) {
+            // wrong apikey
+        }
+        return null;
+    }
+
+    private String findSubscriptionByApplicationAndPlan(String application, String planId) {
+        PlanEntity plan = planService.findById(planId);
+        if (!PlanSecurityType.API_KEY.equals(plan.getSecurity()) && !PlanSecurityType.KEY_LESS.equals(plan.getSecurity())) {
+            Collection<SubscriptionEntity> subscriptions = subscriptionService.findByApplicationAndPlan(application, planId);
+            if (subscriptions.size() == 1) {
+                return subscriptions.iterator().next().getId();
             }
         }
         return null;
@@ -311,57 +285,173 @@ public class LogsServiceImpl implements LogsService {
         }
         final StringBuilder sb = new StringBuilder();
         for (final Object log : searchLogResponse.getLogs()) {
-            if (log instanceof ApiRequestItem) {
-                final ApiRequestItem apiLog = (ApiRequestItem) log;
-                sb.append(dateFormatter.format(apiLog.getTimestamp()));
-                sb.append(separator);
-                sb.append(apiLog.getId());
-                sb.append(separator);
-                sb.append(apiLog.getTransactionId());
-                sb.append(separator);
-                sb.append(apiLog.getMethod());
-                sb.append(separator);
-                sb.append(apiLog.getPath());
-                sb.append(separator);
-                sb.append(apiLog.getStatus());
-                sb.append(separator);
-                sb.append(apiLog.getResponseTime());
-                sb.append(separator);
-                final Object plan = searchLogResponse.getMetadata().get(apiLog.getPlan());
-                sb.append(getName(plan));
-                sb.append(separator);
-                final Object application = searchLogResponse.getMetadata().get(apiLog.getApplication());
-                sb.append(getName(application));
-                sb.append(lineSeparator());
-            } else if (log instanceof ApplicationRequestItem) {
-                final ApplicationRequestItem applicationLog = (ApplicationRequestItem) log;
-                sb.append(dateFormatter.format(applicationLog.getTimestamp()));
-                sb.append(separator);
-                sb.append(applicationLog.getId());
-                sb.append(separator);
-                sb.append(applicationLog.getTransactionId());
-                sb.append(separator);
-                sb.append(applicationLog.getMethod());
-                sb.append(separator);
-                sb.append(applicationLog.getPath());
-                sb.append(separator);
-                sb.append(applicationLog.getStatus());
-                sb.append(separator);
-                sb.append(applicationLog.getResponseTime());
-                sb.append(separator);
-                final Object plan = searchLogResponse.getMetadata().get(applicationLog.getPlan());
-                sb.append(getName(plan));
-                sb.append(separator);
-                final Object application = searchLogResponse.getMetadata().get(applicationLog.getApi());
-                sb.append(getName(application));
-                sb.append(lineSeparator());
+            try {
+                appendCsv(sb, log, searchLogResponse.getMetadata());
+            } catch (IOException ioe) {
+                // never thrown by a StringBuilder
+                throw new UncheckedIOException(ioe);
             }
         }
         return sb.toString();
     }
 
+    @Override
+    public long exportByApi(String api, LogQuery query, long limit, Writer writer) throws IOException {
+        return export("api", api, query, limit, writer, logs -> {
+            final List<ApiRequestItem> items = logs.stream().map(this::toApiRequestItem).collect(Collectors.toList());
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            metadata.putAll(referenceMetadataService.findApplicationMetadata(items.stream()
+                    .map(ApiRequestItem::getApplication).filter(Objects::nonNull).collect(Collectors.toSet())));
+            metadata.putAll(referenceMetadataService.findPlanMetadata(items.stream()
+                    .map(ApiRequestItem::getPlan).filter(Objects::nonNull).collect(Collectors.toSet())));
+            final SearchLogResponse<ApiRequestItem> response = new SearchLogResponse<>(items.size());
+            response.setLogs(items);
+            response.setMetadata(metadata);
+            return response;
+        });
+    }
+
+    @Override
+    public long exportByApplication(String application, LogQuery query, long limit, Writer writer) throws IOException {
+        return export("application", application, query, limit, writer, logs -> {
+            final List<ApplicationRequestItem> items = logs.stream().map(this::toApplicationRequestItem).collect(Collectors.toList());
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            metadata.putAll(referenceMetadataService.findApiMetadata(items.stream()
+                    .map(ApplicationRequestItem::getApi).filter(Objects::nonNull).collect(Collectors.toSet())));
+            metadata.putAll(referenceMetadataService.findPlanMetadata(items.stream()
+                    .map(ApplicationRequestItem::getPlan).filter(Objects::nonNull).collect(Collectors.toSet())));
+            final SearchLogResponse<ApplicationRequestItem> response = new SearchLogResponse<>(items.size());
+            response.setLogs(items);
+            response.setMetadata(metadata);
+            return response;
+        });
+    }
+
+    /**
+     * Pages through the logs sorted on their timestamp, using the timestamp of the last log of a page as the bound
+     * of the next query rather than an ever growing page number, so that a large export neither hits the result
+     * window of the analytics repository nor shifts when new logs come in. The logs sharing this timestamp have already
+     * been written and are skipped, and only one page is held in memory at a time.
+     */
+    private long export(String root, String id, LogQuery query, long limit, Writer writer,
+                        Function<List<io.gravitee.repository.log.model.Log>, SearchLogResponse<?>> enrich) throws IOException {
+        final long rows = limit <= 0 ? exportMaxRows : Math.min(limit, exportMaxRows);
+        final boolean ascending = query.isOrder();
+        long from = query.getFrom();
+        long to = query.getTo();
+        int page = 1;
+        Set<String> written = new HashSet<>();
+        long count = 0;
+
+        while (count < rows && !Thread.currentThread().isInterrupted()) {
+            final List<io.gravitee.repository.log.model.Log> logs;
+            try {
+                logs = logRepository.query(QueryBuilders.tabular()
+                        .page(page)
+                        .size(exportPageSize)
+                        .query(query.getQuery())
+                        .sort(SortBuilder.on(TIMESTAMP_FIELD, ascending ? Order.ASC : Order.DESC, null))
+                        .timeRange(
+                                DateRangeBuilder.between(from, to),
+                                IntervalBuilder.interval(query.getInterval())
+                        )
+                        .root(root, id)
+                        .build()).getLogs();
+            } catch (AnalyticsException ae) {
+                logger.error("Unable to export logs of " + root + " " + id, ae);
+                throw new TechnicalManagementException("Unable to export logs", ae);
+            }
+            if (logs == null || logs.isEmpty()) {
+                break;
+            }
+
+            final List<io.gravitee.repository.log.model.Log> remaining = logs.stream()
+                    .filter(log -> !written.contains(log.getId()))
+                    .limit(rows - count)
+                    .collect(Collectors.toList());
+            final SearchLogResponse<?> response = enrich.apply(remaining);
+            for (Object log : response.getLogs()) {
+                appendCsv(writer, log, response.getMetadata());
+            }
+            writer.flush();
+            count += remaining.size();
+
+            if (logs.size() < exportPageSize) {
+                break;
+            }
+
+            final long last = logs.get(logs.size() - 1).getTimestamp();
+            if (last == (ascending ? from : to)) {
+                // the whole page shares the same timestamp, no choice but to go to the next page
+                page++;
+            } else {
+                page = 1;
+                written.clear();
+                if (ascending) {
+                    from = last;
+                } else {
+                    to = last;
+                }
+            }
+            logs.stream()
+                    .filter(log -> log.getTimestamp() == last)
+                    .forEach(log -> written.add(log.getId()));
+        }
+        return count;
+    }
+
+    private void appendCsv(Appendable out, Object log, Map<String, Map<String, String>> metadata) throws IOException {
+        if (log instanceof ApiRequestItem) {
+            final ApiRequestItem apiLog = (ApiRequestItem) log;
+            out.append(dateFormatter.format(apiLog.getTimestamp()));
+            out.append(separator);
+            out.append(apiLog.getId());
+            out.append(separator);
+            out.append(apiLog.getTransactionId());
+            out.append(separator);
+            out.append(apiLog.getMethod());
+            out.append(separator);
+            out.append(apiLog.getPath());
+            out.append(separator);
+            out.append(String.valueOf(apiLog.getStatus()));
+            out.append(separator);
+            out.append(String.valueOf(apiLog.getResponseTime()));
+            out.append(separator);
+            final Object plan = metadata.get(apiLog.getPlan());
+            out.append(getName(plan));
+            out.append(separator);
+            final Object application = metadata.get(apiLog.getApplication());
+            out.append(getName(application));
+            out.append(lineSeparator());
+        } else if (log instanceof ApplicationRequestItem) {
+            final ApplicationRequestItem applicationLog = (ApplicationRequestItem) log;
+            out.append(dateFormatter.format(applicationLog.getTimestamp()));
+            out.append(separator);
+            out.append(applicationLog.getId());
+            out.append(separator);
+            out.append(applicationLog.getTransactionId());
+            out.append(separator);
+            out.append(applicationLog.getMethod());
+            out.append(separator);
+            out.append(applicationLog.getPath());
+            out.append(separator);
+            out.append(String.valueOf(applicationLog.getStatus()));
+            out.append(separator);
+            out.append(String.valueOf(applicationLog.getResponseTime()));
+            out.append(separator);
+            final Object plan = metadata.get(applicationLog.getPlan());
+            out.append(getName(plan));
+            out.append(separator);
+            final Object api = metadata.get(applicationLog.getApi());
+            out.append(getName(api));
+            out.append(lineSeparator());
+        }
+    }
+
     private String getName(Object map) {
-        return map == null ? "" : ((Map) map).get("name").toString();
+        // the metadata of a deleted plan or gateway has no name
+        final Object name = map == null ? null : ((Map) map).get("name");
+        return name == null ? "" : name.toString();
     }
 
     private ApiRequestItem toApiRequestItem(io.gravitee.repository.log.model.Log log) {
@@ -24,7 +24,9 @@ import io.gravitee.management.model.providers.User;
 import io.gravitee.management.service.*;
 import io.gravitee.management.service.builder.EmailNotificationBuilder;
 import io.gravitee.management.service.exceptions.*;
+import io.gravitee.management.service.loader.EntityLoaders;
 import io.gravitee.management.service.notification.NotificationParamsBuilder;
+import io.gravitee.management.service.page.PageTemplateCache;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.ApplicationRepository;
@@ -84,6 +86,8 @@ public class MembershipServiceImpl extends AbstractService implements Membership
     private NotifierService notifierService;
     @Autowired
     private InvitationService invitationService;
+    @Autowired
+    private PageTemplateCache pageTemplateCache;
 
     @Override
     public Set<MemberEntity> getMembers(MembershipReferenceType referenceType, String referenceId, RoleScope roleScope) {
@@ -101,8 +105,19 @@ public class MembershipServiceImpl extends AbstractService implements Membership
                     roleScope,
                     roleName);
 
+            // Resolve all the members in a single batch
+            final Map<String, UserEntity> users = EntityLoaders.users(userService)
+                    .loadMany(memberships.stream().map(Membership::getUserId).collect(Collectors.toSet()));
+
             return memberships.stream()
-                    .map(m -> convert(m, roleScope))
+                    .map(m -> {
+                        final UserEntity userEntity = users.get(m.getUserId());
+                        if (userEntity == null) {
+                            throw new UserNotFoundException(m.getUserId());
+                        }
+                        final String roleName = m.getRoles() == null ? null : m.getRoles().get(roleScope.getId());
+                        return convert(m, userEntity, roleName == null ? null : roleService.findById(roleScope, roleName));
+                    })
                     .collect(Collectors.toSet());
 
         } catch (TechnicalException ex) {
@@ -327,6 +342,8 @@ public class MembershipServiceImpl extends AbstractService implements Membership
     @Override
     public void transferApiOwnership(String apiId, MembershipUser user, RoleEntity newPrimaryOwnerRole) {
         this.transferOwnership(API, RoleScope.API, apiId, user, newPrimaryOwnerRole);
+        // the primary owner is rendered in the pages of the API
+        pageTemplateCache.invalidate(apiId);
     }
 
     @Override
@@ -566,14 +583,18 @@ public class MembershipServiceImpl extends AbstractService implements Membership
     }
 
     private MemberEntity convert(Membership membership, RoleScope roleScope) {
-        final MemberEntity member = new MemberEntity();
-
         final UserEntity userEntity = userService.findById(membership.getUserId());
         final RoleEntity role = getRole(
                 membership.getReferenceType(),
                 membership.getReferenceId(),
                 membership.getUserId(),
                 roleScope);
+        return convert(membership, userEntity, role);
+    }
+
+    private MemberEntity convert(Membership membership, UserEntity userEntity, RoleEntity role) {
+        final MemberEntity member = new MemberEntity();
+
         // because API and APPLICATION RoleScope is not mandatory for a group,
         // role could be null
         if (role == null) {
@@ -24,6 +24,7 @@ import io.gravitee.management.service.AuditService;
 import io.gravitee.management.service.MetadataService;
 import io.gravitee.management.service.exceptions.DuplicateMetadataNameException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.page.PageTemplateCache;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.MetadataRepository;
 import io.gravitee.repository.management.model.Metadata;
@@ -65,6 +66,9 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
     @Autowired
     private AuditService auditService;
 
+    @Autowired
+    private PageTemplateCache pageTemplateCache;
+
     @Override
     public List<MetadataEntity> findAllDefault() {
         try {
@@ -109,6 +113,8 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
                     metadata.getCreatedAt(),
                     null,
                     metadata);
+            // default metadata are the portal metadata and the default values of the API metadata
+            pageTemplateCache.invalidateAll();
             return convert(metadata);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurred while trying to create metadata {}", metadataEntity.getName(), ex);
@@ -141,6 +147,8 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
                     metadata.getCreatedAt(),
                     null,
                     metadata);
+            // default metadata are the portal metadata and the default values of the API metadata
+            pageTemplateCache.invalidateAll();
             return convert(metadata);
         } catch (TechnicalException ex) {
             LOGGER.error("An error occurred while trying to update metadata {}", metadataEntity.getName(), ex);
@@ -175,6 +183,7 @@ public class MetadataServiceImpl extends TransactionalService implements Metadat
                             metadata,
                             null);
                 }
+                pageTemplateCache.invalidateAll();
             }
         } catch(TechnicalException ex){
             LOGGER.error("An error occurs while trying to delete metadata {}", key, ex);
@@ -15,8 +15,14 @@
  */
 package io.gravitee.management.service.impl;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.gravitee.management.model.command.CommandTags;
 import io.gravitee.management.model.notification.NotifierEntity;
+import io.gravitee.management.repository.cache.CacheInvalidationPoller;
 import io.gravitee.management.service.NotifierService;
+import io.gravitee.management.service.executor.AsyncExecutors;
 import io.gravitee.management.service.PortalNotificationService;
 import io.gravitee.management.service.notification.ApiHook;
 import io.gravitee.management.service.notification.ApplicationHook;
@@ -33,22 +39,37 @@ import io.gravitee.repository.management.model.PortalNotificationConfig;
 import io.gravitee.repository.management.model.PortalNotificationDefaultReferenceId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
+ * The users to notify and the generic notifiers of each API, application or portal hook are kept in memory, so that
+ * a burst of notifications (e.g. a bulk subscription approval) reads them once.
+ *
+ * They are forgotten when the notification settings of their API, application or portal are saved, and the other
+ * management nodes are told to forget theirs through a {@link CommandTags#NOTIFICATIONS_UPDATED} command.
+ * As for the parameters snapshot, a revision is bumped on each invalidation so that a load running concurrently does
+ * not keep stale settings in the cache.
+ *
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
-public class NotifierServiceImpl extends AbstractService implements NotifierService {
+public class NotifierServiceImpl extends AbstractService implements NotifierService, InitializingBean {
 
     /**
      * Default Notifier IDs
@@ -76,22 +97,54 @@ public class NotifierServiceImpl extends AbstractService implements NotifierServ
     @Lazy
     WebhookNotifierService webhookNotifierService;
 
+    @Autowired
+    CacheInvalidationPoller invalidationPoller;
+
+    @Value("${management.cache.notifications.enabled:true}")
+    private boolean cacheEnabled;
+    @Value("${management.cache.notifications.ttl:600}")
+    private long cacheTtl;
+    @Value("${management.cache.notifications.maxEntries:10000}")
+    private long cacheMaxEntries;
+
+    private Cache<String, List<String>> portalNotificationUsers;
+    private Cache<String, List<GenericNotificationConfig>> genericNotificationConfigs;
+    private final AtomicLong revision = new AtomicLong();
+
     @Override
-    @Async
+    public void afterPropertiesSet() {
+        if (!cacheEnabled) {
+            return;
+        }
+        portalNotificationUsers = CacheBuilder.newBuilder()
+                .expireAfterWrite(cacheTtl, TimeUnit.SECONDS)
+                .maximumSize(cacheMaxEntries)
+                .build();
+        genericNotificationConfigs = CacheBuilder.newBuilder()
+                .expireAfterWrite(cacheTtl, TimeUnit.SECONDS)
+                .maximumSize(cacheMaxEntries)
+                .build();
+
+        // a command without content comes from a node which forgets all the settings
+        invalidationPoller.register(CommandTags.NOTIFICATIONS_UPDATED.name(), prefix -> invalidate(prefix == null ? "" : prefix));
+    }
+
+    @Override
+    @Async(AsyncExecutors.NOTIFICATION)
     public void trigger(final ApiHook hook, final String apiId, Map<String, Object> params) {
         triggerPortalNotifications(hook, NotificationReferenceType.API, apiId, params);
         triggerGenericNotifications(hook, NotificationReferenceType.API, apiId, params);
     }
 
     @Override
-    @Async
+    @Async(AsyncExecutors.NOTIFICATION)
     public void trigger(final ApplicationHook hook, final String applicationId, Map<String, Object> params) {
         triggerPortalNotifications(hook, NotificationReferenceType.APPLICATION, applicationId, params);
         triggerGenericNotifications(hook, NotificationReferenceType.APPLICATION, applicationId, params);
     }
 
     @Override
-    @Async
+    @Async(AsyncExecutors.NOTIFICATION)
     public void trigger(final PortalHook hook, Map<String, Object> params) {
         triggerPortalNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), params);
         triggerGenericNotifications(hook, NotificationReferenceType.PORTAL, PortalNotificationDefaultReferenceId.DEFAULT.name(), params);
@@ -99,10 +152,11 @@ public class NotifierServiceImpl extends AbstractService implements NotifierServ
 
     private void triggerPortalNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final Map<String, Object> params) {
         try {
-            List<String> userIds = portalNotificationConfigRepository.findByReferenceAndHook(hook.name(), refType, refId).
-                    stream().
-                    map(PortalNotificationConfig::getUser).
-                    collect(Collectors.toList());
+            List<String> userIds = load(portalNotificationUsers, hook, refType, refId,
+                    () -> Collections.unmodifiableList(portalNotificationConfigRepository.findByReferenceAndHook(hook.name(), refType, refId).
+                            stream().
+                            map(PortalNotificationConfig::getUser).
+                            collect(Collectors.toList())));
             if (!userIds.isEmpty()) {
                 portalNotificationService.create(hook, userIds, params);
             }
@@ -113,7 +167,9 @@ public class NotifierServiceImpl extends AbstractService implements NotifierServ
 
     private void triggerGenericNotifications(final Hook hook, final NotificationReferenceType refType, final String refId, final Map<String, Object> params) {
         try {
-            for (GenericNotificationConfig genericNotificationConfig : genericNotificationConfigRepository.findByReferenceAndHook(hook.name(), refType, refId)) {
+            List<GenericNotificationConfig> configs = load(genericNotificationConfigs, hook, refType, refId,
+                    () -> Collections.unmodifiableList(genericNotificationConfigRepository.findByReferenceAndHook(hook.name(), refType, refId)));
+            for (GenericNotificationConfig genericNotificationConfig : configs) {
                 switch (genericNotificationConfig.getNotifier()) {
                     case DEFAULT_EMAIL_NOTIFIER_ID:
                         emailNotifierService.trigger(hook, genericNotificationConfig, params);
@@ -144,4 +200,54 @@ public class NotifierServiceImpl extends AbstractService implements NotifierServ
         webHookNotifier.setType("WEBHOOK");
         return Arrays.asList(emailNotifier, webHookNotifier);
     }
+
+    @Override
+    public void invalidate(NotificationReferenceType referenceType, String referenceId) {
+        final String prefix = referenceType.name() + ':' + referenceId + ':';
+        invalidate(prefix);
+        invalidationPoller.publish(CommandTags.NOTIFICATIONS_UPDATED.name(), prefix);
+    }
+
+    /**
+     * Forgets the settings whose key starts with the given prefix. The revision is bumped first, so that a load running
+     * concurrently does not keep in the cache what it read before.
+     */
+    private synchronized void invalidate(String prefix) {
+        if (portalNotificationUsers != null) {
+            revision.incrementAndGet();
+            portalNotificationUsers.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+            genericNotificationConfigs.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private <T> List<T> load(Cache<String, List<T>> cache, Hook hook, NotificationReferenceType refType, String refId,
+                             Callable<List<T>> loader) throws TechnicalException {
+        if (cache == null) {
+            try {
+                return loader.call();
+            } catch (TechnicalException | RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        final String key = refType.name() + ':' + refId + ':' + hook.name();
+        final long loadRevision = revision.get();
+        try {
+            final List<T> values = cache.get(key, loader);
+            if (revision.get() != loadRevision) {
+                // the settings may have been read before an invalidation and cached after it
+                cache.asMap().remove(key, values);
+            }
+            return values;
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            // rethrow the exception of the repository, as when the cache is disabled
+            if (ex.getCause() instanceof TechnicalException) {
+                throw (TechnicalException) ex.getCause();
+            } else if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
 }
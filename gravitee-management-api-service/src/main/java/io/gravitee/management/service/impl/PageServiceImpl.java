@@ -36,6 +36,7 @@ import io.gravitee.management.service.exceptions.NoFetcherDefinedException;
 import io.gravitee.management.service.exceptions.PageFolderActionException;
 import io.gravitee.management.service.exceptions.PageNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.page.PageTemplateCache;
 import io.gravitee.management.service.search.SearchEngineService;
 import io.gravitee.plugin.core.api.PluginManager;
 import io.gravitee.plugin.fetcher.FetcherPlugin;
@@ -65,7 +66,6 @@ import static io.gravitee.repository.management.model.Audit.AuditProperties.PAGE
 import static io.gravitee.repository.management.model.Page.AuditEvent.*;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
-import static org.springframework.ui.freemarker.FreeMarkerTemplateUtils.processTemplateIntoString;
 
 /**
  * @author Titouan COMPIEGNE (titouan.compiegne at graviteesource.com)
@@ -104,6 +104,8 @@ public class PageServiceImpl extends TransactionalService implements PageService
 	private SearchEngineService searchEngineService;
 	@Autowired
 	private MetadataService metadataService;
+	@Autowired
+	private PageTemplateCache pageTemplateCache;
 
 	@Autowired
 	private GraviteeDescriptorService graviteeDescriptorService;
@@ -157,7 +159,7 @@ public class PageServiceImpl extends TransactionalService implements PageService
 
 	private void transformUsingConfiguration(final PageEntity pageEntity) {
 		if (io.gravitee.repository.management.model.PageType.SWAGGER.name().equalsIgnoreCase(pageEntity.getType())) {
-			swaggerService.transform(pageEntity);
+			pageTemplateCache.transform(pageEntity, swaggerService::transform);
 		}
 	}
 
@@ -165,21 +167,9 @@ public class PageServiceImpl extends TransactionalService implements PageService
 	public void transformWithTemplate(final PageEntity pageEntity, final String api) {
 		if (pageEntity.getContent() != null) {
 			try {
-				final Template template = new Template(pageEntity.getId(), pageEntity.getContent(), freemarkerConfiguration);
-				final Map<String, Object> model = new HashMap<>();
-				if (api == null) {
-					final List<MetadataEntity> metadataList = metadataService.findAllDefault();
-					if (metadataList != null) {
-						final Map<String, String> mapMetadata = new HashMap<>(metadataList.size());
-						metadataList.forEach(metadata -> mapMetadata.put(metadata.getKey(), metadata.getValue()));
-						model.put("metadata", mapMetadata);
-					}
-				} else {
-					ApiModelEntity apiEntity = apiService.findByIdForTemplates(api);
-					model.put("api", apiEntity);
-				}
-
-				final String content = processTemplateIntoString(template, model);
+				final String content = pageTemplateCache.render(pageEntity, api,
+						page -> new Template(page.getId(), page.getContent(), freemarkerConfiguration),
+						() -> templateModel(api));
 
 				pageEntity.setContent(content);
 			} catch (IOException | TemplateException ex) {
@@ -188,6 +178,22 @@ public class PageServiceImpl extends TransactionalService implements PageService
 		}
 	}
 
+	private Map<String, Object> templateModel(final String api) {
+		final Map<String, Object> model = new HashMap<>();
+		if (api == null) {
+			final List<MetadataEntity> metadataList = metadataService.findAllDefault();
+			if (metadataList != null) {
+				final Map<String, String> mapMetadata = new HashMap<>(metadataList.size());
+				metadataList.forEach(metadata -> mapMetadata.put(metadata.getKey(), metadata.getValue()));
+				model.put("metadata", mapMetadata);
+			}
+		} else {
+			ApiModelEntity apiEntity = apiService.findByIdForTemplates(api);
+			model.put("api", apiEntity);
+		}
+		return model;
+	}
+
 	@Override
 	public PageEntity createPage(String apiId, NewPageEntity newPageEntity) {
 		try {
@@ -15,7 +15,9 @@
  */
 package io.gravitee.management.service.impl;
 
+import io.gravitee.management.model.command.CommandTags;
 import io.gravitee.management.model.parameters.Key;
+import io.gravitee.management.repository.cache.CacheInvalidationPoller;
 import io.gravitee.management.service.AuditService;
 import io.gravitee.management.service.ParameterService;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
@@ -24,10 +26,12 @@ import io.gravitee.repository.management.api.ParameterRepository;
 import io.gravitee.repository.management.model.Parameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -42,22 +46,44 @@ import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
 /**
+ * Parameters are read from an immutable snapshot of all the parameter keys, loaded with a single repository call.
+ *
+ * The snapshot is dropped each time a parameter is saved, and the other management nodes are told to drop theirs
+ * through a {@link CommandTags#PARAMETERS_UPDATED} command.
+ *
  * @author Azize ELAMRANI (azize at graviteesource.com)
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com)
  * @author GraviteeSource Team
  */
 @Component
-public class ParameterServiceImpl extends TransactionalService implements ParameterService {
+public class ParameterServiceImpl extends TransactionalService implements ParameterService, InitializingBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ParameterServiceImpl.class);
 
     private static final String SEPARATOR = ";";
     public static final String KV_SEPARATOR = "@";
 
+    private static final List<String> ALL_KEYS = stream(Key.values()).map(Key::key).collect(toList());
+
     @Inject
     private ParameterRepository parameterRepository;
     @Inject
     private AuditService auditService;
+    @Inject
+    private CacheInvalidationPoller invalidationPoller;
+
+    private volatile Map<String, String> snapshot;
+    private final AtomicLong revision = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet() {
+        invalidationPoller.register(CommandTags.PARAMETERS_UPDATED.name(), content -> invalidate());
+    }
+
+    @Override
+    public long getRevision() {
+        return revision.get();
+    }
 
     @Override
     public boolean findAsBoolean(final Key key) {
@@ -93,36 +119,57 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
 
     @Override
     public <T> List<T> findAll(final Key key, final Function<String, T> mapper, final Predicate<String> filter) {
-        try {
-            final Optional<Parameter> optionalParameter = parameterRepository.findById(key.key());
-            if (optionalParameter.isPresent()) {
-                return splitValue(optionalParameter.get().getValue(), mapper, filter);
-            }
-            return emptyList();
-        } catch (final TechnicalException ex) {
-            final String message = "An error occurs while trying to find parameter values with key: " + key;
-            LOGGER.error(message, ex);
-            throw new TechnicalManagementException(message, ex);
+        final Map<String, String> parameters = snapshot();
+        if (parameters.containsKey(key.key())) {
+            return splitValue(parameters.get(key.key()), mapper, filter);
         }
+        return emptyList();
     }
 
     @Override
     public <T> Map<String, List<T>> findAll(List<Key> keys, Function<String, T> mapper, Predicate<String> filter) {
-        try {
-            List<Parameter> parameters = parameterRepository.findAll(keys.stream().map(Key::key).collect(toList()));
-            if (parameters.isEmpty()) {
-                return emptyMap();
+        final Map<String, String> parameters = snapshot();
+        Map<String, List<T>> result = new HashMap<>();
+        keys.stream()
+                .map(Key::key)
+                .filter(parameters::containsKey)
+                .forEach(key -> result.put(key, splitValue(parameters.get(key), mapper, filter)));
+        return result.isEmpty() ? emptyMap() : result;
+    }
+
+    private Map<String, String> snapshot() {
+        Map<String, String> parameters = snapshot;
+        if (parameters == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = load();
+                }
+                parameters = snapshot;
             }
-            Map<String, List<T>> result = new HashMap<>();
-            parameters.forEach( p -> result.put(p.getKey(), splitValue(p.getValue(), mapper, filter)) );
-            return result;
+        }
+        return parameters;
+    }
+
+    private Map<String, String> load() {
+        try {
+            final Map<String, String> parameters = new HashMap<>();
+            parameterRepository.findAll(ALL_KEYS).forEach(p -> parameters.put(p.getKey(), p.getValue()));
+            return unmodifiableMap(parameters);
         } catch (final TechnicalException ex) {
-            final String message = "An error occurs while trying to find parameter values with keys: " + keys;
+            final String message = "An error occurs while trying to find parameter values with keys: " + ALL_KEYS;
             LOGGER.error(message, ex);
             throw new TechnicalManagementException(message, ex);
         }
     }
 
+    /**
+     * Drops the snapshot, waiting for a concurrent load to complete so that it can not be replaced by stale values.
+     */
+    private synchronized void invalidate() {
+        snapshot = null;
+        revision.incrementAndGet();
+    }
+
     private <T> List<T> splitValue(final String value, final Function<String, T> mapper, final Predicate<String> filter) {
         if (value == null || value.isEmpty()) {
             return emptyList();
@@ -148,9 +195,11 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
             if (updateMode) {
                 if (value == null) {
                     parameterRepository.delete(key.key());
+                    updated();
                     return null;
                 } else if (!value.equals(optionalParameter.get().getValue())) {
                     final Parameter updatedParameter = parameterRepository.update(parameter);
+                    updated();
                     auditService.createPortalAuditLog(
                             singletonMap(PARAMETER, updatedParameter.getKey()),
                             PARAMETER_UPDATED,
@@ -166,6 +215,7 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
                     return null;
                 }
                 final Parameter savedParameter = parameterRepository.create(parameter);
+                updated();
                 auditService.createPortalAuditLog(
                         singletonMap(PARAMETER, savedParameter.getKey()),
                         PARAMETER_CREATED,
@@ -182,6 +232,11 @@ public class ParameterServiceImpl extends TransactionalService implements Parame
         }
     }
 
+    private void updated() {
+        invalidate();
+        invalidationPoller.publish(CommandTags.PARAMETERS_UPDATED.name(), null);
+    }
+
     @Override
     public Parameter save(final Key key, final List<String> values) {
         return save(key, values==null ? null : join(SEPARATOR, values));
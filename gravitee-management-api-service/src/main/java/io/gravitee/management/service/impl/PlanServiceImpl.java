@@ -103,6 +103,26 @@ public class PlanServiceImpl extends TransactionalService implements PlanService
         }
     }
 
+    @Override
+    public Set<PlanEntity> findByIds(Collection<String> plans) {
+        try {
+            logger.debug("Find plans by ids : {}", plans);
+
+            Set<PlanEntity> planEntities = new HashSet<>();
+            for (String plan : new LinkedHashSet<>(plans)) {
+                Optional<Plan> optPlan = planRepository.findById(plan);
+                if (optPlan.isPresent()) {
+                    planEntities.add(convert(optPlan.get()));
+                }
+            }
+            return planEntities;
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to find plans by ids: {}", plans, ex);
+            throw new TechnicalManagementException(
+                    String.format("An error occurs while trying to find plans by ids: %s", plans), ex);
+        }
+    }
+
     @Override
     public Set<PlanEntity> findByApi(String api) {
         try {
@@ -121,6 +141,23 @@ public class PlanServiceImpl extends TransactionalService implements PlanService
         }
     }
 
+    @Override
+    public Set<PlanEntity> findByApis(Collection<String> apis) {
+        try {
+            logger.debug("Find plans by apis : {}", apis);
+
+            Set<PlanEntity> planEntities = new HashSet<>();
+            for (String api : new LinkedHashSet<>(apis)) {
+                planRepository.findByApi(api).forEach(plan -> planEntities.add(convert(plan)));
+            }
+            return planEntities;
+        } catch (TechnicalException ex) {
+            logger.error("An error occurs while trying to find plans by apis: {}", apis, ex);
+            throw new TechnicalManagementException(
+                    String.format("An error occurs while trying to find plans by apis: %s", apis), ex);
+        }
+    }
+
     @Override
     public List<PlanEntity> search(final PlanQuery query) {
         Set<PlanEntity> planEntities;
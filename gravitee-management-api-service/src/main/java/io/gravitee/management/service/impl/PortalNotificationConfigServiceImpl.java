@@ -17,6 +17,7 @@ package io.gravitee.management.service.impl;
 
 import io.gravitee.management.model.notification.NotificationConfigType;
 import io.gravitee.management.model.notification.PortalNotificationConfigEntity;
+import io.gravitee.management.service.NotifierService;
 import io.gravitee.management.service.PortalNotificationConfigService;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.repository.exceptions.TechnicalException;
@@ -26,6 +27,7 @@ import io.gravitee.repository.management.model.PortalNotificationConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
@@ -44,11 +46,18 @@ public class PortalNotificationConfigServiceImpl extends AbstractService impleme
     @Autowired
     private PortalNotificationConfigRepository portalNotificationConfigRepository;
 
+    @Autowired
+    @Lazy
+    private NotifierService notifierService;
+
     @Override
     public PortalNotificationConfigEntity save(PortalNotificationConfigEntity notificationEntity) {
         try {
             if (notificationEntity.getHooks() == null || notificationEntity.getHooks().isEmpty()) {
                 portalNotificationConfigRepository.delete(convert(notificationEntity));
+                notifierService.invalidate(
+                        NotificationReferenceType.valueOf(notificationEntity.getReferenceType()),
+                        notificationEntity.getReferenceId());
                 return getDefaultEmpty(
                         notificationEntity.getUser(),
                         NotificationReferenceType.valueOf(notificationEntity.getReferenceType()),
@@ -60,15 +69,18 @@ public class PortalNotificationConfigServiceImpl extends AbstractService impleme
                         notificationEntity.getReferenceId());
                 PortalNotificationConfig notificationConfig = convert(notificationEntity);
 
+                final PortalNotificationConfig savedConfig;
                 if (optionalConfig.isPresent()) {
                     notificationConfig.setCreatedAt(optionalConfig.get().getCreatedAt());
                     notificationConfig.setUpdatedAt(new Date());
-                    return convert(portalNotificationConfigRepository.update(notificationConfig));
+                    savedConfig = portalNotificationConfigRepository.update(notificationConfig);
                 } else {
                     notificationConfig.setCreatedAt(new Date());
                     notificationConfig.setUpdatedAt(notificationConfig.getCreatedAt());
-                    return convert(portalNotificationConfigRepository.create(notificationConfig));
+                    savedConfig = portalNotificationConfigRepository.create(notificationConfig);
                 }
+                notifierService.invalidate(notificationConfig.getReferenceType(), notificationConfig.getReferenceId());
+                return convert(savedConfig);
             }
         } catch (TechnicalException te) {
             LOGGER.error("An error occurs while trying to save the notification settings {}", notificationEntity, te);
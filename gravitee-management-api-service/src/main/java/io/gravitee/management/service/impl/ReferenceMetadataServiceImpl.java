@@ -0,0 +1,232 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.gravitee.management.model.InstanceListItem;
+import io.gravitee.management.service.InstanceService;
+import io.gravitee.management.service.ReferenceMetadataService;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.PlanRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Application;
+import io.gravitee.repository.management.model.ApplicationStatus;
+import io.gravitee.repository.management.model.Plan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up the referenced entities directly from the repositories, without their definition nor their primary
+ * owner, all the missing keys of a type at once. The resolved metadata are kept for a short time
+ * (<code>management.cache.metadata.ttl</code>, 30 seconds by default) as a dashboard refreshes the same keys again
+ * and again.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class ReferenceMetadataServiceImpl extends AbstractService implements ReferenceMetadataService, InitializingBean {
+
+    private final Logger LOGGER = LoggerFactory.getLogger(ReferenceMetadataServiceImpl.class);
+
+    static final String APPLICATION_KEYLESS = "1";
+
+    private static final String API_PREFIX = "api:";
+    private static final String APPLICATION_PREFIX = "application:";
+    private static final String PLAN_PREFIX = "plan:";
+    private static final String GATEWAY_PREFIX = "gateway:";
+
+    @Autowired
+    private ApiRepository apiRepository;
+    @Autowired
+    private ApplicationRepository applicationRepository;
+    @Autowired
+    private PlanRepository planRepository;
+    @Autowired
+    private InstanceService instanceService;
+
+    @Value("${management.cache.metadata.ttl:30}")
+    private long ttl;
+    @Value("${management.cache.metadata.maxEntries:10000}")
+    private long maxEntries;
+
+    private Cache<String, Map<String, String>> cache;
+
+    @Override
+    public void afterPropertiesSet() {
+        cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    @Override
+    public Map<String, Map<String, String>> findApiMetadata(Collection<String> apis) {
+        return find(API_PREFIX, apis, missing -> {
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            apiRepository.search(
+                    new ApiCriteria.Builder().ids(missing.toArray(new String[0])).build(),
+                    new ApiFieldExclusionFilter.Builder().excludeDefinition().excludePicture().build())
+                    .forEach(api -> metadata.put(api.getId(), convert(api)));
+            missing.forEach(api -> metadata.computeIfAbsent(api, key -> deletedApi()));
+            return metadata;
+        });
+    }
+
+    @Override
+    public Map<String, Map<String, String>> findApplicationMetadata(Collection<String> applications) {
+        return find(APPLICATION_PREFIX, applications, missing -> {
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            applicationRepository.findByIds(new ArrayList<>(missing))
+                    .forEach(application -> metadata.put(application.getId(), convert(application)));
+            missing.forEach(application -> metadata.computeIfAbsent(application, this::deletedApplication));
+            return metadata;
+        });
+    }
+
+    @Override
+    public Map<String, Map<String, String>> findPlanMetadata(Collection<String> plans) {
+        return find(PLAN_PREFIX, plans, missing -> {
+            // There is no bulk lookup of plans, but they are cached by the repository when enabled
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            for (String plan : missing) {
+                Optional<Plan> optPlan = planRepository.findById(plan);
+                metadata.put(plan, optPlan.isPresent() ? convert(optPlan.get()) : metadata("deleted", "true"));
+            }
+            return metadata;
+        });
+    }
+
+    @Override
+    public Map<String, Map<String, String>> findGatewayMetadata(Collection<String> gateways) {
+        return find(GATEWAY_PREFIX, gateways, missing -> {
+            // Instances are read from the gateway events, so read all of them at once when several are missing
+            final Collection<InstanceListItem> instances = missing.size() == 1 ?
+                    instanceService.findInstances(true, missing.iterator().next()) :
+                    instanceService.findInstances(true);
+            final Map<String, Map<String, String>> metadata = new HashMap<>();
+            instances.stream()
+                    .filter(instance -> missing.contains(instance.getId()))
+                    .forEach(instance -> metadata.putIfAbsent(instance.getId(), convert(instance)));
+            missing.forEach(gateway -> metadata.computeIfAbsent(gateway, key -> metadata("deleted", "true")));
+            return metadata;
+        });
+    }
+
+    private Map<String, Map<String, String>> find(String prefix, Collection<String> ids, Loader loader) {
+        final Map<String, Map<String, String>> metadata = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return metadata;
+        }
+
+        final Set<String> missing = new HashSet<>();
+        for (String id : ids) {
+            if (id != null) {
+                Map<String, String> cached = cache.getIfPresent(prefix + id);
+                if (cached == null) {
+                    missing.add(id);
+                } else {
+                    metadata.put(id, new HashMap<>(cached));
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            try {
+                loader.load(missing).forEach((id, values) -> {
+                    cache.put(prefix + id, values);
+                    metadata.put(id, new HashMap<>(values));
+                });
+            } catch (TechnicalException ex) {
+                LOGGER.error("An error occurs while trying to find metadata of {}", missing, ex);
+                throw new TechnicalManagementException("An error occurs while trying to find metadata of " + missing, ex);
+            }
+        }
+
+        return metadata;
+    }
+
+    private Map<String, String> convert(Api api) {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("name", api.getName());
+        metadata.put("version", api.getVersion());
+        return metadata;
+    }
+
+    private Map<String, String> deletedApi() {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("name", "Deleted API");
+        metadata.put("deleted", "true");
+        return metadata;
+    }
+
+    private Map<String, String> convert(Application application) {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("name", application.getName());
+        if (ApplicationStatus.ARCHIVED.equals(application.getStatus())) {
+            metadata.put("deleted", "true");
+        }
+        return metadata;
+    }
+
+    private Map<String, String> deletedApplication(String application) {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("deleted", "true");
+        if (application.equals(APPLICATION_KEYLESS)) {
+            metadata.put("name", "Unknown application (keyless)");
+        } else {
+            metadata.put("name", "Deleted application");
+        }
+        return metadata;
+    }
+
+    private Map<String, String> convert(Plan plan) {
+        return metadata("name", plan.getName());
+    }
+
+    private Map<String, String> convert(InstanceListItem instance) {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("hostname", instance.getHostname());
+        metadata.put("ip", instance.getIp());
+        if (instance.getTenant() != null) {
+            metadata.put("tenant", instance.getTenant());
+        }
+        return metadata;
+    }
+
+    private static Map<String, String> metadata(String key, String value) {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put(key, value);
+        return metadata;
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        Map<String, Map<String, String>> load(Set<String> missing) throws TechnicalException;
+    }
+}
@@ -25,6 +25,8 @@ import io.gravitee.management.model.pagedresult.Metadata;
 import io.gravitee.management.model.subscription.SubscriptionQuery;
 import io.gravitee.management.service.*;
 import io.gravitee.management.service.exceptions.*;
+import io.gravitee.management.service.loader.DataLoader;
+import io.gravitee.management.service.loader.EntityLoaders;
 import io.gravitee.management.service.notification.ApiHook;
 import io.gravitee.management.service.notification.ApplicationHook;
 import io.gravitee.management.service.notification.NotificationParamsBuilder;
@@ -812,20 +814,38 @@ public class SubscriptionServiceImpl extends AbstractService implements Subscrip
     public Metadata getMetadata(List<SubscriptionEntity> subscriptions) {
         Metadata metadata = new Metadata();
 
+        // Resolve all the referenced entities in one batch per type
+        final DataLoader<String, ApplicationEntity> applications = EntityLoaders.applications(applicationService)
+                .prime(subscriptions.stream().map(SubscriptionEntity::getApplication).collect(Collectors.toSet()));
+        final DataLoader<String, PlanEntity> plans = EntityLoaders.plans(planService,
+                subscriptions.stream().map(SubscriptionEntity::getApi).collect(Collectors.toSet()))
+                .prime(subscriptions.stream().map(SubscriptionEntity::getPlan).collect(Collectors.toSet()));
+        final DataLoader<String, ApiEntity> apis = EntityLoaders.apis(apiService)
+                .prime(subscriptions.stream().map(SubscriptionEntity::getApi).collect(Collectors.toSet()));
+
         subscriptions.forEach( subscription -> {
             if (!metadata.containsKey(subscription.getApplication())) {
-                ApplicationEntity applicationEntity = applicationService.findById(subscription.getApplication());
+                ApplicationEntity applicationEntity = applications.load(subscription.getApplication());
+                if (applicationEntity == null) {
+                    throw new ApplicationNotFoundException(subscription.getApplication());
+                }
                 metadata.put(subscription.getApplication(), "name", applicationEntity.getName());
             }
 
 
             if (!metadata.containsKey(subscription.getPlan())) {
-                PlanEntity planEntity = planService.findById(subscription.getPlan());
+                PlanEntity planEntity = plans.load(subscription.getPlan());
+                if (planEntity == null) {
+                    throw new PlanNotFoundException(subscription.getPlan());
+                }
                 metadata.put(subscription.getPlan(), "name", planEntity.getName());
             }
 
             if (!metadata.containsKey(subscription.getApi())) {
-                ApiEntity api = apiService.findById(subscription.getApi());
+                ApiEntity api = apis.load(subscription.getApi());
+                if (api == null) {
+                    throw new ApiNotFoundException(subscription.getApi());
+                }
                 metadata.put(subscription.getApi(), "name", api.getName());
             }
         });
@@ -17,6 +17,11 @@ package io.gravitee.management.service.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import io.gravitee.common.http.MediaType;
 import io.gravitee.management.model.ImportSwaggerDescriptorEntity;
 import io.gravitee.management.model.PageEntity;
@@ -51,6 +56,7 @@ import io.swagger.v3.parser.core.models.AuthorizationValue;
 import io.swagger.v3.parser.core.models.SwaggerParseResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
@@ -62,7 +68,11 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.Map.Entry;
 import java.util.regex.Matcher;
@@ -78,7 +88,7 @@ import static java.util.stream.Collectors.toMap;
  * @author GraviteeSource Team
  */
 @Component
-public class SwaggerServiceImpl implements SwaggerService {
+public class SwaggerServiceImpl implements SwaggerService, InitializingBean {
 
     private final Logger logger = LoggerFactory.getLogger(SwaggerServiceImpl.class);
 
@@ -87,11 +97,41 @@ public class SwaggerServiceImpl implements SwaggerService {
     @Inject
     private ObjectMapper mapper;
 
+    @Value("${management.cache.swagger.enabled:true}")
+    private boolean cacheEnabled;
+    @Value("${management.cache.swagger.maxEntries:20}")
+    private long cacheMaxEntries;
+    @Value("${management.cache.swagger.ttl:600}")
+    private long cacheTtl;
+
+    /*
+     * Parsed descriptors, keyed by the hash of their content. They are shared by the imports and the page
+     * transformations, so they must never be modified: a copy is done before changing their servers.
+     */
+    private Cache<String, Optional<Swagger>> swaggers;
+    private Cache<String, Optional<SwaggerParseResult>> openApis;
+
     static {
         System.setProperty(String.format("%s.trustAll", RemoteUrl.class.getName()), Boolean.TRUE.toString());
         System.setProperty(String.format("%s.trustAll", io.swagger.v3.parser.util.RemoteUrl.class.getName()), Boolean.TRUE.toString());
     }
 
+    @Override
+    public void afterPropertiesSet() {
+        if (cacheEnabled) {
+            swaggers = CacheBuilder.newBuilder()
+                    .expireAfterAccess(cacheTtl, TimeUnit.SECONDS)
+                    .maximumSize(cacheMaxEntries)
+                    .recordStats()
+                    .build();
+            openApis = CacheBuilder.newBuilder()
+                    .expireAfterAccess(cacheTtl, TimeUnit.SECONDS)
+                    .maximumSize(cacheMaxEntries)
+                    .recordStats()
+                    .build();
+        }
+    }
+
     @Override
     public NewSwaggerApiEntity prepare(ImportSwaggerDescriptorEntity swaggerDescriptor) {
         NewSwaggerApiEntity apiEntity;
@@ -144,7 +184,7 @@ public class SwaggerServiceImpl implements SwaggerService {
         NewSwaggerApiEntity apiEntity;
         logger.info("Trying to loading a Swagger descriptor in v2");
         if (swaggerDescriptor.getType() == ImportSwaggerDescriptorEntity.Type.INLINE) {
-            apiEntity = mapSwagger12ToNewApi(new SwaggerParser().parse(swaggerDescriptor.getPayload()), swaggerDescriptor.isWithPolicyMocks());
+            apiEntity = mapSwagger12ToNewApi(parseSwagger(swaggerDescriptor.getPayload()), swaggerDescriptor.isWithPolicyMocks());
         } else {
             apiEntity = mapSwagger12ToNewApi(new SwaggerParser().read(swaggerDescriptor.getPayload()), swaggerDescriptor.isWithPolicyMocks());
         }
@@ -155,7 +195,7 @@ public class SwaggerServiceImpl implements SwaggerService {
         NewSwaggerApiEntity apiEntity;
         logger.info("Trying to loading an OpenAPI descriptor");
         if (swaggerDescriptor.getType() == ImportSwaggerDescriptorEntity.Type.INLINE) {
-            apiEntity = mapOpenApiToNewApi(new OpenAPIV3Parser().readContents(swaggerDescriptor.getPayload()), swaggerDescriptor.isWithPolicyMocks());
+            apiEntity = mapOpenApiToNewApi(parseOpenAPI(swaggerDescriptor.getPayload()), swaggerDescriptor.isWithPolicyMocks());
         } else {
             apiEntity = mapOpenApiToNewApi(new OpenAPIV3Parser().readWithInfo(swaggerDescriptor.getPayload(), (List<AuthorizationValue>) null), swaggerDescriptor.isWithPolicyMocks());
         }
@@ -255,8 +295,9 @@ public class SwaggerServiceImpl implements SwaggerService {
     }
 
     private Swagger transformV2(String content, Map<String, String> config) {
-        Swagger swagger = new SwaggerParser().parse(content);
+        Swagger swagger = parseSwagger(content);
         if (swagger != null && config != null && config.get("tryItURL") != null) {
+            swagger = copyOf(swagger);
             URI newURI = URI.create(config.get("tryItURL"));
             swagger.setSchemes(Collections.singletonList(Scheme.forValue(newURI.getScheme())));
             swagger.setHost((newURI.getPort() != -1) ? newURI.getHost() + ':' + newURI.getPort() : newURI.getHost());
@@ -266,12 +307,14 @@ public class SwaggerServiceImpl implements SwaggerService {
     }
 
     private OpenAPI transformV3(String content, Map<String, String> config) {
-        SwaggerParseResult result = new OpenAPIV3Parser().readContents(content, null, null);
+        SwaggerParseResult result = parseOpenAPI(content);
         if (result != null && config != null && config.get("tryItURL") != null) {
             URI newURI = URI.create(config.get("tryItURL"));
-            result.getOpenAPI().getServers().forEach(server -> {
+            final OpenAPI openAPI = copyOf(result.getOpenAPI());
+            openAPI.setServers(result.getOpenAPI().getServers().stream().map(server -> {
+                final Server copy = copyOf(server);
                 try {
-                    server.setUrl(new URI(newURI.getScheme(),
+                    copy.setUrl(new URI(newURI.getScheme(),
                             newURI.getUserInfo(),
                             newURI.getHost(),
                             newURI.getPort(),
@@ -281,7 +324,9 @@ public class SwaggerServiceImpl implements SwaggerService {
                 } catch (URISyntaxException e) {
                     logger.error(e.getMessage(), e);
                 }
-            });
+                return copy;
+            }).collect(Collectors.toList()));
+            return openAPI;
         }
         if (result != null) {
             return result.getOpenAPI();
@@ -618,14 +663,100 @@ public class SwaggerServiceImpl implements SwaggerService {
 
     @Override
     public String replaceServerList(String payload, List<String> graviteeUrls) {
-        OpenAPI openApi = new OpenAPIV3Parser().readContents(payload).getOpenAPI();
-        if (openApi != null) {
+        final SwaggerParseResult result = parseOpenAPI(payload);
+        if (result != null && result.getOpenAPI() != null) {
             List<Server> graviteeServers = graviteeUrls.stream()
                     .map(url -> new Server().url(url))
                     .collect(Collectors.toList());
+            final OpenAPI openApi = copyOf(result.getOpenAPI());
             openApi.setServers(graviteeServers);
             return Yaml.pretty(openApi);
         }
         return payload;
     }
+
+    @Override
+    public Map<String, Long> metrics() {
+        final Map<String, Long> metrics = new LinkedHashMap<>();
+        if (swaggers != null) {
+            final CacheStats stats = swaggers.stats().plus(openApis.stats());
+            metrics.put("hits", stats.hitCount());
+            metrics.put("misses", stats.missCount());
+            metrics.put("evictions", stats.evictionCount());
+            metrics.put("size", swaggers.size() + openApis.size());
+        }
+        return metrics;
+    }
+
+    private Swagger parseSwagger(String content) {
+        if (swaggers == null) {
+            return new SwaggerParser().parse(content);
+        }
+        return load(swaggers, content, () -> Optional.ofNullable(new SwaggerParser().parse(content))).orElse(null);
+    }
+
+    private SwaggerParseResult parseOpenAPI(String content) {
+        if (openApis == null) {
+            return new OpenAPIV3Parser().readContents(content, null, null);
+        }
+        return load(openApis, content, () -> Optional.ofNullable(new OpenAPIV3Parser().readContents(content, null, null))).orElse(null);
+    }
+
+    private static <T> T load(Cache<String, T> cache, String content, Callable<T> parser) {
+        try {
+            return cache.get(Hashing.sha256().hashString(content, StandardCharsets.UTF_8).toString(), parser);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // rethrow the exception of the parser, as when the cache is disabled
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Swagger copyOf(Swagger swagger) {
+        final Swagger copy = new Swagger();
+        copy.setSwagger(swagger.getSwagger());
+        copy.setInfo(swagger.getInfo());
+        copy.setHost(swagger.getHost());
+        copy.setBasePath(swagger.getBasePath());
+        copy.setTags(swagger.getTags());
+        copy.setSchemes(swagger.getSchemes());
+        copy.setConsumes(swagger.getConsumes());
+        copy.setProduces(swagger.getProduces());
+        copy.setSecurity(swagger.getSecurity());
+        copy.setPaths(swagger.getPaths());
+        copy.setSecurityDefinitions(swagger.getSecurityDefinitions());
+        copy.setDefinitions(swagger.getDefinitions());
+        copy.setParameters(swagger.getParameters());
+        copy.setResponses(swagger.getResponses());
+        copy.setExternalDocs(swagger.getExternalDocs());
+        if (swagger.getVendorExtensions() != null) {
+            swagger.getVendorExtensions().forEach(copy::setVendorExtension);
+        }
+        return copy;
+    }
+
+    private static OpenAPI copyOf(OpenAPI openAPI) {
+        final OpenAPI copy = new OpenAPI();
+        copy.setOpenapi(openAPI.getOpenapi());
+        copy.setInfo(openAPI.getInfo());
+        copy.setExternalDocs(openAPI.getExternalDocs());
+        copy.setServers(openAPI.getServers());
+        copy.setSecurity(openAPI.getSecurity());
+        copy.setTags(openAPI.getTags());
+        copy.setPaths(openAPI.getPaths());
+        copy.setComponents(openAPI.getComponents());
+        copy.setExtensions(openAPI.getExtensions());
+        return copy;
+    }
+
+    private static Server copyOf(Server server) {
+        final Server copy = new Server();
+        copy.setUrl(server.getUrl());
+        copy.setDescription(server.getDescription());
+        copy.setVariables(server.getVariables());
+        copy.setExtensions(server.getExtensions());
+        return copy;
+    }
 }
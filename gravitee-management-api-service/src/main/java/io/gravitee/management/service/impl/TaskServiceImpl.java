@@ -20,9 +20,14 @@ import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.pagedresult.Metadata;
 import io.gravitee.management.model.subscription.SubscriptionQuery;
 import io.gravitee.management.service.*;
+import io.gravitee.management.service.exceptions.ApiNotFoundException;
+import io.gravitee.management.service.exceptions.ApplicationNotFoundException;
+import io.gravitee.management.service.exceptions.PlanNotFoundException;
 import io.gravitee.management.service.exceptions.RoleNotFoundException;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.management.service.exceptions.UnauthorizedAccessException;
+import io.gravitee.management.service.loader.DataLoader;
+import io.gravitee.management.service.loader.EntityLoaders;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.MembershipRepository;
@@ -186,20 +191,52 @@ public class TaskServiceImpl extends AbstractService implements TaskService {
 
     public Metadata getMetadata(List<TaskEntity> tasks) {
         final Metadata metadata = new Metadata();
+
+        // Resolve all the referenced entities in one batch per type
+        final DataLoader<String, ApplicationEntity> applications = EntityLoaders.applications(applicationService);
+        final DataLoader<String, PlanEntity> plans = EntityLoaders.plans(planService, tasks.stream()
+                .filter(task -> task.getData() instanceof SubscriptionEntity)
+                .map(task -> ((SubscriptionEntity) task.getData()).getApi())
+                .collect(Collectors.toSet()));
+        final DataLoader<String, ApiEntity> apis = EntityLoaders.apis(apiService);
+        tasks.forEach(task -> {
+            final Object data = task.getData();
+            if (data instanceof SubscriptionEntity) {
+                applications.prime(singleton(((SubscriptionEntity) data).getApplication()));
+                plans.prime(singleton(((SubscriptionEntity) data).getPlan()));
+            } else if (data instanceof Workflow && API.name().equals(((Workflow) data).getReferenceType())) {
+                apis.prime(singleton(((Workflow) data).getReferenceId()));
+            }
+        });
+        tasks.stream()
+                .filter(task -> task.getData() instanceof SubscriptionEntity)
+                .map(task -> plans.load(((SubscriptionEntity) task.getData()).getPlan()))
+                .filter(Objects::nonNull)
+                .forEach(plan -> apis.prime(singleton(plan.getApis().iterator().next())));
+
         tasks.forEach( task -> {
             final Object data = task.getData();
             if (data instanceof SubscriptionEntity) {
                 final SubscriptionEntity subscription = (SubscriptionEntity) data;
 
                 if (!metadata.containsKey(subscription.getApplication())) {
-                    ApplicationEntity applicationEntity = applicationService.findById(subscription.getApplication());
+                    ApplicationEntity applicationEntity = applications.load(subscription.getApplication());
+                    if (applicationEntity == null) {
+                        throw new ApplicationNotFoundException(subscription.getApplication());
+                    }
                     metadata.put(subscription.getApplication(), "name", applicationEntity.getName());
                 }
 
                 if (!metadata.containsKey(subscription.getPlan())) {
-                    PlanEntity planEntity = planService.findById(subscription.getPlan());
+                    PlanEntity planEntity = plans.load(subscription.getPlan());
+                    if (planEntity == null) {
+                        throw new PlanNotFoundException(subscription.getPlan());
+                    }
                     String apiId = planEntity.getApis().iterator().next();
-                    ApiEntity api = apiService.findById(apiId);
+                    ApiEntity api = apis.load(apiId);
+                    if (api == null) {
+                        throw new ApiNotFoundException(apiId);
+                    }
                     metadata.put(subscription.getPlan(), "name", planEntity.getName());
                     metadata.put(subscription.getPlan(), "api", apiId);
                     metadata.put(apiId, "name", api.getName());
@@ -207,7 +244,10 @@ public class TaskServiceImpl extends AbstractService implements TaskService {
             } else if (data instanceof Workflow) {
                 final Workflow workflow = (Workflow) data;
                 if (API.name().equals(workflow.getReferenceType()) && !metadata.containsKey(workflow.getReferenceId())) {
-                    ApiEntity api = apiService.findById(workflow.getReferenceId());
+                    ApiEntity api = apis.load(workflow.getReferenceId());
+                    if (api == null) {
+                        throw new ApiNotFoundException(workflow.getReferenceId());
+                    }
                     metadata.put(api.getId(), "name", api.getName());
                 }
             }
@@ -29,6 +29,7 @@ import io.gravitee.management.service.ApiService;
 import io.gravitee.management.service.CommandService;
 import io.gravitee.management.service.PageService;
 import io.gravitee.management.service.UserService;
+import io.gravitee.management.service.executor.AsyncExecutors;
 import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.management.service.impl.search.lucene.DocumentSearcher;
 import io.gravitee.management.service.impl.search.lucene.DocumentTransformer;
@@ -88,7 +89,7 @@ public class SearchEngineServiceImpl implements SearchEngineService {
     private static final String ACTION_INDEX = "I";
     private static final String ACTION_DELETE = "D";
 
-    @Async
+    @Async(AsyncExecutors.INDEXING)
     @Override
     public void index(Indexable source, boolean locally) {
         if (locally) {
@@ -103,7 +104,7 @@ public class SearchEngineServiceImpl implements SearchEngineService {
         }
     }
 
-    @Async
+    @Async(AsyncExecutors.INDEXING)
     @Override
     public void delete(Indexable source, boolean locally) {
         if (locally) {
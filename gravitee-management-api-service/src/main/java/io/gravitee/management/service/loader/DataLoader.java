@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.loader;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Coalesces the lookups of a given type into batches and memoizes their results.
+ *
+ * Keys are first registered with {@link #prime(Collection)}, then resolved all together by a single call of the
+ * batch function the first time one of them is loaded. Keys the batch function does not return are remembered as
+ * missing and are not looked up again.
+ *
+ * A loader is not thread-safe: it is meant to be used within a single request (see {@link DataLoaderRegistry}).
+ *
+ * @author GraviteeSource Team
+ */
+public class DataLoader<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+
+    private final Map<K, V> values = new HashMap<>();
+    private final Set<K> missing = new HashSet<>();
+    private final Set<K> queue = new LinkedHashSet<>();
+
+    private int batches;
+
+    public DataLoader(Function<Set<K>, Map<K, V>> batchFunction) {
+        this.batchFunction = batchFunction;
+    }
+
+    /**
+     * Registers keys to be resolved with the next batch.
+     */
+    public DataLoader<K, V> prime(Collection<K> keys) {
+        if (keys != null) {
+            keys.forEach(this::enqueue);
+        }
+        return this;
+    }
+
+    /**
+     * Registers values already resolved by another lookup, so that their keys are not part of the next batch.
+     */
+    public DataLoader<K, V> prime(Map<K, V> resolved) {
+        if (resolved != null) {
+            resolved.forEach((key, value) -> {
+                if (key != null && value != null) {
+                    values.put(key, value);
+                    missing.remove(key);
+                    queue.remove(key);
+                }
+            });
+        }
+        return this;
+    }
+
+    /**
+     * Returns the value of the given key, or <code>null</code> if it does not exist.
+     */
+    public V load(K key) {
+        if (key == null) {
+            return null;
+        }
+        enqueue(key);
+        dispatch();
+        return values.get(key);
+    }
+
+    /**
+     * Returns the values of the given keys, the missing ones being absent from the resulting map.
+     */
+    public Map<K, V> loadMany(Collection<K> keys) {
+        prime(keys);
+        dispatch();
+
+        final Map<K, V> result = new HashMap<>();
+        keys.forEach(key -> {
+            final V value = values.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Resolves all the pending keys in a single batch.
+     */
+    public void dispatch() {
+        if (queue.isEmpty()) {
+            return;
+        }
+
+        final Set<K> batch = new LinkedHashSet<>(queue);
+        queue.clear();
+        batches++;
+
+        final Map<K, V> loaded = batchFunction.apply(batch);
+        batch.forEach(key -> {
+            final V value = loaded == null ? null : loaded.get(key);
+            if (value == null) {
+                missing.add(key);
+            } else {
+                values.put(key, value);
+            }
+        });
+    }
+
+    /**
+     * Number of batches dispatched by this loader.
+     */
+    public int getBatches() {
+        return batches;
+    }
+
+    private void enqueue(K key) {
+        if (key != null && !values.containsKey(key) && !missing.contains(key)) {
+            queue.add(key);
+        }
+    }
+}
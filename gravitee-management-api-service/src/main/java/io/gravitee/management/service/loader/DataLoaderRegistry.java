@@ -0,0 +1,53 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.loader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Holds the {@link DataLoader}s of the request processed by the current thread.
+ *
+ * Out of a request scope (ie. scheduled or asynchronous tasks), a new loader is returned for each call.
+ *
+ * @author GraviteeSource Team
+ */
+public final class DataLoaderRegistry {
+
+    private static final ThreadLocal<Map<Object, DataLoader<?, ?>>> SCOPE = new ThreadLocal<>();
+
+    private DataLoaderRegistry() {
+    }
+
+    public static void open() {
+        SCOPE.set(new HashMap<>());
+    }
+
+    public static void close() {
+        SCOPE.remove();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> DataLoader<K, V> get(Object name, Function<Set<K>, Map<K, V>> batchFunction) {
+        final Map<Object, DataLoader<?, ?>> loaders = SCOPE.get();
+        if (loaders == null) {
+            return new DataLoader<>(batchFunction);
+        }
+        return (DataLoader<K, V>) loaders.computeIfAbsent(name, key -> new DataLoader<>(batchFunction));
+    }
+}
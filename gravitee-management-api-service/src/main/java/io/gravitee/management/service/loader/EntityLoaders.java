@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.loader;
+
+import io.gravitee.management.model.ApplicationEntity;
+import io.gravitee.management.model.PlanEntity;
+import io.gravitee.management.model.UserEntity;
+import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.service.ApiService;
+import io.gravitee.management.service.ApplicationService;
+import io.gravitee.management.service.PlanService;
+import io.gravitee.management.service.UserService;
+import io.gravitee.management.service.exceptions.UserNotFoundException;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Request scoped loaders of the management entities, backed by the <code>findByIds</code> methods of the services.
+ *
+ * @author GraviteeSource Team
+ */
+public final class EntityLoaders {
+
+    private EntityLoaders() {
+    }
+
+    public static DataLoader<String, ApiEntity> apis(ApiService apiService) {
+        return DataLoaderRegistry.get(ApiEntity.class, ids -> index(apiService.findByIds(ids), ApiEntity::getId));
+    }
+
+    public static DataLoader<String, ApplicationEntity> applications(ApplicationService applicationService) {
+        return DataLoaderRegistry.get(ApplicationEntity.class,
+                ids -> index(applicationService.findByIds(ids), ApplicationEntity::getId));
+    }
+
+    public static DataLoader<String, PlanEntity> plans(PlanService planService) {
+        return DataLoaderRegistry.get(PlanEntity.class, ids -> index(planService.findByIds(ids), PlanEntity::getId));
+    }
+
+    /**
+     * Returns the plans loader, primed with all the plans of the given APIs as plans can only be looked up in bulk
+     * by API.
+     */
+    public static DataLoader<String, PlanEntity> plans(PlanService planService, Collection<String> apis) {
+        final Set<String> apiIds = new HashSet<>(apis);
+        apiIds.remove(null);
+        final DataLoader<String, PlanEntity> plans = plans(planService);
+        if (!apiIds.isEmpty()) {
+            plans.prime(index(planService.findByApis(apiIds), PlanEntity::getId));
+        }
+        return plans;
+    }
+
+    public static DataLoader<String, UserEntity> users(UserService userService) {
+        return DataLoaderRegistry.get(UserEntity.class, ids -> {
+            try {
+                return index(userService.findByIds(new ArrayList<>(ids)), UserEntity::getId);
+            } catch (UserNotFoundException unfe) {
+                // None of the users exists anymore
+                return null;
+            }
+        });
+    }
+
+    private static <V> Map<String, V> index(Collection<V> entities, Function<V, String> id) {
+        return entities.stream().collect(toMap(id, Function.identity(), (v1, v2) -> v1));
+    }
+}
@@ -20,6 +20,7 @@ import io.gravitee.management.service.notification.Hook;
 import io.gravitee.repository.management.model.GenericNotificationConfig;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Nicolas GERAUD (nicolas.geraud at graviteesource.com) 
@@ -27,4 +28,20 @@ import java.util.Map;
  */
 public interface WebNotifierService {
     void request(HttpMethod method, final String uri, final Map<String, String> headers, String body, boolean useSystemProxy);
+
+    /**
+     * Same as {@link #request(HttpMethod, String, Map, String, boolean)} within <code>maxAttempts</code> attempts, 1
+     * for a caller retrying the call on its own, without waiting for the response.
+     *
+     * @return completed once the call is delivered, or completed exceptionally with a
+     * {@link io.gravitee.management.service.exceptions.TechnicalManagementException} once it is given up
+     */
+    CompletableFuture<Void> requestAsync(HttpMethod method, final String uri, final Map<String, String> headers, String body,
+                                         boolean useSystemProxy, int maxAttempts);
+
+    /**
+     * @return the requested, delivered, failed and retried webhook calls, and their average and maximum latencies in
+     * milliseconds
+     */
+    Map<String, Long> metrics();
 }
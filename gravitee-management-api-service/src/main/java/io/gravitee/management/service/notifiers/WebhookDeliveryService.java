@@ -0,0 +1,47 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.notifiers;
+
+import io.gravitee.management.model.notification.WebhookDeliveryEntity;
+import io.gravitee.management.service.notification.Hook;
+import io.gravitee.repository.management.model.GenericNotificationConfig;
+import io.gravitee.repository.management.model.NotificationReferenceType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers webhook calls from a queue persisted on the local node, at least once and in order for each endpoint.
+ * Calls still failing after their last attempt are kept as dead letters, by the node which gave them up: the dead
+ * letters are listed, retried and deleted on that node only.
+ *
+ * @author GraviteeSource Team
+ */
+public interface WebhookDeliveryService {
+
+    void enqueue(GenericNotificationConfig genericNotificationConfig, Hook hook, Map<String, String> headers, String body);
+
+    List<WebhookDeliveryEntity> findDeadLetters(NotificationReferenceType referenceType, String referenceId);
+
+    WebhookDeliveryEntity retry(NotificationReferenceType referenceType, String referenceId, String deliveryId);
+
+    void delete(NotificationReferenceType referenceType, String referenceId, String deliveryId);
+
+    /**
+     * @return the pending, in flight, delivered, retried and dead webhook calls
+     */
+    Map<String, Long> metrics();
+}
@@ -18,6 +18,7 @@ package io.gravitee.management.service.notifiers.impl;
 import io.gravitee.management.model.ApiModelEntity;
 import io.gravitee.management.model.PlanEntity;
 import io.gravitee.management.model.api.ApiEntity;
+import io.gravitee.management.service.EmailNotification;
 import io.gravitee.management.service.EmailService;
 import io.gravitee.management.service.builder.EmailNotificationBuilder;
 import io.gravitee.management.service.notification.*;
@@ -28,6 +29,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static io.gravitee.management.service.notification.ApiHook.*;
@@ -57,9 +60,10 @@ public class EmailNotifierServiceImpl implements EmailNotifierService {
         }
 
         String[] mails = genericNotificationConfig.getConfig().split(",|;|\\s");
+        List<EmailNotification> notifications = new ArrayList<>();
         for (String mail : mails) {
             if (!mail.isEmpty()) {
-                emailService.sendAsyncEmailNotification(new EmailNotificationBuilder()
+                notifications.add(new EmailNotificationBuilder()
                         .to(mail)
                         .subject(getEmailSubject(hook, params))
                         .template(emailTemplate)
@@ -67,6 +71,12 @@ public class EmailNotifierServiceImpl implements EmailNotifierService {
                         .build());
             }
         }
+        // the notifications of several recipients share their rendering and their SMTP connection
+        if (notifications.size() == 1) {
+            emailService.sendAsyncEmailNotification(notifications.get(0));
+        } else if (!notifications.isEmpty()) {
+            emailService.sendAsyncEmailNotifications(notifications);
+        }
     }
 
     private EmailNotificationBuilder.EmailTemplate getEmailTemplate(final Hook hook) {
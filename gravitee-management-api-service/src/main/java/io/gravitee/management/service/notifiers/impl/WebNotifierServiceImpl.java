@@ -39,14 +39,25 @@ import io.vertx.core.net.ProxyOptions;
 import io.vertx.core.net.ProxyType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 import static io.gravitee.management.service.notification.NotificationParamsBuilder.*;
 
@@ -55,11 +66,13 @@ import static io.gravitee.management.service.notification.NotificationParamsBuil
  * @author GraviteeSource Team
  */
 @Component
-public class WebNotifierServiceImpl implements WebNotifierService {
+public class WebNotifierServiceImpl implements WebNotifierService, InitializingBean, DisposableBean {
 
     private final Logger LOGGER = LoggerFactory.getLogger(WebNotifierServiceImpl.class);
 
     private static final String HTTPS_SCHEME = "https";
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final String REQUEST_ID = "X-Gravitee-Request-Id";
 
     @Value("${httpClient.timeout:10000}")
     private int httpClientTimeout;
@@ -84,31 +97,254 @@ public class WebNotifierServiceImpl implements WebNotifierService {
     @Value("${httpClient.proxy.https.password:#{null}}")
     private String httpClientProxyHttpsPassword;
 
+    @Value("${httpClient.pool.maxSize:10}")
+    private int maxPoolSize;
+    @Value("${httpClient.pool.maxWaitQueueSize:100}")
+    private int maxWaitQueueSize;
+    @Value("${httpClient.pool.idleTimeout:60000}")
+    private long idleTimeout;
+
+    @Value("${httpClient.retry.maxAttempts:3}")
+    private int retryMaxAttempts;
+    @Value("${httpClient.retry.backoff:500}")
+    private long retryBackoff;
+    @Value("${httpClient.retry.maxBackoff:10000}")
+    private long retryMaxBackoff;
+
     @Autowired
     private Vertx vertx;
 
+    /**
+     * Clients by scheme, host, port and proxy, keeping their connections alive between webhook calls.
+     */
+    private final Map<String, PooledClient> clients = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder latency = new LongAdder();
+    private final LongAccumulator maxLatency = new LongAccumulator(Long::max, 0);
+
+    private long evictionTimerId = -1;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (idleTimeout > 0) {
+            evictionTimerId = vertx.setPeriodic(Math.max(1000, idleTimeout / 2), timerId -> evictIdleClients());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (evictionTimerId != -1) {
+            vertx.cancelTimer(evictionTimerId);
+        }
+        clients.values().forEach(PooledClient::close);
+        clients.clear();
+    }
+
     public void request(HttpMethod method, final String uri, final Map<String, String> headers, String body, boolean useSystemProxy) {
+        try {
+            requestAsync(method, uri, headers, body, useSystemProxy, retryMaxAttempts).get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new TechnicalManagementException(ie.getMessage(), ie);
+        } catch (ExecutionException ee) {
+            throw (TechnicalManagementException) ee.getCause();
+        }
+    }
+
+    /**
+     * The attempts and their backoff are given up after a bounded time. All the attempts of a call share the same
+     * <code>X-Gravitee-Request-Id</code>, either given in the headers or generated, so that an endpoint can ignore the
+     * retries of a call already processed.
+     */
+    @Override
+    public CompletableFuture<Void> requestAsync(HttpMethod method, final String uri, final Map<String, String> headers,
+                                                String body, boolean useSystemProxy, int maxAttempts) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
         if (uri == null || uri.isEmpty()) {
             LOGGER.error("Webhook Notifier configuration is empty");
+            result.complete(null);
+            return result;
+        }
+
+        final String requestId = headers.containsKey(REQUEST_ID) ? headers.get(REQUEST_ID) : UUID.toString(UUID.random());
+        final Delivery delivery = new Delivery(method, URI.create(uri), headers, requestId, Buffer.buffer(body),
+                useSystemProxy, Math.max(1, maxAttempts), new VertxCompletableFuture<>(vertx));
+        final long start = System.nanoTime();
+        requests.increment();
+
+        // no more attempt once given up
+        final long timerId = vertx.setTimer(maxWait(delivery.maxAttempts), id -> delivery.future.completeExceptionally(
+                new TimeoutException("Webhook call to " + uri + " not completed in time")));
+        delivery.future.whenComplete((buffer, throwable) -> {
+            vertx.cancelTimer(timerId);
+            final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            latency.add(elapsed);
+            maxLatency.accumulate(elapsed);
+            if (throwable == null) {
+                delivered.increment();
+                result.complete(null);
+            } else {
+                failed.increment();
+                LOGGER.error(throwable.getMessage(), throwable);
+                result.completeExceptionally(throwable instanceof TechnicalManagementException ?
+                        throwable : new TechnicalManagementException(throwable.getMessage(), throwable));
+            }
+        });
+
+        send(delivery, 1);
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> metrics() {
+        final Map<String, Long> metrics = new LinkedHashMap<>();
+        final long count = delivered.sum() + failed.sum();
+        metrics.put("clients", (long) clients.size());
+        metrics.put("requests", requests.sum());
+        metrics.put("delivered", delivered.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("retried", retried.sum());
+        metrics.put("latencyAvg", count == 0 ? 0 : latency.sum() / count);
+        metrics.put("latencyMax", maxLatency.get());
+        return metrics;
+    }
+
+    /**
+     * @return the longest time the attempts of a call may take: the connection and the response timeouts of each
+     * attempt, and the longest backoff between them
+     */
+    private long maxWait(final int maxAttempts) {
+        return maxAttempts * 2L * httpClientTimeout + (maxAttempts - 1) * retryMaxBackoff;
+    }
+
+    private void send(final Delivery delivery, final int attempt) {
+        if (delivery.future.isDone()) {
             return;
         }
+        final URI requestUri = delivery.uri;
+        final boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(requestUri.getScheme());
+        final int port = requestUri.getPort() != -1 ? requestUri.getPort() : (ssl ? 443 : 80);
+
+        final PooledClient client = acquire(ssl, requestUri.getHost(), port, delivery.useSystemProxy);
+        // an attempt ends once, whether by its response or by an error
+        final AtomicBoolean ended = new AtomicBoolean();
+
+        final HttpClientRequest request;
+        try {
+            request = client.httpClient.request(
+                    io.vertx.core.http.HttpMethod.valueOf(delivery.method.name()),
+                    port,
+                    requestUri.getHost(),
+                    requestUri.toString(),
+                    response -> {
+                        LOGGER.debug("Web response status code : {}", response.statusCode());
+                        response.exceptionHandler(throwable -> {
+                            if (ended.compareAndSet(false, true)) {
+                                client.release();
+                                retryOrFail(delivery, attempt, true, throwable);
+                            }
+                        });
+                        // the body is always read so that the connection goes back to the pool
+                        response.bodyHandler(buffer -> {
+                            if (ended.compareAndSet(false, true)) {
+                                client.release();
+                                if (response.statusCode() == HttpStatusCode.OK_200) {
+                                    delivery.future.complete(buffer);
+                                } else {
+                                    retryOrFail(delivery, attempt, isRetryable(response.statusCode()),
+                                            new TechnicalManagementException(" Error on url '" + requestUri + "'. Status code: " + response.statusCode() + ". Message: " + response.statusMessage(), null));
+                                }
+                            }
+                        });
+                    });
+        } catch (RuntimeException re) {
+            client.release();
+            delivery.future.completeExceptionally(re);
+            return;
+        }
+        request.setTimeout(httpClientTimeout);
+        request.exceptionHandler(throwable -> {
+            if (ended.compareAndSet(false, true)) {
+                client.release();
+                retryOrFail(delivery, attempt, true, throwable);
+            }
+        });
+
+        //headers
+        request.putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
+        request.putHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(delivery.body.length()));
+        delivery.headers.forEach(request::putHeader);
+        request.putHeader(REQUEST_ID, delivery.requestId);
+
+        request.end(delivery.body);
+    }
+
+    private void retryOrFail(final Delivery delivery, final int attempt, final boolean retryable, final Throwable throwable) {
+        if (retryable && attempt < delivery.maxAttempts && !delivery.future.isDone()) {
+            final long delay = backoff(attempt);
+            LOGGER.debug("Webhook call to {} failed ({}), retrying in {} ms", delivery.uri, throwable.getMessage(), delay);
+            retried.increment();
+            vertx.setTimer(delay, timerId -> send(delivery, attempt + 1));
+        } else {
+            delivery.future.completeExceptionally(throwable);
+        }
+    }
 
-        CompletableFuture<Buffer> future = new VertxCompletableFuture<>(vertx);
-        URI requestUri = URI.create(uri);
-        boolean ssl = HTTPS_SCHEME.equalsIgnoreCase(requestUri.getScheme());
+    /**
+     * Exponential backoff with jitter: half of the delay is fixed, the other half is random, so that the retries of
+     * webhooks failing together are spread over time.
+     */
+    private long backoff(final int attempt) {
+        final long delay = Math.min(retryMaxBackoff, retryBackoff << Math.min(attempt - 1, 20));
+        final long half = Math.max(1, delay / 2);
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private static boolean isRetryable(final int statusCode) {
+        return statusCode == TOO_MANY_REQUESTS || statusCode >= HttpStatusCode.INTERNAL_SERVER_ERROR_500;
+    }
 
+    private PooledClient acquire(final boolean ssl, final String host, final int port, final boolean useSystemProxy) {
+        final String key = (ssl ? HTTPS_SCHEME : "http") + "://" + host + ':' + port + (useSystemProxy ? "#proxy" : "");
+        // computed atomically with the eviction, so that a client in use is never closed
+        return clients.compute(key, (k, client) -> {
+            final PooledClient pooledClient = client != null ? client : new PooledClient(createHttpClient(ssl, useSystemProxy));
+            pooledClient.acquire();
+            return pooledClient;
+        });
+    }
+
+    private void evictIdleClients() {
+        final long now = System.currentTimeMillis();
+        clients.keySet().forEach(key -> clients.computeIfPresent(key, (k, client) -> {
+            if (client.isIdle(now, idleTimeout)) {
+                LOGGER.debug("Closing idle webhook client {}", k);
+                client.close();
+                return null;
+            }
+            return client;
+        }));
+    }
+
+    private HttpClient createHttpClient(final boolean ssl, final boolean useSystemProxy) {
         final HttpClientOptions options = new HttpClientOptions()
                 .setSsl(ssl)
                 .setTrustAll(true)
-                .setMaxPoolSize(1)
-                .setKeepAlive(false)
-                .setTcpKeepAlive(false)
+                .setMaxPoolSize(maxPoolSize)
+                .setMaxWaitQueueSize(maxWaitQueueSize)
+                .setKeepAlive(true)
+                .setTcpKeepAlive(true)
+                .setIdleTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(idleTimeout)))
                 .setConnectTimeout(httpClientTimeout);
 
         if (useSystemProxy) {
             ProxyOptions proxyOptions = new ProxyOptions();
             proxyOptions.setType(ProxyType.valueOf(httpClientProxyType));
-            if (HTTPS_SCHEME.equals(requestUri.getScheme())) {
+            if (ssl) {
                 proxyOptions.setHost(httpClientProxyHttpsHost);
                 proxyOptions.setPort(httpClientProxyHttpsPort);
                 proxyOptions.setUsername(httpClientProxyHttpsUsername);
@@ -122,57 +358,63 @@ public class WebNotifierServiceImpl implements WebNotifierService {
             options.setProxyOptions(proxyOptions);
         }
 
-        final HttpClient httpClient = vertx.createHttpClient(options);
+        return vertx.createHttpClient(options);
+    }
 
-        final int port = requestUri.getPort() != -1 ? requestUri.getPort() :
-                (HTTPS_SCHEME.equals(requestUri.getScheme()) ? 443 : 80);
+    private static final class PooledClient {
 
-        HttpClientRequest request = httpClient.request(
-                io.vertx.core.http.HttpMethod.valueOf(method.name()),
-                port,
-                requestUri.getHost(),
-                requestUri.toString(),
-                response -> LOGGER.debug("Web response status code : {}", response.statusCode())
-        );
-        request.setTimeout(httpClientTimeout);
+        private final HttpClient httpClient;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile long lastUsed = System.currentTimeMillis();
 
-        //headers
-        request.putHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
-        request.putHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(body.length()));
-        headers.forEach(request::putHeader);
-        request.putHeader("X-Gravitee-Request-Id", UUID.toString(UUID.random()));
-        request.write(body);
-
-        request.handler(response -> {
-            if (response.statusCode() == HttpStatusCode.OK_200) {
-                response.bodyHandler(buffer -> {
-                    future.complete(buffer);
-
-                    // Close client
-                    httpClient.close();
-                });
-            } else {
-                future.completeExceptionally(new TechnicalManagementException(" Error on url '" + uri + "'. Status code: " + response.statusCode() + ". Message: " + response.statusMessage(), null));
-            }
-        });
-        request.exceptionHandler(event -> {
-            try {
-                future.completeExceptionally(event);
+        private PooledClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+        }
+
+        private void acquire() {
+            inFlight.incrementAndGet();
+            lastUsed = System.currentTimeMillis();
+        }
+
+        private void release() {
+            lastUsed = System.currentTimeMillis();
+            inFlight.decrementAndGet();
+        }
+
+        private boolean isIdle(long now, long idleTimeout) {
+            return inFlight.get() == 0 && now - lastUsed > idleTimeout;
+        }
 
-                // Close client
+        private void close() {
+            try {
                 httpClient.close();
             } catch (IllegalStateException ise) {
                 // Do not take care about exception when closing client
             }
-        });
+        }
+    }
 
-        request.end();
+    private static final class Delivery {
 
-        try {
-            future.get();
-        } catch (InterruptedException | ExecutionException e) {
-            LOGGER.error(e.getMessage(), e);
-            throw new TechnicalManagementException(e.getMessage(), e);
+        private final HttpMethod method;
+        private final URI uri;
+        private final Map<String, String> headers;
+        private final String requestId;
+        private final Buffer body;
+        private final boolean useSystemProxy;
+        private final int maxAttempts;
+        private final CompletableFuture<Buffer> future;
+
+        private Delivery(HttpMethod method, URI uri, Map<String, String> headers, String requestId, Buffer body,
+                         boolean useSystemProxy, int maxAttempts, CompletableFuture<Buffer> future) {
+            this.method = method;
+            this.uri = uri;
+            this.headers = headers;
+            this.requestId = requestId;
+            this.body = body;
+            this.useSystemProxy = useSystemProxy;
+            this.maxAttempts = maxAttempts;
+            this.future = future;
         }
     }
 }
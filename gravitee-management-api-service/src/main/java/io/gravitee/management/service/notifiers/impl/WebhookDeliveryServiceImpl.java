@@ -0,0 +1,447 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.notifiers.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.common.utils.UUID;
+import io.gravitee.management.model.notification.WebhookDeliveryEntity;
+import io.gravitee.management.service.exceptions.WebhookDeliveryNotFoundException;
+import io.gravitee.management.service.notification.Hook;
+import io.gravitee.management.service.notifiers.WebNotifierService;
+import io.gravitee.management.service.notifiers.WebhookDeliveryService;
+import io.gravitee.repository.management.model.GenericNotificationConfig;
+import io.gravitee.repository.management.model.NotificationReferenceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Each webhook call is written in the <code>pending</code> directory before being queued, and removed once
+ * delivered, so that the calls not delivered yet are queued again when the node restarts. Calls are queued by
+ * endpoint: an endpoint receives at most <code>concurrency</code> calls at once, and the calls of an endpoint
+ * opting in batching are sent together as a JSON array. Each attempt is a single HTTP call, the queue retries it with
+ * its own delay and never blocks a delivery thread on a backoff. Attempts are sent asynchronously: delivery threads
+ * never wait for a response, so that slow endpoints do not hold back the other ones. Dead letters are kept by each
+ * node, in its <code>dead</code> directory.
+ *
+ * <p>Calls are persisted as they are sent, headers included: any secret given in the headers of a webhook, such as an
+ * <code>Authorization</code> header, is written in plain text in <code>management.webhooks.path</code>, which must
+ * then only be readable by the node.</p>
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class WebhookDeliveryServiceImpl implements WebhookDeliveryService, InitializingBean, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebhookDeliveryServiceImpl.class);
+
+    private static final String PENDING = "pending";
+    private static final String DEAD = "dead";
+    private static final String EXTENSION = ".json";
+    private static final String REQUEST_ID = "X-Gravitee-Request-Id";
+
+    @Value("${management.webhooks.path:${gravitee.home}/data/webhooks}")
+    private String path;
+
+    @Value("${management.webhooks.threads:4}")
+    private int threads;
+
+    @Value("${management.webhooks.concurrency:1}")
+    private int concurrency;
+
+    @Value("${management.webhooks.maxAttempts:5}")
+    private int maxAttempts;
+
+    @Value("${management.webhooks.retryDelay:30000}")
+    private long retryDelay;
+
+    @Value("${management.webhooks.maxRetryDelay:3600000}")
+    private long maxRetryDelay;
+
+    @Value("${management.webhooks.batch.endpoints:}")
+    private String batchEndpoints;
+
+    @Value("${management.webhooks.batch.maxSize:20}")
+    private int batchMaxSize;
+
+    @Autowired
+    private WebNotifierService webNotifierService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Queued calls by endpoint, guarded by this service.
+     */
+    private final Map<String, Endpoint> endpoints = new HashMap<>();
+    private final Map<String, WebhookDeliveryEntity> deadLetters = new ConcurrentHashMap<>();
+    private Set<String> batchedUrls;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+
+    private Path pendingDirectory;
+    private Path deadDirectory;
+    private ScheduledExecutorService executor;
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        batchedUrls = Arrays.stream(batchEndpoints.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .collect(Collectors.toSet());
+
+        pendingDirectory = Files.createDirectories(Paths.get(path, PENDING));
+        deadDirectory = Files.createDirectories(Paths.get(path, DEAD));
+
+        final AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "gio-webhook-delivery-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        load(deadDirectory).forEach(delivery -> deadLetters.put(delivery.getId(), delivery));
+        final List<WebhookDeliveryEntity> pending = load(pendingDirectory);
+        if (!pending.isEmpty()) {
+            LOGGER.info("Queuing {} webhook calls not delivered yet", pending.size());
+            pending.forEach(this::offer);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        // calls not delivered yet stay in the pending directory
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void enqueue(GenericNotificationConfig genericNotificationConfig, Hook hook, Map<String, String> headers, String body) {
+        final WebhookDeliveryEntity delivery = new WebhookDeliveryEntity();
+        delivery.setId(UUID.toString(UUID.random()));
+        delivery.setNotificationId(genericNotificationConfig.getId());
+        delivery.setReferenceType(genericNotificationConfig.getReferenceType().name());
+        delivery.setReferenceId(genericNotificationConfig.getReferenceId());
+        delivery.setHook(hook.name());
+        delivery.setUrl(genericNotificationConfig.getConfig());
+        delivery.setUseSystemProxy(genericNotificationConfig.isUseSystemProxy());
+        delivery.setHeaders(headers);
+        delivery.setBody(body);
+        delivery.setCreatedAt(new Date());
+
+        if (delivery.getUrl() == null || delivery.getUrl().isEmpty()) {
+            LOGGER.error("Webhook Notifier configuration is empty");
+            return;
+        }
+
+        store(pendingDirectory, delivery);
+        enqueued.increment();
+        offer(delivery);
+    }
+
+    @Override
+    public List<WebhookDeliveryEntity> findDeadLetters(NotificationReferenceType referenceType, String referenceId) {
+        return deadLetters.values().stream()
+                .filter(delivery -> isReferencedBy(delivery, referenceType, referenceId))
+                .sorted(Comparator.comparing(WebhookDeliveryEntity::getCreatedAt).reversed())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public WebhookDeliveryEntity retry(NotificationReferenceType referenceType, String referenceId, String deliveryId) {
+        final WebhookDeliveryEntity delivery = removeDeadLetter(referenceType, referenceId, deliveryId);
+        delivery.setAttempts(0);
+        delivery.setLastError(null);
+        delivery.setNextAttemptAt(null);
+        store(pendingDirectory, delivery);
+        remove(deadDirectory, delivery);
+        offer(delivery);
+        return delivery;
+    }
+
+    @Override
+    public void delete(NotificationReferenceType referenceType, String referenceId, String deliveryId) {
+        remove(deadDirectory, removeDeadLetter(referenceType, referenceId, deliveryId));
+    }
+
+    @Override
+    public Map<String, Long> metrics() {
+        long pending = 0, inFlight = 0;
+        synchronized (this) {
+            for (Endpoint endpoint : endpoints.values()) {
+                pending += endpoint.pending.size();
+                inFlight += endpoint.inFlight;
+            }
+        }
+        final Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("endpoints", (long) endpoints.size());
+        metrics.put("pending", pending);
+        metrics.put("inFlight", inFlight);
+        metrics.put("enqueued", enqueued.sum());
+        metrics.put("delivered", delivered.sum());
+        metrics.put("retried", retried.sum());
+        metrics.put("dead", (long) deadLetters.size());
+        return metrics;
+    }
+
+    private WebhookDeliveryEntity removeDeadLetter(NotificationReferenceType referenceType, String referenceId, String deliveryId) {
+        final WebhookDeliveryEntity delivery = deadLetters.get(deliveryId);
+        if (delivery == null || !isReferencedBy(delivery, referenceType, referenceId)
+                || !deadLetters.remove(deliveryId, delivery)) {
+            throw new WebhookDeliveryNotFoundException(deliveryId);
+        }
+        return delivery;
+    }
+
+    private static boolean isReferencedBy(WebhookDeliveryEntity delivery, NotificationReferenceType referenceType, String referenceId) {
+        return referenceType.name().equals(delivery.getReferenceType()) && referenceId.equals(delivery.getReferenceId());
+    }
+
+    private void offer(WebhookDeliveryEntity delivery) {
+        final String key = key(delivery);
+        synchronized (this) {
+            endpoint(key, delivery).pending.addLast(delivery);
+        }
+        executor.execute(() -> drain(key));
+    }
+
+    private Endpoint endpoint(String key, WebhookDeliveryEntity delivery) {
+        return endpoints.computeIfAbsent(key, k -> new Endpoint(batchedUrls.contains(delivery.getUrl())));
+    }
+
+    /**
+     * Sends the due calls of an endpoint, within its concurrency limit.
+     */
+    private void drain(String key) {
+        final List<List<WebhookDeliveryEntity>> batches = new ArrayList<>();
+        long delay = -1;
+        synchronized (this) {
+            final Endpoint endpoint = endpoints.get(key);
+            if (endpoint == null) {
+                return;
+            }
+            final long now = System.currentTimeMillis();
+            while (endpoint.inFlight < concurrency && !endpoint.pending.isEmpty()) {
+                final long due = dueTime(endpoint.pending.peekFirst());
+                if (due > now) {
+                    // the calls of an endpoint are sent in order, so the next ones wait for the retry of the first one
+                    if (!endpoint.scheduled) {
+                        endpoint.scheduled = true;
+                        delay = due - now;
+                    }
+                    break;
+                }
+                final List<WebhookDeliveryEntity> batch = new ArrayList<>();
+                do {
+                    batch.add(endpoint.pending.pollFirst());
+                } while (endpoint.batched && batch.size() < batchMaxSize
+                        && !endpoint.pending.isEmpty() && dueTime(endpoint.pending.peekFirst()) <= now);
+                endpoint.inFlight++;
+                batches.add(batch);
+            }
+            if (endpoint.pending.isEmpty() && endpoint.inFlight == 0) {
+                endpoints.remove(key);
+            }
+        }
+
+        batches.forEach(batch -> executor.execute(() -> deliver(key, batch)));
+        if (delay >= 0) {
+            executor.schedule(() -> {
+                synchronized (this) {
+                    final Endpoint endpoint = endpoints.get(key);
+                    if (endpoint != null) {
+                        endpoint.scheduled = false;
+                    }
+                }
+                drain(key);
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void deliver(String key, List<WebhookDeliveryEntity> batch) {
+        final WebhookDeliveryEntity first = batch.get(0);
+        CompletableFuture<Void> call;
+        try {
+            if (batch.size() == 1) {
+                // the retries of a call share its id
+                final Map<String, String> headers = new HashMap<>();
+                if (first.getHeaders() != null) {
+                    headers.putAll(first.getHeaders());
+                }
+                headers.put(REQUEST_ID, first.getId());
+                call = webNotifierService.requestAsync(HttpMethod.POST, first.getUrl(), headers, first.getBody(),
+                        first.isUseSystemProxy(), 1);
+            } else {
+                final Map<String, String> headers = new HashMap<>();
+                headers.put("X-Gravitee-Event", "BATCH");
+                headers.put("X-Gravitee-Event-Count", Integer.toString(batch.size()));
+                call = webNotifierService.requestAsync(HttpMethod.POST, first.getUrl(), headers,
+                        batch.stream().map(WebhookDeliveryEntity::getBody).collect(Collectors.joining(",", "[", "]")),
+                        first.isUseSystemProxy(), 1);
+            }
+        } catch (Exception ex) {
+            call = new CompletableFuture<>();
+            call.completeExceptionally(ex);
+        }
+
+        // the response is handled back on a delivery thread, which never waits for it
+        call.whenComplete((result, throwable) -> {
+            try {
+                executor.execute(() -> completed(key, batch, throwable));
+            } catch (RejectedExecutionException ree) {
+                // stopping: the calls not delivered yet stay in the pending directory
+                LOGGER.debug("Webhook delivery stopped before call {} completed", first.getId());
+            }
+        });
+    }
+
+    private void completed(String key, List<WebhookDeliveryEntity> batch, Throwable throwable) {
+        try {
+            if (throwable == null) {
+                batch.forEach(delivery -> remove(pendingDirectory, delivery));
+                delivered.add(batch.size());
+            } else {
+                failed(key, batch, throwable instanceof CompletionException && throwable.getCause() != null ?
+                        throwable.getCause() : throwable);
+            }
+        } finally {
+            synchronized (this) {
+                final Endpoint endpoint = endpoints.get(key);
+                if (endpoint != null) {
+                    endpoint.inFlight--;
+                }
+            }
+            drain(key);
+        }
+    }
+
+    private void failed(String key, List<WebhookDeliveryEntity> batch, Throwable ex) {
+        final long now = System.currentTimeMillis();
+        final List<WebhookDeliveryEntity> retries = new ArrayList<>();
+        for (WebhookDeliveryEntity delivery : batch) {
+            delivery.setAttempts(delivery.getAttempts() + 1);
+            delivery.setLastError(ex.getMessage());
+            if (delivery.getAttempts() >= maxAttempts) {
+                LOGGER.warn("Webhook call {} to {} failed {} times, giving up", delivery.getId(), delivery.getUrl(),
+                        delivery.getAttempts());
+                delivery.setNextAttemptAt(null);
+                store(deadDirectory, delivery);
+                remove(pendingDirectory, delivery);
+                deadLetters.put(delivery.getId(), delivery);
+            } else {
+                delivery.setNextAttemptAt(new Date(now + retryDelay(delivery.getAttempts())));
+                store(pendingDirectory, delivery);
+                retries.add(delivery);
+                retried.increment();
+            }
+        }
+
+        synchronized (this) {
+            // put back in front of the queue to keep the calls of the endpoint in order
+            final Endpoint endpoint = endpoint(key, batch.get(0));
+            for (int i = retries.size() - 1; i >= 0; i--) {
+                endpoint.pending.addFirst(retries.get(i));
+            }
+        }
+    }
+
+    private long retryDelay(int attempts) {
+        return Math.min(maxRetryDelay, retryDelay << Math.min(attempts - 1, 20));
+    }
+
+    private static long dueTime(WebhookDeliveryEntity delivery) {
+        return delivery.getNextAttemptAt() == null ? 0 : delivery.getNextAttemptAt().getTime();
+    }
+
+    private static String key(WebhookDeliveryEntity delivery) {
+        return delivery.getUrl() + (delivery.isUseSystemProxy() ? "#proxy" : "");
+    }
+
+    private List<WebhookDeliveryEntity> load(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().endsWith(EXTENSION))
+                    .map(file -> {
+                        try {
+                            return objectMapper.readValue(file.toFile(), WebhookDeliveryEntity.class);
+                        } catch (IOException ioe) {
+                            LOGGER.error("Unable to read the webhook call {}", file, ioe);
+                            return null;
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(WebhookDeliveryEntity::getCreatedAt))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void store(Path directory, WebhookDeliveryEntity delivery) {
+        final Path file = directory.resolve(delivery.getId() + EXTENSION);
+        final Path tmp = directory.resolve(delivery.getId() + ".tmp");
+        try {
+            Files.write(tmp, objectMapper.writeValueAsBytes(delivery));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ioe) {
+            // the call is still delivered, but would be lost if the node stops before
+            LOGGER.error("Unable to store the webhook call {}", delivery.getId(), ioe);
+        }
+    }
+
+    private void remove(Path directory, WebhookDeliveryEntity delivery) {
+        try {
+            Files.deleteIfExists(directory.resolve(delivery.getId() + EXTENSION));
+        } catch (IOException ioe) {
+            LOGGER.error("Unable to remove the webhook call {}", delivery.getId(), ioe);
+        }
+    }
+
+    private static final class Endpoint {
+
+        private final boolean batched;
+        private final Deque<WebhookDeliveryEntity> pending = new ArrayDeque<>();
+        private int inFlight;
+        private boolean scheduled;
+
+        private Endpoint(boolean batched) {
+            this.batched = batched;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.page;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import io.gravitee.management.model.PageEntity;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.springframework.ui.freemarker.FreeMarkerTemplateUtils.processTemplateIntoString;
+
+/**
+ * Compiled page templates, template models, rendered pages and transformed descriptors.
+ *
+ * A compiled template is keyed by its page and the SHA-256 of its content, a rendered page by its template and the
+ * version of its model, and a transformed descriptor by its page, last modification and the SHA-256 of its content and
+ * configuration, so none of them ever change. The model of an API (or of the portal) is kept for a short time
+ * (<code>management.cache.pages.ttl</code>, 60 seconds by default) or until the API, its primary owner or its metadata
+ * change on this node.
+ *
+ * @author GraviteeSource Team
+ */
+@Component
+public class PageTemplateCache implements InitializingBean {
+
+    private static final String PORTAL = "__portal__";
+
+    @Value("${management.cache.pages.enabled:true}")
+    private boolean enabled;
+    @Value("${management.cache.pages.ttl:60}")
+    private long ttl;
+    @Value("${management.cache.pages.maxEntries:1000}")
+    private long maxEntries;
+
+    private Cache<String, Template> templates;
+    private Cache<String, Model> models;
+    private Cache<String, String> contents;
+    private Cache<String, String> descriptors;
+
+    private final AtomicLong versions = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet() {
+        templates = CacheBuilder.newBuilder()
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .maximumSize(maxEntries)
+                .build();
+        models = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttl, TimeUnit.SECONDS)
+                .maximumSize(maxEntries)
+                .build();
+        contents = CacheBuilder.newBuilder()
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .maximumSize(maxEntries)
+                .build();
+        descriptors = CacheBuilder.newBuilder()
+                .expireAfterAccess(1, TimeUnit.HOURS)
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Applies the configuration of a page (e.g. the <code>tryItURL</code> of a swagger page) to its content, parsing and
+     * writing the descriptor again only when the page has changed.
+     */
+    public void transform(PageEntity page, Consumer<PageEntity> transformer) {
+        if (!enabled || page.getContent() == null) {
+            transformer.accept(page);
+            return;
+        }
+
+        final String key = page.getId() + ':'
+                + (page.getLastModificationDate() == null ? 0 : page.getLastModificationDate().getTime()) + ':'
+                + page.getContentType() + ':'
+                + sha256(page.getContent(), page.getConfiguration());
+        try {
+            page.setContent(descriptors.get(key, () -> {
+                transformer.accept(page);
+                return page.getContent();
+            }));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // rethrow the exception of the transformer, as when the cache is disabled
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Renders the content of a page with the model of an API, or of the portal when <code>api</code> is null.
+     */
+    public String render(PageEntity page, String api, TemplateCompiler compiler, Supplier<Map<String, Object>> modelLoader)
+            throws IOException, TemplateException {
+        if (!enabled) {
+            return processTemplateIntoString(compiler.compile(page), modelLoader.get());
+        }
+
+        final String templateKey = page.getId() + ':' + sha256(page.getContent(), null);
+        final Template template = get(templates, templateKey, () -> compiler.compile(page));
+        final Model model = get(models, api == null ? PORTAL : api,
+                () -> new Model(versions.incrementAndGet(), modelLoader.get()));
+
+        return get(contents, templateKey + '@' + model.version,
+                () -> processTemplateIntoString(template, model.model));
+    }
+
+    /**
+     * Forgets the model of an API, after a change of the API or of its metadata.
+     */
+    public void invalidate(String api) {
+        if (models != null) {
+            models.invalidate(api);
+        }
+    }
+
+    /**
+     * Forgets the models of the portal and of all the APIs, after a change of the default metadata.
+     */
+    public void invalidateAll() {
+        if (models != null) {
+            models.invalidateAll();
+        }
+    }
+
+    /**
+     * Each string is prefixed by its length, so that distinct contents and configurations never share their key.
+     */
+    private static String sha256(String content, Map<String, String> configuration) {
+        final Hasher hasher = Hashing.sha256().newHasher();
+        putString(hasher, content);
+        if (configuration != null) {
+            new TreeMap<>(configuration).forEach((name, value) -> {
+                putString(hasher, name);
+                putString(hasher, value);
+            });
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static <T> T get(Cache<String, T> cache, String key, Callable<T> loader) throws IOException, TemplateException {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            // rethrow the exception of the loader, as when the cache is disabled
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof TemplateException) {
+                throw (TemplateException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @FunctionalInterface
+    public interface TemplateCompiler {
+        Template compile(PageEntity page) throws IOException;
+    }
+
+    private static final class Model {
+
+        private final long version;
+        private final Map<String, Object> model;
+
+        private Model(long version, Map<String, Object> model) {
+            this.version = version;
+            this.model = model;
+        }
+    }
+}
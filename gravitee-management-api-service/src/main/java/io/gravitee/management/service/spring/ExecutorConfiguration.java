@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.spring;
+
+import io.gravitee.management.service.executor.AsyncExecutors;
+import io.gravitee.management.service.executor.MonitoredTaskExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author GraviteeSource Team
+ */
+@Configuration
+public class ExecutorConfiguration {
+
+	@Bean(AsyncExecutors.INDEXING)
+	public MonitoredTaskExecutor indexingExecutor(
+			@Value("${management.executors.indexing.coreSize:2}") int coreSize,
+			@Value("${management.executors.indexing.maxSize:2}") int maxSize,
+			@Value("${management.executors.indexing.queueSize:10000}") int queueSize,
+			@Value("${management.executors.indexing.rejection:callerRuns}") String rejection) {
+		return new MonitoredTaskExecutor("indexing", coreSize, maxSize, queueSize, rejection);
+	}
+
+	@Bean(AsyncExecutors.NOTIFICATION)
+	public MonitoredTaskExecutor notificationExecutor(
+			@Value("${management.executors.notification.coreSize:4}") int coreSize,
+			@Value("${management.executors.notification.maxSize:8}") int maxSize,
+			@Value("${management.executors.notification.queueSize:1000}") int queueSize,
+			@Value("${management.executors.notification.rejection:callerRuns}") String rejection) {
+		return new MonitoredTaskExecutor("notification", coreSize, maxSize, queueSize, rejection);
+	}
+
+	@Bean(AsyncExecutors.EMAIL)
+	public MonitoredTaskExecutor emailExecutor(
+			@Value("${management.executors.email.coreSize:2}") int coreSize,
+			@Value("${management.executors.email.maxSize:4}") int maxSize,
+			@Value("${management.executors.email.queueSize:1000}") int queueSize,
+			@Value("${management.executors.email.rejection:callerRuns}") String rejection) {
+		return new MonitoredTaskExecutor("email", coreSize, maxSize, queueSize, rejection);
+	}
+}
@@ -55,7 +55,8 @@ import java.util.Collections;
 		PolicyPluginConfiguration.class, ResourcePluginConfiguration.class,
 		FetcherPluginConfiguration.class, FetcherConfigurationConfiguration.class,
 		SearchEngineConfiguration.class, NotifierPluginConfiguration.class,
-		AlertPluginConfiguration.class, ServiceDiscoveryPluginConfiguration.class})
+		AlertPluginConfiguration.class, ServiceDiscoveryPluginConfiguration.class,
+		ExecutorConfiguration.class})
 public class ServiceConfiguration {
 
 	@Bean
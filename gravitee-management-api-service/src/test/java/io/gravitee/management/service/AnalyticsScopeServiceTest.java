@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.RoleEntity;
+import io.gravitee.management.model.permissions.RolePermission;
+import io.gravitee.management.service.impl.AnalyticsScopeServiceImpl;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.MembershipRepository;
+import io.gravitee.repository.management.model.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AnalyticsScopeServiceTest {
+
+    private static final String USER = "user";
+
+    @InjectMocks
+    private AnalyticsScopeServiceImpl analyticsScopeService = new AnalyticsScopeServiceImpl();
+
+    @Mock
+    private MembershipRepository membershipRepository;
+    @Mock
+    private ApiRepository apiRepository;
+    @Mock
+    private ApplicationRepository applicationRepository;
+    @Mock
+    private RoleService roleService;
+
+    private final Map<String, char[]> ownerPermissions = new HashMap<>();
+    private final Map<String, char[]> guestPermissions = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(analyticsScopeService, "ttl", 60L);
+        ReflectionTestUtils.setField(analyticsScopeService, "maxEntries", 100L);
+        analyticsScopeService.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldLetDirectRoleOverrideGroupRole() throws TechnicalException {
+        givenRoles("OWNER", "GUEST");
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.API)).thenReturn(
+                new HashSet<>(asList(membership("api-guest", RoleScope.API, "GUEST"),
+                        membership("api-owner", RoleScope.API, "OWNER"))));
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.GROUP)).thenReturn(
+                new HashSet<>(asList(membership("group-owner", RoleScope.API, "OWNER"),
+                        membership("group-guest", RoleScope.API, "GUEST"))));
+        when(apiRepository.search(any(), any())).thenReturn(asList(
+                api("api-guest", "group-owner"),
+                api("api-owner", "group-guest"),
+                api("api-group-owner", "group-owner"),
+                api("api-group-guest", "group-guest")));
+
+        final Set<String> apis = analyticsScopeService.findApis(USER);
+
+        // a guest of an API is not given the role of one of its groups
+        assertEquals(new HashSet<>(asList("api-owner", "api-group-owner")), apis);
+    }
+
+    @Test
+    public void shouldNotFindArchivedApplications() throws TechnicalException {
+        givenRoles("OWNER");
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.APPLICATION)).thenReturn(
+                new HashSet<>(asList(membership("app-active", RoleScope.APPLICATION, "OWNER"),
+                        membership("app-archived", RoleScope.APPLICATION, "OWNER"))));
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.GROUP))
+                .thenReturn(Collections.emptySet());
+        when(applicationRepository.findByIds(any())).thenReturn(new HashSet<>(asList(
+                application("app-active", ApplicationStatus.ACTIVE),
+                application("app-archived", ApplicationStatus.ARCHIVED))));
+
+        assertEquals(Collections.singleton("app-active"), analyticsScopeService.findApplications(USER));
+    }
+
+    @Test
+    public void shouldCacheScope() throws TechnicalException {
+        givenRoles("OWNER");
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.API)).thenReturn(
+                Collections.singleton(membership("api-owner", RoleScope.API, "OWNER")));
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.GROUP))
+                .thenReturn(Collections.emptySet());
+
+        analyticsScopeService.findApis(USER);
+        analyticsScopeService.findApis(USER);
+
+        verify(membershipRepository, times(1)).findByUserAndReferenceType(USER, MembershipReferenceType.API);
+        verify(apiRepository, never()).search(any(), any());
+    }
+
+    @Test
+    public void shouldCacheScopeByPermission() throws TechnicalException {
+        givenRoles("OWNER");
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.API)).thenReturn(
+                Collections.singleton(membership("api-owner", RoleScope.API, "OWNER")));
+        when(membershipRepository.findByUserAndReferenceType(USER, MembershipReferenceType.GROUP))
+                .thenReturn(Collections.emptySet());
+
+        assertEquals(Collections.singleton("api-owner"), analyticsScopeService.findApis(USER, RolePermission.API_HEALTH));
+        assertEquals(Collections.singleton("api-owner"), analyticsScopeService.findApis(USER));
+
+        verify(membershipRepository, times(2)).findByUserAndReferenceType(USER, MembershipReferenceType.API);
+        verify(roleService).hasPermission(any(), eq(RolePermission.API_HEALTH.getPermission()), any());
+    }
+
+    /**
+     * Only the OWNER role is given the analytics permission.
+     */
+    private void givenRoles(String... names) {
+        for (String name : names) {
+            when(roleService.findById(any(RoleScope.class), eq(name)))
+                    .thenReturn(role("OWNER".equals(name) ? ownerPermissions : guestPermissions));
+        }
+        when(roleService.hasPermission(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0) == ownerPermissions);
+    }
+
+    private static Membership membership(String reference, RoleScope roleScope, String role) {
+        final Membership membership = new Membership(USER, reference, MembershipReferenceType.API);
+        membership.setRoles(Collections.singletonMap(roleScope.getId(), role));
+        return membership;
+    }
+
+    private static Api api(String id, String group) {
+        final Api api = new Api();
+        api.setId(id);
+        api.setGroups(Collections.singleton(group));
+        return api;
+    }
+
+    private static Application application(String id, ApplicationStatus status) {
+        final Application application = new Application();
+        application.setId(id);
+        application.setStatus(status);
+        return application;
+    }
+
+    private static RoleEntity role(Map<String, char[]> permissions) {
+        final RoleEntity role = new RoleEntity();
+        role.setPermissions(permissions);
+        return role;
+    }
+}
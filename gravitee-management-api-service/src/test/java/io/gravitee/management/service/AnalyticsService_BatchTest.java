@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.analytics.BatchAnalytics;
+import io.gravitee.management.model.analytics.HitsAnalytics;
+import io.gravitee.management.model.analytics.query.AbstractQuery;
+import io.gravitee.management.model.analytics.query.CountQuery;
+import io.gravitee.management.model.analytics.query.GroupByQuery;
+import io.gravitee.management.service.analytics.AnalyticsQueryCache;
+import io.gravitee.management.service.impl.AnalyticsServiceImpl;
+import io.gravitee.repository.analytics.AnalyticsException;
+import io.gravitee.repository.analytics.api.AnalyticsRepository;
+import io.gravitee.repository.analytics.query.count.CountResponse;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AnalyticsService_BatchTest {
+
+    @InjectMocks
+    private AnalyticsServiceImpl analyticsService = new AnalyticsServiceImpl();
+
+    @Mock
+    private AnalyticsRepository analyticsRepository;
+    @Mock
+    private AnalyticsQueryCache analyticsQueryCache;
+
+    @After
+    public void tearDown() {
+        analyticsService.destroy();
+    }
+
+    @Test
+    public void shouldReportTimedOutQueries() throws AnalyticsException {
+        start(2, 10, 200);
+        when(analyticsRepository.query(any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof io.gravitee.repository.analytics.query.groupby.GroupByQuery) {
+                Thread.sleep(5000);
+                return null;
+            }
+            return hits(1);
+        });
+
+        final BatchAnalytics batch = analyticsService.execute(batch("fast", count(), "slow", groupBy()));
+
+        assertEquals(1, ((HitsAnalytics) batch.getResults().get("fast")).getHits());
+        assertEquals("Analytics calculation timed out", batch.getErrors().get("slow"));
+    }
+
+    @Test
+    public void shouldReportRejectedQueries() throws AnalyticsException {
+        // One running query and one queued query at most
+        start(1, 1, 10000);
+        when(analyticsRepository.query(any())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return hits(1);
+        });
+
+        final BatchAnalytics batch = analyticsService.execute(batch("first", count(), "second", count(), "third", count()));
+
+        assertEquals(2, batch.getResults().size());
+        assertTrue(batch.getResults().containsKey("first"));
+        assertTrue(batch.getResults().containsKey("second"));
+        assertEquals("Too many analytics queries, try again later", batch.getErrors().get("third"));
+    }
+
+    @Test
+    public void shouldReportFailedQueries() throws AnalyticsException {
+        start(2, 10, 10000);
+        when(analyticsRepository.query(any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) instanceof io.gravitee.repository.analytics.query.groupby.GroupByQuery) {
+                throw new AnalyticsException("unavailable");
+            }
+            return hits(1);
+        });
+
+        final BatchAnalytics batch = analyticsService.execute(batch("working", count(), "failing", groupBy()));
+
+        assertEquals(1, batch.getResults().size());
+        assertTrue(batch.getResults().containsKey("working"));
+        assertEquals("Unable to calculate analytics", batch.getErrors().get("failing"));
+    }
+
+    private void start(int threads, int queueSize, long timeout) {
+        ReflectionTestUtils.setField(analyticsService, "termsChunkSize", 500);
+        ReflectionTestUtils.setField(analyticsService, "termsParallelism", 1);
+        ReflectionTestUtils.setField(analyticsService, "batchThreads", threads);
+        ReflectionTestUtils.setField(analyticsService, "batchQueueSize", queueSize);
+        ReflectionTestUtils.setField(analyticsService, "batchTimeout", timeout);
+        analyticsService.afterPropertiesSet();
+    }
+
+    /**
+     * @param entries pairs of query id and query
+     */
+    private static Map<String, AbstractQuery> batch(Object... entries) {
+        final Map<String, AbstractQuery> queries = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            queries.put((String) entries[i], (AbstractQuery) entries[i + 1]);
+        }
+        return queries;
+    }
+
+    private static CountQuery count() {
+        return range(new CountQuery());
+    }
+
+    private static GroupByQuery groupBy() {
+        final GroupByQuery query = range(new GroupByQuery());
+        query.setField("status");
+        return query;
+    }
+
+    private static <T extends AbstractQuery> T range(T query) {
+        query.setFrom(1000);
+        query.setTo(2000);
+        query.setInterval(1000);
+        return query;
+    }
+
+    private static CountResponse hits(long hits) {
+        final CountResponse response = mock(CountResponse.class);
+        when(response.getCount()).thenReturn(hits);
+        return response;
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.analytics.ColumnarHistogramAnalytics;
+import io.gravitee.management.model.analytics.HistogramAnalytics;
+import io.gravitee.management.model.analytics.query.CountQuery;
+import io.gravitee.management.model.analytics.query.DateHistogramQuery;
+import io.gravitee.management.model.analytics.query.GroupByQuery;
+import io.gravitee.management.service.analytics.AnalyticsQueryCache;
+import io.gravitee.management.service.impl.AnalyticsServiceImpl;
+import io.gravitee.repository.analytics.AnalyticsException;
+import io.gravitee.repository.analytics.api.AnalyticsRepository;
+import io.gravitee.repository.analytics.query.AbstractQuery;
+import io.gravitee.repository.analytics.query.DateRange;
+import io.gravitee.repository.analytics.query.count.CountResponse;
+import io.gravitee.repository.analytics.query.groupby.GroupByResponse;
+import io.gravitee.repository.analytics.query.response.histogram.Bucket;
+import io.gravitee.repository.analytics.query.response.histogram.Data;
+import io.gravitee.repository.analytics.query.response.histogram.DateHistogramResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * The analytics repository is faked with one hit per millisecond, so that the results of a time range split on its
+ * cached closed buckets are the same as the ones of the whole time range.
+ *
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AnalyticsService_CachedQueriesTest {
+
+    private static final long INTERVAL = 10;
+
+    @InjectMocks
+    private AnalyticsServiceImpl analyticsService = new AnalyticsServiceImpl();
+
+    @Mock
+    private AnalyticsRepository analyticsRepository;
+
+    private final AnalyticsQueryCache analyticsQueryCache = new AnalyticsQueryCache();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(analyticsQueryCache, "enabled", true);
+        ReflectionTestUtils.setField(analyticsQueryCache, "ttl", 3600L);
+        ReflectionTestUtils.setField(analyticsQueryCache, "maxEntries", 100L);
+        ReflectionTestUtils.setField(analyticsQueryCache, "settleDelay", 60L);
+        analyticsQueryCache.afterPropertiesSet();
+
+        ReflectionTestUtils.setField(analyticsService, "analyticsQueryCache", analyticsQueryCache);
+        ReflectionTestUtils.setField(analyticsService, "termsChunkSize", 500);
+        ReflectionTestUtils.setField(analyticsService, "termsParallelism", 2);
+        ReflectionTestUtils.setField(analyticsService, "batchThreads", 2);
+        ReflectionTestUtils.setField(analyticsService, "batchQueueSize", 10);
+        ReflectionTestUtils.setField(analyticsService, "batchTimeout", 10000L);
+        analyticsService.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        analyticsService.destroy();
+    }
+
+    @Test
+    public void shouldCountHitsOfPartialLeadingAndTrailingBuckets() throws AnalyticsException {
+        when(analyticsRepository.query(any())).thenAnswer(invocation -> {
+            final DateRange range = range(invocation);
+            final CountResponse response = mock(CountResponse.class);
+            when(response.getCount()).thenReturn(range.to() - range.from() + 1);
+            return response;
+        });
+
+        assertEquals(91, analyticsService.execute(countQuery(1005, 1095)).getHits());
+        // the closed buckets are cached, only the partial leading and trailing ones are queried again
+        assertEquals(91, analyticsService.execute(countQuery(1005, 1095)).getHits());
+        verify(analyticsRepository, times(5)).query(any());
+
+        // the same closed buckets are used by an aligned time range
+        assertEquals(80, analyticsService.execute(countQuery(1010, 1089)).getHits());
+        verify(analyticsRepository, times(5)).query(any());
+    }
+
+    @Test
+    public void shouldMergeHistogramOfPartialLeadingAndTrailingBuckets() throws AnalyticsException {
+        when(analyticsRepository.query(any())).thenAnswer(this::histogram);
+
+        final long[] expected = {5, 10, 10, 10, 10, 10, 10, 10, 10, 6};
+        assertArrayEquals(expected, hits(analyticsService.execute(histogramQuery(1005, 1095))));
+        assertArrayEquals(expected, hits(analyticsService.execute(histogramQuery(1005, 1095))));
+        // closed buckets once, then the open and leading ones on each call
+        verify(analyticsRepository, times(5)).query(any());
+    }
+
+    @Test
+    public void shouldMergeColumnarHistogramOfPartialLeadingAndTrailingBuckets() throws AnalyticsException {
+        when(analyticsRepository.query(any())).thenAnswer(this::histogram);
+
+        final long[] expected = {5, 10, 10, 10, 10, 10, 10, 10, 10, 6};
+        assertArrayEquals(expected, analyticsService.executeColumnar(histogramQuery(1005, 1095)).getSeries().get(0).getValues());
+        final ColumnarHistogramAnalytics histogram = analyticsService.executeColumnar(histogramQuery(1005, 1095));
+        assertArrayEquals(expected, histogram.getSeries().get(0).getValues());
+        assertArrayEquals(new long[]{1000, 1010, 1020, 1030, 1040, 1050, 1060, 1070, 1080, 1090}, histogram.getTimestamps());
+        assertEquals("200", histogram.getSeries().get(0).getName());
+        verify(analyticsRepository, times(5)).query(any());
+    }
+
+    @Test
+    public void shouldOnlyCacheTopHitsOfClosedBuckets() throws AnalyticsException {
+        when(analyticsRepository.query(any())).thenAnswer(invocation -> {
+            final DateRange range = range(invocation);
+            final GroupByResponse.Bucket bucket = mock(GroupByResponse.Bucket.class);
+            when(bucket.name()).thenReturn("200");
+            when(bucket.value()).thenReturn(range.to() - range.from() + 1);
+            final GroupByResponse response = mock(GroupByResponse.class);
+            when(response.values()).thenReturn(Collections.singletonList(bucket));
+            return response;
+        });
+
+        assertEquals(Long.valueOf(91), analyticsService.execute(groupByQuery(1005, 1095)).getValues().get("200"));
+        assertEquals(Long.valueOf(91), analyticsService.execute(groupByQuery(1005, 1095)).getValues().get("200"));
+        verify(analyticsRepository, times(2)).query(any());
+
+        assertEquals(Long.valueOf(100), analyticsService.execute(groupByQuery(1000, 1099)).getValues().get("200"));
+        assertEquals(Long.valueOf(100), analyticsService.execute(groupByQuery(1000, 1099)).getValues().get("200"));
+        verify(analyticsRepository, times(3)).query(any());
+    }
+
+    private DateHistogramResponse histogram(InvocationOnMock invocation) {
+        final DateRange range = range(invocation);
+        final long from = range.from() - Math.floorMod(range.from(), INTERVAL);
+        final List<Long> timestamps = new ArrayList<>();
+        final List<Data> data = new ArrayList<>();
+        for (long timestamp = from; timestamp <= range.to(); timestamp += INTERVAL) {
+            final long hits = Math.min(range.to(), timestamp + INTERVAL - 1) - Math.max(range.from(), timestamp) + 1;
+            final Data value = mock(Data.class);
+            when(value.timestamp()).thenReturn(timestamp);
+            when(value.value()).thenReturn(hits);
+            timestamps.add(timestamp);
+            data.add(value);
+        }
+
+        final Bucket bucket = mock(Bucket.class);
+        when(bucket.name()).thenReturn("by_status");
+        when(bucket.field()).thenReturn("status");
+        when(bucket.buckets()).thenReturn(Collections.emptyList());
+        when(bucket.data()).thenReturn(Collections.singletonMap("200", data));
+        final DateHistogramResponse response = mock(DateHistogramResponse.class);
+        when(response.timestamps()).thenReturn(timestamps);
+        when(response.values()).thenReturn(Collections.singletonList(bucket));
+        return response;
+    }
+
+    private static long[] hits(HistogramAnalytics histogram) {
+        final Number[] data = histogram.getValues().get(0).getBuckets().get(0).getData();
+        final long[] hits = new long[data.length];
+        for (int i = 0; i < data.length; i++) {
+            hits[i] = data[i].longValue();
+        }
+        return hits;
+    }
+
+    private static DateRange range(InvocationOnMock invocation) {
+        return ((AbstractQuery<?>) invocation.getArgument(0)).timeRange().range();
+    }
+
+    private static CountQuery countQuery(long from, long to) {
+        final CountQuery query = new CountQuery();
+        query.setFrom(from);
+        query.setTo(to);
+        query.setInterval(INTERVAL);
+        return query;
+    }
+
+    private static DateHistogramQuery histogramQuery(long from, long to) {
+        final DateHistogramQuery query = new DateHistogramQuery();
+        query.setFrom(from);
+        query.setTo(to);
+        query.setInterval(INTERVAL);
+        return query;
+    }
+
+    private static GroupByQuery groupByQuery(long from, long to) {
+        final GroupByQuery query = new GroupByQuery();
+        query.setFrom(from);
+        query.setTo(to);
+        query.setInterval(INTERVAL);
+        query.setField("status");
+        return query;
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.analytics.HistogramAnalytics;
+import io.gravitee.management.model.analytics.query.AbstractQuery;
+import io.gravitee.management.model.analytics.query.CountQuery;
+import io.gravitee.management.model.analytics.query.DateHistogramQuery;
+import io.gravitee.management.model.analytics.query.GroupByQuery;
+import io.gravitee.management.service.analytics.AnalyticsQueryCache;
+import io.gravitee.management.service.impl.AnalyticsServiceImpl;
+import io.gravitee.repository.analytics.AnalyticsException;
+import io.gravitee.repository.analytics.api.AnalyticsRepository;
+import io.gravitee.repository.analytics.query.count.CountResponse;
+import io.gravitee.repository.analytics.query.groupby.GroupByResponse;
+import io.gravitee.repository.analytics.query.response.histogram.Bucket;
+import io.gravitee.repository.analytics.query.response.histogram.Data;
+import io.gravitee.repository.analytics.query.response.histogram.DateHistogramResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AnalyticsService_TermsTest {
+
+    @InjectMocks
+    private AnalyticsServiceImpl analyticsService = new AnalyticsServiceImpl();
+
+    @Mock
+    private AnalyticsRepository analyticsRepository;
+    @Mock
+    private AnalyticsQueryCache analyticsQueryCache;
+    @Mock
+    private ReferenceMetadataService referenceMetadataService;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(analyticsService, "termsChunkSize", 2);
+        ReflectionTestUtils.setField(analyticsService, "termsParallelism", 2);
+        ReflectionTestUtils.setField(analyticsService, "batchThreads", 2);
+        ReflectionTestUtils.setField(analyticsService, "batchQueueSize", 10);
+        ReflectionTestUtils.setField(analyticsService, "batchTimeout", 10000L);
+        analyticsService.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        analyticsService.destroy();
+    }
+
+    @Test
+    public void shouldSplitTermsAboveChunkSize() throws AnalyticsException {
+        final CountResponse response = mock(CountResponse.class);
+        when(response.getCount()).thenReturn(10L);
+        when(analyticsRepository.query(any())).thenReturn(response);
+
+        assertEquals(30, analyticsService.execute(terms(new CountQuery(), "a", "b", "c", "d", "e")).getHits());
+        verify(analyticsRepository, times(3)).query(any());
+    }
+
+    @Test
+    public void shouldNotSplitTermsUpToChunkSize() throws AnalyticsException {
+        final CountResponse response = mock(CountResponse.class);
+        when(response.getCount()).thenReturn(10L);
+        when(analyticsRepository.query(any())).thenReturn(response);
+
+        assertEquals(10, analyticsService.execute(terms(new CountQuery(), "a", "b")).getHits());
+        verify(analyticsRepository, times(1)).query(any());
+    }
+
+    @Test
+    public void shouldSumHistogramsOfSplitTerms() throws AnalyticsException {
+        when(analyticsRepository.query(any())).thenReturn(
+                histogram(1000, 1, 2), histogram(1010, 3, 4));
+
+        final HistogramAnalytics histogram = analyticsService.execute(terms(new DateHistogramQuery(), "a", "b", "c"));
+
+        assertEquals(Long.valueOf(1000), histogram.getTimestamp().getFrom());
+        assertEquals(Long.valueOf(1020), histogram.getTimestamp().getTo());
+        assertArrayEquals(new long[]{1, 5, 4}, hits(histogram));
+    }
+
+    @Test
+    public void shouldMergeTopHitsMostHitsFirst() throws AnalyticsException {
+        when(analyticsRepository.query(any())).thenReturn(
+                groupBy("a", 5L, "b", 3L), groupBy("c", 7L, "a", 1L), groupBy("d", 2L, "e", 1L));
+
+        final GroupByQuery query = terms(new GroupByQuery(), "a", "b", "c", "d", "e", "f");
+        query.setField("application");
+        final Map<String, Long> values = analyticsService.execute(query).getValues();
+
+        // as many values as the top of a part
+        assertEquals(asList("c", "a"), new ArrayList<>(values.keySet()));
+        assertEquals(Long.valueOf(7), values.get("c"));
+        assertEquals(Long.valueOf(6), values.get("a"));
+    }
+
+    @Test
+    public void shouldNotSplitOrderedTopHits() throws AnalyticsException {
+        when(analyticsRepository.query(any())).thenReturn(groupBy("a", 5L, "b", 3L));
+
+        final GroupByQuery query = terms(new GroupByQuery(), "a", "b", "c", "d", "e", "f");
+        query.setField("application");
+        final GroupByQuery.Order order = new GroupByQuery.Order();
+        order.setField("response-time");
+        order.setType("avg");
+        query.setOrder(order);
+
+        assertEquals(2, analyticsService.execute(query).getValues().size());
+        verify(analyticsRepository, times(1)).query(any());
+    }
+
+    @Test
+    public void shouldNotSplitTopHitsOfAnotherField() throws AnalyticsException {
+        when(analyticsRepository.query(any())).thenReturn(groupBy("api-1", 5L, "api-2", 3L));
+
+        // top APIs of many applications: an API out of the top of a part would miss hits in its total
+        final GroupByQuery query = terms(new GroupByQuery(), "a", "b", "c", "d", "e", "f");
+        query.setField("api");
+
+        assertEquals(Long.valueOf(5), analyticsService.execute(query).getValues().get("api-1"));
+        verify(analyticsRepository, times(1)).query(any());
+    }
+
+    private static <T extends AbstractQuery> T terms(T query, String... values) {
+        query.setFrom(1000);
+        query.setTo(1020);
+        query.setInterval(10);
+        query.setTerms(Collections.singletonMap("application", new HashSet<>(asList(values))));
+        return query;
+    }
+
+    private static DateHistogramResponse histogram(long from, long... values) {
+        final List<Long> timestamps = new ArrayList<>();
+        final List<Data> data = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            final Data value = mock(Data.class);
+            when(value.timestamp()).thenReturn(from + i * 10);
+            when(value.value()).thenReturn(values[i]);
+            timestamps.add(from + i * 10);
+            data.add(value);
+        }
+
+        final Bucket bucket = mock(Bucket.class);
+        when(bucket.name()).thenReturn("by_status");
+        when(bucket.field()).thenReturn("status");
+        when(bucket.buckets()).thenReturn(Collections.emptyList());
+        when(bucket.data()).thenReturn(Collections.singletonMap("200", data));
+        final DateHistogramResponse response = mock(DateHistogramResponse.class);
+        when(response.timestamps()).thenReturn(timestamps);
+        when(response.values()).thenReturn(Collections.singletonList(bucket));
+        return response;
+    }
+
+    private static GroupByResponse groupBy(String key1, long value1, String key2, long value2) {
+        final GroupByResponse.Bucket bucket1 = mock(GroupByResponse.Bucket.class);
+        when(bucket1.name()).thenReturn(key1);
+        when(bucket1.value()).thenReturn(value1);
+        final GroupByResponse.Bucket bucket2 = mock(GroupByResponse.Bucket.class);
+        when(bucket2.name()).thenReturn(key2);
+        when(bucket2.value()).thenReturn(value2);
+        final GroupByResponse response = mock(GroupByResponse.class);
+        when(response.values()).thenReturn(asList(bucket1, bucket2));
+        return response;
+    }
+
+    private static long[] hits(HistogramAnalytics histogram) {
+        final Number[] data = histogram.getValues().get(0).getBuckets().get(0).getData();
+        final long[] hits = new long[data.length];
+        for (int i = 0; i < data.length; i++) {
+            hits[i] = data[i].longValue();
+        }
+        return hits;
+    }
+}
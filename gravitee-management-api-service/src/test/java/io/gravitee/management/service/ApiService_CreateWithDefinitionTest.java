@@ -27,6 +27,7 @@ import io.gravitee.management.model.UserEntity;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.permissions.SystemRole;
 import io.gravitee.management.service.impl.ApiServiceImpl;
+import io.gravitee.management.service.page.PageTemplateCache;
 import io.gravitee.management.service.search.SearchEngineService;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
@@ -95,6 +96,8 @@ public class ApiService_CreateWithDefinitionTest {
     private SearchEngineService searchEngineService;
     @Mock
     private ParameterService parameterService;
+    @Mock
+    private PageTemplateCache pageTemplateCache;
 
     @Before
     public void init() {
@@ -25,6 +25,7 @@ import io.gravitee.management.service.exceptions.ApiNotDeletableException;
 import io.gravitee.management.service.exceptions.ApiRunningStateException;
 import io.gravitee.management.service.impl.ApiServiceImpl;
 import io.gravitee.management.service.jackson.filter.ApiPermissionFilter;
+import io.gravitee.management.service.page.PageTemplateCache;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.model.Api;
@@ -80,6 +81,8 @@ public class ApiService_DeleteTest {
 
     @Mock
     private TopApiService topApiService;
+    @Mock
+    private PageTemplateCache pageTemplateCache;
 
     @Before
     public void setUp() {
@@ -102,6 +105,8 @@ public class ApiService_DeleteTest {
         when(planService.findByApi(API_ID)).thenReturn(Collections.emptySet());
 
         apiService.delete(API_ID);
+
+        verify(pageTemplateCache).invalidate(API_ID);
     }
 
     @Test(expected = ApiNotDeletableException.class)
@@ -31,6 +31,7 @@ import io.gravitee.management.service.exceptions.TechnicalManagementException;
 import io.gravitee.management.service.impl.ApiServiceImpl;
 import io.gravitee.management.service.jackson.filter.ApiPermissionFilter;
 import io.gravitee.management.service.notification.ApiHook;
+import io.gravitee.management.service.page.PageTemplateCache;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
 import io.gravitee.repository.management.api.MembershipRepository;
@@ -82,6 +83,8 @@ public class ApiService_StartTest {
     private NotifierService notifierService;
     @Mock
     private ParameterService parameterService;
+    @Mock
+    private PageTemplateCache pageTemplateCache;
 
     @Before
     public void setUp() {
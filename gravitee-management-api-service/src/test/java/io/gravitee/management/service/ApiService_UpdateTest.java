@@ -29,6 +29,7 @@ import io.gravitee.management.model.permissions.SystemRole;
 import io.gravitee.management.service.exceptions.*;
 import io.gravitee.management.service.impl.ApiServiceImpl;
 import io.gravitee.management.service.jackson.filter.ApiPermissionFilter;
+import io.gravitee.management.service.page.PageTemplateCache;
 import io.gravitee.management.service.search.SearchEngineService;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
@@ -56,6 +57,7 @@ import static java.util.Collections.*;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.util.collections.Sets.newSet;
 
@@ -96,6 +98,8 @@ public class ApiService_UpdateTest {
     private ParameterService parameterService;
     @Mock
     private WorkflowService workflowService;
+    @Mock
+    private PageTemplateCache pageTemplateCache;
 
     @Before
     public void setUp() {
@@ -118,6 +122,8 @@ public class ApiService_UpdateTest {
 
         assertNotNull(apiEntity);
         assertEquals(API_NAME, apiEntity.getName());
+        // rendered pages show the updated API
+        verify(pageTemplateCache).invalidate(API_ID);
     }
 
     @Test(expected = ApiNotFoundException.class)
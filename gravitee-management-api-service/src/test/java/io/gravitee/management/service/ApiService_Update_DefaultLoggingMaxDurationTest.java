@@ -28,6 +28,7 @@ import io.gravitee.management.model.parameters.Key;
 import io.gravitee.management.model.permissions.SystemRole;
 import io.gravitee.management.service.impl.ApiServiceImpl;
 import io.gravitee.management.service.jackson.filter.ApiPermissionFilter;
+import io.gravitee.management.service.page.PageTemplateCache;
 import io.gravitee.management.service.search.SearchEngineService;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ApiRepository;
@@ -93,6 +94,8 @@ public class ApiService_Update_DefaultLoggingMaxDurationTest {
 
     @Mock
     private ParameterService parameterService;
+    @Mock
+    private PageTemplateCache pageTemplateCache;
 
     private UpdateApiEntity existingApi;
 
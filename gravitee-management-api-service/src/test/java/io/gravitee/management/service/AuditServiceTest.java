@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.common.data.domain.MetadataPage;
+import io.gravitee.common.data.domain.Page;
+import io.gravitee.management.model.UserEntity;
+import io.gravitee.management.model.audit.AuditEntity;
+import io.gravitee.management.model.audit.AuditQuery;
+import io.gravitee.management.service.impl.AuditServiceImpl;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.AuditRepository;
+import io.gravitee.repository.management.api.GroupRepository;
+import io.gravitee.repository.management.api.search.AuditCriteria;
+import io.gravitee.repository.management.api.search.Pageable;
+import io.gravitee.repository.management.model.Application;
+import io.gravitee.repository.management.model.Audit;
+import io.gravitee.repository.management.model.Group;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AuditServiceTest {
+
+    @InjectMocks
+    private AuditServiceImpl auditService = new AuditServiceImpl();
+
+    @Mock
+    private AuditRepository auditRepository;
+    @Mock
+    private ApplicationRepository applicationRepository;
+    @Mock
+    private GroupRepository groupRepository;
+    @Mock
+    private UserService userService;
+
+    @Before
+    public void init() {
+        setField(auditService, "namesTtl", 30L);
+        setField(auditService, "namesMaxEntries", 100L);
+        auditService.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldResolveMetadataOfAPageAtOnce() throws Exception {
+        when(auditRepository.search(any(AuditCriteria.class), any(Pageable.class))).thenReturn(new Page<>(
+                Arrays.asList(audit("app-1"), audit("app-2")), 0, 2, 2));
+        Application application = new Application();
+        application.setId("app-1");
+        application.setName("My application");
+        when(applicationRepository.findByIds(anyList())).thenReturn(Collections.singleton(application));
+        Group group = new Group();
+        group.setId("group-1");
+        group.setName("My group");
+        when(groupRepository.findByIds(anySet())).thenReturn(Collections.singleton(group));
+        UserEntity user = new UserEntity();
+        user.setId("user-1");
+        user.setEmail("user@gravitee.io");
+        when(userService.findByIds(anyList())).thenReturn(Collections.singleton(user));
+
+        AuditQuery query = new AuditQuery();
+        query.setPage(1);
+        query.setSize(10);
+        MetadataPage<AuditEntity> page = auditService.search(query);
+
+        assertEquals("My application", page.getMetadata().get("APPLICATION:app-1:name"));
+        assertEquals(null, page.getMetadata().get("APPLICATION:app-2:name"));
+        assertEquals("My group", page.getMetadata().get("GROUP:group-1:name"));
+        assertEquals("user@gravitee.io", page.getMetadata().get("USER:user-1:name"));
+        verify(applicationRepository, times(1)).findByIds(anyList());
+        verify(groupRepository, times(1)).findByIds(anySet());
+        verify(userService, times(1)).findByIds(anyList());
+    }
+
+    private Audit audit(String application) {
+        Audit audit = new Audit();
+        audit.setId(application + "-audit");
+        audit.setReferenceType(Audit.AuditReferenceType.APPLICATION);
+        audit.setReferenceId(application);
+        audit.setEvent("APPLICATION_UPDATED");
+        audit.setUser("user-1");
+        audit.setCreatedAt(new Date());
+        audit.setProperties(Collections.singletonMap(Audit.AuditProperties.GROUP.name(), "group-1"));
+        return audit;
+    }
+}
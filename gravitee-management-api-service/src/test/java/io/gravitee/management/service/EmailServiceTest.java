@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import io.gravitee.management.service.impl.EmailServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class EmailServiceTest {
+
+    private final EmailServiceImpl emailService = new EmailServiceImpl();
+
+    private final List<MimeMessage[]> batches = new ArrayList<>();
+
+    @Before
+    public void init() {
+        final StringTemplateLoader templateLoader = new StringTemplateLoader();
+        templateLoader.putTemplate("message.html", "<p>${message}</p>");
+        final Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
+        configuration.setTemplateLoader(templateLoader);
+
+        setField(emailService, "freemarkerConfiguration", configuration);
+        setField(emailService, "mailSender", new JavaMailSenderImpl() {
+            @Override
+            protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+                batches.add(mimeMessages);
+            }
+        });
+        setField(emailService, "subject", "[Gravitee.io] %s");
+        setField(emailService, "enabled", true);
+        setField(emailService, "defaultFrom", "noreply@gravitee.io");
+        setField(emailService, "batchSize", 2);
+        setField(emailService, "bccSize", 50);
+        emailService.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldSplitBlindCopiesInBatches() throws Exception {
+        final String[] bcc = IntStream.range(0, 120).mapToObj(i -> "user" + i + "@gravitee.io").toArray(String[]::new);
+
+        emailService.sendEmailNotification(notification("noreply@gravitee.io", bcc));
+
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).length);
+        assertEquals(1, batches.get(1).length);
+        assertEquals(1, batches.get(0)[0].getRecipients(MimeMessage.RecipientType.TO).length);
+        assertEquals(50, batches.get(0)[0].getRecipients(MimeMessage.RecipientType.BCC).length);
+        assertNull(batches.get(0)[1].getRecipients(MimeMessage.RecipientType.TO));
+        assertEquals(20, batches.get(1)[0].getRecipients(MimeMessage.RecipientType.BCC).length);
+        assertEquals(1L, (long) emailService.metrics().get("renders"));
+        assertEquals(3L, (long) emailService.metrics().get("sent"));
+    }
+
+    @Test
+    public void shouldRenderSameParametersOnce() {
+        emailService.sendEmailNotifications(Arrays.asList(
+                notification("user1@gravitee.io", null),
+                notification("user2@gravitee.io", null),
+                notification("user3@gravitee.io", null)));
+
+        assertEquals(2, batches.size());
+        assertEquals(1L, (long) emailService.metrics().get("renders"));
+        assertEquals(3L, (long) emailService.metrics().get("sent"));
+        assertEquals(0L, (long) emailService.metrics().get("pending"));
+    }
+
+    private static EmailNotification notification(String to, String[] bcc) {
+        final EmailNotification notification = new EmailNotification();
+        notification.setTo(to);
+        notification.setBcc(bcc);
+        notification.setSubject("Hello");
+        notification.setTemplate("message.html");
+        notification.setParams(Collections.singletonMap("message", "world"));
+        return notification;
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.management.model.EventEntity;
+import io.gravitee.management.model.EventQuery;
+import io.gravitee.management.model.EventType;
+import io.gravitee.management.model.InstanceListItem;
+import io.gravitee.management.model.InstanceState;
+import io.gravitee.management.service.impl.InstanceServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class InstanceServiceTest {
+
+    private static final String PAYLOAD = "{\"hostname\":\"gateway-host\",\"ip\":\"10.0.0.1\",\"systemProperties\":{\"os.name\":\"Linux\"}}";
+
+    @InjectMocks
+    private InstanceServiceImpl instanceService = new InstanceServiceImpl();
+
+    @Mock
+    private EventService eventService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Before
+    public void init() {
+        setField(instanceService, "refreshInterval", 0L);
+        setField(instanceService, "fullRefreshInterval", 600_000L);
+        setField(instanceService, "overlap", 10_000L);
+    }
+
+    @Test
+    public void shouldRefreshInstancesFromUpdatedEvents() throws Exception {
+        when(eventService.search(any(EventQuery.class)))
+                .thenReturn(singletonList(event("1000")))
+                .thenReturn(singletonList(event("2000")));
+
+        instanceService.findInstances(true);
+        Collection<InstanceListItem> instances = instanceService.findInstances(true, "gateway-1");
+
+        assertEquals(1, instances.size());
+        InstanceListItem instance = instances.iterator().next();
+        assertEquals("gateway-host", instance.getHostname());
+        assertEquals("Linux", instance.getOperatingSystemName());
+        assertEquals(2000, instance.getLastHeartbeatAt().getTime());
+        assertEquals(InstanceState.UNKNOWN, instance.getState());
+
+        ArgumentCaptor<EventQuery> queries = ArgumentCaptor.forClass(EventQuery.class);
+        verify(eventService, times(2)).search(queries.capture());
+        assertEquals(0, queries.getAllValues().get(0).getFrom());
+        assertTrue(queries.getAllValues().get(1).getFrom() > 0);
+        // The payload did not change, it is parsed once
+        verify(objectMapper, times(1)).readValue(anyString(), any(Class.class));
+    }
+
+    @Test
+    public void shouldNotFindUnknownGateway() {
+        when(eventService.search(any(EventQuery.class))).thenReturn(singletonList(event("1000")));
+
+        assertTrue(instanceService.findInstances(true, "gateway-2").isEmpty());
+        verify(eventService, never()).findById(eq("gateway-2"));
+    }
+
+    private EventEntity event(String lastHeartbeatAt) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("id", "gateway-1");
+        properties.put("started_at", "1000");
+        properties.put("last_heartbeat_at", lastHeartbeatAt);
+
+        EventEntity event = new EventEntity();
+        event.setId("event-1");
+        event.setType(EventType.GATEWAY_STARTED);
+        event.setPayload(PAYLOAD);
+        event.setProperties(properties);
+        return event;
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.ApiKeyEntity;
+import io.gravitee.management.model.PlanEntity;
+import io.gravitee.management.model.PlanSecurityType;
+import io.gravitee.management.model.SubscriptionEntity;
+import io.gravitee.management.model.log.ApiRequest;
+import io.gravitee.management.service.exceptions.ApiKeyNotFoundException;
+import io.gravitee.management.service.impl.LogsServiceImpl;
+import io.gravitee.repository.analytics.AnalyticsException;
+import io.gravitee.repository.log.api.LogRepository;
+import io.gravitee.repository.log.model.ExtendedLog;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LogsServiceTest {
+
+    private static final String LOG_ID = "my-log";
+    private static final Long TIMESTAMP = 1L;
+
+    @InjectMocks
+    private LogsServiceImpl logsService = new LogsServiceImpl();
+
+    @Mock
+    private LogRepository logRepository;
+    @Mock
+    private ApiKeyService apiKeyService;
+    @Mock
+    private PlanService planService;
+    @Mock
+    private SubscriptionService subscriptionService;
+    @Mock
+    private ParameterService parameterService;
+    @Mock
+    private ReferenceMetadataService referenceMetadataService;
+    @Mock
+    private ExtendedLog log;
+
+    @Before
+    public void setUp() throws AnalyticsException {
+        ReflectionTestUtils.setField(logsService, "subscriptionsTtl", 600L);
+        ReflectionTestUtils.setField(logsService, "subscriptionsMaxEntries", 100L);
+        logsService.afterPropertiesSet();
+
+        when(log.getUri()).thenReturn("/path");
+        when(logRepository.findById(LOG_ID, TIMESTAMP)).thenReturn(log);
+    }
+
+    @Test
+    public void shouldCacheSubscriptionOfApiKey() {
+        final ApiKeyEntity apiKey = new ApiKeyEntity();
+        apiKey.setSubscription("my-subscription");
+        when(log.getSecurityType()).thenReturn("API_KEY");
+        when(log.getSecurityToken()).thenReturn("my-key");
+        when(apiKeyService.findByKey("my-key")).thenReturn(apiKey);
+
+        assertEquals("my-subscription", logsService.findApiLog(LOG_ID, TIMESTAMP).getSubscription());
+        assertEquals("my-subscription", logsService.findApiLog(LOG_ID, TIMESTAMP).getSubscription());
+
+        verify(apiKeyService, times(1)).findByKey("my-key");
+    }
+
+    @Test
+    public void shouldNotCacheUnknownApiKey() {
+        when(log.getSecurityType()).thenReturn("API_KEY");
+        when(log.getSecurityToken()).thenReturn("unknown-key");
+        when(apiKeyService.findByKey("unknown-key")).thenThrow(new ApiKeyNotFoundException());
+
+        assertNull(logsService.findApiLog(LOG_ID, TIMESTAMP).getSubscription());
+        assertNull(logsService.findApiLog(LOG_ID, TIMESTAMP).getSubscription());
+
+        verify(apiKeyService, times(2)).findByKey("unknown-key");
+    }
+
+    @Test
+    public void shouldNotCacheSubscriptionOfApplicationAndPlan() {
+        final PlanEntity plan = new PlanEntity();
+        plan.setSecurity(PlanSecurityType.OAUTH2);
+        final SubscriptionEntity subscription = new SubscriptionEntity();
+        subscription.setId("my-subscription");
+        when(log.getApplication()).thenReturn("my-application");
+        when(log.getPlan()).thenReturn("my-plan");
+        when(planService.findById("my-plan")).thenReturn(plan);
+        when(subscriptionService.findByApplicationAndPlan("my-application", "my-plan"))
+                .thenReturn(singleton(subscription));
+
+        final ApiRequest request = logsService.findApiLog(LOG_ID, TIMESTAMP);
+        logsService.findApiLog(LOG_ID, TIMESTAMP);
+
+        assertEquals("my-subscription", request.getSubscription());
+        verify(subscriptionService, times(2)).findByApplicationAndPlan("my-application", "my-plan");
+    }
+}
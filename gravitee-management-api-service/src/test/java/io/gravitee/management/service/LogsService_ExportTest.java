@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.analytics.query.LogQuery;
+import io.gravitee.management.service.impl.LogsServiceImpl;
+import io.gravitee.repository.analytics.query.tabular.TabularResponse;
+import io.gravitee.repository.log.api.LogRepository;
+import io.gravitee.repository.log.model.Log;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LogsService_ExportTest {
+
+    private static final String API_ID = "my-api";
+
+    @InjectMocks
+    private LogsServiceImpl logsService = new LogsServiceImpl();
+
+    @Mock
+    private LogRepository logRepository;
+    @Mock
+    private ReferenceMetadataService referenceMetadataService;
+
+    private final LogQuery query = new LogQuery();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(logsService, "exportPageSize", 3);
+        ReflectionTestUtils.setField(logsService, "exportMaxRows", 100L);
+
+        query.setFrom(0);
+        query.setTo(10);
+        query.setInterval(1000);
+        query.setOrder(true);
+    }
+
+    @Test
+    public void shouldExportAcrossPagesSharingTheSameTimestamp() throws Exception {
+        // logs a@1, b@2, c@2, d@2, e@2, f@3 paged by 3, each query starting from the last timestamp written
+        when(logRepository.query(any())).thenReturn(
+                page(log("a", 1), log("b", 2), log("c", 2)),
+                page(log("b", 2), log("c", 2), log("d", 2)),
+                page(log("e", 2), log("f", 3)));
+
+        final StringWriter writer = new StringWriter();
+        final long count = logsService.exportByApi(API_ID, query, 0, writer);
+
+        assertEquals(6, count);
+        assertEquals(asList("a", "b", "c", "d", "e", "f"), ids(writer));
+        verify(logRepository, times(3)).query(any());
+    }
+
+    @Test
+    public void shouldStopAtTheLimit() throws Exception {
+        when(logRepository.query(any())).thenReturn(page(log("a", 1), log("b", 2), log("c", 3)));
+
+        final StringWriter writer = new StringWriter();
+        final long count = logsService.exportByApi(API_ID, query, 2, writer);
+
+        assertEquals(2, count);
+        assertEquals(asList("a", "b"), ids(writer));
+        verify(logRepository, times(1)).query(any());
+    }
+
+    @Test
+    public void shouldStopAtTheMaxRows() throws Exception {
+        ReflectionTestUtils.setField(logsService, "exportMaxRows", 4L);
+        when(logRepository.query(any())).thenReturn(
+                page(log("a", 1), log("b", 2), log("c", 3)),
+                page(log("c", 3), log("d", 4), log("e", 5)));
+
+        final StringWriter writer = new StringWriter();
+        final long count = logsService.exportByApi(API_ID, query, 10, writer);
+
+        assertEquals(4, count);
+        assertEquals(asList("a", "b", "c", "d"), ids(writer));
+        verify(logRepository, times(2)).query(any());
+    }
+
+    @Test
+    public void shouldExportLogsOfDeletedPlan() throws Exception {
+        final Log log = log("a", 1);
+        log.setPlan("deleted-plan");
+        when(logRepository.query(any())).thenReturn(page(log));
+        when(referenceMetadataService.findPlanMetadata(any()))
+                .thenReturn(singletonMap("deleted-plan", singletonMap("deleted", "true")));
+
+        final StringWriter writer = new StringWriter();
+        final long count = logsService.exportByApi(API_ID, query, 10, writer);
+
+        assertEquals(1, count);
+        assertEquals(singletonList("a"), ids(writer));
+    }
+
+    private static List<String> ids(StringWriter writer) {
+        return Arrays.stream(writer.toString().split(System.lineSeparator()))
+                .map(line -> line.split(";")[1])
+                .collect(toList());
+    }
+
+    private static TabularResponse page(Log... logs) {
+        final TabularResponse response = mock(TabularResponse.class);
+        when(response.getLogs()).thenReturn(asList(logs));
+        return response;
+    }
+
+    private static Log log(String id, long timestamp) {
+        final Log log = new Log();
+        log.setId(id);
+        log.setTimestamp(timestamp);
+        log.setUri("/");
+        return log;
+    }
+}
@@ -35,7 +35,6 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.Set;
 
-import static java.util.Optional.of;
 import static org.mockito.Mockito.*;
 
 /**
@@ -89,8 +88,7 @@ public class MembershipService_GetMembersTest {
         po.setName(SystemRole.PRIMARY_OWNER.name());
         when(membershipRepository.findByReferenceAndRole(MembershipReferenceType.API, API_ID, RoleScope.API, SystemRole.PRIMARY_OWNER.name()))
                 .thenReturn(Collections.singleton(membership));
-        when(userService.findById(membership.getUserId())).thenReturn(userEntity);
-        when(membershipRepository.findById(userEntity.getId(),MembershipReferenceType.API, API_ID)).thenReturn(of(membership));
+        when(userService.findByIds(Collections.singletonList(membership.getUserId()))).thenReturn(Collections.singleton(userEntity));
         when(roleService.findById(RoleScope.API, SystemRole.PRIMARY_OWNER.name())).thenReturn(po);
 
         Set<MemberEntity> members = membershipService.getMembers(MembershipReferenceType.API, API_ID, RoleScope.API, SystemRole.PRIMARY_OWNER.name());
@@ -98,7 +96,9 @@ public class MembershipService_GetMembersTest {
         Assert.assertNotNull(members);
         Assert.assertFalse("members must not be empty", members.isEmpty());
         verify(membershipRepository, times(1)).findByReferenceAndRole(MembershipReferenceType.API, API_ID, RoleScope.API, SystemRole.PRIMARY_OWNER.name());
-        verify(userService, times(1)).findById(membership.getUserId());
+        verify(userService, times(1)).findByIds(Collections.singletonList(membership.getUserId()));
+        verify(userService, never()).findById(anyString());
+        verify(membershipRepository, never()).findById(anyString(), any(), anyString());
     }
 
     @Test
@@ -119,8 +119,7 @@ public class MembershipService_GetMembersTest {
         po.setName(SystemRole.PRIMARY_OWNER.name());
         when(membershipRepository.findByReferenceAndRole(MembershipReferenceType.API, API_ID, RoleScope.API, null))
                 .thenReturn(Collections.singleton(membership));
-        when(userService.findById(membership.getUserId())).thenReturn(userEntity);
-        when(membershipRepository.findById(userEntity.getId(),MembershipReferenceType.API, API_ID)).thenReturn(of(membership));
+        when(userService.findByIds(Collections.singletonList(membership.getUserId()))).thenReturn(Collections.singleton(userEntity));
         when(roleService.findById(RoleScope.API, SystemRole.PRIMARY_OWNER.name())).thenReturn(po);
 
         Set<MemberEntity> members = membershipService.getMembers(MembershipReferenceType.API, API_ID, RoleScope.API);
@@ -128,7 +127,9 @@ public class MembershipService_GetMembersTest {
         Assert.assertNotNull(members);
         Assert.assertFalse("members must not be empty", members.isEmpty());
         verify(membershipRepository, times(1)).findByReferenceAndRole(MembershipReferenceType.API, API_ID, RoleScope.API, null);
-        verify(userService, times(1)).findById(membership.getUserId());
+        verify(userService, times(1)).findByIds(Collections.singletonList(membership.getUserId()));
+        verify(userService, never()).findById(anyString());
+        verify(membershipRepository, never()).findById(anyString(), any(), anyString());
     }
 
 }
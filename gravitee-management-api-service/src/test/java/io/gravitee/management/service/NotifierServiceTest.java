@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.command.CommandTags;
+import io.gravitee.management.repository.cache.CacheInvalidationPoller;
+import io.gravitee.management.service.impl.NotifierServiceImpl;
+import io.gravitee.management.service.notification.ApiHook;
+import io.gravitee.management.service.notifiers.EmailNotifierService;
+import io.gravitee.management.service.notifiers.WebhookNotifierService;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.GenericNotificationConfigRepository;
+import io.gravitee.repository.management.api.PortalNotificationConfigRepository;
+import io.gravitee.repository.management.model.GenericNotificationConfig;
+import io.gravitee.repository.management.model.NotificationReferenceType;
+import io.gravitee.repository.management.model.PortalNotificationConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class NotifierServiceTest {
+
+    private static final String API = "api-1";
+
+    @InjectMocks
+    private NotifierServiceImpl notifierService = new NotifierServiceImpl();
+
+    @Mock
+    private PortalNotificationConfigRepository portalNotificationConfigRepository;
+    @Mock
+    private PortalNotificationService portalNotificationService;
+    @Mock
+    private GenericNotificationConfigRepository genericNotificationConfigRepository;
+    @Mock
+    private EmailNotifierService emailNotifierService;
+    @Mock
+    private WebhookNotifierService webhookNotifierService;
+    @Mock
+    private CacheInvalidationPoller invalidationPoller;
+
+    private final Map<String, Object> params = Collections.emptyMap();
+
+    private Consumer<String> remoteInvalidation;
+
+    @Before
+    public void init() throws TechnicalException {
+        setField(notifierService, "cacheEnabled", true);
+        setField(notifierService, "cacheTtl", 600L);
+        setField(notifierService, "cacheMaxEntries", 100L);
+        notifierService.afterPropertiesSet();
+        final ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationPoller).register(eq(CommandTags.NOTIFICATIONS_UPDATED.name()), handler.capture());
+        remoteInvalidation = handler.getValue();
+
+        final PortalNotificationConfig portalConfig = new PortalNotificationConfig();
+        portalConfig.setUser("user-1");
+        when(portalNotificationConfigRepository.findByReferenceAndHook(ApiHook.APIKEY_EXPIRED.name(), NotificationReferenceType.API, API))
+                .thenReturn(singletonList(portalConfig));
+        final GenericNotificationConfig genericConfig = new GenericNotificationConfig();
+        genericConfig.setNotifier(NotifierServiceImpl.DEFAULT_EMAIL_NOTIFIER_ID);
+        when(genericNotificationConfigRepository.findByReferenceAndHook(ApiHook.APIKEY_EXPIRED.name(), NotificationReferenceType.API, API))
+                .thenReturn(singletonList(genericConfig));
+    }
+
+    @Test
+    public void shouldReadNotificationSettingsOnce() throws TechnicalException {
+        notifierService.trigger(ApiHook.APIKEY_EXPIRED, API, params);
+        notifierService.trigger(ApiHook.APIKEY_EXPIRED, API, params);
+
+        verify(portalNotificationConfigRepository, times(1)).findByReferenceAndHook(any(), any(), any());
+        verify(genericNotificationConfigRepository, times(1)).findByReferenceAndHook(any(), any(), any());
+        verify(portalNotificationService, times(2)).create(eq(ApiHook.APIKEY_EXPIRED), eq(singletonList("user-1")), eq(params));
+        verify(emailNotifierService, times(2)).trigger(eq(ApiHook.APIKEY_EXPIRED), any(GenericNotificationConfig.class), eq(params));
+    }
+
+    @Test
+    public void shouldReadNotificationSettingsAgainWhenInvalidated() throws TechnicalException {
+        notifierService.trigger(ApiHook.APIKEY_EXPIRED, API, params);
+        notifierService.invalidate(NotificationReferenceType.API, API);
+        notifierService.trigger(ApiHook.APIKEY_EXPIRED, API, params);
+
+        verify(portalNotificationConfigRepository, times(2)).findByReferenceAndHook(any(), any(), any());
+        verify(genericNotificationConfigRepository, times(2)).findByReferenceAndHook(any(), any(), any());
+        verify(invalidationPoller, times(1)).publish(CommandTags.NOTIFICATIONS_UPDATED.name(), "API:" + API + ':');
+    }
+
+    @Test
+    public void shouldReadNotificationSettingsAgainWhenUpdatedOnAnotherNode() throws TechnicalException {
+        notifierService.trigger(ApiHook.APIKEY_EXPIRED, API, params);
+        remoteInvalidation.accept("API:" + API + ':');
+        notifierService.trigger(ApiHook.APIKEY_EXPIRED, API, params);
+
+        verify(portalNotificationConfigRepository, times(2)).findByReferenceAndHook(any(), any(), any());
+    }
+
+    @Test
+    public void shouldKeepNotificationSettingsWhenAnotherReferenceIsUpdated() throws TechnicalException {
+        notifierService.trigger(ApiHook.APIKEY_EXPIRED, API, params);
+        remoteInvalidation.accept("API:api-2:");
+        notifierService.trigger(ApiHook.APIKEY_EXPIRED, API, params);
+
+        verify(portalNotificationConfigRepository, times(1)).findByReferenceAndHook(any(), any(), any());
+        verify(genericNotificationConfigRepository, times(1)).findByReferenceAndHook(any(), any(), any());
+    }
+
+    @Test
+    public void shouldNotKeepNotificationSettingsReadBeforeAnInvalidation() throws TechnicalException {
+        when(portalNotificationConfigRepository.findByReferenceAndHook(ApiHook.APIKEY_REVOKED.name(), NotificationReferenceType.API, API))
+                .thenAnswer(invocation -> {
+                    // the settings are saved while they are being read
+                    notifierService.invalidate(NotificationReferenceType.API, API);
+                    return emptyList();
+                });
+
+        notifierService.trigger(ApiHook.APIKEY_EXPIRED, API, params);
+        notifierService.trigger(ApiHook.APIKEY_REVOKED, API, params);
+        notifierService.trigger(ApiHook.APIKEY_REVOKED, API, params);
+
+        verify(portalNotificationConfigRepository, times(2))
+                .findByReferenceAndHook(ApiHook.APIKEY_REVOKED.name(), NotificationReferenceType.API, API);
+    }
+}
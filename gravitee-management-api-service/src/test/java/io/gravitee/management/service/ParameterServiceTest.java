@@ -15,13 +15,16 @@
  */
 package io.gravitee.management.service;
 
+import io.gravitee.management.model.command.CommandTags;
 import io.gravitee.management.model.parameters.Key;
+import io.gravitee.management.repository.cache.CacheInvalidationPoller;
 import io.gravitee.management.service.impl.ParameterServiceImpl;
 import io.gravitee.repository.exceptions.TechnicalException;
 import io.gravitee.repository.management.api.ParameterRepository;
 import io.gravitee.repository.management.model.Parameter;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -30,18 +33,23 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static io.gravitee.management.model.parameters.Key.*;
 import static io.gravitee.repository.management.model.Audit.AuditProperties.PARAMETER;
 import static io.gravitee.repository.management.model.Parameter.AuditEvent.PARAMETER_CREATED;
 import static io.gravitee.repository.management.model.Parameter.AuditEvent.PARAMETER_UPDATED;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -59,6 +67,8 @@ public class ParameterServiceTest {
     private ParameterRepository parameterRepository;
     @Mock
     private AuditService auditService;
+    @Mock
+    private CacheInvalidationPoller invalidationPoller;
 
     @Test
     public void shouldFindAll() throws TechnicalException {
@@ -66,7 +76,7 @@ public class ParameterServiceTest {
         parameter.setKey(PORTAL_TOP_APIS.key());
         parameter.setValue("api1;api2");
 
-        when(parameterRepository.findById(PORTAL_TOP_APIS.key())).thenReturn(of(parameter));
+        when(parameterRepository.findAll(anyList())).thenReturn(singletonList(parameter));
 
         final List<String> values = parameterService.findAll(PORTAL_TOP_APIS, value -> value);
 
@@ -79,7 +89,7 @@ public class ParameterServiceTest {
         parameter.setKey(PORTAL_TOP_APIS.key());
         parameter.setValue("api1;api2;;api1");
 
-        when(parameterRepository.findById(PORTAL_TOP_APIS.key())).thenReturn(of(parameter));
+        when(parameterRepository.findAll(anyList())).thenReturn(singletonList(parameter));
 
         final List<String> values = parameterService.findAll(PORTAL_TOP_APIS, value -> value, value -> !value.isEmpty());
 
@@ -102,7 +112,7 @@ public class ParameterServiceTest {
         final Parameter parameter3 = new Parameter();
         parameter3.setKey(PORTAL_ANALYTICS_TRACKINGID.key());
 
-        when(parameterRepository.findAll(Arrays.asList(PORTAL_TOP_APIS.key(), PORTAL_ANALYTICS_ENABLED.key(), PORTAL_ANALYTICS_TRACKINGID.key())))
+        when(parameterRepository.findAll(anyList()))
                 .thenReturn(Arrays.asList(parameter1, parameter2, parameter3));
 
         final Map<String, List<String>> values = parameterService.findAll(Arrays.asList(p1key, p2key, p3key), value -> value, value -> !value.isEmpty());
@@ -146,6 +156,47 @@ public class ParameterServiceTest {
         verify(parameterRepository).update(newParameter);
         verify(auditService).createPortalAuditLog(eq(singletonMap(PARAMETER, PORTAL_TOP_APIS.key())), eq(PARAMETER_UPDATED),
                 any(), eq(parameter), eq(newParameter));
+        verify(invalidationPoller).publish(CommandTags.PARAMETERS_UPDATED.name(), null);
+    }
+
+    @Test
+    public void shouldReloadSnapshotOnUpdate() throws TechnicalException {
+        final Parameter parameter = new Parameter();
+        parameter.setKey(PORTAL_TOP_APIS.key());
+        parameter.setValue("api1");
+
+        final Parameter newParameter = new Parameter();
+        newParameter.setKey(PORTAL_TOP_APIS.key());
+        newParameter.setValue("api2");
+
+        when(parameterRepository.findAll(anyList())).thenReturn(singletonList(parameter), singletonList(newParameter));
+        when(parameterRepository.findById(PORTAL_TOP_APIS.key())).thenReturn(of(parameter));
+        when(parameterRepository.update(newParameter)).thenReturn(newParameter);
+
+        assertEquals(singletonList("api1"), parameterService.findAll(PORTAL_TOP_APIS));
+        assertEquals(singletonList("api1"), parameterService.findAll(PORTAL_TOP_APIS));
+        final long revision = parameterService.getRevision();
+
+        parameterService.save(PORTAL_TOP_APIS, "api2");
+
+        assertEquals(singletonList("api2"), parameterService.findAll(PORTAL_TOP_APIS));
+        assertNotEquals(revision, parameterService.getRevision());
+        verify(parameterRepository, times(2)).findAll(anyList());
+    }
+
+    @Test
+    public void shouldReloadSnapshotOnRemoteUpdate() throws TechnicalException {
+        when(parameterRepository.findAll(anyList())).thenReturn(emptyList());
+
+        ((ParameterServiceImpl) parameterService).afterPropertiesSet();
+        final ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(invalidationPoller).register(eq(CommandTags.PARAMETERS_UPDATED.name()), handler.capture());
+
+        parameterService.findAll(PORTAL_TOP_APIS);
+        handler.getValue().accept(null);
+        parameterService.findAll(PORTAL_TOP_APIS);
+
+        verify(parameterRepository, times(2)).findAll(anyList());
     }
 
     @Test
@@ -208,14 +259,14 @@ public class ParameterServiceTest {
         parameter.setKey(PORTAL_RATING_ENABLED.key());
         parameter.setValue("true");
 
-        when(parameterRepository.findById(PORTAL_RATING_ENABLED.key())).thenReturn(of(parameter));
+        when(parameterRepository.findAll(anyList())).thenReturn(singletonList(parameter));
 
         assertTrue(parameterService.findAsBoolean(PORTAL_RATING_ENABLED));
     }
 
     @Test
     public void shouldFindAsBooleanDefaultValue() throws TechnicalException {
-        when(parameterRepository.findById(PORTAL_USERCREATION_ENABLED.key())).thenReturn(empty());
+        when(parameterRepository.findAll(anyList())).thenReturn(emptyList());
         assertTrue(parameterService.findAsBoolean(PORTAL_USERCREATION_ENABLED));
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.PlanEntity;
+import io.gravitee.management.service.impl.PlanServiceImpl;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.PlanRepository;
+import io.gravitee.repository.management.model.Plan;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static io.gravitee.management.service.RoundTrips.assertRoundTrips;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PlanService_FindByApisTest {
+
+    @InjectMocks
+    private PlanService planService = new PlanServiceImpl();
+
+    @Mock
+    private PlanRepository planRepository;
+
+    @Test
+    public void shouldFindByApisWithOneRoundTripPerApi() throws TechnicalException {
+        when(planRepository.findByApi("api-1")).thenReturn(Collections.singleton(plan("plan-1", "api-1")));
+        when(planRepository.findByApi("api-2")).thenReturn(
+                new HashSet<>(asList(plan("plan-2", "api-2"), plan("plan-3", "api-2"))));
+
+        assertRoundTrips(2, planRepository, () -> {
+            final Set<PlanEntity> plans = planService.findByApis(asList("api-1", "api-2", "api-1"));
+            assertEquals(3, plans.size());
+        });
+    }
+
+    @Test
+    public void shouldFindByIdsWithOneRoundTripPerDistinctPlan() throws TechnicalException {
+        when(planRepository.findById("plan-1")).thenReturn(Optional.of(plan("plan-1", "api-1")));
+        when(planRepository.findById("plan-2")).thenReturn(Optional.empty());
+
+        assertRoundTrips(2, planRepository, () -> {
+            final Set<PlanEntity> plans = planService.findByIds(asList("plan-1", "plan-2", "plan-1"));
+            assertEquals(1, plans.size());
+        });
+    }
+
+    private static Plan plan(String id, String api) {
+        final Plan plan = new Plan();
+        plan.setId(id);
+        plan.setApis(Collections.singleton(api));
+        plan.setType(Plan.PlanType.API);
+        plan.setValidation(Plan.PlanValidationType.AUTO);
+        return plan;
+    }
+}
@@ -48,6 +48,9 @@ public class PortalNotificationConfigService_SaveTest {
     @Mock
     private PortalNotificationConfigRepository portalNotificationConfigRepository;
 
+    @Mock
+    private NotifierService notifierService;
+
     @Test
     public void shouldDelete() throws TechnicalException {
         PortalNotificationConfigEntity cfgEntity = mock(PortalNotificationConfigEntity.class);
@@ -65,6 +68,7 @@ public class PortalNotificationConfigService_SaveTest {
         assertEquals("hooks", cfgEntity.getHooks(), entity.getHooks());
         verify(portalNotificationConfigRepository, never()).findById(any(), any(), any());
         verify(portalNotificationConfigRepository, times(1)).delete(any());
+        verify(notifierService, times(1)).invalidate(NotificationReferenceType.API, "123");
     }
 
     @Test
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.management.model.InstanceListItem;
+import io.gravitee.management.service.impl.ReferenceMetadataServiceImpl;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.ApiRepository;
+import io.gravitee.repository.management.api.ApplicationRepository;
+import io.gravitee.repository.management.api.PlanRepository;
+import io.gravitee.repository.management.api.search.ApiCriteria;
+import io.gravitee.repository.management.api.search.ApiFieldExclusionFilter;
+import io.gravitee.repository.management.model.Api;
+import io.gravitee.repository.management.model.Application;
+import io.gravitee.repository.management.model.ApplicationStatus;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static java.util.Optional.empty;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ReferenceMetadataServiceTest {
+
+    @InjectMocks
+    private ReferenceMetadataServiceImpl referenceMetadataService = new ReferenceMetadataServiceImpl();
+
+    @Mock
+    private ApiRepository apiRepository;
+    @Mock
+    private ApplicationRepository applicationRepository;
+    @Mock
+    private PlanRepository planRepository;
+    @Mock
+    private InstanceService instanceService;
+
+    @Before
+    public void init() {
+        setField(referenceMetadataService, "ttl", 30L);
+        setField(referenceMetadataService, "maxEntries", 100L);
+        referenceMetadataService.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldFindApiMetadataInOneCall() {
+        Api api = new Api();
+        api.setId("api-1");
+        api.setName("My API");
+        api.setVersion("v1");
+        when(apiRepository.search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class))).thenReturn(Collections.singletonList(api));
+
+        Map<String, Map<String, String>> metadata = referenceMetadataService.findApiMetadata(asList("api-1", "api-2"));
+
+        assertEquals("My API", metadata.get("api-1").get("name"));
+        assertEquals("v1", metadata.get("api-1").get("version"));
+        assertNull(metadata.get("api-1").get("deleted"));
+        assertEquals("Deleted API", metadata.get("api-2").get("name"));
+        assertEquals("true", metadata.get("api-2").get("deleted"));
+        verify(apiRepository, times(1)).search(any(ApiCriteria.class), any(ApiFieldExclusionFilter.class));
+    }
+
+    @Test
+    public void shouldFindApplicationMetadataFromCache() throws TechnicalException {
+        Application application = new Application();
+        application.setId("app-1");
+        application.setName("My app");
+        application.setStatus(ApplicationStatus.ARCHIVED);
+        when(applicationRepository.findByIds(anyList())).thenReturn(Collections.singleton(application));
+
+        referenceMetadataService.findApplicationMetadata(asList("app-1", "1"));
+        Map<String, Map<String, String>> metadata = referenceMetadataService.findApplicationMetadata(asList("app-1", "1"));
+
+        assertEquals("My app", metadata.get("app-1").get("name"));
+        assertEquals("true", metadata.get("app-1").get("deleted"));
+        assertEquals("Unknown application (keyless)", metadata.get("1").get("name"));
+        verify(applicationRepository, times(1)).findByIds(anyList());
+    }
+
+    @Test
+    public void shouldFindDeletedPlanMetadata() throws TechnicalException {
+        when(planRepository.findById("plan-1")).thenReturn(empty());
+
+        Map<String, Map<String, String>> metadata = referenceMetadataService.findPlanMetadata(Collections.singleton("plan-1"));
+
+        assertEquals("true", metadata.get("plan-1").get("deleted"));
+        assertNull(metadata.get("plan-1").get("name"));
+    }
+
+    @Test
+    public void shouldFindGatewayMetadataInOneCall() {
+        InstanceListItem instance = new InstanceListItem();
+        instance.setId("gateway-1");
+        instance.setHostname("gw.local");
+        instance.setIp("10.0.0.1");
+        when(instanceService.findInstances(true)).thenReturn(Collections.singletonList(instance));
+
+        Map<String, Map<String, String>> metadata = referenceMetadataService.findGatewayMetadata(asList("gateway-1", "gateway-2"));
+
+        assertEquals("gw.local", metadata.get("gateway-1").get("hostname"));
+        assertEquals("10.0.0.1", metadata.get("gateway-1").get("ip"));
+        assertNull(metadata.get("gateway-1").get("tenant"));
+        assertEquals("true", metadata.get("gateway-2").get("deleted"));
+        verify(instanceService, times(1)).findInstances(true);
+    }
+}
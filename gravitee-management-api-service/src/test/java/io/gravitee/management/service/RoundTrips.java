@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import org.mockito.Mockito;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Asserts the number of round trips a service call makes to its mocked repositories or services, ie. the number of
+ * calls it does on them.
+ *
+ * @author GraviteeSource Team
+ */
+public final class RoundTrips {
+
+    private RoundTrips() {
+    }
+
+    /**
+     * Returns the number of calls done so far on the given mock.
+     */
+    public static int count(Object mock) {
+        return Mockito.mockingDetails(mock).getInvocations().size();
+    }
+
+    /**
+     * Runs the given action and asserts it made exactly <code>expected</code> calls on the given mock.
+     */
+    public static void assertRoundTrips(int expected, Object mock, Runnable action) {
+        final int before = count(mock);
+        action.run();
+        assertEquals("Round trips to " + Mockito.mockingDetails(mock).getMockCreationSettings().getMockName(),
+                expected, count(mock) - before);
+    }
+}
@@ -20,6 +20,7 @@ import io.gravitee.management.model.*;
 import io.gravitee.management.model.api.ApiEntity;
 import io.gravitee.management.model.application.ApplicationSettings;
 import io.gravitee.management.model.application.OAuthClientSettings;
+import io.gravitee.management.model.pagedresult.Metadata;
 import io.gravitee.management.service.exceptions.*;
 import io.gravitee.management.service.impl.SubscriptionServiceImpl;
 import io.gravitee.management.service.notification.ApiHook;
@@ -892,4 +893,55 @@ public class SubscriptionServiceTest {
         verify(subscription).setUpdatedAt(any());
 
     }
+
+    @Test
+    public void shouldGetMetadataWithOneRoundTripPerType() {
+        final List<SubscriptionEntity> subscriptions = Arrays.asList(
+                subscription("app-1", "plan-1", "api-1"),
+                subscription("app-1", "plan-2", "api-1"),
+                subscription("app-2", "plan-3", "api-2"));
+
+        when(applicationService.findByIds(anyCollection())).thenReturn(new HashSet<>(Arrays.asList(
+                applicationEntity("app-1"), applicationEntity("app-2"))));
+        when(planService.findByApis(anyCollection())).thenReturn(new HashSet<>(Arrays.asList(
+                planEntity("plan-1"), planEntity("plan-2"), planEntity("plan-3"))));
+        when(apiService.findByIds(anyCollection())).thenReturn(new HashSet<>(Arrays.asList(
+                apiEntity("api-1"), apiEntity("api-2"))));
+
+        final Metadata metadata = subscriptionService.getMetadata(subscriptions);
+
+        assertEquals("plan-3", metadata.getMetadata().get("plan-3").get("name"));
+        assertEquals(1, RoundTrips.count(applicationService));
+        assertEquals(1, RoundTrips.count(planService));
+        assertEquals(1, RoundTrips.count(apiService));
+    }
+
+    private static SubscriptionEntity subscription(String application, String plan, String api) {
+        final SubscriptionEntity subscription = new SubscriptionEntity();
+        subscription.setApplication(application);
+        subscription.setPlan(plan);
+        subscription.setApi(api);
+        return subscription;
+    }
+
+    private static ApplicationEntity applicationEntity(String id) {
+        final ApplicationEntity application = new ApplicationEntity();
+        application.setId(id);
+        application.setName(id);
+        return application;
+    }
+
+    private static PlanEntity planEntity(String id) {
+        final PlanEntity plan = new PlanEntity();
+        plan.setId(id);
+        plan.setName(id);
+        return plan;
+    }
+
+    private static ApiEntity apiEntity(String id) {
+        final ApiEntity api = new ApiEntity();
+        api.setId(id);
+        api.setName(id);
+        return api;
+    }
 }
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import io.gravitee.common.http.MediaType;
+import io.gravitee.management.model.ImportSwaggerDescriptorEntity;
+import io.gravitee.management.model.PageEntity;
+import io.gravitee.management.model.api.NewSwaggerApiEntity;
+import io.gravitee.management.service.impl.SwaggerServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class SwaggerService_CacheTest {
+
+    private final SwaggerServiceImpl swaggerService = new SwaggerServiceImpl();
+
+    @Before
+    public void setUp() {
+        setField(swaggerService, "mapper", new ObjectMapper());
+        setField(swaggerService, "cacheEnabled", true);
+        setField(swaggerService, "cacheMaxEntries", 20L);
+        setField(swaggerService, "cacheTtl", 600L);
+        swaggerService.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldParseOnceForPrepareAndReplaceServerList() throws IOException {
+        final String descriptor = Resources.toString(Resources.getResource("io/gravitee/management/service/openapi.yaml"), Charsets.UTF_8);
+
+        swaggerService.prepare(inline(descriptor));
+        swaggerService.replaceServerList(descriptor, Collections.singletonList("https://api.company.com/echo"));
+
+        // a swagger v2 then an OpenAPI parse for the preparation, none for the servers
+        assertEquals(2L, (long) swaggerService.metrics().get("misses"));
+        assertEquals(1L, (long) swaggerService.metrics().get("hits"));
+    }
+
+    @Test
+    public void shouldNotModifyParsedDescriptor() throws IOException {
+        final String descriptor = Resources.toString(Resources.getResource("io/gravitee/management/service/openapi.yaml"), Charsets.UTF_8);
+
+        final String replaced = swaggerService.replaceServerList(descriptor, Collections.singletonList("https://api.company.com/echo"));
+        final PageEntity page = new PageEntity();
+        page.setContent(descriptor);
+        page.setContentType(MediaType.APPLICATION_JSON);
+        page.setConfiguration(Collections.singletonMap("tryItURL", "https://my.domain.com/v1"));
+        swaggerService.transform(page);
+
+        assertTrue(replaced.contains("https://api.company.com/echo"));
+        assertTrue(page.getContent().contains("https://my.domain.com/v1"));
+        assertEquals("https://demo.gravitee.io/gateway/echo", swaggerService.prepare(inline(descriptor)).getEndpoint().get(0));
+    }
+
+    @Test
+    public void shouldPrepareLargeDescriptorFromCache() {
+        final String descriptor = largeDescriptor(5000);
+        assertTrue(descriptor.length() > 2 * 1024 * 1024);
+
+        final NewSwaggerApiEntity parsed = swaggerService.prepare(inline(descriptor));
+        final NewSwaggerApiEntity cached = swaggerService.prepare(inline(descriptor));
+
+        assertEquals(5000, parsed.getPaths().size());
+        assertEquals(5000, cached.getPaths().size());
+        // a swagger v2 then an OpenAPI parse for the first preparation, none for the second one
+        assertEquals(2L, (long) swaggerService.metrics().get("misses"));
+        assertEquals(2L, (long) swaggerService.metrics().get("hits"));
+    }
+
+    private static ImportSwaggerDescriptorEntity inline(String payload) {
+        final ImportSwaggerDescriptorEntity descriptor = new ImportSwaggerDescriptorEntity();
+        descriptor.setType(ImportSwaggerDescriptorEntity.Type.INLINE);
+        descriptor.setPayload(payload);
+        return descriptor;
+    }
+
+    private static String largeDescriptor(int paths) {
+        final StringBuilder descriptor = new StringBuilder()
+                .append("openapi: \"3.0.0\"\n")
+                .append("info:\n  version: 1.0.0\n  title: Large API\n")
+                .append("servers:\n  - url: https://demo.gravitee.io/gateway/large\n")
+                .append("paths:\n");
+        for (int i = 0; i < paths; i++) {
+            descriptor.append("  /resources").append(i).append("/{id}:\n")
+                    .append("    get:\n")
+                    .append("      summary: Get the resource ").append(i).append(" with a long enough description to weigh\n")
+                    .append("      operationId: getResource").append(i).append('\n')
+                    .append("      parameters:\n")
+                    .append("        - name: id\n          in: path\n          required: true\n          schema:\n            type: string\n")
+                    .append("      responses:\n")
+                    .append("        '200':\n          description: The resource ").append(i).append('\n')
+                    .append("          content:\n            application/json:\n              schema:\n")
+                    .append("                $ref: '#/components/schemas/Resource'\n");
+        }
+        descriptor.append("components:\n  schemas:\n    Resource:\n      type: object\n      properties:\n")
+                .append("        id:\n          type: string\n        name:\n          type: string\n");
+        return descriptor.toString();
+    }
+}
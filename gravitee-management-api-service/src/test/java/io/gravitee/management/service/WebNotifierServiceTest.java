@@ -0,0 +1,182 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.notifiers.impl.WebNotifierServiceImpl;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.ServerSocket;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Webhook calls are sent to a local HTTP server answering the queued status codes, then 200.
+ *
+ * @author GraviteeSource Team
+ */
+public class WebNotifierServiceTest {
+
+    private final WebNotifierServiceImpl webNotifierService = new WebNotifierServiceImpl();
+
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final List<String> requestIds = new CopyOnWriteArrayList<>();
+
+    private Vertx vertx;
+    private HttpServer server;
+    private String url;
+
+    @Before
+    public void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        final CompletableFuture<HttpServer> listening = new CompletableFuture<>();
+        vertx.createHttpServer()
+                .requestHandler(request -> {
+                    requestIds.add(request.getHeader("X-Gravitee-Request-Id"));
+                    request.bodyHandler(body -> {
+                        final Integer status = statuses.poll();
+                        request.response().setStatusCode(status == null ? 200 : status).end();
+                    });
+                })
+                .listen(0, "localhost", result -> {
+                    if (result.succeeded()) {
+                        listening.complete(result.result());
+                    } else {
+                        listening.completeExceptionally(result.cause());
+                    }
+                });
+        server = listening.get(5, TimeUnit.SECONDS);
+        url = "http://localhost:" + server.actualPort() + "/hook";
+
+        ReflectionTestUtils.setField(webNotifierService, "vertx", vertx);
+        ReflectionTestUtils.setField(webNotifierService, "httpClientTimeout", 1000);
+        ReflectionTestUtils.setField(webNotifierService, "maxPoolSize", 2);
+        ReflectionTestUtils.setField(webNotifierService, "maxWaitQueueSize", 10);
+        ReflectionTestUtils.setField(webNotifierService, "idleTimeout", 100L);
+        ReflectionTestUtils.setField(webNotifierService, "retryMaxAttempts", 3);
+        ReflectionTestUtils.setField(webNotifierService, "retryBackoff", 10L);
+        ReflectionTestUtils.setField(webNotifierService, "retryMaxBackoff", 20L);
+        webNotifierService.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        webNotifierService.destroy();
+        vertx.close();
+    }
+
+    @Test
+    public void shouldRetryServerErrorsWithSameRequestId() {
+        statuses.add(503);
+        statuses.add(500);
+
+        webNotifierService.request(HttpMethod.POST, url, new HashMap<>(), "{}", false);
+
+        assertEquals(3, requestIds.size());
+        assertEquals(1, new HashSet<>(requestIds).size());
+        assertEquals(Long.valueOf(2), webNotifierService.metrics().get("retried"));
+        assertEquals(Long.valueOf(1), webNotifierService.metrics().get("delivered"));
+    }
+
+    @Test
+    public void shouldUseGivenRequestId() {
+        statuses.add(500);
+
+        webNotifierService.request(HttpMethod.POST, url, Collections.singletonMap("X-Gravitee-Request-Id", "call-1"),
+                "{}", false);
+
+        assertEquals(Arrays.asList("call-1", "call-1"), requestIds);
+    }
+
+    @Test
+    public void shouldNotRetryClientErrors() {
+        statuses.add(400);
+
+        try {
+            webNotifierService.request(HttpMethod.POST, url, new HashMap<>(), "{}", false);
+            fail("A 400 response fails the call");
+        } catch (TechnicalManagementException tme) {
+            assertEquals(1, requestIds.size());
+            assertEquals(Long.valueOf(0), webNotifierService.metrics().get("retried"));
+            assertEquals(Long.valueOf(1), webNotifierService.metrics().get("failed"));
+        }
+    }
+
+    @Test
+    public void shouldSendSingleAttempt() throws Exception {
+        statuses.add(500);
+
+        try {
+            webNotifierService.requestAsync(HttpMethod.POST, url, new HashMap<>(), "{}", false, 1).get();
+            fail("A 500 response fails the call");
+        } catch (ExecutionException ee) {
+            assertTrue(ee.getCause() instanceof TechnicalManagementException);
+            assertEquals(1, requestIds.size());
+        }
+    }
+
+    @Test
+    public void shouldRetryConnectionErrors() throws Exception {
+        final int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+
+        try {
+            webNotifierService.request(HttpMethod.POST, "http://localhost:" + closedPort + "/hook", new HashMap<>(), "{}", false);
+            fail("A refused connection fails the call");
+        } catch (TechnicalManagementException tme) {
+            assertEquals(Long.valueOf(2), webNotifierService.metrics().get("retried"));
+        }
+    }
+
+    @Test
+    public void shouldCapBackoff() {
+        ReflectionTestUtils.setField(webNotifierService, "retryBackoff", 500L);
+        ReflectionTestUtils.setField(webNotifierService, "retryMaxBackoff", 1000L);
+
+        for (int attempt = 1; attempt < 40; attempt++) {
+            final long backoff = ReflectionTestUtils.invokeMethod(webNotifierService, "backoff", attempt);
+            final long delay = Math.min(1000, 500L << Math.min(attempt - 1, 20));
+            assertTrue("backoff of attempt " + attempt, backoff >= delay / 2 && backoff <= delay);
+        }
+    }
+
+    @Test
+    public void shouldEvictIdleClients() throws InterruptedException {
+        webNotifierService.request(HttpMethod.POST, url, new HashMap<>(), "{}", false);
+        assertEquals(Long.valueOf(1), webNotifierService.metrics().get("clients"));
+
+        // idle clients are evicted every second at most
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (webNotifierService.metrics().get("clients") > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(Long.valueOf(0), webNotifierService.metrics().get("clients"));
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.management.model.notification.WebhookDeliveryEntity;
+import io.gravitee.management.service.exceptions.TechnicalManagementException;
+import io.gravitee.management.service.notification.ApiHook;
+import io.gravitee.management.service.notifiers.WebNotifierService;
+import io.gravitee.management.service.notifiers.impl.WebhookDeliveryServiceImpl;
+import io.gravitee.repository.management.model.GenericNotificationConfig;
+import io.gravitee.repository.management.model.NotificationReferenceType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class WebhookDeliveryServiceTest {
+
+    private static final String URL = "http://localhost:8080/hook";
+    private static final String OTHER_URL = "http://localhost:8080/other-hook";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @InjectMocks
+    private WebhookDeliveryServiceImpl webhookDeliveryService = new WebhookDeliveryServiceImpl();
+
+    @Mock
+    private WebNotifierService webNotifierService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Before
+    public void init() {
+        setField(webhookDeliveryService, "path", folder.getRoot().getAbsolutePath());
+        setField(webhookDeliveryService, "threads", 2);
+        setField(webhookDeliveryService, "concurrency", 1);
+        setField(webhookDeliveryService, "maxAttempts", 2);
+        setField(webhookDeliveryService, "retryDelay", 10L);
+        setField(webhookDeliveryService, "maxRetryDelay", 10L);
+        setField(webhookDeliveryService, "batchEndpoints", "");
+        setField(webhookDeliveryService, "batchMaxSize", 20);
+    }
+
+    @After
+    public void shutdown() throws Exception {
+        webhookDeliveryService.destroy();
+    }
+
+    @Test
+    public void shouldDeliverAndRemovePendingCall() throws Exception {
+        when(webNotifierService.requestAsync(any(), any(), anyMap(), any(), anyBoolean(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        webhookDeliveryService.afterPropertiesSet();
+
+        webhookDeliveryService.enqueue(config(), ApiHook.APIKEY_EXPIRED, Collections.emptyMap(), "{}");
+
+        verify(webNotifierService, timeout(5000)).requestAsync(eq(HttpMethod.POST), eq(URL), anyMap(), eq("{}"), eq(false), eq(1));
+        verify(webNotifierService, timeout(5000).times(1)).requestAsync(any(), any(), anyMap(), any(), anyBoolean(), anyInt());
+        // a single attempt, retried by the queue with the id of the call
+        verify(webNotifierService, never()).request(any(), any(), anyMap(), any(), anyBoolean());
+        verify(webNotifierService).requestAsync(any(), any(),
+                argThat(headers -> headers.get("X-Gravitee-Request-Id") != null), any(), anyBoolean(), eq(1));
+        assertEventually(() -> pendingFiles().length == 0);
+    }
+
+    @Test
+    public void shouldKeepDeadLetterAfterLastAttempt() throws Exception {
+        when(webNotifierService.requestAsync(any(), any(), anyMap(), any(), anyBoolean(), anyInt()))
+                .thenAnswer(invocation -> failed(new TechnicalManagementException("Connection refused", null)));
+        webhookDeliveryService.afterPropertiesSet();
+
+        webhookDeliveryService.enqueue(config(), ApiHook.APIKEY_EXPIRED, Collections.emptyMap(), "{}");
+
+        verify(webNotifierService, timeout(5000).times(2)).requestAsync(any(), any(), anyMap(), any(), anyBoolean(), anyInt());
+        assertEventually(() -> webhookDeliveryService.findDeadLetters(NotificationReferenceType.API, "api-id").size() == 1);
+
+        List<WebhookDeliveryEntity> deadLetters = webhookDeliveryService.findDeadLetters(NotificationReferenceType.API, "api-id");
+        assertEquals(2, deadLetters.get(0).getAttempts());
+        assertEquals("Connection refused", deadLetters.get(0).getLastError());
+        assertTrue(webhookDeliveryService.findDeadLetters(NotificationReferenceType.APPLICATION, "api-id").isEmpty());
+    }
+
+    @Test
+    public void shouldBatchCallsOfOptedInEndpoint() throws Exception {
+        setField(webhookDeliveryService, "batchEndpoints", URL);
+        // the first call is sent while the next ones are queued behind it
+        final CompletableFuture<Void> firstCall = new CompletableFuture<>();
+        when(webNotifierService.requestAsync(any(), any(), anyMap(), any(), anyBoolean(), anyInt()))
+                .thenReturn(firstCall, CompletableFuture.completedFuture(null));
+        webhookDeliveryService.afterPropertiesSet();
+
+        webhookDeliveryService.enqueue(config(), ApiHook.APIKEY_EXPIRED, Collections.emptyMap(), "{\"id\":1}");
+        verify(webNotifierService, timeout(5000)).requestAsync(eq(HttpMethod.POST), eq(URL), anyMap(), eq("{\"id\":1}"), eq(false), eq(1));
+        webhookDeliveryService.enqueue(config(), ApiHook.APIKEY_EXPIRED, Collections.emptyMap(), "{\"id\":2}");
+        webhookDeliveryService.enqueue(config(), ApiHook.APIKEY_EXPIRED, Collections.emptyMap(), "{\"id\":3}");
+        firstCall.complete(null);
+
+        verify(webNotifierService, timeout(5000)).requestAsync(eq(HttpMethod.POST), eq(URL), anyMap(), eq("[{\"id\":2},{\"id\":3}]"), eq(false), eq(1));
+    }
+
+    @Test
+    public void shouldNotWaitForResponseOfSlowEndpoint() throws Exception {
+        setField(webhookDeliveryService, "threads", 1);
+        // the slow endpoint never answers
+        when(webNotifierService.requestAsync(any(), eq(URL), anyMap(), any(), anyBoolean(), anyInt()))
+                .thenReturn(new CompletableFuture<>());
+        when(webNotifierService.requestAsync(any(), eq(OTHER_URL), anyMap(), any(), anyBoolean(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        webhookDeliveryService.afterPropertiesSet();
+
+        webhookDeliveryService.enqueue(config(), ApiHook.APIKEY_EXPIRED, Collections.emptyMap(), "{}");
+        verify(webNotifierService, timeout(5000)).requestAsync(any(), eq(URL), anyMap(), any(), anyBoolean(), anyInt());
+        final GenericNotificationConfig other = config();
+        other.setConfig(OTHER_URL);
+        webhookDeliveryService.enqueue(other, ApiHook.APIKEY_EXPIRED, Collections.emptyMap(), "{}");
+
+        verify(webNotifierService, timeout(5000)).requestAsync(any(), eq(OTHER_URL), anyMap(), any(), anyBoolean(), anyInt());
+        assertEventually(() -> webhookDeliveryService.metrics().get("delivered") == 1L
+                && webhookDeliveryService.metrics().get("inFlight") == 1L);
+    }
+
+    @Test
+    public void shouldQueuePendingCallsOnStartup() throws Exception {
+        when(webNotifierService.requestAsync(any(), any(), anyMap(), any(), anyBoolean(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        File pending = folder.newFolder("pending");
+        WebhookDeliveryEntity delivery = new WebhookDeliveryEntity();
+        delivery.setId("delivery-id");
+        delivery.setReferenceType(NotificationReferenceType.API.name());
+        delivery.setReferenceId("api-id");
+        delivery.setUrl(URL);
+        delivery.setHeaders(Collections.emptyMap());
+        delivery.setBody("{}");
+        delivery.setCreatedAt(new Date());
+        objectMapper.writeValue(new File(pending, "delivery-id.json"), delivery);
+
+        webhookDeliveryService.afterPropertiesSet();
+
+        verify(webNotifierService, timeout(5000)).requestAsync(eq(HttpMethod.POST), eq(URL), anyMap(), eq("{}"), eq(false), eq(1));
+    }
+
+    private static CompletableFuture<Void> failed(Throwable throwable) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(throwable);
+        return future;
+    }
+
+    private File[] pendingFiles() {
+        return new File(folder.getRoot(), "pending").listFiles((dir, name) -> name.endsWith(".json"));
+    }
+
+    private static void assertEventually(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static GenericNotificationConfig config() {
+        GenericNotificationConfig config = new GenericNotificationConfig();
+        config.setId("notification-id");
+        config.setReferenceType(NotificationReferenceType.API);
+        config.setReferenceId("api-id");
+        config.setConfig(URL);
+        return config;
+    }
+}
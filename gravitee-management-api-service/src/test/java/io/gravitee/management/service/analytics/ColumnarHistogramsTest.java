@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.analytics;
+
+import io.gravitee.management.model.analytics.ColumnarHistogramAnalytics;
+import io.gravitee.management.model.analytics.Timestamp;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class ColumnarHistogramsTest {
+
+    @Test
+    public void shouldMergeOpenBuckets() {
+        ColumnarHistogramAnalytics closed = histogram(1000, 1020, "app-1", 1, 2, 3);
+        ColumnarHistogramAnalytics open = histogram(1020, 1040, "app-2", 9, 4, 5);
+
+        ColumnarHistogramAnalytics merged = ColumnarHistograms.merge(closed, open, 1030);
+
+        assertEquals(Long.valueOf(1000), merged.getTimestamp().getFrom());
+        assertEquals(Long.valueOf(1040), merged.getTimestamp().getTo());
+        assertArrayEquals(new long[]{1000, 1010, 1020, 1030, 1040}, merged.getTimestamps());
+        assertEquals("application", merged.getSeries().get(0).getField());
+        assertArrayEquals(new long[]{1, 2, 3, 0, 0}, merged.getSeries().get(0).getValues());
+        assertArrayEquals(new long[]{0, 0, 0, 4, 5}, merged.getSeries().get(1).getValues());
+        assertNotSame(closed.getSeries().get(0), merged.getSeries().get(0));
+    }
+
+    @Test
+    public void shouldCopy() {
+        ColumnarHistogramAnalytics histogram = histogram(1000, 1020, "app-1", 1, 2, 3);
+
+        ColumnarHistogramAnalytics copy = ColumnarHistograms.copy(histogram);
+        copy.getSeries().get(0).getValues()[0] = 10;
+
+        assertArrayEquals(new long[]{1, 2, 3}, histogram.getSeries().get(0).getValues());
+    }
+
+    @Test
+    public void shouldSumParts() {
+        ColumnarHistogramAnalytics first = histogram(1000, 1020, "app-1", 1, 2, 3);
+        ColumnarHistogramAnalytics second = histogram(1010, 1030, "app-1", 4, 5, 6);
+        ColumnarHistogramAnalytics empty = new ColumnarHistogramAnalytics();
+
+        ColumnarHistogramAnalytics sum = ColumnarHistograms.sum(Arrays.asList(first, empty, second));
+
+        assertArrayEquals(new long[]{1000, 1010, 1020, 1030}, sum.getTimestamps());
+        assertEquals(1, sum.getSeries().size());
+        assertArrayEquals(new long[]{1, 6, 8, 6}, sum.getSeries().get(0).getValues());
+    }
+
+    private static ColumnarHistogramAnalytics histogram(long from, long to, String application, long... values) {
+        ColumnarHistogramAnalytics histogram = new ColumnarHistogramAnalytics();
+        histogram.setTimestamp(new Timestamp(from, to, 10L));
+        histogram.setSeries(Collections.singletonList(
+                new ColumnarHistogramAnalytics.Series("by_application", "application", application, values)));
+        return histogram;
+    }
+}
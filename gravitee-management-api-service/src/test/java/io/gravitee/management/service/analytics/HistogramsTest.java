@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.management.model.analytics.Bucket;
+import io.gravitee.management.model.analytics.ColumnarHistogramAnalytics;
+import io.gravitee.management.model.analytics.HistogramAnalytics;
+import io.gravitee.management.model.analytics.Timestamp;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class HistogramsTest {
+
+    @Test
+    public void shouldSplitTimeRangeOnClosedBuckets() {
+        TimeBuckets buckets = TimeBuckets.of(1005, 1095, 10, 1062);
+
+        assertEquals(1005, buckets.getFrom());
+        assertEquals(1010, buckets.getClosedFrom());
+        assertEquals(1060, buckets.getClosedTo());
+        assertEquals(5, buckets.closedBuckets());
+        assertTrue(buckets.hasLeadingBucket());
+        assertTrue(buckets.hasOpenBuckets());
+    }
+
+    @Test
+    public void shouldCloseWholeTimeRange() {
+        TimeBuckets buckets = TimeBuckets.of(1000, 1099, 10, 5000);
+
+        assertEquals(1000, buckets.getClosedFrom());
+        assertEquals(1100, buckets.getClosedTo());
+        assertFalse(buckets.hasLeadingBucket());
+        assertFalse(buckets.hasOpenBuckets());
+    }
+
+    @Test
+    public void shouldNotCloseTrailingPartialBucket() {
+        TimeBuckets buckets = TimeBuckets.of(1005, 1095, 10, 5000);
+
+        assertEquals(1090, buckets.getClosedTo());
+        assertEquals(8, buckets.closedBuckets());
+        assertTrue(buckets.hasOpenBuckets());
+    }
+
+    @Test
+    public void shouldMergeOpenBuckets() {
+        HistogramAnalytics closed = histogram(1000, 1020, "app-1", 1, 2, 3);
+        HistogramAnalytics open = histogram(1020, 1040, "app-2", 9, 4, 5);
+
+        HistogramAnalytics merged = Histograms.merge(closed, open, 1030);
+
+        assertEquals(Long.valueOf(1000), merged.getTimestamp().getFrom());
+        assertEquals(Long.valueOf(1040), merged.getTimestamp().getTo());
+        Bucket field = merged.getValues().get(0);
+        assertEquals("application", field.getField());
+        assertArrayEquals(new Number[]{1, 2, 3, 0, 0}, field.getBuckets().get(0).getData());
+        assertArrayEquals(new Number[]{0, 0, 0, 4, 5}, field.getBuckets().get(1).getData());
+        assertNotSame(closed.getValues().get(0), field);
+    }
+
+    @Test
+    public void shouldConvertToColumnarHistogram() throws Exception {
+        HistogramAnalytics histogram = histogram(1000, 1020, "app-1", 1, null, 3);
+        histogram.getValues().get(0).setMetadata(
+                Collections.singletonMap("app-1", Collections.singletonMap("name", "My app")));
+
+        ColumnarHistogramAnalytics columnar = Histograms.columnar(histogram);
+
+        assertArrayEquals(new long[]{1000, 1010, 1020}, columnar.getTimestamps());
+        ColumnarHistogramAnalytics.Series series = columnar.getSeries().get(0);
+        assertEquals("by_application", series.getBucket());
+        assertEquals("application", series.getField());
+        assertEquals("app-1", series.getName());
+        assertArrayEquals(new long[]{1, 0, 3}, series.getValues());
+        assertEquals(
+                "{\"timestamp\":{\"from\":1000,\"to\":1020,\"interval\":10}," +
+                        "\"timestamps\":[1000,1010,1020]," +
+                        "\"series\":[{\"bucket\":\"by_application\",\"field\":\"application\",\"name\":\"app-1\"," +
+                        "\"values\":[1,0,3],\"metadata\":{\"name\":\"My app\"}}]}",
+                new ObjectMapper().writeValueAsString(columnar));
+    }
+
+    private HistogramAnalytics histogram(long from, long to, String application, Number... values) {
+        Bucket data = new Bucket();
+        data.setName(application);
+        data.setData(values);
+        Bucket field = new Bucket();
+        field.setName("by_application");
+        field.setField("application");
+        field.setBuckets(Collections.singletonList(data));
+
+        HistogramAnalytics histogram = new HistogramAnalytics();
+        histogram.setTimestamp(new Timestamp(from, to, 10L));
+        histogram.setValues(Collections.singletonList(field));
+        return histogram;
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class AuditDiffTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void shouldDiffSmallDocumentsWithJsonDiff() throws Exception {
+        JsonNode patch = AuditDiff.diff(
+                mapper.readTree("{\"name\":\"api\",\"tags\":[\"a\",\"b\"]}"),
+                mapper.readTree("{\"name\":\"api\",\"tags\":[\"b\"]}"),
+                100);
+
+        assertEquals(mapper.readTree("[{\"op\":\"remove\",\"path\":\"/tags/0\"}]"), patch);
+    }
+
+    @Test
+    public void shouldDiffLargeDocumentsStructurally() throws Exception {
+        JsonNode patch = AuditDiff.diff(
+                mapper.readTree("{\"name\":\"api\",\"a/b\":1,\"paths\":{\"/\":[1,2]},\"tags\":[\"a\",\"b\"]}"),
+                mapper.readTree("{\"name\":\"new\",\"paths\":{\"/\":[1,3]},\"tags\":[\"b\"],\"version\":\"1\"}"),
+                1);
+
+        assertEquals(mapper.readTree("[" +
+                "{\"op\":\"remove\",\"path\":\"/a~1b\"}," +
+                "{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"new\"}," +
+                "{\"op\":\"replace\",\"path\":\"/paths/~1/1\",\"value\":3}," +
+                "{\"op\":\"replace\",\"path\":\"/tags\",\"value\":[\"b\"]}," +
+                "{\"op\":\"add\",\"path\":\"/version\",\"value\":\"1\"}]"), patch);
+    }
+}
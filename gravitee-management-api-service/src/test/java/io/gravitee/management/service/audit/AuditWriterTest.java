@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.repository.exceptions.TechnicalException;
+import io.gravitee.repository.management.api.AuditRepository;
+import io.gravitee.repository.management.model.Audit;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class AuditWriterTest {
+
+    private final AuditRepository auditRepository = mock(AuditRepository.class);
+
+    private final AuditWriter auditWriter = new AuditWriter();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @After
+    public void tearDown() throws InterruptedException {
+        auditWriter.destroy();
+    }
+
+    @Test
+    public void shouldWriteFullBatches() throws TechnicalException, InterruptedException {
+        start(10, 2, 10000, "sync");
+
+        auditWriter.write(audit("1"), null, null);
+        Thread.sleep(200);
+        // the batch is neither full nor flushed
+        verify(auditRepository, never()).create(any());
+
+        auditWriter.write(audit("2"), null, null);
+        verify(auditRepository, timeout(1000).times(2)).create(any());
+    }
+
+    @Test
+    public void shouldFlushAfterInterval() throws TechnicalException {
+        start(10, 10, 100, "sync");
+
+        auditWriter.write(audit("1"), null, null);
+
+        verify(auditRepository, timeout(1000)).create(any());
+    }
+
+    @Test
+    public void shouldConvertValuesOnCallerThread() throws Exception {
+        start(10, 1, 100, "sync");
+        final Map<String, String> oldValue = new HashMap<>();
+        oldValue.put("name", "old");
+        final Map<String, String> newValue = new HashMap<>(oldValue);
+        newValue.put("name", "new");
+        final Audit audit = audit("1");
+
+        auditWriter.write(audit, oldValue, newValue);
+        // a value modified once audited is not part of the patch
+        newValue.put("name", "modified");
+
+        verify(auditRepository, timeout(1000)).create(audit);
+        assertEquals(mapper.readTree("[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"new\"}]"),
+                mapper.readTree(audit.getPatch()));
+    }
+
+    @Test
+    public void shouldWriteOverflowOnCallerThread() throws Exception {
+        start(1, 1, 100, "sync");
+        final CountDownLatch release = blockWriter();
+
+        auditWriter.write(audit("3"), null, null);
+
+        // written by the caller while the writer is still blocked on the first one
+        assertEquals(Long.valueOf(1), auditWriter.metrics().get("overflowed"));
+        verify(auditRepository, times(2)).create(any());
+        release.countDown();
+    }
+
+    @Test
+    public void shouldDropOverflow() throws Exception {
+        start(1, 1, 100, "drop");
+        final CountDownLatch release = blockWriter();
+
+        auditWriter.write(audit("3"), null, null);
+
+        assertEquals(Long.valueOf(1), auditWriter.metrics().get("dropped"));
+        release.countDown();
+        auditWriter.destroy();
+        verify(auditRepository, times(2)).create(any());
+        assertEquals(Long.valueOf(2), auditWriter.metrics().get("written"));
+    }
+
+    @Test
+    public void shouldFlushQueueOnDestroy() throws InterruptedException {
+        start(10, 10, 200, "sync");
+
+        auditWriter.write(audit("1"), null, null);
+        auditWriter.write(audit("2"), null, null);
+        auditWriter.write(audit("3"), null, null);
+        auditWriter.destroy();
+
+        assertEquals(Long.valueOf(3), auditWriter.metrics().get("written"));
+    }
+
+    private void start(int queueSize, int batchSize, long flushInterval, String overflow) {
+        ReflectionTestUtils.setField(auditWriter, "auditRepository", auditRepository);
+        ReflectionTestUtils.setField(auditWriter, "mapper", mapper);
+        ReflectionTestUtils.setField(auditWriter, "queueSize", queueSize);
+        ReflectionTestUtils.setField(auditWriter, "batchSize", batchSize);
+        ReflectionTestUtils.setField(auditWriter, "flushInterval", flushInterval);
+        ReflectionTestUtils.setField(auditWriter, "offerTimeout", 10L);
+        ReflectionTestUtils.setField(auditWriter, "overflow", overflow);
+        ReflectionTestUtils.setField(auditWriter, "shutdownTimeout", 10000L);
+        ReflectionTestUtils.setField(auditWriter, "diffThreshold", 2000);
+        auditWriter.afterPropertiesSet();
+    }
+
+    /**
+     * Blocks the writer thread on a first audit, and fills the queue with a second one.
+     *
+     * @return the latch releasing the writer
+     */
+    private CountDownLatch blockWriter() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(auditRepository.create(any())).thenAnswer(invocation -> {
+            if ("gio-audit-writer".equals(Thread.currentThread().getName())) {
+                started.countDown();
+                release.await();
+            }
+            return invocation.getArgument(0);
+        });
+
+        auditWriter.write(audit("1"), null, null);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        auditWriter.write(audit("2"), null, null);
+        return release;
+    }
+
+    private static Audit audit(String id) {
+        final Audit audit = new Audit();
+        audit.setId(id);
+        audit.setEvent("API_UPDATED");
+        return audit;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.email;
+
+import freemarker.cache.StringTemplateLoader;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class InlineImageTemplateLoaderTest {
+
+    @Test
+    public void shouldRewriteRelativeImageSources() {
+        assertEquals(
+                "<img src=\"cid:images/logo.png\" /><IMG alt='x' src='cid:a.gif'>" +
+                        "<img src=\"https://gravitee.io/logo.png\"><img src=\"${api.picture}\">",
+                InlineImageTemplateLoader.rewrite(
+                        "<img src=\"images/logo.png\" /><IMG alt='x' src='a.gif'>" +
+                                "<img src=\"https://gravitee.io/logo.png\"><img src=\"${api.picture}\">"));
+    }
+
+    @Test
+    public void shouldRewriteHtmlTemplatesOnLoad() throws Exception {
+        final StringTemplateLoader templates = new StringTemplateLoader();
+        templates.putTemplate("mail.html", "<img src=\"images/logo.png\"/><p>${name}</p>");
+        templates.putTemplate("portal.yml", "<img src=\"images/logo.png\"/>");
+        final Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
+        configuration.setTemplateLoader(new InlineImageTemplateLoader(templates));
+
+        assertEquals("<img src=\"cid:images/logo.png\"/><p>gravitee</p>",
+                render(configuration.getTemplate("mail.html")));
+        assertEquals("<img src=\"images/logo.png\"/>", render(configuration.getTemplate("portal.yml")));
+    }
+
+    @Test
+    public void shouldFindInlineResourcesOfRenderedMail() {
+        assertEquals(new LinkedHashSet<>(Arrays.asList("images/logo.png", "a.gif")),
+                InlineImageTemplateLoader.inlineResources(
+                        "<img src=\"cid:images/logo.png\"><img src='cid:a.gif'><img src=\"cid:images/logo.png\">"));
+    }
+
+    private static String render(Template template) throws Exception {
+        final StringWriter writer = new StringWriter();
+        template.process(Collections.singletonMap("name", "gravitee"), writer);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.executor;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class MonitoredTaskExecutorTest {
+
+    private MonitoredTaskExecutor executor;
+
+    @After
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldCountCompletedTasks() throws Exception {
+        executor = new MonitoredTaskExecutor("test", 1, 1, 10, "callerRuns");
+        executor.initialize();
+
+        executor.submit(() -> {}).get();
+        executor.submit(() -> {}).get();
+        executor.getThreadPoolExecutor().shutdown();
+        executor.getThreadPoolExecutor().awaitTermination(1, TimeUnit.SECONDS);
+
+        Map<String, Long> metrics = executor.metrics();
+        assertEquals(2L, (long) metrics.get("completed"));
+        assertEquals(0L, (long) metrics.get("rejected"));
+        assertEquals(0L, (long) metrics.get("queued"));
+    }
+
+    @Test
+    public void shouldCountRejectedTasks() throws Exception {
+        executor = new MonitoredTaskExecutor("test", 1, 1, 1, "abort");
+        executor.initialize();
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(() -> {});
+        try {
+            executor.execute(() -> {});
+        } catch (RejectedExecutionException ree) {
+            // expected, the queue is full
+        }
+
+        Map<String, Long> metrics = executor.metrics();
+        latch.countDown();
+        assertEquals(1L, (long) metrics.get("rejected"));
+        assertEquals(1L, (long) metrics.get("queued"));
+        assertTrue(metrics.get("active") <= 1);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.loader;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toMap;
+import static org.junit.Assert.*;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class DataLoaderTest {
+
+    private final List<Set<String>> batches = new ArrayList<>();
+
+    private final Function<Set<String>, Map<String, String>> batchFunction = keys -> {
+        batches.add(new HashSet<>(keys));
+        return keys.stream()
+                .filter(key -> !key.startsWith("missing"))
+                .collect(toMap(Function.identity(), String::toUpperCase));
+    };
+
+    @After
+    public void tearDown() {
+        DataLoaderRegistry.close();
+    }
+
+    @Test
+    public void shouldLoadPrimedKeysInOneBatch() {
+        DataLoader<String, String> loader = new DataLoader<>(batchFunction).prime(asList("a", "b", "c"));
+
+        assertEquals("A", loader.load("a"));
+        assertEquals("B", loader.load("b"));
+        assertEquals("C", loader.load("c"));
+
+        assertEquals(1, loader.getBatches());
+        assertEquals(new HashSet<>(asList("a", "b", "c")), batches.get(0));
+    }
+
+    @Test
+    public void shouldNotLoadPrimedValues() {
+        DataLoader<String, String> loader = new DataLoader<>(batchFunction)
+                .prime(asList("a", "b"))
+                .prime(Collections.singletonMap("a", "primed"));
+
+        assertEquals("primed", loader.load("a"));
+        assertEquals("B", loader.load("b"));
+
+        assertEquals(1, loader.getBatches());
+        assertEquals(Collections.singleton("b"), batches.get(0));
+    }
+
+    @Test
+    public void shouldNotLoadMissingKeysTwice() {
+        DataLoader<String, String> loader = new DataLoader<>(batchFunction);
+
+        assertNull(loader.load("missing"));
+        assertNull(loader.load("missing"));
+        assertNull(loader.load(null));
+
+        assertEquals(1, loader.getBatches());
+    }
+
+    @Test
+    public void shouldOnlyLoadUnknownKeys() {
+        DataLoader<String, String> loader = new DataLoader<>(batchFunction);
+
+        loader.loadMany(asList("a", "b"));
+        Map<String, String> values = loader.loadMany(asList("a", "b", "c", "missing"));
+
+        assertEquals(3, values.size());
+        assertEquals(2, loader.getBatches());
+        assertEquals(new HashSet<>(asList("c", "missing")), batches.get(1));
+    }
+
+    @Test
+    public void shouldShareLoaderWithinScope() {
+        DataLoaderRegistry.open();
+
+        DataLoaderRegistry.get("name", batchFunction).load("a");
+        DataLoaderRegistry.get("name", batchFunction).load("a");
+
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    public void shouldNotShareLoaderOutOfScope() {
+        DataLoaderRegistry.get("name", batchFunction).load("a");
+        DataLoaderRegistry.get("name", batchFunction).load("a");
+
+        assertEquals(2, batches.size());
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.service.page;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import io.gravitee.management.model.PageEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * @author GraviteeSource Team
+ */
+public class PageTemplateCacheTest {
+
+    private final PageTemplateCache cache = new PageTemplateCache();
+    private final Configuration configuration = new Configuration(Configuration.VERSION_2_3_22);
+
+    private final AtomicInteger compilations = new AtomicInteger();
+    private final AtomicInteger models = new AtomicInteger();
+
+    @Before
+    public void init() {
+        setField(cache, "enabled", true);
+        setField(cache, "ttl", 60L);
+        setField(cache, "maxEntries", 100L);
+        cache.afterPropertiesSet();
+    }
+
+    @Test
+    public void shouldCompileAndRenderOnce() throws Exception {
+        assertEquals("Hello api-1", render(page("Hello ${name}"), "api-1", "api-1"));
+        assertEquals("Hello api-1", render(page("Hello ${name}"), "api-1", "api-1"));
+
+        assertEquals(1, compilations.get());
+        assertEquals(1, models.get());
+    }
+
+    @Test
+    public void shouldCompileAgainWhenContentChanges() throws Exception {
+        assertEquals("Hello api-1", render(page("Hello ${name}"), "api-1", "api-1"));
+        assertEquals("Bye api-1", render(page("Bye ${name}"), "api-1", "api-1"));
+
+        assertEquals(2, compilations.get());
+        assertEquals(1, models.get());
+    }
+
+    @Test
+    public void shouldCompileAgainWhenContentHasSameLengthAndHashCode() throws Exception {
+        // "Aa" and "BB" have the same hash code
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertEquals("Hello api-1Aa", render(page("Hello ${name}Aa"), "api-1", "api-1"));
+        assertEquals("Hello api-1BB", render(page("Hello ${name}BB"), "api-1", "api-1"));
+
+        assertEquals(2, compilations.get());
+    }
+
+    @Test
+    public void shouldRenderAgainWhenModelIsInvalidated() throws Exception {
+        assertEquals("Hello api-1", render(page("Hello ${name}"), "api-1", "api-1"));
+        cache.invalidate("api-1");
+        assertEquals("Hello renamed", render(page("Hello ${name}"), "api-1", "renamed"));
+
+        assertEquals(1, compilations.get());
+        assertEquals(2, models.get());
+    }
+
+    @Test
+    public void shouldTransformOnceUntilPageIsModified() {
+        final AtomicInteger transformations = new AtomicInteger();
+        final PageEntity page = page("swagger: '2.0'");
+        page.setLastModificationDate(new Date(1000));
+        page.setConfiguration(Collections.singletonMap("tryItURL", "http://localhost"));
+
+        for (int i = 0; i < 2; i++) {
+            final PageEntity copy = page(page.getContent());
+            copy.setLastModificationDate(page.getLastModificationDate());
+            copy.setConfiguration(page.getConfiguration());
+            cache.transform(copy, p -> {
+                transformations.incrementAndGet();
+                p.setContent("transformed");
+            });
+            assertEquals("transformed", copy.getContent());
+        }
+        assertEquals(1, transformations.get());
+
+        page.setLastModificationDate(new Date(2000));
+        cache.transform(page, p -> {
+            transformations.incrementAndGet();
+            p.setContent("modified");
+        });
+        assertEquals("modified", page.getContent());
+        assertEquals(2, transformations.get());
+    }
+
+    private String render(PageEntity page, String api, String name) throws Exception {
+        return cache.render(page, api,
+                p -> {
+                    compilations.incrementAndGet();
+                    return new Template(p.getId(), p.getContent(), configuration);
+                },
+                () -> {
+                    models.incrementAndGet();
+                    return Collections.<String, Object>singletonMap("name", name);
+                });
+    }
+
+    private static PageEntity page(String content) {
+        final PageEntity page = new PageEntity();
+        page.setId("page-1");
+        page.setContent(content);
+        return page;
+    }
+}
@@ -62,6 +62,9 @@ public class JettyConfiguration {
     @Value("${jetty.accesslog.path:${gravitee.home}/logs/gravitee_accesslog_yyyy_mm_dd.log}")
     private String accessLogPath;
 
+    @Value("${management.metrics.enabled:false}")
+    private boolean repositoryMetricsEnabled;
+
     @Value("${jetty.secured:false}")
     private boolean secured;
 
@@ -181,6 +184,14 @@ public class JettyConfiguration {
         this.accessLogPath = accessLogPath;
     }
 
+    public boolean isRepositoryMetricsEnabled() {
+        return repositoryMetricsEnabled;
+    }
+
+    public void setRepositoryMetricsEnabled(boolean repositoryMetricsEnabled) {
+        this.repositoryMetricsEnabled = repositoryMetricsEnabled;
+    }
+
     public boolean isSecured() {
         return secured;
     }
@@ -117,9 +117,11 @@ public class JettyServerFactory implements FactoryBean<Server> {
         }
 
         if (jettyConfiguration.isAccessLogEnabled()) {
-            CustomRequestLog requestLog = new CustomRequestLog(
-                    new AsyncRequestLogWriter(jettyConfiguration.getAccessLogPath()),
-                    CustomRequestLog.EXTENDED_NCSA_FORMAT);
+            AsyncRequestLogWriter writer = new AsyncRequestLogWriter(jettyConfiguration.getAccessLogPath());
+            CustomRequestLog requestLog = jettyConfiguration.isRepositoryMetricsEnabled() ?
+                    // Number of repository calls triggered by the request
+                    new RepositoryCallsRequestLog(writer, CustomRequestLog.EXTENDED_NCSA_FORMAT) :
+                    new CustomRequestLog(writer, CustomRequestLog.EXTENDED_NCSA_FORMAT);
 
             server.setRequestLog(requestLog);
         }
@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.management.standalone.jetty;
+
+import org.eclipse.jetty.server.CustomRequestLog;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.RequestLog;
+import org.eclipse.jetty.server.Response;
+
+import static io.gravitee.management.rest.filter.RepositoryCallsFilter.REPOSITORY_CALLS_ATTRIBUTE;
+
+/**
+ * Appends the number of repository calls triggered by each request to the access log.
+ *
+ * The count is kept in a request attribute rather than in a response header, so that clients are not told about
+ * the repository usage. It is only copied to the response fields once the response has been sent, for the log format
+ * to read it.
+ *
+ * @author GraviteeSource Team
+ */
+public class RepositoryCallsRequestLog extends CustomRequestLog {
+
+    static final String REPOSITORY_CALLS_FIELD = "X-Gravitee-Repository-Calls";
+
+    public RepositoryCallsRequestLog(RequestLog.Writer writer, String format) {
+        super(writer, format + " %{" + REPOSITORY_CALLS_FIELD + "}o");
+    }
+
+    @Override
+    public void log(Request request, Response response) {
+        final Object calls = request.getAttribute(REPOSITORY_CALLS_ATTRIBUTE);
+        if (calls != null) {
+            response.getHttpFields().put(REPOSITORY_CALLS_FIELD, calls.toString());
+        }
+        super.log(request, response);
+    }
+}